@@ -0,0 +1,90 @@
+package com.fulfilment.application.monolith.products;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency distribution of {@link ProductSearchIndex} queries on a synthetic catalogue of the given
+ * size. Half of the queries end in a partial word, as typed by a user, so they go through prefix
+ * expansion. Sampled, so the result carries the percentiles. Run through the jmh Maven profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductSearchBenchmark {
+
+  static final int QUERIES = 20_000;
+  static final int VOCABULARY = 20_000;
+  static final String[] SYLLABLES = {
+    "ka", "lax", "ton", "stad", "bes", "ta", "hem", "nes", "ma", "lm", "bil", "ly", "po", "äng",
+    "ek", "torp", "lin", "mon", "sö", "der", "hamn", "fri", "hult", "ing", "vik", "gen"
+  };
+
+  @Param({"100000", "1000000"})
+  int products;
+
+  private ProductSearchIndex index;
+  private String[] words;
+  private String[] queries;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    var random = new Random(42);
+    words = new String[VOCABULARY];
+    for (int i = 0; i < VOCABULARY; i++) {
+      words[i] = word(random);
+    }
+    index = new ProductSearchIndex(null, null);
+    for (long id = 1; id <= products; id++) {
+      index.index(id, words(random, 2) + " " + id, words(random, 8));
+    }
+
+    queries = new String[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      String query = words(random, 1 + random.nextInt(2));
+      queries[i] = i % 2 == 0 ? query : query.substring(0, query.length() - 2);
+    }
+  }
+
+  @Benchmark
+  public List<Long> search() {
+    next = next + 1 == QUERIES ? 0 : next + 1;
+    return index.search(queries[next], 20);
+  }
+
+  // skewed towards the start of the vocabulary so a few words are very common, as in real text
+  private String words(Random random, int count) {
+    var text = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        text.append(' ');
+      }
+      text.append(words[(int) (VOCABULARY * Math.pow(random.nextDouble(), 3))]);
+    }
+    return text.toString();
+  }
+
+  private static String word(Random random) {
+    var word = new StringBuilder();
+    for (int i = 0, n = 2 + random.nextInt(3); i < n; i++) {
+      word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+    }
+    return word.toString();
+  }
+}
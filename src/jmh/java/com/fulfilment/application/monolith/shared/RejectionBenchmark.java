@@ -0,0 +1,76 @@
+package com.fulfilment.application.monolith.shared;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of a rejected request's error path: throwing the rejection from the given stack
+ * depth, which stands in for the REST and CDI frames above a use case, mapping it in {@link
+ * GlobalExceptionMapper} and writing the body. A {@link WebApplicationException} fills in its
+ * stack trace and a {@link BusinessRuleException} does not. Run through the jmh Maven profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RejectionBenchmark {
+
+  @Param({"10", "150"})
+  int depth;
+
+  private GlobalExceptionMapper mapper;
+  private ObjectMapper objectMapper;
+
+  @Setup
+  public void setUp() {
+    mapper = new GlobalExceptionMapper(10);
+    objectMapper = new ObjectMapper();
+  }
+
+  @Benchmark
+  public byte[] webApplicationException() throws JsonProcessingException {
+    return reject(
+        () -> new WebApplicationException("Warehouse capacity must be zero or greater.", 400));
+  }
+
+  @Benchmark
+  public byte[] businessRuleException() throws JsonProcessingException {
+    return reject(
+        () ->
+            new BusinessRuleException(
+                "payload", "Warehouse capacity must be zero or greater.", 400));
+  }
+
+  private byte[] reject(Supplier<WebApplicationException> rejection)
+      throws JsonProcessingException {
+    try {
+      throwAt(depth, rejection);
+      throw new IllegalStateException("not rejected");
+    } catch (WebApplicationException e) {
+      return objectMapper.writeValueAsBytes(mapper.toResponse(e).getEntity());
+    }
+  }
+
+  private static void throwAt(int depth, Supplier<WebApplicationException> rejection) {
+    if (depth == 0) {
+      throw rejection.get();
+    }
+    throwAt(depth - 1, rejection);
+  }
+}
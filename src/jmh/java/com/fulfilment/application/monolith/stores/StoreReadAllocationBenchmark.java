@@ -0,0 +1,135 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time and bytes allocated per {@code GET /store} between loading managed {@link Store} entities
+ * and selecting {@link StoreView} projections, including the JSON serialization, and the same for
+ * {@code GET /store/{id}}, where the entity comes from the L2 cache; the allocations are the
+ * gc.alloc.rate.norm of the gc profiler. Each operation opens its own session, like the
+ * request-scoped session of the application. It needs a running Postgres, e.g. the one from the
+ * README, whose URL is the url parameter. Run through the jmh Maven profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StoreReadAllocationBenchmark {
+
+  private static final String SELECT_VIEW =
+      "select new "
+          + StoreView.class.getName()
+          + "(id, name, quantityProductsInStock, version) from Store";
+
+  @Param("jdbc:postgresql://localhost:15432/quarkus_test")
+  String url;
+
+  @Param("500")
+  int rows;
+
+  private SessionFactory sessionFactory;
+  private ObjectMapper objectMapper;
+  private List<Long> ids;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    var configuration = new Configuration();
+    configuration.setProperty("hibernate.connection.url", url);
+    configuration.setProperty("hibernate.connection.username", "quarkus_test");
+    configuration.setProperty("hibernate.connection.password", "quarkus_test");
+    configuration.setProperty("hibernate.hbm2ddl.auto", "update");
+    // the optimizer Quarkus uses, so the seeded ids follow the application's own
+    configuration.setProperty("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+    // the L2 cache the application gets from Quarkus
+    configuration.setProperty("hibernate.cache.use_second_level_cache", "true");
+    configuration.setProperty(
+        "hibernate.cache.region.factory_class",
+        "org.infinispan.quarkus.hibernate.cache.QuarkusInfinispanRegionFactory");
+    configuration.addAnnotatedClass(Store.class);
+
+    sessionFactory = configuration.buildSessionFactory();
+    objectMapper = new ObjectMapper();
+    ids = seed();
+  }
+
+  @TearDown
+  public void tearDown() {
+    sessionFactory.close();
+  }
+
+  @Benchmark
+  public byte[] listEntities() throws JsonProcessingException {
+    try (Session session = sessionFactory.openSession()) {
+      return objectMapper.writeValueAsBytes(
+          session.createQuery("from Store order by name", Store.class).getResultList());
+    }
+  }
+
+  @Benchmark
+  public byte[] listProjections() throws JsonProcessingException {
+    try (Session session = sessionFactory.openSession()) {
+      return objectMapper.writeValueAsBytes(
+          session.createQuery(SELECT_VIEW + " order by name", StoreView.class).getResultList());
+    }
+  }
+
+  @Benchmark
+  public byte[] byIdCachedEntity() throws JsonProcessingException {
+    try (Session session = sessionFactory.openSession()) {
+      Store store = session.find(Store.class, nextId());
+      return objectMapper.writeValueAsBytes(
+          new StoreView(store.id, store.name, store.quantityProductsInStock, store.version));
+    }
+  }
+
+  @Benchmark
+  public byte[] byIdProjection() throws JsonProcessingException {
+    try (Session session = sessionFactory.openSession()) {
+      return objectMapper.writeValueAsBytes(
+          session
+              .createQuery(SELECT_VIEW + " where id = :id", StoreView.class)
+              .setParameter("id", nextId())
+              .getSingleResult());
+    }
+  }
+
+  private Long nextId() {
+    next = next + 1 == ids.size() ? 0 : next + 1;
+    return ids.get(next);
+  }
+
+  private List<Long> seed() {
+    return sessionFactory.fromTransaction(
+        session -> {
+          long existing =
+              session.createQuery("select count(s) from Store s", Long.class).getSingleResult();
+          for (long i = existing; i < rows; i++) {
+            var store = new Store("BENCH-" + i);
+            store.quantityProductsInStock = (int) i;
+            session.persist(store);
+          }
+          return session.createQuery("select s.id from Store s", Long.class).getResultList();
+        });
+  }
+}
@@ -0,0 +1,54 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link WarehouseStore} indexed the way the database is, by business unit code and by location.
+ * Writes are only counted, so every benchmark invocation sees a dataset of the configured size.
+ */
+class InMemoryWarehouseStore implements WarehouseStore {
+
+  private final Map<String, Warehouse> byBusinessUnitCode = new HashMap<>();
+  private final Map<String, List<Warehouse>> byLocation = new HashMap<>();
+  long writes;
+
+  void add(Warehouse warehouse) {
+    byBusinessUnitCode.put(warehouse.businessUnitCode, warehouse);
+    byLocation.computeIfAbsent(warehouse.location, l -> new ArrayList<>()).add(warehouse);
+  }
+
+  @Override
+  public List<Warehouse> getAll() {
+    return new ArrayList<>(byBusinessUnitCode.values());
+  }
+
+  @Override
+  public List<Warehouse> getByLocation(String location) {
+    return byLocation.getOrDefault(location, List.of());
+  }
+
+  @Override
+  public void create(Warehouse warehouse) {
+    writes++;
+  }
+
+  @Override
+  public void update(Warehouse warehouse) {
+    writes++;
+  }
+
+  @Override
+  public void remove(Warehouse warehouse) {
+    writes++;
+  }
+
+  @Override
+  public Warehouse findByBusinessUnitCode(String buCode) {
+    return byBusinessUnitCode.get(buCode);
+  }
+}
@@ -0,0 +1,90 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.shared.UseCaseMetrics;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link CreateWarehouseUseCase} and {@link ReplaceWarehouseUseCase} against an
+ * in-memory store holding the given number of warehouses, spread evenly over {@link #LOCATIONS}
+ * locations. Both use cases read every active warehouse of the target location, so the location
+ * size is what the dataset size changes. Run through the jmh Maven profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WarehouseUseCaseBenchmark {
+
+  static final int LOCATIONS = 10;
+
+  @Param({"100", "10000", "100000"})
+  int warehouses;
+
+  private InMemoryWarehouseStore store;
+  private CreateWarehouseUseCase createUseCase;
+  private ReplaceWarehouseUseCase replaceUseCase;
+
+  @Setup
+  public void setUp() {
+    store = new InMemoryWarehouseStore();
+    for (int i = 0; i < warehouses; i++) {
+      store.add(warehouse("MWH." + i, location(i % LOCATIONS), 100, 10));
+    }
+
+    // roomy enough that neither use case is ever rejected
+    int perLocation = warehouses / LOCATIONS + 1;
+    Map<String, Location> locations = new HashMap<>();
+    for (int i = 0; i < LOCATIONS; i++) {
+      locations.put(location(i), new Location(location(i), perLocation + 1, Integer.MAX_VALUE));
+    }
+    var metrics = new UseCaseMetrics(new SimpleMeterRegistry());
+    createUseCase = new CreateWarehouseUseCase(store, locations::get, metrics);
+    replaceUseCase = new ReplaceWarehouseUseCase(store, locations::get, metrics);
+  }
+
+  @Benchmark
+  public Warehouse create() {
+    var warehouse = warehouse("MWH.NEW", location(0), 100, 10);
+    createUseCase.create(warehouse);
+    return warehouse;
+  }
+
+  @Benchmark
+  public Warehouse replace() {
+    var warehouse = warehouse("MWH.0", location(0), 120, 10);
+    replaceUseCase.replace(warehouse);
+    return warehouse;
+  }
+
+  private static Warehouse warehouse(
+      String businessUnitCode, String location, int capacity, int stock) {
+    var warehouse = new Warehouse();
+    warehouse.businessUnitCode = businessUnitCode;
+    warehouse.location = location;
+    warehouse.capacity = capacity;
+    warehouse.stock = stock;
+    return warehouse;
+  }
+
+  private static String location(int index) {
+    return "LOCATION-" + index;
+  }
+}
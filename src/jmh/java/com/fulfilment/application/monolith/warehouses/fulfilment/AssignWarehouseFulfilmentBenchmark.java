@@ -0,0 +1,184 @@
+package com.fulfilment.application.monolith.warehouses.fulfilment;
+
+import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.products.ProductRepository;
+import com.fulfilment.application.monolith.shared.ChangeTracker;
+import com.fulfilment.application.monolith.shared.UseCaseMetrics;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link AssignWarehouseFulfilmentUseCase} against in-memory repositories holding
+ * the given number of fulfilment links. Every warehouse stores five products for one store, and
+ * the assigned link passes through all of the use case's checks before it is persisted. Run
+ * through the jmh Maven profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssignWarehouseFulfilmentBenchmark {
+
+  static final int PRODUCTS_PER_WAREHOUSE = 5;
+
+  @Param({"100", "10000", "100000"})
+  int links;
+
+  private InMemoryLinkRepository linkRepository;
+  private AssignWarehouseFulfilmentUseCase useCase;
+
+  @Setup
+  public void setUp() {
+    linkRepository = new InMemoryLinkRepository();
+    var warehouseRepository = new InMemoryWarehouseRepository();
+    var productRepository = new InMemoryProductRepository();
+    Set<Long> stores = new HashSet<>();
+
+    for (int i = 0; i < links; i++) {
+      int warehouse = i / PRODUCTS_PER_WAREHOUSE;
+      long storeId = warehouse + 1;
+      long productId = i % PRODUCTS_PER_WAREHOUSE + 1;
+      String businessUnitCode = "MWH." + warehouse;
+      linkRepository.add(storeId, productId, businessUnitCode);
+      warehouseRepository.add(businessUnitCode);
+      productRepository.add(productId);
+      stores.add(storeId);
+    }
+
+    useCase =
+        new AssignWarehouseFulfilmentUseCase(
+            linkRepository,
+            warehouseRepository,
+            productRepository,
+            new NoOpChangeTracker(),
+            new UseCaseMetrics(new SimpleMeterRegistry())) {
+          @Override
+          boolean storeExists(Long storeId) {
+            return stores.contains(storeId);
+          }
+        };
+  }
+
+  // store 1 gets a second warehouse for product 1, the one that already serves store 2
+  @Benchmark
+  public long assign() {
+    useCase.assign(1L, 1L, "MWH.1");
+    return linkRepository.persisted;
+  }
+
+  /** Indexes the links by every combination the use case counts; persisted links are counted. */
+  static class InMemoryLinkRepository extends WarehouseFulfilmentLinkRepository {
+    private final Set<String> links = new HashSet<>();
+    private final Map<Long, Set<String>> warehousesByStore = new HashMap<>();
+    private final Map<String, Set<String>> warehousesByStoreAndProduct = new HashMap<>();
+    private final Map<String, Set<Long>> productsByWarehouse = new HashMap<>();
+    long persisted;
+
+    void add(Long storeId, Long productId, String businessUnitCode) {
+      links.add(storeId + ":" + productId + ":" + businessUnitCode);
+      warehousesByStore.computeIfAbsent(storeId, s -> new HashSet<>()).add(businessUnitCode);
+      warehousesByStoreAndProduct
+          .computeIfAbsent(storeId + ":" + productId, k -> new HashSet<>())
+          .add(businessUnitCode);
+      productsByWarehouse.computeIfAbsent(businessUnitCode, w -> new HashSet<>()).add(productId);
+    }
+
+    @Override
+    public long countDistinctWarehousesForStore(Long storeId) {
+      return warehousesByStore.getOrDefault(storeId, Set.of()).size();
+    }
+
+    @Override
+    public long countDistinctWarehousesForStoreAndProduct(Long storeId, Long productId) {
+      return warehousesByStoreAndProduct.getOrDefault(storeId + ":" + productId, Set.of()).size();
+    }
+
+    @Override
+    public long countDistinctProductsForWarehouse(String businessUnitCode) {
+      return productsByWarehouse.getOrDefault(businessUnitCode, Set.of()).size();
+    }
+
+    @Override
+    public boolean existsByStoreAndProductAndWarehouse(
+        Long storeId, Long productId, String businessUnitCode) {
+      return links.contains(storeId + ":" + productId + ":" + businessUnitCode);
+    }
+
+    @Override
+    public boolean existsByStoreAndWarehouse(Long storeId, String businessUnitCode) {
+      return warehousesByStore.getOrDefault(storeId, Set.of()).contains(businessUnitCode);
+    }
+
+    @Override
+    public boolean existsByWarehouseAndProduct(String businessUnitCode, Long productId) {
+      return productsByWarehouse.getOrDefault(businessUnitCode, Set.of()).contains(productId);
+    }
+
+    @Override
+    public void persist(WarehouseFulfilmentLink link) {
+      persisted++;
+    }
+  }
+
+  static class InMemoryWarehouseRepository extends WarehouseRepository {
+    private final Map<String, Warehouse> warehouses = new HashMap<>();
+
+    void add(String businessUnitCode) {
+      var warehouse = new Warehouse();
+      warehouse.businessUnitCode = businessUnitCode;
+      warehouses.put(businessUnitCode, warehouse);
+    }
+
+    @Override
+    public Warehouse findByBusinessUnitCode(String buCode) {
+      return warehouses.get(buCode);
+    }
+  }
+
+  static class InMemoryProductRepository extends ProductRepository {
+    private final Map<Long, Product> products = new HashMap<>();
+
+    void add(Long id) {
+      products.computeIfAbsent(
+          id,
+          i -> {
+            var product = new Product();
+            product.id = i;
+            return product;
+          });
+    }
+
+    @Override
+    public Product findById(Long id) {
+      return products.get(id);
+    }
+  }
+
+  static class NoOpChangeTracker extends ChangeTracker {
+    NoOpChangeTracker() {
+      super(null, null);
+    }
+
+    @Override
+    public void changedAfterCommit(String collection, Object key) {}
+  }
+}
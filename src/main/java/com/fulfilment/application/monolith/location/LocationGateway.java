@@ -32,4 +32,8 @@ public class LocationGateway implements LocationResolver {
   public Location resolveByIdentifier(String identifier) {
     return locationsByIdentifier.get(identifier);
   }
+
+  public List<Location> listAll() {
+    return List.copyOf(locations);
+  }
 }
@@ -1,11 +1,14 @@
 package com.fulfilment.application.monolith.products;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Cacheable
@@ -24,6 +27,16 @@ public class Product {
 
   public int stock;
 
+  // number of ProductStockShard rows holding the stock, 0 when it lives in the stock column
+  @ColumnDefault("0")
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  public int stockShards;
+
+  @Version
+  @ColumnDefault("0")
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  public long version;
+
   public Product() {}
 
   public Product(String name) {
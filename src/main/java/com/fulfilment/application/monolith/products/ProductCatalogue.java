@@ -0,0 +1,257 @@
+package com.fulfilment.application.monolith.products;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.shared.ChangeTracker;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.core.EntityTag;
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Immutable, versioned snapshot of the product catalogue for the read endpoints. Every committed
+ * product write, on this instance or relayed from another, bumps the product version in the {@link
+ * ChangeTracker}; the next read then brings the snapshot up to date, including the serialized JSON
+ * of the full list, and swaps it in. Reads of an up-to-date snapshot only compare two numbers in
+ * memory, and a burst of writes costs a single refresh.
+ *
+ * <p>Only catalogue edits reload the products. Stock adjustments are counted apart: the refresh
+ * then reads the current stock of all products in one projection and re-serializes the entries
+ * whose stock changed, so a stream of stock deltas never rebuilds the whole catalogue.
+ */
+@ApplicationScoped
+public class ProductCatalogue {
+
+  private final ProductRepository productRepository;
+  private final ShardedProductStock shardedProductStock;
+  private final ObjectMapper objectMapper;
+  private final ChangeTracker changeTracker;
+  // a lock rather than synchronized: the rebuild queries the database, and a virtual thread
+  // blocking inside a monitor would pin its carrier thread
+  private final ReentrantLock rebuildLock = new ReentrantLock();
+  private volatile Snapshot snapshot;
+
+  public ProductCatalogue(
+      ProductRepository productRepository,
+      ShardedProductStock shardedProductStock,
+      ObjectMapper objectMapper,
+      ChangeTracker changeTracker) {
+    this.productRepository = productRepository;
+    this.shardedProductStock = shardedProductStock;
+    this.objectMapper = objectMapper;
+    this.changeTracker = changeTracker;
+  }
+
+  public Snapshot current() {
+    Snapshot current = snapshot;
+    if (current != null && current.version == version()) {
+      return current;
+    }
+    return rebuild();
+  }
+
+  public long version() {
+    return changeTracker.version(ChangeTracker.PRODUCTS);
+  }
+
+  /**
+   * Makes the next read reload the catalogue once the current transaction has committed. Pass the
+   * id of the changed product, or null when the write may have changed several products.
+   */
+  public void invalidateAfterCommit(Long id) {
+    changeTracker.changedAfterCommit(ChangeTracker.PRODUCTS, id, ChangeTracker.Kind.EDIT);
+  }
+
+  /**
+   * Makes the next read refresh the stock of the snapshot once the current transaction has
+   * committed; for writes that changed nothing but stock. Pass null for several products.
+   */
+  public void stockChangedAfterCommit(Long id) {
+    changeTracker.changedAfterCommit(ChangeTracker.PRODUCTS, id, ChangeTracker.Kind.STOCK);
+  }
+
+  protected List<Product> loadProducts() {
+    return QuarkusTransaction.requiringNew().call(() -> productRepository.listAll(Sort.by("name")));
+  }
+
+  /**
+   * The current stock and version of every product, with the stock of sharded products summed and
+   * their version moved on by the changes of their shards, see {@link ShardedProductStock}.
+   */
+  protected Map<Long, StockLevel> loadStock() {
+    return QuarkusTransaction.requiringNew()
+        .call(
+            () -> {
+              Map<Long, ProductStockShardRepository.Totals> sharded =
+                  shardedProductStock.currentTotals();
+              List<Object[]> rows = productRepository.stockLevels();
+              Map<Long, StockLevel> levels = new HashMap<>(rows.size() * 4 / 3 + 1);
+              for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                ProductStockShardRepository.Totals totals = sharded.get(id);
+                levels.put(
+                    id,
+                    totals == null
+                        ? new StockLevel((Integer) row[1], (Long) row[2])
+                        : new StockLevel((int) totals.stock(), (Long) row[2] + totals.changes()));
+              }
+              return levels;
+            });
+  }
+
+  private Snapshot rebuild() {
+    rebuildLock.lock();
+    try {
+      return rebuildLocked();
+    } finally {
+      rebuildLock.unlock();
+    }
+  }
+
+  private Snapshot rebuildLocked() {
+    // the version is read before the edit count, so an edit it includes is never missed; both are
+    // read before loading, so a write committed meanwhile forces another refresh instead of being
+    // hidden behind this snapshot
+    long target = version();
+    long editCount = changeTracker.edits(ChangeTracker.PRODUCTS);
+    Snapshot current = snapshot;
+    if (current != null && current.version == target) {
+      return current;
+    }
+
+    if (current != null && current.edits == editCount) {
+      snapshot = current.withStock(target, loadStock());
+      return snapshot;
+    }
+
+    List<Product> products = loadProducts();
+    // detached once loaded, so the stock overlay never reaches the database
+    if (products.stream().anyMatch(product -> product.stockShards > 0)) {
+      Map<Long, StockLevel> levels = loadStock();
+      for (Product product : products) {
+        StockLevel level = levels.get(product.id);
+        if (product.stockShards > 0 && level != null) {
+          product.stock = level.stock();
+          product.version = level.version();
+        }
+      }
+    }
+    List<byte[]> entries = new ArrayList<>(products.size());
+    for (Product product : products) {
+      entries.add(serialize(product));
+    }
+    snapshot = new Snapshot(target, editCount, products, entries);
+    return snapshot;
+  }
+
+  private byte[] serialize(Product product) {
+    try {
+      return objectMapper.writeValueAsBytes(product);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Product copy(Product product) {
+    Product copy = new Product(product.name);
+    copy.id = product.id;
+    copy.description = product.description;
+    copy.price = product.price;
+    copy.stock = product.stock;
+    copy.stockShards = product.stockShards;
+    copy.version = product.version;
+    return copy;
+  }
+
+  record StockLevel(int stock, long version) {}
+
+  /**
+   * One version of the catalogue. The products it holds are never handed out: {@link #product}
+   * returns a copy, and the serialized list and its tag are shared by all readers of this version.
+   */
+  public final class Snapshot {
+    public final long version;
+    private final long edits;
+    private final List<Product> products;
+    private final List<byte[]> entries;
+    private final Map<Long, Integer> positions;
+    private final byte[] json;
+    private final EntityTag tag;
+
+    private Snapshot(long version, long edits, List<Product> products, List<byte[]> entries) {
+      this.version = version;
+      this.edits = edits;
+      this.products = products;
+      this.entries = entries;
+      this.positions = new HashMap<>(products.size() * 4 / 3 + 1);
+      for (int i = 0; i < products.size(); i++) {
+        positions.put(products.get(i).id, i);
+      }
+      this.json = join(entries);
+      this.tag = changeTracker.tag(version);
+    }
+
+    /** The serialized product list; shared by all readers of this version, so never modify it. */
+    public byte[] json() {
+      return json;
+    }
+
+    /** The ETag of every list this version serves. */
+    public EntityTag tag() {
+      return tag;
+    }
+
+    /** A copy of the product with the given id, or null when there is none. */
+    public Product product(Long id) {
+      Integer position = positions.get(id);
+      return position == null ? null : copy(products.get(position));
+    }
+
+    public int size() {
+      return products.size();
+    }
+
+    // products whose stock moved are replaced by updated copies, the others are shared
+    private Snapshot withStock(long version, Map<Long, StockLevel> levels) {
+      List<Product> patched = new ArrayList<>(products);
+      List<byte[]> patchedEntries = new ArrayList<>(entries);
+      for (int i = 0; i < patched.size(); i++) {
+        Product product = patched.get(i);
+        StockLevel level = levels.get(product.id);
+        if (level != null
+            && (level.stock() != product.stock || level.version() != product.version)) {
+          Product updated = copy(product);
+          updated.stock = level.stock();
+          updated.version = level.version();
+          patched.set(i, updated);
+          patchedEntries.set(i, serialize(updated));
+        }
+      }
+      return new Snapshot(version, edits, patched, patchedEntries);
+    }
+
+    private static byte[] join(List<byte[]> entries) {
+      int size = 2 + Math.max(0, entries.size() - 1);
+      for (byte[] entry : entries) {
+        size += entry.length;
+      }
+      ByteArrayOutputStream json = new ByteArrayOutputStream(size);
+      json.write('[');
+      for (int i = 0; i < entries.size(); i++) {
+        if (i > 0) {
+          json.write(',');
+        }
+        json.writeBytes(entries.get(i));
+      }
+      json.write(']');
+      return json.toByteArray();
+    }
+  }
+}
@@ -0,0 +1,202 @@
+package com.fulfilment.application.monolith.products;
+
+import com.fulfilment.application.monolith.shared.BulkImporter;
+import com.fulfilment.application.monolith.shared.EntityIds;
+import com.fulfilment.application.monolith.shared.ImportRecord;
+import com.fulfilment.application.monolith.shared.PostgresCopy;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.hibernate.Session;
+
+/**
+ * Writes imported products batch by batch, through a Postgres {@code COPY} into a temporary staging
+ * table when available and through JDBC-batched inserts otherwise.
+ */
+@ApplicationScoped
+public class ProductImporter implements BulkImporter.BatchWriter<Product> {
+
+  static final String DUPLICATE_NAME = "Product name already exists.";
+
+  private static final String CREATE_STAGING_TABLE =
+      "create temporary table if not exists product_import (line bigint, id bigint,"
+          + " name varchar(40), description varchar(255), price numeric(10, 2), stock int)"
+          + " on commit delete rows";
+  private static final String COPY_STAGING_TABLE =
+      "copy product_import (line, id, name, description, price, stock)"
+          + " from stdin with (format csv)";
+  private static final String INSERT_FROM_STAGING_TABLE =
+      "insert into product (id, name, description, price, stock, stockShards, version)"
+          + " select id, name, description, price, stock, 0, 0"
+          + " from product_import order by line"
+          + " on conflict (name) do nothing returning id, name";
+
+  private final ProductRepository productRepository;
+  private final ProductSearchIndex productSearchIndex;
+  private final ProductCatalogue productCatalogue;
+
+  public ProductImporter(
+      ProductRepository productRepository,
+      ProductSearchIndex productSearchIndex,
+      ProductCatalogue productCatalogue) {
+    this.productRepository = productRepository;
+    this.productSearchIndex = productSearchIndex;
+    this.productCatalogue = productCatalogue;
+  }
+
+  public static Product toProduct(ImportRecord record) {
+    String name = record.get("name");
+    if (name == null || name.isBlank()) {
+      throw new IllegalArgumentException("Product Name was not set.");
+    }
+    if (name.length() > 40) {
+      throw new IllegalArgumentException("Product Name must be at most 40 characters.");
+    }
+
+    Product product = new Product(name);
+    product.description = record.get("description");
+    if (product.description != null && product.description.length() > 255) {
+      throw new IllegalArgumentException("description must be at most 255 characters.");
+    }
+
+    String price = record.get("price");
+    if (price != null) {
+      try {
+        product.price = new BigDecimal(price.trim()).setScale(2, RoundingMode.UNNECESSARY);
+      } catch (ArithmeticException | NumberFormatException e) {
+        throw new IllegalArgumentException("price must be a number with at most 2 decimals.");
+      }
+      if (product.price.signum() < 0 || product.price.precision() > 10) {
+        throw new IllegalArgumentException("price must be between 0 and 99999999.99.");
+      }
+    }
+
+    String stock = record.get("stock");
+    if (stock != null) {
+      try {
+        product.stock = Integer.parseInt(stock.trim());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("stock must be a whole number.");
+      }
+      if (product.stock < 0) {
+        throw new IllegalArgumentException("stock must not be negative.");
+      }
+    }
+    return product;
+  }
+
+  @Override
+  public Map<Long, String> write(List<BulkImporter.Row<Product>> rows) {
+    Map<Long, String> rejected = new TreeMap<>();
+    List<BulkImporter.Row<Product>> unique = new ArrayList<>(rows.size());
+    Set<String> names = new HashSet<>();
+    for (BulkImporter.Row<Product> row : rows) {
+      if (names.add(row.value.name)) {
+        unique.add(row);
+      } else {
+        rejected.put(row.line, DUPLICATE_NAME);
+      }
+    }
+
+    Session session = productRepository.getEntityManager().unwrap(Session.class);
+    List<Product> inserted;
+    if (session.doReturningWork(PostgresCopy::isAvailable)) {
+      long[] ids = EntityIds.allocate(session, Product.class, unique.size());
+      inserted = session.doReturningWork(connection -> copy(connection, unique, ids, rejected));
+    } else {
+      inserted = insert(unique, rejected);
+    }
+
+    if (!inserted.isEmpty()) {
+      productSearchIndex.indexAfterCommit(inserted);
+      productCatalogue.invalidateAfterCommit(null);
+    }
+    return rejected;
+  }
+
+  private static List<Product> copy(
+      Connection connection,
+      List<BulkImporter.Row<Product>> rows,
+      long[] ids,
+      Map<Long, String> rejected)
+      throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(CREATE_STAGING_TABLE);
+    }
+
+    var csv = new StringBuilder();
+    for (int i = 0; i < rows.size(); i++) {
+      BulkImporter.Row<Product> row = rows.get(i);
+      Product product = row.value;
+      PostgresCopy.appendRow(
+          csv,
+          row.line,
+          ids[i],
+          product.name,
+          product.description,
+          product.price,
+          product.stock);
+    }
+    PostgresCopy.copyIn(connection, COPY_STAGING_TABLE, csv);
+
+    Map<String, Long> insertedIds = new HashMap<>();
+    try (PreparedStatement insert = connection.prepareStatement(INSERT_FROM_STAGING_TABLE);
+        ResultSet result = insert.executeQuery()) {
+      while (result.next()) {
+        insertedIds.put(result.getString(2), result.getLong(1));
+      }
+    }
+
+    List<Product> inserted = new ArrayList<>(insertedIds.size());
+    for (BulkImporter.Row<Product> row : rows) {
+      Long id = insertedIds.get(row.value.name);
+      if (id == null) {
+        rejected.put(row.line, DUPLICATE_NAME);
+      } else {
+        row.value.id = id;
+        inserted.add(row.value);
+      }
+    }
+    return inserted;
+  }
+
+  private List<Product> insert(
+      List<BulkImporter.Row<Product>> rows, Map<Long, String> rejected) {
+    List<String> names = rows.stream().map(row -> row.value.name).toList();
+    Set<String> existing =
+        names.isEmpty()
+            ? Set.of()
+            : new HashSet<>(
+                productRepository
+                    .getEntityManager()
+                    .createQuery(
+                        "select p.name from Product p where p.name in :names", String.class)
+                    .setParameter("names", names)
+                    .getResultList());
+
+    List<Product> inserted = new ArrayList<>(rows.size());
+    for (BulkImporter.Row<Product> row : rows) {
+      if (existing.contains(row.value.name)) {
+        rejected.put(row.line, DUPLICATE_NAME);
+      } else {
+        productRepository.persist(row.value);
+        inserted.add(row.value);
+      }
+    }
+    productRepository.flush();
+    productRepository.getEntityManager().clear();
+    return inserted;
+  }
+}
@@ -0,0 +1,110 @@
+package com.fulfilment.application.monolith.products;
+
+import jakarta.ws.rs.WebApplicationException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Set-based price change for all products matching a filter. Results follow {@code BigDecimal}
+ * HALF_UP rounding to the price column's scale of 2, which is what Postgres applies to the
+ * non-negative numeric prices as well.
+ */
+public class ProductPriceUpdate {
+
+  public static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+  public enum Operation {
+    // sets the price to value
+    SET,
+    // changes the price by value percent, e.g. -10 for a 10% discount
+    ADJUST_PERCENT,
+    // rounds the price to value decimals, 0 to 2
+    ROUND
+  }
+
+  public Filter filter;
+  public Operation operation;
+  public BigDecimal value;
+
+  public void validate() {
+    if (filter == null || filter.isEmpty()) {
+      throw new WebApplicationException("A price update filter is required.", 422);
+    }
+    if (filter.ids != null && filter.ids.stream().anyMatch(Objects::isNull)) {
+      throw new WebApplicationException("Price update ids must not contain null.", 422);
+    }
+    if (filter.minPrice != null
+        && filter.maxPrice != null
+        && filter.minPrice.compareTo(filter.maxPrice) > 0) {
+      throw new WebApplicationException("minPrice must not be greater than maxPrice.", 422);
+    }
+    if (operation == null || value == null) {
+      throw new WebApplicationException("Price update operation and value are required.", 422);
+    }
+
+    switch (operation) {
+      case SET:
+        if (value.signum() < 0 || value.compareTo(MAX_PRICE) > 0 || value.scale() > 2) {
+          throw new WebApplicationException(
+              "Price must be between 0 and " + MAX_PRICE + " with at most 2 decimals.", 422);
+        }
+        break;
+      case ADJUST_PERCENT:
+        if (value.compareTo(BigDecimal.valueOf(-100)) < 0) {
+          throw new WebApplicationException("A price cannot drop by more than 100 percent.", 422);
+        }
+        break;
+      case ROUND:
+        if (value.compareTo(BigDecimal.ZERO) < 0
+            || value.compareTo(BigDecimal.valueOf(2)) > 0
+            || value.stripTrailingZeros().scale() > 0) {
+          throw new WebApplicationException("Rounding scale must be 0, 1 or 2.", 422);
+        }
+        break;
+    }
+  }
+
+  /** The price the update gives a product that currently costs {@code price}. */
+  public BigDecimal apply(BigDecimal price) {
+    switch (operation) {
+      case SET:
+        return value.setScale(2, RoundingMode.UNNECESSARY);
+      case ADJUST_PERCENT:
+        return price.multiply(factor()).setScale(2, RoundingMode.HALF_UP);
+      default:
+        return price.setScale(value.intValue(), RoundingMode.HALF_UP).setScale(2);
+    }
+  }
+
+  BigDecimal factor() {
+    return BigDecimal.ONE.add(value.movePointLeft(2));
+  }
+
+  public static class Filter {
+    public List<Long> ids;
+    public String namePrefix;
+    public BigDecimal minPrice;
+    public BigDecimal maxPrice;
+
+    boolean isEmpty() {
+      return (ids == null || ids.isEmpty())
+          && (namePrefix == null || namePrefix.isEmpty())
+          && minPrice == null
+          && maxPrice == null;
+    }
+  }
+
+  public static class Result {
+    public int affected;
+    public long catalogueVersion;
+
+    public Result() {}
+
+    public Result(int affected, long catalogueVersion) {
+      this.affected = affected;
+      this.catalogueVersion = catalogueVersion;
+    }
+  }
+}
@@ -1,7 +1,104 @@
 package com.fulfilment.application.monolith.products;
 
+import com.fulfilment.application.monolith.shared.LikePatterns;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Parameters;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.TypedQuery;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 @ApplicationScoped
-public class ProductRepository implements PanacheRepository<Product> {}
+public class ProductRepository implements PanacheRepository<Product> {
+
+  // single conditional UPDATE so concurrent adjustments never lose each other or go negative,
+  // sharded products are left alone and go through ShardedProductStock instead
+  public int adjustStock(Long id, int delta) {
+    return update(
+        "stock = stock + ?1, version = version + 1 where id = ?2 and stockShards = 0 and stock + ?1 >= 0",
+        delta,
+        id);
+  }
+
+  // moves the version of a loaded product on by the given number of changes, and reloads it
+  public void addToVersion(Product product, long changes) {
+    update("version = version + ?1 where id = ?2", changes, product.id);
+    getEntityManager().refresh(product);
+  }
+
+  // id, stock and version of every product; the stock column of sharded products is only a snapshot
+  public List<Object[]> stockLevels() {
+    return getEntityManager()
+        .createQuery("select p.id, p.stock, p.version from Product p", Object[].class)
+        .getResultList();
+  }
+
+  public BigDecimal maxPrice(ProductPriceUpdate.Filter filter) {
+    Parameters parameters = new Parameters();
+    TypedQuery<BigDecimal> query =
+        getEntityManager()
+            .createQuery(
+                "select max(price) from Product where " + where(filter, parameters),
+                BigDecimal.class);
+    parameters.map().forEach(query::setParameter);
+    return query.getSingleResult();
+  }
+
+  // one UPDATE for all matching products; bulk updates also evict the Product L2 cache region
+  public int updatePrices(ProductPriceUpdate update) {
+    String assignment;
+    Parameters parameters = new Parameters();
+    switch (update.operation) {
+      case SET:
+        assignment = "price = :value";
+        parameters.and("value", update.value);
+        break;
+      case ADJUST_PERCENT:
+        assignment = "price = round(price * :factor, 2)";
+        parameters.and("factor", update.factor());
+        break;
+      default:
+        assignment = "price = round(price, " + update.value.intValue() + ")";
+    }
+    return update(
+        assignment + ", version = version + 1 where " + where(update.filter, parameters),
+        parameters);
+  }
+
+  // id, name and description only, so indexing a large catalogue does not fill the session
+  public List<Object[]> searchableText(Long afterId, int limit) {
+    return getEntityManager()
+        .createQuery(
+            "select p.id, p.name, p.description from Product p where p.id > :after order by p.id",
+            Object[].class)
+        .setParameter("after", afterId)
+        .setMaxResults(limit)
+        .getResultList();
+  }
+
+  public void detach(Product product) {
+    getEntityManager().detach(product);
+  }
+
+  private static String where(ProductPriceUpdate.Filter filter, Parameters parameters) {
+    List<String> conditions = new ArrayList<>();
+    if (filter.ids != null && !filter.ids.isEmpty()) {
+      conditions.add("id in :ids");
+      parameters.and("ids", filter.ids);
+    }
+    if (filter.namePrefix != null && !filter.namePrefix.isEmpty()) {
+      conditions.add(LikePatterns.startsWith("name", "prefix"));
+      parameters.and("prefix", LikePatterns.prefix(filter.namePrefix));
+    }
+    if (filter.minPrice != null) {
+      conditions.add("price >= :minPrice");
+      parameters.and("minPrice", filter.minPrice);
+    }
+    if (filter.maxPrice != null) {
+      conditions.add("price <= :maxPrice");
+      parameters.and("maxPrice", filter.maxPrice);
+    }
+    return String.join(" and ", conditions);
+  }
+}
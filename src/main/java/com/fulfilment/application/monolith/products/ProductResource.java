@@ -1,87 +1,360 @@
 package com.fulfilment.application.monolith.products;
 
-import io.quarkus.panache.common.Sort;
+import com.fulfilment.application.monolith.shared.BulkImporter;
+import com.fulfilment.application.monolith.shared.ChangeTracker;
+import com.fulfilment.application.monolith.shared.EndpointGroup;
+import com.fulfilment.application.monolith.shared.EntityVersions;
+import com.fulfilment.application.monolith.shared.ImportRecordReader;
+import com.fulfilment.application.monolith.shared.HttpCaching;
+import com.fulfilment.application.monolith.shared.ImportReport;
+import com.fulfilment.application.monolith.shared.MultiGetKeys;
+import com.fulfilment.application.monolith.shared.MultiGetResult;
+import com.fulfilment.application.monolith.shared.OptimisticLockRetry;
+import com.fulfilment.application.monolith.shared.StockAdjustment;
+import com.fulfilment.application.monolith.shared.StockAdjustmentResult;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Path("product")
 @ApplicationScoped
 @Produces("application/json")
 @Consumes("application/json")
+@RunOnVirtualThread
 public class ProductResource {
 
+  static final int DEFAULT_SEARCH_LIMIT = 20;
+  static final int MAX_SEARCH_LIMIT = 100;
+
   @Inject ProductRepository productRepository;
+  @Inject ShardedProductStock shardedProductStock;
+  @Inject OptimisticLockRetry optimisticLockRetry;
+  @Inject BulkImporter bulkImporter;
+  @Inject ProductImporter productImporter;
+  @Inject ProductSearchIndex productSearchIndex;
+  @Inject ProductCatalogue productCatalogue;
+  @Inject HttpCaching httpCaching;
 
   @GET
-  public List<Product> get() {
-    return productRepository.listAll(Sort.by("name"));
+  public Response get(
+      @QueryParam("ids") String ids, @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+    List<Long> keys = ids == null ? null : MultiGetKeys.parseIds(ids);
+    ProductCatalogue.Snapshot snapshot = productCatalogue.current();
+    Response notModified =
+        httpCaching.notModified(ChangeTracker.PRODUCTS, ifNoneMatch, snapshot.tag());
+    if (notModified != null) {
+      return notModified;
+    }
+    if (keys == null) {
+      return httpCaching.ok(ChangeTracker.PRODUCTS, snapshot.tag(), snapshot.json()).build();
+    }
+
+    List<Product> items = new ArrayList<>();
+    List<Long> missing = new ArrayList<>();
+    for (Long id : keys) {
+      Product product = snapshot.product(id);
+      if (product == null) {
+        missing.add(id);
+      } else {
+        items.add(product);
+      }
+    }
+    return httpCaching
+        .ok(ChangeTracker.PRODUCTS, snapshot.tag(), new MultiGetResult<>(items, missing))
+        .build();
   }
 
   @GET
   @Path("{id}")
-  public Product getSingle(Long id) {
-    Product entity = productRepository.findById(id);
+  public Response getSingle(Long id, @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+    Product entity = productCatalogue.current().product(id);
     if (entity == null) {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
-    return entity;
+    EntityTag tag = EntityVersions.tag(entity.version);
+    Response notModified = httpCaching.notModified(ChangeTracker.PRODUCTS, ifNoneMatch, tag);
+    if (notModified != null) {
+      return notModified;
+    }
+    return httpCaching.ok(ChangeTracker.PRODUCTS, tag, entity).build();
+  }
+
+  @GET
+  @Path("search")
+  public Response search(
+      @QueryParam("q") String query,
+      @QueryParam("limit") Integer limit,
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+    if (query == null || query.isBlank()) {
+      throw new WebApplicationException("Search query was not set on request.", 422);
+    }
+    int size = limit == null ? DEFAULT_SEARCH_LIMIT : limit;
+    if (size < 1 || size > MAX_SEARCH_LIMIT) {
+      throw new WebApplicationException(
+          "Limit must be between 1 and " + MAX_SEARCH_LIMIT + ".", 422);
+    }
+    ProductCatalogue.Snapshot snapshot = productCatalogue.current();
+    Response notModified =
+        httpCaching.notModified(ChangeTracker.PRODUCTS, ifNoneMatch, snapshot.tag());
+    if (notModified != null) {
+      return notModified;
+    }
+    // keep the ranking of the index, products deleted since they were found are skipped
+    List<Product> hits =
+        productSearchIndex.search(query, size).stream()
+            .map(snapshot::product)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    return httpCaching.ok(ChangeTracker.PRODUCTS, snapshot.tag(), hits).build();
   }
 
   @POST
   @Transactional
+  @EndpointGroup(EndpointGroup.WRITE)
   public Response create(Product product) {
     if (product.id != null) {
       throw new WebApplicationException("Id was invalidly set on request.", 422);
     }
 
     productRepository.persist(product);
+    productSearchIndex.indexAfterCommit(product);
+    productCatalogue.invalidateAfterCommit(product.id);
     return Response.ok(product).status(201).build();
   }
 
+  @POST
+  @Path("import")
+  @Consumes({ImportRecordReader.CSV, ImportRecordReader.NDJSON})
+  @EndpointGroup(EndpointGroup.IMPORT)
+  public ImportReport importProducts(
+      InputStream body, @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType) {
+    return bulkImporter.run(body, contentType, ProductImporter::toProduct, productImporter);
+  }
+
   @PUT
   @Path("{id}")
-  @Transactional
-  public Product update(Long id, Product product) {
+  @EndpointGroup(EndpointGroup.WRITE)
+  public Product update(
+      Long id, Product product, @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
     if (product.name == null) {
       throw new WebApplicationException("Product Name was not set on request.", 422);
     }
+    Long expectedVersion = EntityVersions.expectedVersion(ifMatch);
 
-    Product entity = productRepository.findById(id);
+    return optimisticLockRetry.call(
+        "product.update",
+        expectedVersion == null,
+        () -> {
+          Product entity = productRepository.findById(id);
 
-    if (entity == null) {
+          if (entity == null) {
+            throw new WebApplicationException(
+                "Product with id of " + id + " does not exist.", 404);
+          }
+          // sharded adjustments leave the product row alone, so their version includes the shards
+          EntityVersions.checkVersion(
+              expectedVersion,
+              entity.stockShards > 0 ? shardedProductStock.lockVersion(entity) : entity.version);
+
+          entity.name = product.name;
+          entity.description = product.description;
+          entity.price = product.price;
+          entity.stock = product.stock;
+
+          if (entity.stockShards > 0) {
+            shardedProductStock.reset(entity, product.stock);
+          }
+
+          productRepository.persist(entity);
+          productSearchIndex.indexAfterCommit(entity);
+          productCatalogue.invalidateAfterCommit(id);
+
+          if (entity.stockShards > 0) {
+            productRepository.flush();
+            return withCurrentStock(entity);
+          }
+          return entity;
+        });
+  }
+
+  @POST
+  @Path("price-updates")
+  @EndpointGroup(EndpointGroup.WRITE)
+  public ProductPriceUpdate.Result updatePrices(ProductPriceUpdate update) {
+    if (update == null) {
+      throw new WebApplicationException("Price update was not set on request.", 422);
+    }
+    update.validate();
+
+    int affected =
+        QuarkusTransaction.requiringNew()
+            .call(
+                () -> {
+                  BigDecimal highest = productRepository.maxPrice(update.filter);
+                  if (highest != null
+                      && update.apply(highest).compareTo(ProductPriceUpdate.MAX_PRICE) > 0) {
+                    throw new WebApplicationException(
+                        "Price update would exceed the maximum price of "
+                            + ProductPriceUpdate.MAX_PRICE
+                            + ".",
+                        422);
+                  }
+                  int updated = productRepository.updatePrices(update);
+                  if (updated > 0) {
+                    productCatalogue.invalidateAfterCommit(null);
+                  }
+                  return updated;
+                });
+    return new ProductPriceUpdate.Result(affected, productCatalogue.version());
+  }
+
+  @POST
+  @Path("{id}/stock-adjustments")
+  @Transactional
+  @EndpointGroup(EndpointGroup.WRITE)
+  public Product adjustStock(Long id, StockAdjustment adjustment) {
+    if (adjustment == null || adjustment.delta == null) {
+      throw new WebApplicationException("Stock delta was not set on request.", 422);
+    }
+
+    StockAdjustmentResult.Status status = applyAdjustment(id, adjustment.delta);
+    if (status == StockAdjustmentResult.Status.NOT_FOUND) {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
+    if (status == StockAdjustmentResult.Status.INSUFFICIENT_STOCK) {
+      throw new WebApplicationException(
+          "Product with id of " + id + " does not have enough stock for this adjustment.", 409);
+    }
+    productCatalogue.stockChangedAfterCommit(id);
+    return withCurrentStock(productRepository.findById(id));
+  }
 
-    entity.name = product.name;
-    entity.description = product.description;
-    entity.price = product.price;
-    entity.stock = product.stock;
+  @POST
+  @Path("stock-adjustments")
+  @Transactional
+  @EndpointGroup(EndpointGroup.WRITE)
+  public List<StockAdjustmentResult> adjustStocks(List<StockAdjustment> adjustments) {
+    if (adjustments == null) {
+      throw new WebApplicationException("Stock adjustments were not set on request.", 422);
+    }
+    for (StockAdjustment adjustment : adjustments) {
+      if (adjustment == null || adjustment.id == null || adjustment.delta == null) {
+        throw new WebApplicationException("Stock adjustment id and delta are required.", 422);
+      }
+    }
 
-    productRepository.persist(entity);
+    List<StockAdjustmentResult> results = new ArrayList<>(adjustments.size());
+    boolean applied = false;
+    for (StockAdjustment adjustment : adjustments) {
+      StockAdjustmentResult.Status status = applyAdjustment(adjustment.id, adjustment.delta);
+      applied |= status == StockAdjustmentResult.Status.APPLIED;
+      results.add(new StockAdjustmentResult(adjustment.id, adjustment.delta, status));
+    }
+    if (applied) {
+      productCatalogue.stockChangedAfterCommit(null);
+    }
+    return results;
+  }
+
+  @PUT
+  @Path("{id}/stock-shards")
+  @Transactional
+  @EndpointGroup(EndpointGroup.WRITE)
+  public Product configureStockShards(Long id, StockShardsRequest request) {
+    if (request == null
+        || request.shards == null
+        || request.shards < 0
+        || request.shards > ShardedProductStock.MAX_SHARDS) {
+      throw new WebApplicationException(
+          "Stock shards must be between 0 and " + ShardedProductStock.MAX_SHARDS + ".", 422);
+    }
 
+    Product entity = productRepository.findById(id, LockModeType.PESSIMISTIC_WRITE);
+    if (entity == null) {
+      throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
+    }
+
+    shardedProductStock.configure(entity, request.shards);
+    productCatalogue.invalidateAfterCommit(id);
     return entity;
   }
 
   @DELETE
   @Path("{id}")
   @Transactional
+  @EndpointGroup(EndpointGroup.WRITE)
   public Response delete(Long id) {
     Product entity = productRepository.findById(id);
     if (entity == null) {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
+    if (entity.stockShards > 0) {
+      shardedProductStock.remove(entity);
+    }
     productRepository.delete(entity);
+    productSearchIndex.removeAfterCommit(id);
+    productCatalogue.invalidateAfterCommit(id);
     return Response.status(204).build();
   }
+
+  // unsharded products take a single conditional UPDATE; products known to be sharded skip it and
+  // are loaded first, as their shards and the response need the product anyway
+  private StockAdjustmentResult.Status applyAdjustment(Long id, int delta) {
+    boolean sharded = shardedProductStock.isSharded(id);
+    if (!sharded && productRepository.adjustStock(id, delta) > 0) {
+      return StockAdjustmentResult.Status.APPLIED;
+    }
+    Product entity = productRepository.findById(id);
+    if (entity == null) {
+      return StockAdjustmentResult.Status.NOT_FOUND;
+    }
+    shardedProductStock.seen(entity);
+    if (entity.stockShards > 0) {
+      return shardedProductStock.adjust(entity, delta)
+          ? StockAdjustmentResult.Status.APPLIED
+          : StockAdjustmentResult.Status.INSUFFICIENT_STOCK;
+    }
+    // no longer sharded: apply it to the product row after all, and reload it for the response
+    if (sharded && productRepository.adjustStock(id, delta) > 0) {
+      productRepository.detach(entity);
+      return StockAdjustmentResult.Status.APPLIED;
+    }
+    return StockAdjustmentResult.Status.INSUFFICIENT_STOCK;
+  }
+
+  // sharded products keep their stock in ProductStockShard rows, the stock column is only a
+  // snapshot, and are served with the version that includes the changes of their shards
+  private Product withCurrentStock(Product product) {
+    if (product.stockShards > 0) {
+      productRepository.detach(product);
+      shardedProductStock.applyCurrent(product);
+    }
+    return product;
+  }
+
+  public static class StockShardsRequest {
+    public Integer shards;
+  }
 }
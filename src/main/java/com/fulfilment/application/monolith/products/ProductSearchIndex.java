@@ -0,0 +1,251 @@
+package com.fulfilment.application.monolith.products;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over product name and description. Terms are lower-cased with accents
+ * stripped and kept in a sorted map so every query term also matches as a prefix. Hits must match
+ * all query terms and are ranked by field weight times inverse document frequency, with exact
+ * term matches counting double over prefix matches. The index is built at startup and kept up to
+ * date after each committed write; reads never lock.
+ */
+@ApplicationScoped
+public class ProductSearchIndex {
+
+  // whole numbers so postings share the cached Integer instances instead of boxing per entry
+  static final int NAME_WEIGHT = 3;
+  static final int DESCRIPTION_WEIGHT = 1;
+  static final double PREFIX_FACTOR = 0.5;
+
+  // bounds the work of very short prefixes such as "a" on a large catalogue
+  static final int MAX_PREFIX_EXPANSIONS = 64;
+
+  private static final int REBUILD_PAGE_SIZE = 10_000;
+  private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private final ProductRepository productRepository;
+  private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+  private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings =
+      new ConcurrentSkipListMap<>();
+  private final Map<Long, String[]> documents = new ConcurrentHashMap<>();
+
+  public ProductSearchIndex(
+      ProductRepository productRepository,
+      TransactionSynchronizationRegistry transactionSynchronizationRegistry) {
+    this.productRepository = productRepository;
+    this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    rebuild();
+  }
+
+  public void rebuild() {
+    clear();
+    Long after = 0L;
+    List<Object[]> page;
+    do {
+      Long from = after;
+      page =
+          QuarkusTransaction.requiringNew()
+              .call(() -> productRepository.searchableText(from, REBUILD_PAGE_SIZE));
+      for (Object[] row : page) {
+        index((Long) row[0], (String) row[1], (String) row[2]);
+        after = (Long) row[0];
+      }
+    } while (page.size() == REBUILD_PAGE_SIZE);
+  }
+
+  /** Returns the ids of the best matching products, best first. */
+  public List<Long> search(String query, int limit) {
+    Set<String> terms = new LinkedHashSet<>(tokenize(query));
+    if (terms.isEmpty() || limit < 1) {
+      return List.of();
+    }
+
+    // start from the rarest term and only look up the remaining candidates in the other terms
+    int documentCount = Math.max(documents.size(), 1);
+    List<List<TermMatch>> matches = new ArrayList<>(terms.size());
+    for (String term : terms) {
+      matches.add(expand(term, documentCount));
+    }
+    matches.sort(Comparator.comparingLong(ProductSearchIndex::postingCount));
+
+    Map<Long, Double> scores = new HashMap<>();
+    for (TermMatch match : matches.get(0)) {
+      match.ids.forEach((id, weight) -> scores.merge(id, weight * match.factor, Math::max));
+    }
+    for (List<TermMatch> termMatches : matches.subList(1, matches.size())) {
+      for (var it = scores.entrySet().iterator(); it.hasNext(); ) {
+        Map.Entry<Long, Double> entry = it.next();
+        double best = 0;
+        for (TermMatch match : termMatches) {
+          Integer weight = match.ids.get(entry.getKey());
+          if (weight != null) {
+            best = Math.max(best, weight * match.factor);
+          }
+        }
+        if (best == 0) {
+          it.remove();
+        } else {
+          entry.setValue(entry.getValue() + best);
+        }
+      }
+    }
+    if (scores.isEmpty()) {
+      return List.of();
+    }
+
+    // min-heap of the best hits so far, ties go to the lower id
+    Comparator<Map.Entry<Long, Double>> worstFirst =
+        Map.Entry.<Long, Double>comparingByValue()
+            .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+    PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(worstFirst);
+    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+      top.add(entry);
+      if (top.size() > limit) {
+        top.poll();
+      }
+    }
+    List<Long> ids = new ArrayList<>(top.size());
+    while (!top.isEmpty()) {
+      ids.add(top.poll().getKey());
+    }
+    Collections.reverse(ids);
+    return ids;
+  }
+
+  public void indexAfterCommit(Product product) {
+    indexAfterCommit(List.of(product));
+  }
+
+  public void indexAfterCommit(List<Product> products) {
+    runAfterCommit(
+        () -> products.forEach(product -> index(product.id, product.name, product.description)));
+  }
+
+  public void removeAfterCommit(Long id) {
+    runAfterCommit(() -> remove(id));
+  }
+
+  synchronized void index(Long id, String name, String description) {
+    remove(id);
+
+    Map<String, Integer> weights = new HashMap<>();
+    tokenize(name).forEach(term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+    tokenize(description).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+
+    weights.forEach(
+        (term, weight) ->
+            postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(id, weight));
+    documents.put(id, weights.keySet().toArray(new String[0]));
+  }
+
+  synchronized void remove(Long id) {
+    String[] terms = documents.remove(id);
+    if (terms == null) {
+      return;
+    }
+    for (String term : terms) {
+      Map<Long, Integer> ids = postings.get(term);
+      if (ids != null) {
+        ids.remove(id);
+        if (ids.isEmpty()) {
+          postings.remove(term);
+        }
+      }
+    }
+  }
+
+  synchronized void clear() {
+    postings.clear();
+    documents.clear();
+  }
+
+  int size() {
+    return documents.size();
+  }
+
+  static List<String> tokenize(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    String normalized =
+        DIACRITICS
+            .matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+            .replaceAll("")
+            .toLowerCase(Locale.ROOT);
+    List<String> terms = new ArrayList<>();
+    for (String term : SEPARATORS.split(normalized)) {
+      if (!term.isEmpty()) {
+        terms.add(term);
+      }
+    }
+    return terms;
+  }
+
+  private List<TermMatch> expand(String term, int documentCount) {
+    List<TermMatch> matches = new ArrayList<>();
+    for (Map.Entry<String, Map<Long, Integer>> entry :
+        postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+      Map<Long, Integer> ids = entry.getValue();
+      double idf = Math.log(1 + (double) documentCount / Math.max(ids.size(), 1));
+      double factor = entry.getKey().equals(term) ? idf : idf * PREFIX_FACTOR;
+      matches.add(new TermMatch(ids, factor));
+      if (matches.size() == MAX_PREFIX_EXPANSIONS) {
+        break;
+      }
+    }
+    return matches;
+  }
+
+  private static long postingCount(List<TermMatch> matches) {
+    return matches.stream().mapToLong(match -> match.ids.size()).sum();
+  }
+
+  private static class TermMatch {
+    private final Map<Long, Integer> ids;
+    private final double factor;
+
+    TermMatch(Map<Long, Integer> ids, double factor) {
+      this.ids = ids;
+      this.factor = factor;
+    }
+  }
+
+  private void runAfterCommit(Runnable action) {
+    transactionSynchronizationRegistry.registerInterposedSynchronization(
+        new Synchronization() {
+          @Override
+          public void beforeCompletion() {}
+
+          @Override
+          public void afterCompletion(int status) {
+            if (status == Status.STATUS_COMMITTED) {
+              action.run();
+            }
+          }
+        });
+  }
+}
@@ -0,0 +1,35 @@
+package com.fulfilment.application.monolith.products;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+@Entity
+@Table(
+    name = "product_stock_shard",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"productId", "shard"}),
+    indexes = @Index(columnList = "productId"))
+public class ProductStockShard {
+
+  @Id @GeneratedValue public Long id;
+
+  public Long productId;
+
+  public int shard;
+
+  public int stock;
+
+  // counts the changes of this shard, see ShardedProductStock#lockVersion
+  public long version;
+
+  public ProductStockShard() {}
+
+  public ProductStockShard(Long productId, int shard, int stock) {
+    this.productId = productId;
+    this.shard = shard;
+    this.stock = stock;
+  }
+}
@@ -0,0 +1,60 @@
+package com.fulfilment.application.monolith.products;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@ApplicationScoped
+public class ProductStockShardRepository implements PanacheRepository<ProductStockShard> {
+
+  /** The stock of a product summed over its shards, and the changes made to them. */
+  public record Totals(long stock, long changes) {}
+
+  public int adjust(Long productId, int shard, int delta) {
+    return update(
+        "stock = stock + ?1, version = version + 1"
+            + " where productId = ?2 and shard = ?3 and stock + ?1 >= 0",
+        delta,
+        productId,
+        shard);
+  }
+
+  public List<ProductStockShard> lockShards(Long productId) {
+    return find("productId = ?1 order by shard", productId)
+        .withLock(LockModeType.PESSIMISTIC_WRITE)
+        .list();
+  }
+
+  public Totals totals(Long productId) {
+    Object[] row =
+        getEntityManager()
+            .createQuery(
+                "select coalesce(sum(s.stock), 0), coalesce(sum(s.version), 0)"
+                    + " from ProductStockShard s where s.productId = :productId",
+                Object[].class)
+            .setParameter("productId", productId)
+            .getSingleResult();
+    return new Totals((Long) row[0], (Long) row[1]);
+  }
+
+  public Map<Long, Totals> totalsByProduct() {
+    Map<Long, Totals> totals = new HashMap<>();
+    for (Object[] row :
+        getEntityManager()
+            .createQuery(
+                "select s.productId, sum(s.stock), sum(s.version) from ProductStockShard s"
+                    + " group by s.productId",
+                Object[].class)
+            .getResultList()) {
+      totals.put((Long) row[0], new Totals((Long) row[1], (Long) row[2]));
+    }
+    return totals;
+  }
+
+  public long deleteShards(Long productId) {
+    return delete("productId", productId);
+  }
+}
@@ -0,0 +1,150 @@
+package com.fulfilment.application.monolith.products;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sharded stock counter for hot products. The stock of a product with {@code stockShards > 0} is
+ * spread over that many {@link ProductStockShard} rows, so concurrent adjustments lock different
+ * rows instead of all queueing on the single product row. Reads sum the shards in the database, so
+ * they see every committed adjustment, whichever instance made it.
+ *
+ * <p>Adjustments leave the product row, and so its version column, alone. Every shard counts its
+ * own changes instead, and a sharded product is served with its version plus the changes of all
+ * its shards, so the version, and with it the ETag and If-Match, moves with every adjustment.
+ */
+@ApplicationScoped
+public class ShardedProductStock {
+
+  public static final int MAX_SHARDS = 64;
+
+  private final ProductStockShardRepository shardRepository;
+  private final ProductRepository productRepository;
+  // ids of the products last seen sharded; only a hint for skipping the product row update, the
+  // caller always checks the loaded product
+  private final Set<Long> sharded = ConcurrentHashMap.newKeySet();
+
+  public ShardedProductStock(
+      ProductStockShardRepository shardRepository, ProductRepository productRepository) {
+    this.shardRepository = shardRepository;
+    this.productRepository = productRepository;
+  }
+
+  /** Whether the product was sharded when last seen by this instance. */
+  public boolean isSharded(Long productId) {
+    return sharded.contains(productId);
+  }
+
+  /** Records whether the loaded product is sharded, for {@link #isSharded}. */
+  public void seen(Product product) {
+    if (product.stockShards > 0) {
+      sharded.add(product.id);
+    } else {
+      sharded.remove(product.id);
+    }
+  }
+
+  /** Returns false when the product does not have enough stock across all shards. */
+  public boolean adjust(Product product, int delta) {
+    int shard = ThreadLocalRandom.current().nextInt(product.stockShards);
+    return shardRepository.adjust(product.id, shard, delta) > 0 || rebalance(product.id, delta);
+  }
+
+  /** Sets the stock and version a detached sharded product is served with. */
+  public void applyCurrent(Product product) {
+    ProductStockShardRepository.Totals totals = shardRepository.totals(product.id);
+    product.stock = (int) totals.stock();
+    product.version += totals.changes();
+  }
+
+  /** The stock of every sharded product, and the changes of its shards, summed over the shards. */
+  public Map<Long, ProductStockShardRepository.Totals> currentTotals() {
+    return shardRepository.totalsByProduct();
+  }
+
+  /**
+   * Locks the shards of the product and returns the version it is served with, which stays until
+   * the transaction ends, so an If-Match can be checked against it before {@link #reset}.
+   */
+  public long lockVersion(Product product) {
+    return product.version + changes(shardRepository.lockShards(product.id));
+  }
+
+  /** Spreads the given stock evenly over the existing shards of the product. */
+  public void reset(Product product, int stock) {
+    distribute(shardRepository.lockShards(product.id), stock);
+  }
+
+  /**
+   * Moves the product into sharded mode with the given number of shards, or back into single-row
+   * mode when {@code shards} is 0 or 1. The caller is expected to hold a write lock on the product.
+   */
+  public void configure(Product product, int shards) {
+    int stock = product.stock;
+    if (product.stockShards > 0) {
+      List<ProductStockShard> current = shardRepository.lockShards(product.id);
+      stock = current.stream().mapToInt(s -> s.stock).sum();
+      long changes = changes(current);
+      shardRepository.deleteShards(product.id);
+      // the changes of the removed shards move into the product version, so the served version
+      // never goes back to one an older ETag carried
+      if (changes > 0) {
+        productRepository.addToVersion(product, changes);
+      }
+    }
+
+    if (shards > 1) {
+      int[] split = split(stock, shards);
+      for (int i = 0; i < shards; i++) {
+        shardRepository.persist(new ProductStockShard(product.id, i, split[i]));
+      }
+      product.stockShards = shards;
+    } else {
+      product.stockShards = 0;
+    }
+    product.stock = stock;
+    seen(product);
+  }
+
+  public void remove(Product product) {
+    if (product.stockShards > 0) {
+      shardRepository.deleteShards(product.id);
+    }
+    sharded.remove(product.id);
+  }
+
+  // the picked shard ran dry: lock all shards of the product and spread the remaining stock again
+  private boolean rebalance(Long productId, int delta) {
+    List<ProductStockShard> shards = shardRepository.lockShards(productId);
+    long total = shards.stream().mapToLong(s -> s.stock).sum() + delta;
+    if (shards.isEmpty() || total < 0) {
+      return false;
+    }
+    distribute(shards, (int) total);
+    return true;
+  }
+
+  private static void distribute(List<ProductStockShard> shards, int total) {
+    int[] split = split(total, shards.size());
+    for (int i = 0; i < shards.size(); i++) {
+      shards.get(i).stock = split[i];
+      shards.get(i).version++;
+    }
+  }
+
+  private static long changes(List<ProductStockShard> shards) {
+    return shards.stream().mapToLong(s -> s.version).sum();
+  }
+
+  static int[] split(int total, int shards) {
+    int[] split = new int[shards];
+    for (int i = 0; i < shards; i++) {
+      split[i] = total / shards + (i < total % shards ? 1 : 0);
+    }
+    return split;
+  }
+}
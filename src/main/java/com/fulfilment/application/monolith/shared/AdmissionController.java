@@ -0,0 +1,224 @@
+package com.fulfilment.application.monolith.shared;
+
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.AgroalDataSourceMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.MediaType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.spi.ResteasyReactiveContainerRequestContext;
+
+/**
+ * Sheds load before it queues for database connections. Every request to a resource counts as in
+ * flight from matching until its response completes, and requests beyond the concurrency limit are
+ * turned away at once with 503 and Retry-After instead of waiting in the worker pool.
+ *
+ * <p>The limit adapts to the primary pool (AIMD): every window the average wait for a connection is
+ * taken from the pool metrics, and when it exceeds {@code admission.target-pool-wait-ms} the limit
+ * is cut by {@code admission.backoff-ratio}; otherwise, if requests were shed or the limit was
+ * reached, it grows by one. Writes may use the whole limit, other reads
+ * {@code admission.read-share} of it and bulk list reads and imports only
+ * {@code admission.bulk-share}, so under pressure the bulk traffic is shed first.
+ *
+ * <p>Server-sent event streams, like the change feed, are not admitted at all: a subscriber would
+ * hold its slot for the whole connection without using a database connection, and the limit would
+ * grow on those idle peaks. The admin routes are on the management interface and never get here.
+ */
+@ApplicationScoped
+public class AdmissionController {
+
+  static final String LIMIT = "admission.limit";
+  static final String IN_FLIGHT = "admission.in-flight";
+  static final String POOL_WAIT = "admission.pool-wait";
+  static final String REJECTIONS = "admission.rejections";
+
+  private static final Logger LOGGER = Logger.getLogger(AdmissionController.class);
+
+  enum Tier {
+    WRITE,
+    READ,
+    BULK
+  }
+
+  private final AgroalDataSource primary;
+  private final MeterRegistry meterRegistry;
+  private final boolean enabled;
+  private final int minLimit;
+  private final int maxLimit;
+  private final long targetPoolWaitNanos;
+  private final long windowNanos;
+  private final double backoffRatio;
+  private final double readShare;
+  private final double bulkShare;
+  private final int retryAfterSeconds;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger peakInFlight = new AtomicInteger();
+  private final AtomicInteger shedInWindow = new AtomicInteger();
+  private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+  private volatile int limit;
+  private volatile double poolWaitMillis;
+  private long lastAcquired;
+  private long lastWaitedNanos;
+
+  public AdmissionController(
+      AgroalDataSource primary,
+      MeterRegistry meterRegistry,
+      @ConfigProperty(name = "admission.enabled", defaultValue = "true") boolean enabled,
+      @ConfigProperty(name = "admission.initial-limit", defaultValue = "32") int initialLimit,
+      @ConfigProperty(name = "admission.min-limit", defaultValue = "4") int minLimit,
+      @ConfigProperty(name = "admission.max-limit", defaultValue = "200") int maxLimit,
+      @ConfigProperty(name = "admission.target-pool-wait-ms", defaultValue = "20")
+          long targetPoolWaitMillis,
+      @ConfigProperty(name = "admission.window-ms", defaultValue = "200") long windowMillis,
+      @ConfigProperty(name = "admission.backoff-ratio", defaultValue = "0.9") double backoffRatio,
+      @ConfigProperty(name = "admission.read-share", defaultValue = "0.8") double readShare,
+      @ConfigProperty(name = "admission.bulk-share", defaultValue = "0.5") double bulkShare,
+      @ConfigProperty(name = "admission.retry-after-seconds", defaultValue = "1")
+          int retryAfterSeconds) {
+    this.primary = primary;
+    this.meterRegistry = meterRegistry;
+    this.enabled = enabled;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.targetPoolWaitNanos = TimeUnit.MILLISECONDS.toNanos(targetPoolWaitMillis);
+    this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    this.backoffRatio = backoffRatio;
+    this.readShare = readShare;
+    this.bulkShare = bulkShare;
+    this.retryAfterSeconds = retryAfterSeconds;
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    Gauge.builder(LIMIT, this, controller -> controller.limit).register(meterRegistry);
+    Gauge.builder(IN_FLIGHT, inFlight, AtomicInteger::get).register(meterRegistry);
+    Gauge.builder(POOL_WAIT, this, controller -> controller.poolWaitMillis)
+        .baseUnit("milliseconds")
+        .register(meterRegistry);
+  }
+
+  // runs on the event loop before a blocking endpoint takes a worker thread
+  @ServerRequestFilter(priority = 0)
+  public void admit(ResteasyReactiveContainerRequestContext context, ResourceInfo resourceInfo) {
+    if (!enabled) {
+      return;
+    }
+    Tier tier = tier(resourceInfo);
+    if (tier == null) {
+      return;
+    }
+    if (!tryAcquire(tier)) {
+      throw new OverloadedException("Server is at capacity, retry later.", retryAfterSeconds);
+    }
+    context.getServerRequestContext().registerCompletionCallback(failure -> release());
+  }
+
+  /** The tier of the endpoint, or null for a stream that is not admitted. */
+  static Tier tier(ResourceInfo resourceInfo) {
+    Method method = resourceInfo.getResourceMethod();
+    if (method != null && streams(method)) {
+      return null;
+    }
+    EndpointGroup group = method == null ? null : method.getAnnotation(EndpointGroup.class);
+    if (group == null) {
+      return Tier.READ;
+    }
+    return switch (group.value()) {
+      case EndpointGroup.WRITE -> Tier.WRITE;
+      case EndpointGroup.BULK_READ, EndpointGroup.IMPORT -> Tier.BULK;
+      default -> Tier.READ;
+    };
+  }
+
+  private static boolean streams(Method method) {
+    Produces produces = method.getAnnotation(Produces.class);
+    if (produces == null) {
+      produces = method.getDeclaringClass().getAnnotation(Produces.class);
+    }
+    return produces != null
+        && Arrays.stream(produces.value())
+            .anyMatch(type -> type.startsWith(MediaType.SERVER_SENT_EVENTS));
+  }
+
+  boolean tryAcquire(Tier tier) {
+    adapt(System.nanoTime());
+    int allowed = allowed(tier);
+    while (true) {
+      int current = inFlight.get();
+      if (current >= allowed) {
+        shedInWindow.incrementAndGet();
+        meterRegistry.counter(REJECTIONS, "tier", tier.name().toLowerCase()).increment();
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        peakInFlight.accumulateAndGet(current + 1, Math::max);
+        return true;
+      }
+    }
+  }
+
+  void release() {
+    inFlight.decrementAndGet();
+    adapt(System.nanoTime());
+  }
+
+  int limit() {
+    return limit;
+  }
+
+  int inFlight() {
+    return inFlight.get();
+  }
+
+  private int allowed(Tier tier) {
+    int current = limit;
+    return switch (tier) {
+      case WRITE -> current;
+      case READ -> Math.max(1, (int) (current * readShare));
+      case BULK -> Math.max(1, (int) (current * bulkShare));
+    };
+  }
+
+  // one thread per window wins the compare-and-set and moves the limit
+  void adapt(long now) {
+    long start = windowStart.get();
+    if (now - start < windowNanos || !windowStart.compareAndSet(start, now)) {
+      return;
+    }
+    synchronized (this) {
+      AgroalDataSourceMetrics metrics = primary.getMetrics();
+      long acquired = metrics.acquireCount();
+      long waitedNanos = metrics.blockingTimeTotal().toNanos();
+      long acquisitions = acquired - lastAcquired;
+      long waitNanos = acquisitions > 0 ? (waitedNanos - lastWaitedNanos) / acquisitions : 0;
+      lastAcquired = acquired;
+      lastWaitedNanos = waitedNanos;
+      poolWaitMillis = waitNanos / 1_000_000.0;
+
+      // with no acquisitions at all, threads waiting on the pool mean it is stuck
+      boolean congested =
+          acquisitions > 0 ? waitNanos > targetPoolWaitNanos : metrics.awaitingCount() > 0;
+      int shed = shedInWindow.getAndSet(0);
+      int peak = peakInFlight.getAndSet(inFlight.get());
+      int current = limit;
+      if (congested) {
+        limit = Math.max(minLimit, (int) (current * backoffRatio));
+      } else if (shed > 0 || peak >= current) {
+        limit = Math.min(maxLimit, current + 1);
+      }
+      if (limit != current && LOGGER.isDebugEnabled()) {
+        LOGGER.debugf(
+            "Admission limit %d -> %d, pool wait %.1f ms, %d shed",
+            current, limit, poolWaitMillis, shed);
+      }
+    }
+  }
+}
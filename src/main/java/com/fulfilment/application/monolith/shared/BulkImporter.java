@@ -0,0 +1,106 @@
+package com.fulfilment.application.monolith.shared;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Streams an import body through a mapper and hands the mapped rows to a {@link BatchWriter} in
+ * batches of {@code import.batch-size}, each in its own transaction. Only one batch is held in
+ * memory at a time, and a row that fails to parse, validate or insert is reported without
+ * aborting the rest of the file.
+ */
+@ApplicationScoped
+public class BulkImporter {
+
+  private static final Logger LOGGER = Logger.getLogger(BulkImporter.class);
+
+  private final ObjectMapper objectMapper;
+  private final int batchSize;
+  private final int maxReportedErrors;
+
+  public BulkImporter(
+      ObjectMapper objectMapper,
+      @ConfigProperty(name = "import.batch-size", defaultValue = "1000") int batchSize,
+      @ConfigProperty(name = "import.max-reported-errors", defaultValue = "1000")
+          int maxReportedErrors) {
+    this.objectMapper = objectMapper;
+    this.batchSize = batchSize;
+    this.maxReportedErrors = maxReportedErrors;
+  }
+
+  public <T> ImportReport run(
+      InputStream body,
+      String contentType,
+      Function<ImportRecord, T> mapper,
+      BatchWriter<T> writer) {
+    var report = new ImportReport(maxReportedErrors);
+    try (var reader = ImportRecordReader.open(body, contentType, objectMapper)) {
+      List<Row<T>> batch = new ArrayList<>(batchSize);
+      for (ImportRecord record = reader.next(); record != null; record = reader.next()) {
+        if (record.error != null) {
+          report.reject(record.line, record.error);
+          continue;
+        }
+        try {
+          batch.add(new Row<>(record.line, mapper.apply(record)));
+        } catch (IllegalArgumentException e) {
+          report.reject(record.line, e.getMessage());
+          continue;
+        }
+        if (batch.size() == batchSize) {
+          write(batch, writer, report);
+          batch = new ArrayList<>(batchSize);
+        }
+      }
+      if (!batch.isEmpty()) {
+        write(batch, writer, report);
+      }
+    }
+    return report;
+  }
+
+  protected <R> R inNewTransaction(Supplier<R> work) {
+    return QuarkusTransaction.requiringNew().call(work::get);
+  }
+
+  private <T> void write(List<Row<T>> batch, BatchWriter<T> writer, ImportReport report) {
+    Map<Long, String> rejected;
+    try {
+      rejected = inNewTransaction(() -> writer.write(batch));
+    } catch (RuntimeException e) {
+      LOGGER.warn("Import batch of " + batch.size() + " rows failed", e);
+      batch.forEach(row -> report.reject(row.line, "Batch could not be written."));
+      return;
+    }
+    report.imported += batch.size() - rejected.size();
+    rejected.forEach(report::reject);
+  }
+
+  public interface BatchWriter<T> {
+
+    /**
+     * Writes the rows in the current transaction and returns the rejected ones as line to message,
+     * in line order.
+     */
+    Map<Long, String> write(List<Row<T>> rows);
+  }
+
+  public static class Row<T> {
+    public final long line;
+    public final T value;
+
+    public Row(long line, T value) {
+      this.line = line;
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.fulfilment.application.monolith.shared;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.config.Config;
+
+/**
+ * One bulkhead per {@link EndpointGroup}: at most {@code bulkhead.<group>.max-concurrent} requests
+ * of the group run at once, and a request finding them all busy waits up to {@code
+ * bulkhead.<group>.max-wait-ms} for a permit before it is turned away with 503. The wait is timed
+ * as {@code bulkhead.wait} per group and outcome, and the permits in use are a gauge.
+ */
+@ApplicationScoped
+public class Bulkheads {
+
+  static final String WAIT = "bulkhead.wait";
+  static final String IN_USE = "bulkhead.in-use";
+
+  private final Config config;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+  public Bulkheads(Config config, MeterRegistry meterRegistry) {
+    this.config = config;
+    this.meterRegistry = meterRegistry;
+  }
+
+  public <T> T run(String group, Callable<T> work) throws Exception {
+    Bulkhead bulkhead = bulkheads.computeIfAbsent(group, this::create);
+    Timer.Sample sample = Timer.start(meterRegistry);
+    boolean admitted = bulkhead.permits.tryAcquire(bulkhead.maxWaitMillis, TimeUnit.MILLISECONDS);
+    String outcome = admitted ? "admitted" : "rejected";
+    sample.stop(meterRegistry.timer(WAIT, "group", group, "outcome", outcome));
+    if (!admitted) {
+      throw new OverloadedException(
+          "Too many concurrent " + group + " requests, retry later.", bulkhead.retryAfterSeconds);
+    }
+    try {
+      return work.call();
+    } finally {
+      bulkhead.permits.release();
+    }
+  }
+
+  private Bulkhead create(String group) {
+    var bulkhead =
+        new Bulkhead(
+            setting(group, "max-concurrent", 8),
+            setting(group, "max-wait-ms", 100),
+            setting(group, "retry-after-seconds", 1));
+    Gauge.builder(IN_USE, bulkhead, b -> b.maxConcurrent - b.permits.availablePermits())
+        .tag("group", group)
+        .register(meterRegistry);
+    return bulkhead;
+  }
+
+  private int setting(String group, String name, int defaultValue) {
+    return config
+        .getOptionalValue("bulkhead." + group + "." + name, Integer.class)
+        .orElse(defaultValue);
+  }
+
+  private static class Bulkhead {
+    final int maxConcurrent;
+    final long maxWaitMillis;
+    final int retryAfterSeconds;
+    final Semaphore permits;
+
+    Bulkhead(int maxConcurrent, long maxWaitMillis, int retryAfterSeconds) {
+      this.maxConcurrent = maxConcurrent;
+      this.maxWaitMillis = maxWaitMillis;
+      this.retryAfterSeconds = retryAfterSeconds;
+      this.permits = new Semaphore(maxConcurrent, true);
+    }
+  }
+}
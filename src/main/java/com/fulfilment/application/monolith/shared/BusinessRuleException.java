@@ -0,0 +1,29 @@
+package com.fulfilment.application.monolith.shared;
+
+import jakarta.ws.rs.WebApplicationException;
+
+/**
+ * A request rejected by a business rule. The rule is a fixed name, never built from request data,
+ * so it can tag metrics without growing their cardinality, and it is returned as the error's rule.
+ *
+ * <p>Rejections are expected outcomes rather than bugs, so no stack trace is captured: filling one
+ * in dominated the cost of a rejected request, and {@link GlobalExceptionMapper} never logs one.
+ */
+public class BusinessRuleException extends WebApplicationException {
+
+  private final String rule;
+
+  public BusinessRuleException(String rule, String message, int status) {
+    super(message, status);
+    this.rule = rule;
+  }
+
+  public String rule() {
+    return rule;
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+}
@@ -0,0 +1,32 @@
+package com.fulfilment.application.monolith.shared;
+
+import java.time.Instant;
+
+/**
+ * One committed change in the change feed. {@code key} identifies the changed entity, or is null
+ * when the write may have changed several entities of the collection. A {@code resync} event tells
+ * the subscriber that changes were skipped, so it has to read the collections again.
+ */
+public class ChangeEvent {
+
+  public static final String CHANGE = "change";
+  public static final String RESYNC = "resync";
+
+  public final String type;
+  public final long offset;
+  public final String collection;
+  public final String key;
+  public final Instant committedAt;
+
+  ChangeEvent(String type, long offset, String collection, String key, Instant committedAt) {
+    this.type = type;
+    this.offset = offset;
+    this.collection = collection;
+    this.key = key;
+    this.committedAt = committedAt;
+  }
+
+  static ChangeEvent resync(long offset) {
+    return new ChangeEvent(RESYNC, offset, null, null, Instant.now());
+  }
+}
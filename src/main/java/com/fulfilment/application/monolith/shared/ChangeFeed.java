@@ -0,0 +1,264 @@
+package com.fulfilment.application.monolith.shared;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * In-memory feed of committed changes, published by {@link ChangeTracker}. The last
+ * {@code change-feed.buffer-size} events are kept so a reconnecting subscriber can resume from the
+ * id of the last event it saw; a subscriber that fell further behind, or comes from before a
+ * restart, gets a resync event instead. Every subscriber has its own bounded queue and is sent one
+ * event at a time, so a slow subscriber never holds up the writers or the other subscribers.
+ */
+@ApplicationScoped
+public class ChangeFeed {
+
+  private static final Logger LOGGER = Logger.getLogger(ChangeFeed.class);
+
+  /** What to do with a subscriber whose queue is full. */
+  public enum SlowConsumerPolicy {
+    /** Close the stream; the subscriber reconnects with its last event id and is replayed. */
+    DISCONNECT,
+    /** Drop the queued events and send a resync event in their place. */
+    RESYNC
+  }
+
+  /** Delivers events to one subscriber; the returned stage completes once the event is sent. */
+  public interface Sink {
+    CompletionStage<?> send(ChangeEvent event);
+
+    void close();
+  }
+
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+  private final ChangeEvent[] buffer;
+  private final int subscriberQueueSize;
+  private final SlowConsumerPolicy defaultPolicy;
+  private final List<Subscriber> subscribers = new ArrayList<>();
+  private int head;
+  private int size;
+  private long lastOffset;
+
+  public ChangeFeed(
+      @ConfigProperty(name = "change-feed.buffer-size", defaultValue = "10000") int bufferSize,
+      @ConfigProperty(name = "change-feed.subscriber-queue-size", defaultValue = "1000")
+          int subscriberQueueSize,
+      @ConfigProperty(name = "change-feed.slow-consumer-policy", defaultValue = "disconnect")
+          SlowConsumerPolicy defaultPolicy) {
+    this.buffer = new ChangeEvent[bufferSize];
+    this.subscriberQueueSize = subscriberQueueSize;
+    this.defaultPolicy = defaultPolicy;
+  }
+
+  public SlowConsumerPolicy defaultPolicy() {
+    return defaultPolicy;
+  }
+
+  /** The id a subscriber passes back to resume after the given event. */
+  public String eventId(ChangeEvent event) {
+    return epoch + "-" + event.offset;
+  }
+
+  public void publish(String collection, Object key) {
+    List<Subscriber> targets;
+    List<Subscriber> overflowed = new ArrayList<>();
+    synchronized (this) {
+      ChangeEvent event =
+          new ChangeEvent(
+              ChangeEvent.CHANGE,
+              ++lastOffset,
+              collection,
+              key == null ? null : key.toString(),
+              Instant.now());
+      buffer[(head + size) % buffer.length] = event;
+      if (size < buffer.length) {
+        size++;
+      } else {
+        head = (head + 1) % buffer.length;
+      }
+      targets = new ArrayList<>(subscribers.size());
+      for (Subscriber subscriber : subscribers) {
+        switch (subscriber.offer(event)) {
+          case QUEUED -> targets.add(subscriber);
+          case OVERFLOWED -> overflowed.add(subscriber);
+          default -> {}
+        }
+      }
+      subscribers.removeAll(overflowed);
+    }
+    targets.forEach(Subscriber::drain);
+    for (Subscriber subscriber : overflowed) {
+      LOGGER.infof(
+          "Closing change feed subscriber that fell %d events behind", subscriber.queueSize);
+      subscriber.sink.close();
+    }
+  }
+
+  /**
+   * Registers a subscriber. With {@code lastEventId} it first gets the buffered events after that
+   * one, or a resync event when they are no longer buffered; without it only new events are sent.
+   * {@code collections} limits the events to those collections, null means all of them.
+   */
+  public Subscriber subscribe(
+      String lastEventId, Set<String> collections, SlowConsumerPolicy policy, Sink sink) {
+    Subscriber subscriber;
+    synchronized (this) {
+      List<ChangeEvent> replay = new ArrayList<>();
+      if (lastEventId != null) {
+        Long after = offsetOf(lastEventId);
+        long oldest = lastOffset - size + 1;
+        if (after == null || after > lastOffset || after < oldest - 1) {
+          replay.add(ChangeEvent.resync(lastOffset));
+        } else {
+          for (long offset = after + 1; offset <= lastOffset; offset++) {
+            ChangeEvent event = buffer[(int) ((head + offset - oldest) % buffer.length)];
+            if (collections == null || collections.contains(event.collection)) {
+              replay.add(event);
+            }
+          }
+        }
+      }
+      // the replay may exceed the queue size, the limit is for what piles up after it
+      subscriber =
+          new Subscriber(this, collections, policy, subscriberQueueSize + replay.size(), sink);
+      subscriber.queue.addAll(replay);
+      subscribers.add(subscriber);
+    }
+    subscriber.drain();
+    return subscriber;
+  }
+
+  public synchronized int subscriberCount() {
+    return subscribers.size();
+  }
+
+  synchronized void unsubscribe(Subscriber subscriber) {
+    subscribers.remove(subscriber);
+  }
+
+  private Long offsetOf(String eventId) {
+    int separator = eventId.lastIndexOf('-');
+    if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+      return null;
+    }
+    try {
+      return Long.valueOf(eventId.substring(separator + 1));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private enum Offer {
+    SKIPPED,
+    QUEUED,
+    OVERFLOWED
+  }
+
+  public static final class Subscriber {
+    private final ChangeFeed feed;
+    private final Set<String> collections;
+    private final SlowConsumerPolicy policy;
+    private final int queueSize;
+    private final Sink sink;
+    private final Deque<ChangeEvent> queue = new ArrayDeque<>();
+    private boolean sending;
+    private boolean closed;
+
+    private Subscriber(
+        ChangeFeed feed,
+        Set<String> collections,
+        SlowConsumerPolicy policy,
+        int queueSize,
+        Sink sink) {
+      this.feed = feed;
+      this.collections = collections;
+      this.policy = policy;
+      this.queueSize = queueSize;
+      this.sink = sink;
+    }
+
+    // called with the feed lock held
+    private synchronized Offer offer(ChangeEvent event) {
+      if (closed || (collections != null && !collections.contains(event.collection))) {
+        return Offer.SKIPPED;
+      }
+      if (queue.size() < queueSize) {
+        queue.add(event);
+        return Offer.QUEUED;
+      }
+      if (policy == SlowConsumerPolicy.RESYNC) {
+        queue.clear();
+        queue.add(ChangeEvent.resync(event.offset));
+        return Offer.QUEUED;
+      }
+      closed = true;
+      queue.clear();
+      return Offer.OVERFLOWED;
+    }
+
+    private void drain() {
+      while (true) {
+        ChangeEvent next;
+        synchronized (this) {
+          if (sending || closed || queue.isEmpty()) {
+            return;
+          }
+          next = queue.poll();
+          sending = true;
+        }
+
+        CompletableFuture<?> sent;
+        try {
+          sent = sink.send(next).toCompletableFuture();
+        } catch (RuntimeException e) {
+          sent = CompletableFuture.failedFuture(e);
+        }
+        // loop while sends complete straight away instead of recursing through the callbacks
+        if (sent.isDone() && !sent.isCompletedExceptionally()) {
+          synchronized (this) {
+            sending = false;
+          }
+          continue;
+        }
+        sent.whenComplete(
+            (ignored, error) -> {
+              synchronized (this) {
+                sending = false;
+              }
+              if (error == null) {
+                drain();
+              } else {
+                close();
+              }
+            });
+        return;
+      }
+    }
+
+    /** Stops the subscription, e.g. because the client went away. */
+    public void close() {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        queue.clear();
+      }
+      feed.unsubscribe(this);
+      sink.close();
+    }
+
+    synchronized boolean isClosed() {
+      return closed;
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.fulfilment.application.monolith.shared;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+@Path("changes")
+@ApplicationScoped
+public class ChangeFeedResource {
+
+  static final String LAST_EVENT_ID = "Last-Event-ID";
+
+  @Inject ChangeFeed changeFeed;
+  @Inject ObjectMapper objectMapper;
+
+  /**
+   * Streams committed changes as server-sent events. A reconnecting client resumes with the
+   * standard Last-Event-ID header, or the {@code after} parameter when it cannot set headers.
+   */
+  @GET
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  public void subscribe(
+      @QueryParam("collections") String collections,
+      @QueryParam("after") String after,
+      @QueryParam("slowConsumer") String slowConsumer,
+      @HeaderParam(LAST_EVENT_ID) String lastEventId,
+      @Context SseEventSink eventSink,
+      @Context Sse sse) {
+    Set<String> filter = parseCollections(collections);
+    ChangeFeed.SlowConsumerPolicy policy = parsePolicy(slowConsumer);
+
+    changeFeed.subscribe(
+        lastEventId != null ? lastEventId : after,
+        filter,
+        policy,
+        new ChangeFeed.Sink() {
+          @Override
+          public CompletionStage<?> send(ChangeEvent event) {
+            return eventSink.send(
+                sse.newEventBuilder()
+                    .id(changeFeed.eventId(event))
+                    .name(event.type)
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(toJson(event))
+                    .build());
+          }
+
+          @Override
+          public void close() {
+            eventSink.close();
+          }
+        });
+  }
+
+  static Set<String> parseCollections(String collections) {
+    if (collections == null || collections.isBlank()) {
+      return null;
+    }
+    Set<String> parsed =
+        Arrays.stream(collections.split(","))
+            .map(String::trim)
+            .filter(collection -> !collection.isEmpty())
+            .collect(Collectors.toSet());
+    for (String collection : parsed) {
+      if (!ChangeTracker.COLLECTIONS.contains(collection)) {
+        throw new WebApplicationException(
+            "Unknown collection " + collection + ", expected one of " + ChangeTracker.COLLECTIONS,
+            422);
+      }
+    }
+    return parsed;
+  }
+
+  private ChangeFeed.SlowConsumerPolicy parsePolicy(String slowConsumer) {
+    if (slowConsumer == null || slowConsumer.isBlank()) {
+      return changeFeed.defaultPolicy();
+    }
+    try {
+      return ChangeFeed.SlowConsumerPolicy.valueOf(slowConsumer.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new WebApplicationException("slowConsumer must be disconnect or resync.", 422);
+    }
+  }
+
+  private String toJson(ChangeEvent event) {
+    try {
+      return objectMapper.writeValueAsString(event);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,243 @@
+package com.fulfilment.application.monolith.shared;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.SessionFactory;
+import org.jboss.logging.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+/**
+ * Relays committed changes between the instances of the application over PostgreSQL {@code
+ * LISTEN}/{@code NOTIFY}, so the {@link ChangeTracker} versions, and the product catalogue built
+ * on them, move with the writes of every instance. Enabled with {@code change-relay.enabled}.
+ *
+ * <p>One background thread owns a dedicated connection: it sends the changes queued after commit,
+ * batched into as few notifications as fit, and applies the ones from other instances. Nothing of
+ * this runs on the request path; another instance sees a change within about {@link #POLL_MILLIS}.
+ * When the connection was lost, or the queue overflowed, changes may have been missed, so every
+ * collection is then treated as changed. A change from elsewhere also evicts the entity from this
+ * instance's second-level cache before the versions move, so a read tagged with the new version
+ * never comes from the cache.
+ */
+@ApplicationScoped
+public class ChangeRelay {
+
+  static final String CHANNEL = "resource_changes";
+  static final long POLL_MILLIS = 50;
+  // NOTIFY payloads must stay below 8000 bytes
+  static final int MAX_PAYLOAD = 7_000;
+
+  private static final Logger LOGGER = Logger.getLogger(ChangeRelay.class);
+  private static final int QUEUE_SIZE = 100_000;
+  private static final long RECONNECT_MILLIS = 1_000;
+  // the cached entities behind each collection; warehouses are keyed by business unit code rather
+  // than id, so their changes evict the whole region
+  private static final Map<String, String> CACHED_ENTITIES =
+      Map.of(
+          ChangeTracker.PRODUCTS,
+          "com.fulfilment.application.monolith.products.Product",
+          ChangeTracker.STORES,
+          "com.fulfilment.application.monolith.stores.Store",
+          ChangeTracker.WAREHOUSES,
+          "com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse",
+          ChangeTracker.FULFILMENT_LINKS,
+          "com.fulfilment.application.monolith.warehouses.fulfilment.WarehouseFulfilmentLink");
+
+  private final ChangeTracker changeTracker;
+  private final SessionFactory sessionFactory;
+  private final boolean enabled;
+  private final Optional<String> url;
+  private final Optional<String> username;
+  private final Optional<String> password;
+  private final String instance = UUID.randomUUID().toString();
+  private final BlockingQueue<String> outbox = new LinkedBlockingQueue<>(QUEUE_SIZE);
+  private volatile boolean overflowed;
+  private volatile boolean running;
+  private Thread thread;
+
+  public ChangeRelay(
+      ChangeTracker changeTracker,
+      SessionFactory sessionFactory,
+      @ConfigProperty(name = "change-relay.enabled", defaultValue = "false") boolean enabled,
+      @ConfigProperty(name = "quarkus.datasource.jdbc.url") Optional<String> url,
+      @ConfigProperty(name = "quarkus.datasource.username") Optional<String> username,
+      @ConfigProperty(name = "quarkus.datasource.password") Optional<String> password) {
+    this.changeTracker = changeTracker;
+    this.sessionFactory = sessionFactory;
+    this.enabled = enabled;
+    this.url = url;
+    this.username = username;
+    this.password = password;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (!enabled) {
+      return;
+    }
+    if (url.isEmpty()) {
+      throw new IllegalStateException("The change relay needs quarkus.datasource.jdbc.url.");
+    }
+    running = true;
+    changeTracker.relayTo(this::send);
+    thread = Thread.ofPlatform().name("change-relay").daemon().start(this::run);
+  }
+
+  void onStop(@Observes ShutdownEvent event) throws InterruptedException {
+    if (thread == null) {
+      return;
+    }
+    running = false;
+    changeTracker.relayTo(null);
+    thread.interrupt();
+    thread.join(TimeUnit.SECONDS.toMillis(5));
+  }
+
+  void send(String collection, Object key, ChangeTracker.Kind kind) {
+    if (!outbox.offer(line(collection, key, kind))) {
+      overflowed = true;
+    }
+  }
+
+  private void run() {
+    boolean connectedBefore = false;
+    while (running) {
+      try (Connection connection =
+          DriverManager.getConnection(url.get(), username.orElse(null), password.orElse(null))) {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("listen " + CHANNEL);
+        }
+        if (connectedBefore) {
+          LOGGER.info("Change relay reconnected, treating every collection as changed");
+          resync();
+        }
+        connectedBefore = true;
+        relay(connection);
+      } catch (SQLException | RuntimeException e) {
+        // the changes of the failed round are covered by the resync after reconnecting
+        if (running) {
+          LOGGER.warn("Change relay failed, reconnecting", e);
+          pause();
+        }
+      }
+    }
+  }
+
+  private void relay(Connection connection) throws SQLException {
+    PGConnection notifications = connection.unwrap(PGConnection.class);
+    try (PreparedStatement notify = connection.prepareStatement("select pg_notify(?, ?)")) {
+      notify.setString(1, CHANNEL);
+      while (running) {
+        if (overflowed) {
+          overflowed = false;
+          outbox.clear();
+          LOGGER.warn("Change relay queue overflowed, treating every collection as changed");
+          resync();
+          for (String collection : ChangeTracker.COLLECTIONS) {
+            outbox.offer(line(collection, null, ChangeTracker.Kind.EDIT));
+          }
+        }
+        List<String> lines = new ArrayList<>();
+        outbox.drainTo(lines);
+        for (String payload : payloads(instance, lines)) {
+          notify.setString(2, payload);
+          notify.executeQuery().close();
+        }
+        PGNotification[] received = notifications.getNotifications((int) POLL_MILLIS);
+        if (received != null) {
+          for (PGNotification notification : received) {
+            receive(notification.getParameter());
+          }
+        }
+      }
+    }
+  }
+
+  /** Applies the changes of a notification, unless this instance sent it. */
+  void receive(String payload) {
+    String[] lines = payload.split("\n");
+    if (lines.length == 0 || lines[0].equals(instance)) {
+      return;
+    }
+    for (int i = 1; i < lines.length; i++) {
+      String[] fields = lines[i].split("\t", 3);
+      if (fields.length < 3) {
+        continue;
+      }
+      String key = fields[2].isEmpty() ? null : fields[2];
+      evict(fields[0], key);
+      changeTracker.changedElsewhere(fields[0], key, ChangeTracker.Kind.valueOf(fields[1]));
+    }
+  }
+
+  void evict(String collection, String key) {
+    String entity = CACHED_ENTITIES.get(collection);
+    if (entity == null) {
+      return;
+    }
+    if (key == null || collection.equals(ChangeTracker.WAREHOUSES)) {
+      sessionFactory.getCache().evictEntityData(entity);
+    } else {
+      sessionFactory.getCache().evictEntityData(entity, Long.valueOf(key));
+    }
+  }
+
+  String instance() {
+    return instance;
+  }
+
+  /** Packs the lines into payloads of at most {@link #MAX_PAYLOAD} chars, sender first. */
+  static List<String> payloads(String instance, List<String> lines) {
+    List<String> payloads = new ArrayList<>();
+    var payload = new StringBuilder(instance);
+    for (String line : lines) {
+      if (payload.length() > instance.length()
+          && payload.length() + 1 + line.length() > MAX_PAYLOAD) {
+        payloads.add(payload.toString());
+        payload.setLength(0);
+        payload.append(instance);
+      }
+      payload.append('\n').append(line);
+    }
+    if (payload.length() > instance.length()) {
+      payloads.add(payload.toString());
+    }
+    return payloads;
+  }
+
+  static String line(String collection, Object key, ChangeTracker.Kind kind) {
+    return collection + "\t" + kind + "\t" + (key == null ? "" : key);
+  }
+
+  private void resync() {
+    for (String collection : ChangeTracker.COLLECTIONS) {
+      evict(collection, null);
+      changeTracker.changedElsewhere(collection, null, ChangeTracker.Kind.EDIT);
+    }
+  }
+
+  private void pause() {
+    try {
+      Thread.sleep(RECONNECT_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+}
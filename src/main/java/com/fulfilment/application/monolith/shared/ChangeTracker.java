@@ -0,0 +1,190 @@
+package com.fulfilment.application.monolith.shared;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.ws.rs.core.EntityTag;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versions of the resource collections and of their entities, bumped once the writing transaction
+ * has committed, so conditional GETs are answered from memory; every bump is also published to the
+ * {@link ChangeFeed}. Collection tags start with a per-boot epoch so a restart, or another
+ * instance, never revalidates a response it did not tag. Entities with a version column are tagged
+ * with that version instead, see {@link EntityVersions#tag}; the last version read of each is kept
+ * until the entity changes, so a revalidation needs no query either.
+ *
+ * <p>The changes of other instances arrive through the {@link ChangeRelay}.
+ */
+@ApplicationScoped
+public class ChangeTracker {
+
+  public static final String PRODUCTS = "product";
+  public static final String STORES = "store";
+  public static final String WAREHOUSES = "warehouse";
+  public static final String FULFILMENT_LINKS = "warehouse-fulfilment";
+  public static final Set<String> COLLECTIONS =
+      Set.of(PRODUCTS, STORES, WAREHOUSES, FULFILMENT_LINKS);
+
+  // bounds the remembered entity versions; beyond it revalidations of other entities query again
+  static final int MAX_KNOWN_VERSIONS = 100_000;
+
+  /** What a write changed: any field, or nothing but stock. */
+  public enum Kind {
+    EDIT,
+    STOCK
+  }
+
+  /** Passes the changes made by this instance on to the other instances. */
+  public interface Relay {
+    void send(String collection, Object key, Kind kind);
+  }
+
+  private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+  private final ChangeFeed changeFeed;
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+  private final Map<String, AtomicLong> collections = new ConcurrentHashMap<>();
+  private final Map<String, AtomicLong> edits = new ConcurrentHashMap<>();
+  private final Map<String, AtomicLong> bulkChanges = new ConcurrentHashMap<>();
+  private final Map<String, AtomicLong> entities = new ConcurrentHashMap<>();
+  private final Map<String, KnownVersion> knownVersions = new ConcurrentHashMap<>();
+  private volatile Relay relay;
+
+  public ChangeTracker(
+      TransactionSynchronizationRegistry transactionSynchronizationRegistry,
+      ChangeFeed changeFeed) {
+    this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+    this.changeFeed = changeFeed;
+  }
+
+  public long version(String collection) {
+    return count(collections, collection);
+  }
+
+  /** The committed changes of the collection other than stock-only ones. */
+  public long edits(String collection) {
+    return count(edits, collection);
+  }
+
+  public EntityTag collectionTag(String collection) {
+    return tag(version(collection));
+  }
+
+  /** The tag of a collection representation that was built at the given version. */
+  public EntityTag tag(long version) {
+    return new EntityTag(epoch + "." + version);
+  }
+
+  // for entities without a version column; a change without a key may have touched any entity, so
+  // it moves every entity tag on as well
+  public EntityTag entityTag(String collection, Object key) {
+    return new EntityTag(
+        epoch
+            + "."
+            + count(bulkChanges, collection)
+            + "."
+            + count(entities, collection + ":" + key));
+  }
+
+  /** The version last read of the entity, or null when it changed since or was never read. */
+  public Long knownVersion(String collection, Object key) {
+    KnownVersion known = knownVersions.get(collection + ":" + key);
+    if (known == null || known.bulkChanges != count(bulkChanges, collection)) {
+      return null;
+    }
+    return known.version;
+  }
+
+  /**
+   * Remembers the version of an entity that was read while the collection was at {@code
+   * collectionVersion}, unless a change committed since could have made it stale.
+   */
+  public void remember(String collection, Object key, long version, long collectionVersion) {
+    if (knownVersions.size() >= MAX_KNOWN_VERSIONS) {
+      return;
+    }
+    String id = collection + ":" + key;
+    var known = new KnownVersion(version, count(bulkChanges, collection));
+    knownVersions.put(id, known);
+    // a change that committed during the read may have cleared the entry before it was put
+    if (version(collection) != collectionVersion) {
+      knownVersions.remove(id, known);
+    }
+  }
+
+  /**
+   * Records a change of the entity with the given key, or of an unknown set of entities when key
+   * is null, once the current transaction has committed.
+   */
+  public void changedAfterCommit(String collection, Object key) {
+    changedAfterCommit(collection, key, Kind.EDIT);
+  }
+
+  public void changedAfterCommit(String collection, Object key, Kind kind) {
+    transactionSynchronizationRegistry.registerInterposedSynchronization(
+        new Synchronization() {
+          @Override
+          public void beforeCompletion() {}
+
+          @Override
+          public void afterCompletion(int status) {
+            if (status == Status.STATUS_COMMITTED) {
+              changed(collection, key, kind);
+            }
+          }
+        });
+  }
+
+  public void changed(String collection, Object key) {
+    changed(collection, key, Kind.EDIT);
+  }
+
+  public void changed(String collection, Object key, Kind kind) {
+    apply(collection, key, kind);
+    Relay current = relay;
+    if (current != null) {
+      current.send(collection, key, kind);
+    }
+  }
+
+  /** Records a change another instance committed, without relaying it back. */
+  public void changedElsewhere(String collection, Object key, Kind kind) {
+    apply(collection, key, kind);
+  }
+
+  public void relayTo(Relay relay) {
+    this.relay = relay;
+  }
+
+  // the edit count moves before the version, so a reader that saw the version never misses the
+  // edit, and the version before the entity counters, see remember
+  private void apply(String collection, Object key, Kind kind) {
+    if (kind == Kind.EDIT) {
+      increment(edits, collection);
+    }
+    increment(collections, collection);
+    if (key != null) {
+      increment(entities, collection + ":" + key);
+      knownVersions.remove(collection + ":" + key);
+    } else {
+      increment(bulkChanges, collection);
+    }
+    // published after the versions moved, so a subscriber reacting to it never reads a stale tag
+    changeFeed.publish(collection, key);
+  }
+
+  private static long count(Map<String, AtomicLong> counters, String name) {
+    AtomicLong counter = counters.get(name);
+    return counter == null ? 0 : counter.get();
+  }
+
+  private static void increment(Map<String, AtomicLong> counters, String name) {
+    counters.computeIfAbsent(name, n -> new AtomicLong()).incrementAndGet();
+  }
+
+  private record KnownVersion(long version, long bulkChanges) {}
+}
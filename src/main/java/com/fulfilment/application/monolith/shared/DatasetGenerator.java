@@ -0,0 +1,362 @@
+package com.fulfilment.application.monolith.shared;
+
+import com.fulfilment.application.monolith.location.LocationGateway;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.interceptor.Interceptor;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+/**
+ * Fills the database with a synthetic dataset of production-like size at startup, when {@code
+ * dataset-generator.enabled} is set: stores, products, warehouses in the free slots of every
+ * location with an archived history each, and fulfilment links within the 2/3/5 assignment rules.
+ * Rows are streamed in with {@code COPY} and the same seed always produces the same rows on top of
+ * the same starting data. It runs before the product search index is built, so that covers the
+ * generated products too.
+ */
+@ApplicationScoped
+public class DatasetGenerator {
+
+  static final int PRODUCTS_PER_WAREHOUSE = 5;
+  static final int WAREHOUSES_PER_STORE = 3;
+  static final int WAREHOUSES_PER_STORE_AND_PRODUCT = 2;
+
+  private static final Logger LOGGER = Logger.getLogger(DatasetGenerator.class);
+  private static final int ROWS_PER_COPY = 50_000;
+  private static final int TRANSACTION_TIMEOUT_SECONDS = 3_600;
+  private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+  private static final String[] SYLLABLES = {
+    "ka", "lax", "ton", "stad", "bes", "ta", "hem", "nes", "ma", "lm", "bil", "ly", "po", "ang",
+    "ek", "torp", "lin", "mon", "so", "der", "hamn", "fri", "hult", "ing", "vik", "gen"
+  };
+
+  /** The tables the generator writes, with the COPY statement and sequence of each. */
+  enum Table {
+    STORE(
+        "copy store (id, name, quantityProductsInStock, version) from stdin with (format csv)",
+        "store"),
+    PRODUCT(
+        "copy product (id, name, description, price, stock, stockShards, version)"
+            + " from stdin with (format csv)",
+        "product"),
+    WAREHOUSE(
+        "copy warehouse (id, businessUnitCode, location, capacity, stock, createdAt, archivedAt)"
+            + " from stdin with (format csv)",
+        "warehouse"),
+    LINK(
+        "copy warehouse_fulfilment_link (id, storeId, productId, warehouseBusinessUnitCode)"
+            + " from stdin with (format csv)",
+        "warehouse_fulfilment_link");
+
+    final String copy;
+    final String table;
+
+    Table(String copy, String table) {
+      this.copy = copy;
+      this.table = table;
+    }
+  }
+
+  /** Receives the generated rows, in table order. */
+  interface Rows {
+    void add(Table table, Object... values);
+  }
+
+  /** What is in the database before generating: the highest ids and the active warehouses. */
+  static class Existing {
+    final Map<Table, Long> maxIds = new EnumMap<>(Table.class);
+    final Map<String, Integer> warehouses = new HashMap<>();
+    final Map<String, Integer> capacity = new HashMap<>();
+
+    long maxId(Table table) {
+      return maxIds.getOrDefault(table, 0L);
+    }
+  }
+
+  private final EntityManager entityManager;
+  private final LocationGateway locationGateway;
+  private final boolean enabled;
+  private final long seed;
+  private final int stores;
+  private final int products;
+  private final int archivedPerWarehouse;
+
+  public DatasetGenerator(
+      EntityManager entityManager,
+      LocationGateway locationGateway,
+      @ConfigProperty(name = "dataset-generator.enabled", defaultValue = "false") boolean enabled,
+      @ConfigProperty(name = "dataset-generator.seed", defaultValue = "42") long seed,
+      @ConfigProperty(name = "dataset-generator.stores", defaultValue = "100000") int stores,
+      @ConfigProperty(name = "dataset-generator.products", defaultValue = "100000") int products,
+      @ConfigProperty(name = "dataset-generator.archived-per-warehouse", defaultValue = "100")
+          int archivedPerWarehouse) {
+    this.entityManager = entityManager;
+    this.locationGateway = locationGateway;
+    this.enabled = enabled;
+    this.seed = seed;
+    this.stores = stores;
+    this.products = products;
+    this.archivedPerWarehouse = archivedPerWarehouse;
+  }
+
+  void onStart(@Observes @Priority(Interceptor.Priority.APPLICATION) StartupEvent event) {
+    if (enabled) {
+      QuarkusTransaction.requiringNew().timeout(TRANSACTION_TIMEOUT_SECONDS).run(this::generate);
+    }
+  }
+
+  /** Generates the dataset in the current transaction; needs PostgreSQL for the COPY. */
+  public void generate() {
+    entityManager
+        .unwrap(Session.class)
+        .doWork(
+            connection -> {
+              if (!PostgresCopy.isAvailable(connection)) {
+                throw new IllegalStateException("The dataset generator needs PostgreSQL.");
+              }
+              long start = System.nanoTime();
+              var copy = new CopyRows(connection);
+              generate(existing(connection), copy);
+              copy.flush();
+              restartSequences(connection);
+              LOGGER.infof(
+                  "Generated %s in %d ms", copy.counts, (System.nanoTime() - start) / 1_000_000);
+            });
+  }
+
+  void generate(Existing existing, Rows rows) {
+    var random = new Random(seed);
+
+    List<Long> storeIds = new ArrayList<>(stores);
+    long storeId = existing.maxId(Table.STORE);
+    for (int i = 0; i < stores; i++) {
+      storeId++;
+      storeIds.add(storeId);
+      rows.add(
+          Table.STORE, storeId, String.format("STORE-%08d", storeId), random.nextInt(1_000), 0);
+    }
+
+    List<Long> productIds = new ArrayList<>(products);
+    long productId = existing.maxId(Table.PRODUCT);
+    for (int i = 0; i < products; i++) {
+      productId++;
+      productIds.add(productId);
+      rows.add(
+          Table.PRODUCT,
+          productId,
+          String.format("PRODUCT-%08d", productId),
+          words(random, 4 + random.nextInt(5)),
+          BigDecimal.valueOf(100 + random.nextInt(99_900), 2),
+          random.nextInt(1_000),
+          0,
+          0);
+    }
+
+    List<String> warehouses = warehouses(existing, random, rows);
+    links(existing, random, storeIds, productIds, warehouses, rows);
+  }
+
+  // fills every location up to its warehouse count, sharing out the capacity that is left
+  private List<String> warehouses(Existing existing, Random random, Rows rows) {
+    List<String> active = new ArrayList<>();
+    long warehouseId = existing.maxId(Table.WAREHOUSE);
+    for (Location location : locationGateway.listAll()) {
+      int count = existing.warehouses.getOrDefault(location.identification, 0);
+      int free = location.maxNumberOfWarehouses - count;
+      if (free <= 0) {
+        continue;
+      }
+      int share =
+          (location.maxCapacity - existing.capacity.getOrDefault(location.identification, 0))
+              / free;
+      if (share < 1) {
+        continue;
+      }
+      for (int slot = 0; slot < free; slot++) {
+        String businessUnitCode = String.format("MWH.G%06d", warehouseId + 1);
+        LocalDateTime createdAt = EPOCH;
+        for (int i = 0; i < archivedPerWarehouse; i++) {
+          LocalDateTime archivedAt = createdAt.minusDays(1 + random.nextInt(30));
+          createdAt = archivedAt.minusDays(1 + random.nextInt(365));
+          rows.add(
+              Table.WAREHOUSE,
+              ++warehouseId,
+              businessUnitCode,
+              location.identification,
+              share,
+              random.nextInt(share + 1),
+              createdAt,
+              archivedAt);
+        }
+        rows.add(
+            Table.WAREHOUSE,
+            ++warehouseId,
+            businessUnitCode,
+            location.identification,
+            share,
+            random.nextInt(share + 1),
+            EPOCH,
+            null);
+        active.add(businessUnitCode);
+      }
+    }
+    return active;
+  }
+
+  // every warehouse holds its own block of products, and each store draws up to three warehouses
+  // and a part of their blocks, skipping products two of its warehouses already serve
+  private static void links(
+      Existing existing,
+      Random random,
+      List<Long> storeIds,
+      List<Long> productIds,
+      List<String> warehouses,
+      Rows rows) {
+    if (warehouses.isEmpty() || productIds.isEmpty()) {
+      return;
+    }
+    List<Long> shuffled = new ArrayList<>(productIds);
+    Collections.shuffle(shuffled, random);
+    List<List<Long>> blocks = new ArrayList<>(warehouses.size());
+    for (int w = 0; w < warehouses.size(); w++) {
+      List<Long> block = new ArrayList<>(PRODUCTS_PER_WAREHOUSE);
+      for (int p = 0; p < PRODUCTS_PER_WAREHOUSE && p < shuffled.size(); p++) {
+        Long product = shuffled.get((w * PRODUCTS_PER_WAREHOUSE + p) % shuffled.size());
+        if (!block.contains(product)) {
+          block.add(product);
+        }
+      }
+      blocks.add(block);
+    }
+
+    long linkId = existing.maxId(Table.LINK);
+    List<Integer> order = new ArrayList<>(warehouses.size());
+    for (int w = 0; w < warehouses.size(); w++) {
+      order.add(w);
+    }
+    for (Long storeId : storeIds) {
+      Collections.shuffle(order, random);
+      int count = Math.min(1 + random.nextInt(WAREHOUSES_PER_STORE), warehouses.size());
+      Map<Long, Integer> servedProducts = new HashMap<>();
+      for (int i = 0; i < count; i++) {
+        int warehouse = order.get(i);
+        for (Long productId : blocks.get(warehouse)) {
+          if (random.nextBoolean()
+              && servedProducts.merge(productId, 1, Integer::sum)
+                  <= WAREHOUSES_PER_STORE_AND_PRODUCT) {
+            rows.add(Table.LINK, ++linkId, storeId, productId, warehouses.get(warehouse));
+          }
+        }
+      }
+    }
+  }
+
+  private static String words(Random random, int count) {
+    var text = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        text.append(' ');
+      }
+      int syllables = 2 + random.nextInt(3);
+      for (int s = 0; s < syllables; s++) {
+        text.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+      }
+    }
+    return text.toString();
+  }
+
+  private static Existing existing(Connection connection) throws SQLException {
+    var existing = new Existing();
+    try (Statement statement = connection.createStatement()) {
+      for (Table table : Table.values()) {
+        try (ResultSet result =
+            statement.executeQuery("select coalesce(max(id), 0) from " + table.table)) {
+          result.next();
+          existing.maxIds.put(table, result.getLong(1));
+        }
+      }
+      try (ResultSet result =
+          statement.executeQuery(
+              "select location, count(*), coalesce(sum(capacity), 0) from warehouse"
+                  + " where archivedAt is null group by location")) {
+        while (result.next()) {
+          existing.warehouses.put(result.getString(1), result.getInt(2));
+          existing.capacity.put(result.getString(1), result.getInt(3));
+        }
+      }
+    }
+    return existing;
+  }
+
+  // Hibernate's pooled optimizer hands out the ids below each value it fetches, so moving the
+  // sequences to the highest id keeps new entities clear of the generated ones
+  private static void restartSequences(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      for (Table table : Table.values()) {
+        statement.execute(
+            "select setval('"
+                + table.table
+                + "_seq', (select greatest(coalesce(max(id), 0), 1) from "
+                + table.table
+                + "))");
+      }
+    }
+  }
+
+  /** Streams the rows into their tables, one {@code COPY} per {@link #ROWS_PER_COPY} rows. */
+  private static class CopyRows implements Rows {
+    private final Connection connection;
+    private final Map<Table, Long> counts = new EnumMap<>(Table.class);
+    private final StringBuilder csv = new StringBuilder();
+    private Table table;
+    private int buffered;
+
+    CopyRows(Connection connection) {
+      this.connection = connection;
+    }
+
+    @Override
+    public void add(Table table, Object... values) {
+      if (table != this.table || buffered == ROWS_PER_COPY) {
+        flush();
+        this.table = table;
+      }
+      PostgresCopy.appendRow(csv, values);
+      buffered++;
+      counts.merge(table, 1L, Long::sum);
+    }
+
+    void flush() {
+      if (buffered == 0) {
+        return;
+      }
+      try {
+        PostgresCopy.copyIn(connection, table.copy, csv);
+      } catch (SQLException e) {
+        throw new IllegalStateException("Copying generated " + table.table + " rows failed", e);
+      }
+      csv.setLength(0);
+      buffered = 0;
+    }
+  }
+}
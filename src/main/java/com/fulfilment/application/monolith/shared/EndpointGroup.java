@@ -0,0 +1,26 @@
+package com.fulfilment.application.monolith.shared;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts an endpoint into a group sharing one bulkhead, see {@link Bulkheads}, so a burst of one
+ * kind of traffic, like bulk list reads, cannot take every worker thread and connection from the
+ * others. Only for blocking endpoints: the permit is released when the method returns.
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EndpointGroup {
+
+  String BULK_READ = "bulk-read";
+  String IMPORT = "import";
+  String WRITE = "write";
+
+  @Nonbinding
+  String value();
+}
@@ -0,0 +1,25 @@
+package com.fulfilment.application.monolith.shared;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+// runs before @Transactional, so a request waiting for a permit holds no transaction or connection
+@EndpointGroup("")
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE)
+public class EndpointGroupInterceptor {
+
+  @Inject Bulkheads bulkheads;
+
+  @AroundInvoke
+  Object limit(InvocationContext context) throws Exception {
+    EndpointGroup group = context.getMethod().getAnnotation(EndpointGroup.class);
+    if (group == null) {
+      group = context.getMethod().getDeclaringClass().getAnnotation(EndpointGroup.class);
+    }
+    return bulkheads.run(group.value(), context::proceed);
+  }
+}
@@ -0,0 +1,31 @@
+package com.fulfilment.application.monolith.shared;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Hands out ids for rows written with plain SQL, such as the {@code COPY} imports. They come from
+ * the entity's own Hibernate generator, so the pooled optimizer spends one {@code nextval} per
+ * block of 50 ids, and the ids never collide with the ones it gives to persisted entities.
+ */
+public final class EntityIds {
+
+  private EntityIds() {}
+
+  public static long[] allocate(EntityManager entityManager, Class<?> entityClass, int count) {
+    SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+    IdentifierGenerator generator =
+        (IdentifierGenerator)
+            session
+                .getFactory()
+                .getMappingMetamodel()
+                .getEntityDescriptor(entityClass)
+                .getGenerator();
+    long[] ids = new long[count];
+    for (int i = 0; i < count; i++) {
+      ids[i] = ((Number) generator.generate(session, null)).longValue();
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,45 @@
+package com.fulfilment.application.monolith.shared;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.EntityTag;
+
+/**
+ * The one validator of entities with a version column: GET tags them with their version, and PUT
+ * and PATCH take that tag back in If-Match.
+ */
+public final class EntityVersions {
+
+  private EntityVersions() {}
+
+  public static EntityTag tag(long version) {
+    return new EntityTag(Long.toString(version));
+  }
+
+  /**
+   * Parses an If-Match header into the expected entity version. Returns null when the header is
+   * absent or {@code *}, and rejects anything that can never match with 412.
+   */
+  public static Long expectedVersion(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    String value = ifMatch.trim();
+    if (value.startsWith("W/")) {
+      value = value.substring(2);
+    }
+    if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+      value = value.substring(1, value.length() - 1);
+    }
+    try {
+      return Long.valueOf(value);
+    } catch (NumberFormatException e) {
+      throw new WebApplicationException("If-Match does not match the current version.", 412);
+    }
+  }
+
+  public static void checkVersion(Long expectedVersion, long currentVersion) {
+    if (expectedVersion != null && expectedVersion != currentVersion) {
+      throw new WebApplicationException("If-Match does not match the current version.", 412);
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.fulfilment.application.monolith.shared;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/** The body of every error response, see {@link GlobalExceptionMapper}. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ErrorResponse {
+
+  public String exceptionType;
+
+  public int code;
+
+  public String error;
+
+  /** The business rule that rejected the request, for {@link BusinessRuleException}s only. */
+  public String rule;
+
+  public ErrorResponse() {}
+
+  public ErrorResponse(String exceptionType, int code, String error, String rule) {
+    this.exceptionType = exceptionType;
+    this.code = code;
+    this.error = error;
+    this.rule = rule;
+  }
+}
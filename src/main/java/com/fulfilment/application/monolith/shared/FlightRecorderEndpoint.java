@@ -0,0 +1,145 @@
+package com.fulfilment.application.monolith.shared;
+
+import io.quarkus.vertx.http.ManagementInterface;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.ws.rs.WebApplicationException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Starts and stops one JDK Flight Recorder recording at a time, for profiling production when
+ * latency spikes. Recordings use the JDK's profile settings plus the {@link FlightRecorderEvents},
+ * and are bounded in both duration and size: one left running stops on its own and keeps its data
+ * until it is stopped here, which streams the {@code .jfr} file back.
+ *
+ * <p>The routes are on the management interface, not the public HTTP port. Events that record the
+ * environment, system properties, JVM arguments and other processes' command lines are turned off,
+ * as they carry the datasource credentials and other secrets.
+ */
+@ApplicationScoped
+public class FlightRecorderEndpoint {
+
+  static final List<String> SENSITIVE_EVENTS =
+      List.of(
+          "jdk.InitialEnvironmentVariable",
+          "jdk.InitialSystemProperty",
+          "jdk.JVMInformation",
+          "jdk.SystemProcess");
+
+  private final long maxDurationSeconds;
+  private final long maxSizeBytes;
+  private Recording recording;
+
+  public FlightRecorderEndpoint(
+      @ConfigProperty(name = "jfr.max-duration-seconds", defaultValue = "300")
+          long maxDurationSeconds,
+      @ConfigProperty(name = "jfr.max-size-mb", defaultValue = "100") long maxSizeMb) {
+    this.maxDurationSeconds = maxDurationSeconds;
+    this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+  }
+
+  void routes(@Observes ManagementInterface management) {
+    management.router().post("/admin/jfr/start").blockingHandler(this::start);
+    management.router().post("/admin/jfr/stop").blockingHandler(this::stop);
+  }
+
+  /** Starts a recording for the given number of seconds, capped at jfr.max-duration-seconds. */
+  synchronized long start(Long seconds) {
+    if (recording != null) {
+      throw new WebApplicationException("A recording is already in progress.", 409);
+    }
+    long duration =
+        seconds == null || seconds <= 0
+            ? maxDurationSeconds
+            : Math.min(seconds, maxDurationSeconds);
+    try {
+      var started = new Recording(settings());
+      started.setName("fulfilment");
+      started.setToDisk(true);
+      started.setDuration(Duration.ofSeconds(duration));
+      started.setMaxSize(maxSizeBytes);
+      started.start();
+      recording = started;
+    } catch (IOException | ParseException e) {
+      throw new WebApplicationException("The recording could not be started.", e, 500);
+    }
+    return duration;
+  }
+
+  /** Stops the recording, if it has not stopped on its own, and dumps it to a temporary file. */
+  synchronized Path stop() {
+    if (recording == null) {
+      throw new WebApplicationException("No recording is in progress.", 404);
+    }
+    try {
+      if (recording.getState() == RecordingState.RUNNING) {
+        recording.stop();
+      }
+      Path file = Files.createTempFile("fulfilment", ".jfr");
+      recording.dump(file);
+      return file;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      recording.close();
+      recording = null;
+    }
+  }
+
+  static Map<String, String> settings() throws IOException, ParseException {
+    Map<String, String> settings =
+        new HashMap<>(Configuration.getConfiguration("profile").getSettings());
+    for (String event : SENSITIVE_EVENTS) {
+      settings.put(event + "#enabled", "false");
+    }
+    return settings;
+  }
+
+  private void start(RoutingContext context) {
+    String seconds = context.request().getParam("seconds");
+    try {
+      long duration = start(seconds == null ? null : Long.valueOf(seconds));
+      context.response().setStatusCode(202).end("Recording for at most " + duration + " s.");
+    } catch (NumberFormatException e) {
+      context.response().setStatusCode(400).end("seconds must be a number.");
+    } catch (WebApplicationException e) {
+      context.response().setStatusCode(e.getResponse().getStatus()).end(e.getMessage());
+    }
+  }
+
+  private void stop(RoutingContext context) {
+    Path file;
+    try {
+      file = stop();
+    } catch (WebApplicationException e) {
+      context.response().setStatusCode(e.getResponse().getStatus()).end(e.getMessage());
+      return;
+    }
+    context
+        .response()
+        .putHeader("Content-Type", "application/octet-stream")
+        .putHeader("Content-Disposition", "attachment; filename=\"fulfilment.jfr\"")
+        .sendFile(file.toString())
+        .onComplete(
+            sent -> {
+              try {
+                Files.deleteIfExists(file);
+              } catch (IOException e) {
+                file.toFile().deleteOnExit();
+              }
+            });
+  }
+}
@@ -0,0 +1,62 @@
+package com.fulfilment.application.monolith.shared;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The application's JDK Flight Recorder events, recorded through {@link FlightRecorderEndpoint}.
+ * While no recording enables them, {@code shouldCommit()} is false and the JIT removes the unused
+ * event objects, so callers only fill in and commit an event after checking it.
+ */
+public final class FlightRecorderEvents {
+
+  private FlightRecorderEvents() {}
+
+  @Name("fulfilment.UseCase")
+  @Label("Use Case")
+  @Category("Fulfilment")
+  @Description("A run of a warehouse or fulfilment use case")
+  public static class UseCase extends Event {
+    @Label("Use Case")
+    public String useCase;
+
+    @Label("Outcome")
+    public String outcome;
+  }
+
+  @Name("fulfilment.ConstraintEvaluation")
+  @Label("Fulfilment Constraint")
+  @Category("Fulfilment")
+  @Description("The evaluation of one fulfilment assignment constraint, including its queries")
+  public static class ConstraintEvaluation extends Event {
+    @Label("Constraint")
+    public String constraint;
+
+    @Label("Rejected")
+    public boolean rejected;
+  }
+
+  @Name("fulfilment.LegacyGatewayCall")
+  @Label("Legacy Gateway Call")
+  @Category("Fulfilment")
+  @Description("A store sync to the legacy store manager")
+  public static class LegacyGatewayCall extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+  }
+
+  @Name("fulfilment.TransactionCommit")
+  @Label("Transaction Commit")
+  @Category("Fulfilment")
+  @Description("Transaction completion, from the before-completion callbacks to the outcome")
+  public static class TransactionCommit extends Event {
+    @Label("Committed")
+    public boolean committed;
+  }
+}
@@ -1,13 +1,16 @@
 package com.fulfilment.application.monolith.shared;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 @Provider
@@ -15,26 +18,66 @@ import org.jboss.logging.Logger;
 public class GlobalExceptionMapper implements ExceptionMapper<Exception> {
 
   private static final Logger LOGGER = Logger.getLogger(GlobalExceptionMapper.class);
+  private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
 
-  @Inject ObjectMapper objectMapper;
+  private final int clientErrorsLoggedPerSecond;
+  private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+  private final AtomicInteger loggedInWindow = new AtomicInteger();
+  private final AtomicLong suppressed = new AtomicLong();
+
+  public GlobalExceptionMapper(
+      @ConfigProperty(name = "error-log.client-errors-per-second", defaultValue = "10")
+          int clientErrorsLoggedPerSecond) {
+    this.clientErrorsLoggedPerSecond = clientErrorsLoggedPerSecond;
+  }
 
   @Override
   public Response toResponse(Exception exception) {
-    LOGGER.error("Failed to handle request", exception);
-
     int code = 500;
     if (exception instanceof WebApplicationException webApplicationException) {
       code = webApplicationException.getResponse().getStatus();
     }
 
-    ObjectNode exceptionJson = objectMapper.createObjectNode();
-    exceptionJson.put("exceptionType", exception.getClass().getName());
-    exceptionJson.put("code", code);
+    // a 4xx is the client's mistake and can come in floods, so it is logged briefly and sparingly,
+    // and so is load shedding, which floods by nature
+    if (code >= 500 && !(exception instanceof OverloadedException)) {
+      LOGGER.error("Failed to handle request", exception);
+    } else {
+      logClientError(code, exception);
+    }
 
-    if (exception.getMessage() != null) {
-      exceptionJson.put("error", exception.getMessage());
+    String rule = exception instanceof BusinessRuleException rejection ? rejection.rule() : null;
+    var response =
+        Response.status(code)
+            .type(MediaType.APPLICATION_JSON_TYPE)
+            .entity(
+                new ErrorResponse(
+                    exception.getClass().getName(), code, exception.getMessage(), rule));
+    if (exception instanceof WebApplicationException webApplicationException) {
+      response.header(
+          HttpHeaders.RETRY_AFTER,
+          webApplicationException.getResponse().getHeaderString(HttpHeaders.RETRY_AFTER));
     }
+    return response.build();
+  }
 
-    return Response.status(code).entity(exceptionJson).build();
+  private void logClientError(int code, Exception exception) {
+    if (!LOGGER.isInfoEnabled()) {
+      return;
+    }
+    long now = System.nanoTime();
+    long start = windowStart.get();
+    if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+      loggedInWindow.set(0);
+      long dropped = suppressed.getAndSet(0);
+      if (dropped > 0) {
+        LOGGER.infof("%d client errors were not logged in the last window", dropped);
+      }
+    }
+    if (loggedInWindow.incrementAndGet() > clientErrorsLoggedPerSecond) {
+      suppressed.incrementAndGet();
+      return;
+    }
+    LOGGER.infof("Rejected request with %d: %s", code, exception.getMessage());
   }
 }
@@ -0,0 +1,72 @@
+package com.fulfilment.application.monolith.shared;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.microprofile.config.Config;
+
+/**
+ * Conditional GET support: answers {@code If-None-Match} with 304 and adds the ETag and the
+ * {@code Cache-Control} configured as {@code cache-control.<resource>} (default
+ * {@code cache-control.default}) to the responses.
+ */
+@ApplicationScoped
+public class HttpCaching {
+
+  private final Config config;
+  private final Map<String, String> cacheControls = new ConcurrentHashMap<>();
+
+  public HttpCaching(Config config) {
+    this.config = config;
+  }
+
+  /** Returns the 304 response when the client already has the tagged representation, or null. */
+  public Response notModified(String resource, String ifNoneMatch, EntityTag tag) {
+    if (!matches(ifNoneMatch, tag)) {
+      return null;
+    }
+    return Response.notModified(tag)
+        .header(HttpHeaders.CACHE_CONTROL, cacheControl(resource))
+        .build();
+  }
+
+  public Response.ResponseBuilder ok(String resource, EntityTag tag, Object entity) {
+    return Response.ok(entity).tag(tag).header(HttpHeaders.CACHE_CONTROL, cacheControl(resource));
+  }
+
+  public String cacheControl(String resource) {
+    return cacheControls.computeIfAbsent(
+        resource,
+        r ->
+            config
+                .getOptionalValue("cache-control." + r, String.class)
+                .or(() -> config.getOptionalValue("cache-control.default", String.class))
+                .orElse("no-cache"));
+  }
+
+  // weak comparison as If-None-Match requires, so W/"x" and "x" match each other
+  static boolean matches(String ifNoneMatch, EntityTag tag) {
+    if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String value = candidate.trim();
+      if (value.equals("*")) {
+        return true;
+      }
+      if (value.startsWith("W/")) {
+        value = value.substring(2);
+      }
+      if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+        value = value.substring(1, value.length() - 1);
+      }
+      if (value.equals(tag.getValue())) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,32 @@
+package com.fulfilment.application.monolith.shared;
+
+import java.util.Map;
+
+public class ImportRecord {
+
+  public final long line;
+
+  // null when the line could not be parsed, error then says why
+  public final Map<String, String> fields;
+
+  public final String error;
+
+  private ImportRecord(long line, Map<String, String> fields, String error) {
+    this.line = line;
+    this.fields = fields;
+    this.error = error;
+  }
+
+  public static ImportRecord of(long line, Map<String, String> fields) {
+    return new ImportRecord(line, fields, null);
+  }
+
+  public static ImportRecord malformed(long line, String error) {
+    return new ImportRecord(line, null, error);
+  }
+
+  public String get(String field) {
+    String value = fields.get(field);
+    return value == null || value.isEmpty() ? null : value;
+  }
+}
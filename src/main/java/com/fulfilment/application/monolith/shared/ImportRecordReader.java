@@ -0,0 +1,176 @@
+package com.fulfilment.application.monolith.shared;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.WebApplicationException;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads import records one line at a time so only the current line is ever held in memory. CSV
+ * bodies start with a header row naming the columns; NDJSON bodies hold one flat JSON object per
+ * line. Quoted CSV values may contain commas and doubled quotes but not line breaks.
+ */
+public class ImportRecordReader implements Closeable {
+
+  public static final String CSV = "text/csv";
+  public static final String NDJSON = "application/x-ndjson";
+
+  private final BufferedReader reader;
+  private final ObjectMapper objectMapper;
+  private final List<String> header;
+  private long line;
+
+  private ImportRecordReader(InputStream body, ObjectMapper objectMapper, boolean csv) {
+    this.reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    this.objectMapper = objectMapper;
+    this.header = csv ? readHeader() : null;
+  }
+
+  public static ImportRecordReader open(
+      InputStream body, String contentType, ObjectMapper objectMapper) {
+    String mediaType = contentType == null ? "" : contentType.split(";")[0].trim().toLowerCase();
+    switch (mediaType) {
+      case CSV:
+        return new ImportRecordReader(body, objectMapper, true);
+      case NDJSON:
+        return new ImportRecordReader(body, objectMapper, false);
+      default:
+        throw new WebApplicationException(
+            "Import content type must be " + CSV + " or " + NDJSON + ".", 415);
+    }
+  }
+
+  /** Returns the next non-blank record, or null at the end of the body. */
+  public ImportRecord next() {
+    String text;
+    do {
+      text = readLine();
+      if (text == null) {
+        return null;
+      }
+    } while (text.isBlank());
+
+    try {
+      return ImportRecord.of(line, header != null ? csvRecord(text) : jsonRecord(text));
+    } catch (IllegalArgumentException e) {
+      return ImportRecord.malformed(line, e.getMessage());
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      reader.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private List<String> readHeader() {
+    String text;
+    do {
+      text = readLine();
+      if (text == null) {
+        throw new WebApplicationException("CSV import has no header row.", 422);
+      }
+    } while (text.isBlank());
+
+    try {
+      List<String> columns = parseCsvLine(text);
+      columns.replaceAll(String::trim);
+      return columns;
+    } catch (IllegalArgumentException e) {
+      throw new WebApplicationException("CSV header is malformed: " + e.getMessage(), 422);
+    }
+  }
+
+  private Map<String, String> csvRecord(String text) {
+    List<String> values = parseCsvLine(text);
+    if (values.size() != header.size()) {
+      throw new IllegalArgumentException(
+          "Expected " + header.size() + " columns but found " + values.size() + ".");
+    }
+    Map<String, String> fields = new HashMap<>();
+    for (int i = 0; i < values.size(); i++) {
+      fields.put(header.get(i), values.get(i));
+    }
+    return fields;
+  }
+
+  private Map<String, String> jsonRecord(String text) {
+    JsonNode node;
+    try {
+      node = objectMapper.readTree(text);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Line is not valid JSON.");
+    }
+    if (node == null || !node.isObject()) {
+      throw new IllegalArgumentException("Line is not a JSON object.");
+    }
+    Map<String, String> fields = new HashMap<>();
+    for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+      Map.Entry<String, JsonNode> field = it.next();
+      JsonNode value = field.getValue();
+      if (value.isContainerNode()) {
+        throw new IllegalArgumentException("Field " + field.getKey() + " must be a plain value.");
+      }
+      fields.put(field.getKey(), value.isNull() ? null : value.asText());
+    }
+    return fields;
+  }
+
+  static List<String> parseCsvLine(String text) {
+    List<String> values = new ArrayList<>();
+    StringBuilder value = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (quoted) {
+        if (c != '"') {
+          value.append(c);
+        } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+          value.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"' && value.length() == 0) {
+        quoted = true;
+      } else if (c == ',') {
+        values.add(value.toString());
+        value.setLength(0);
+      } else {
+        value.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("Unterminated quoted value.");
+    }
+    values.add(value.toString());
+    return values;
+  }
+
+  private String readLine() {
+    try {
+      String text = reader.readLine();
+      if (text != null) {
+        line++;
+      }
+      return text;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package com.fulfilment.application.monolith.shared;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportReport {
+
+  public long imported;
+
+  public long rejected;
+
+  // only the first maxErrors rejections are listed so huge broken files keep the report small
+  public List<ImportError> errors = new ArrayList<>();
+
+  public boolean errorsTruncated;
+
+  private final int maxErrors;
+
+  public ImportReport(int maxErrors) {
+    this.maxErrors = maxErrors;
+  }
+
+  public void reject(long line, String message) {
+    rejected++;
+    if (errors.size() < maxErrors) {
+      errors.add(new ImportError(line, message));
+    } else {
+      errorsTruncated = true;
+    }
+  }
+
+  public static class ImportError {
+    public long line;
+    public String message;
+
+    public ImportError() {}
+
+    public ImportError(long line, String message) {
+      this.line = line;
+      this.message = message;
+    }
+  }
+}
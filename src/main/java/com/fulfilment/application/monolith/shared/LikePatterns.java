@@ -0,0 +1,32 @@
+package com.fulfilment.application.monolith.shared;
+
+/**
+ * Prefix searches with LIKE. The wildcards of the searched text are escaped, so a prefix of
+ * {@code KAL_1%} matches names starting with exactly that, and the condition names its escape
+ * character instead of relying on the default of the database.
+ *
+ * <p>The condition is standard SQL; only its use of an index depends on the database. Postgres
+ * serves a prefix LIKE from a plain btree index when the column has the {@link #C_COLLATION}, as
+ * store names do, and scans otherwise.
+ */
+public final class LikePatterns {
+
+  /** The byte-order collation of Postgres, the schema dialect of this application. */
+  public static final String C_COLLATION = "collate \"C\"";
+
+  private LikePatterns() {}
+
+  /** The condition that the path starts with the pattern bound to the named parameter. */
+  public static String startsWith(String path, String parameter) {
+    return path + " like :" + parameter + " escape '\\'";
+  }
+
+  /** The pattern for {@link #startsWith} matching every value that starts with the prefix. */
+  public static String prefix(String prefix) {
+    return escape(prefix) + "%";
+  }
+
+  static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -0,0 +1,45 @@
+package com.fulfilment.application.monolith.shared;
+
+import jakarta.ws.rs.WebApplicationException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/** Parses the comma separated keys of the multi-get endpoints, keeping the first-seen order. */
+public final class MultiGetKeys {
+
+  public static final int MAX_KEYS = 100;
+
+  private MultiGetKeys() {}
+
+  public static List<String> parse(List<String> values) {
+    Set<String> keys = new LinkedHashSet<>();
+    for (String value : values) {
+      for (String key : value.split(",")) {
+        if (!key.isBlank()) {
+          keys.add(key.trim());
+        }
+      }
+    }
+    if (keys.isEmpty()) {
+      throw new WebApplicationException("At least one key must be requested.", 422);
+    }
+    if (keys.size() > MAX_KEYS) {
+      throw new WebApplicationException("At most " + MAX_KEYS + " keys can be requested.", 422);
+    }
+    return new ArrayList<>(keys);
+  }
+
+  public static List<Long> parseIds(String value) {
+    Set<Long> ids = new LinkedHashSet<>();
+    for (String key : parse(List.of(value))) {
+      try {
+        ids.add(Long.valueOf(key));
+      } catch (NumberFormatException e) {
+        throw new WebApplicationException("Id " + key + " is not a number.", 422);
+      }
+    }
+    return new ArrayList<>(ids);
+  }
+}
@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.shared;
+
+import java.util.List;
+
+/** Response of the multi-get endpoints: the resolved entities plus the keys nothing matched. */
+public class MultiGetResult<T, K> {
+
+  public List<T> items;
+
+  public List<K> missing;
+
+  public MultiGetResult() {}
+
+  public MultiGetResult(List<T> items, List<K> missing) {
+    this.items = items;
+    this.missing = missing;
+  }
+}
@@ -0,0 +1,74 @@
+package com.fulfilment.application.monolith.shared;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.StaleStateException;
+
+/**
+ * Runs a unit of work in its own transaction and deals with version conflicts raised by
+ * {@code @Version} entities. Conditional requests (If-Match) fail fast with 412; unconditional ones
+ * are re-run against the latest state until {@code optimistic-lock.max-attempts} is reached.
+ */
+@ApplicationScoped
+public class OptimisticLockRetry {
+
+  private final MeterRegistry meterRegistry;
+  private final int maxAttempts;
+
+  public OptimisticLockRetry(
+      MeterRegistry meterRegistry,
+      @ConfigProperty(name = "optimistic-lock.max-attempts", defaultValue = "3") int maxAttempts) {
+    this.meterRegistry = meterRegistry;
+    this.maxAttempts = maxAttempts;
+  }
+
+  public <T> T call(String operation, boolean retry, Supplier<T> work) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return inNewTransaction(work);
+      } catch (RuntimeException e) {
+        if (!isVersionConflict(e)) {
+          throw e;
+        }
+        meterRegistry.counter("optimistic_lock.conflicts", "operation", operation).increment();
+        if (!retry) {
+          throw new WebApplicationException("The resource was modified concurrently.", 412);
+        }
+        if (attempt >= maxAttempts) {
+          meterRegistry.counter("optimistic_lock.exhausted", "operation", operation).increment();
+          throw new WebApplicationException("The resource is being modified concurrently.", 409);
+        }
+        meterRegistry.counter("optimistic_lock.retries", "operation", operation).increment();
+        backOff(attempt);
+      }
+    }
+  }
+
+  protected <T> T inNewTransaction(Supplier<T> work) {
+    return QuarkusTransaction.requiringNew().call(work::get);
+  }
+
+  static boolean isVersionConflict(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof OptimisticLockException || cause instanceof StaleStateException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void backOff(int attempt) {
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(1, 5L * attempt + 1));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new WebApplicationException("Interrupted while retrying a concurrent update.", 503);
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.fulfilment.application.monolith.shared;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * A request turned away with 503 because the server is at capacity, telling the client when to
+ * retry. Like a business rule rejection it is expected under load, so it has no stack trace and
+ * {@link GlobalExceptionMapper} logs it as briefly as a client error.
+ */
+public class OverloadedException extends WebApplicationException {
+
+  public OverloadedException(String message, int retryAfterSeconds) {
+    super(
+        message,
+        Response.status(Response.Status.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+            .build());
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+}
@@ -0,0 +1,41 @@
+package com.fulfilment.application.monolith.shared;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs code that may block inside {@code synchronized} sections, like the legacy store manager
+ * callbacks run from {@code afterCompletion}, on a platform thread when the caller is a virtual
+ * thread. A virtual thread that blocks while holding a monitor pins its carrier; parked on the
+ * hand-off it releases the carrier instead. Platform callers run the code directly, as before.
+ */
+@ApplicationScoped
+public class PinningGuard {
+
+  private final Executor platformExecutor;
+
+  /** The executor is the Quarkus worker pool, whose threads are always platform threads. */
+  public PinningGuard(Executor platformExecutor) {
+    this.platformExecutor = platformExecutor;
+  }
+
+  public void run(Runnable action) {
+    if (!Thread.currentThread().isVirtual()) {
+      action.run();
+      return;
+    }
+    try {
+      CompletableFuture.runAsync(action, platformExecutor).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
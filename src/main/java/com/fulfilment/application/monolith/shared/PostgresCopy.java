@@ -0,0 +1,43 @@
+package com.fulfilment.application.monolith.shared;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.postgresql.PGConnection;
+
+/** Helpers for streaming rows into Postgres with {@code COPY ... FROM STDIN}. */
+public final class PostgresCopy {
+
+  private PostgresCopy() {}
+
+  public static boolean isAvailable(Connection connection) throws SQLException {
+    return connection.isWrapperFor(PGConnection.class);
+  }
+
+  public static long copyIn(Connection connection, String sql, CharSequence csv)
+      throws SQLException {
+    try {
+      return connection
+          .unwrap(PGConnection.class)
+          .getCopyAPI()
+          .copyIn(sql, new StringReader(csv.toString()));
+    } catch (IOException e) {
+      throw new SQLException("COPY failed", e);
+    }
+  }
+
+  /** Appends one row in the CSV format understood by {@code COPY ... WITH (FORMAT csv)}. */
+  public static void appendRow(StringBuilder csv, Object... values) {
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        csv.append(',');
+      }
+      Object value = values[i];
+      if (value != null) {
+        csv.append('"').append(value.toString().replace("\"", "\"\"")).append('"');
+      }
+    }
+    csv.append('\n');
+  }
+}
@@ -0,0 +1,16 @@
+package com.fulfilment.application.monolith.shared;
+
+import jakarta.interceptor.InterceptorBinding;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Routes the read queries of an endpoint to the {@code read} datasource, see {@link ReadReplica}.
+ * Only for blocking endpoints that do not write.
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnlyEndpoint {}
@@ -0,0 +1,25 @@
+package com.fulfilment.application.monolith.shared;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+@ReadOnlyEndpoint
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class ReadOnlyEndpointInterceptor {
+
+  @Inject ReadReplica readReplica;
+
+  @AroundInvoke
+  Object route(InvocationContext context) throws Exception {
+    ReadReplica.Routing routing = readReplica.open();
+    try {
+      return context.proceed();
+    } finally {
+      readReplica.close(routing);
+    }
+  }
+}
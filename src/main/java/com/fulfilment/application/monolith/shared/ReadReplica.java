@@ -0,0 +1,156 @@
+package com.fulfilment.application.monolith.shared;
+
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.agroal.DataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.jboss.logging.Logger;
+
+/**
+ * The {@code read} datasource, which can point at a replica, for {@link ReadOnlyEndpoint}s. Panache
+ * entities belong to the one persistence unit on the primary, so instead of a second unit a routed
+ * endpoint gets a read-only session of that unit opened on a read connection; repositories run
+ * their read queries on {@link #entityManager}, which is that session inside a routed endpoint and
+ * their own entity manager everywhere else.
+ *
+ * <p>While the read datasource cannot reach its database, reads fall back to the primary. Waiting
+ * for a connection is timed as {@code db.pool.wait} per datasource.
+ */
+@ApplicationScoped
+public class ReadReplica {
+
+  static final String POOL_WAIT = "db.pool.wait";
+  static final String FALLBACKS = "db.read.fallbacks";
+
+  private static final Logger LOGGER = Logger.getLogger(ReadReplica.class);
+
+  // the routed endpoint running on this thread, whose session is opened on its first query
+  private static final ThreadLocal<Routing> ROUTING = new ThreadLocal<>();
+
+  private final AgroalDataSource replica;
+  private final AgroalDataSource primary;
+  private final SessionFactory sessionFactory;
+  private final MeterRegistry meterRegistry;
+  private volatile boolean replicaDown;
+
+  public ReadReplica(
+      @DataSource("read") AgroalDataSource replica,
+      AgroalDataSource primary,
+      SessionFactory sessionFactory,
+      MeterRegistry meterRegistry) {
+    this.replica = replica;
+    this.primary = primary;
+    this.sessionFactory = sessionFactory;
+    this.meterRegistry = meterRegistry;
+  }
+
+  /** The entity manager for a read query: the read session inside a routed endpoint. */
+  public static EntityManager entityManager(EntityManager primary) {
+    Routing routing = ROUTING.get();
+    return routing == null ? primary : routing.session();
+  }
+
+  /**
+   * Routes the reads of this thread to the read datasource until {@link #close} is called with the
+   * result, which the caller must do in a finally block. Returns null inside an endpoint that is
+   * already routed, as the outer endpoint owns the session.
+   */
+  Routing open() {
+    if (ROUTING.get() != null) {
+      return null;
+    }
+    var routing = new Routing();
+    ROUTING.set(routing);
+    return routing;
+  }
+
+  void close(Routing routing) throws SQLException {
+    if (routing != null) {
+      ROUTING.remove();
+      routing.close();
+    }
+  }
+
+  Connection connection() throws SQLException {
+    try {
+      Connection connection = acquire(replica, "read");
+      if (replicaDown) {
+        replicaDown = false;
+        LOGGER.info("Read datasource is available again");
+      }
+      return connection;
+    } catch (SQLException e) {
+      if (!unreachable(e)) {
+        throw e;
+      }
+      meterRegistry.counter(FALLBACKS).increment();
+      if (!replicaDown) {
+        replicaDown = true;
+        LOGGER.warnf("Read datasource unavailable, reading from the primary: %s", e.getMessage());
+      }
+      return acquire(primary, "primary");
+    }
+  }
+
+  // only a replica that cannot be reached falls back; an exhausted read pool must not spill the
+  // bulk reads over to the primary, which the separate pools are there to protect
+  static boolean unreachable(Throwable failure) {
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLException sqlException
+          && sqlException.getSQLState() != null
+          && sqlException.getSQLState().startsWith("08")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Connection acquire(AgroalDataSource dataSource, String name) throws SQLException {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    try {
+      return dataSource.getConnection();
+    } finally {
+      sample.stop(
+          Timer.builder(POOL_WAIT)
+              .tag("datasource", name)
+              .publishPercentileHistogram()
+              .register(meterRegistry));
+    }
+  }
+
+  class Routing {
+    private Connection connection;
+    private Session session;
+
+    Session session() {
+      if (session == null) {
+        try {
+          connection = connection();
+        } catch (SQLException e) {
+          throw new IllegalStateException("No connection for a read query", e);
+        }
+        session = sessionFactory.withOptions().connection(connection).openSession();
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+      }
+      return session;
+    }
+
+    void close() throws SQLException {
+      if (session != null) {
+        try {
+          session.close();
+        } finally {
+          connection.close();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.fulfilment.application.monolith.shared;
+
+import io.quarkus.runtime.configuration.MemorySize;
+import io.quarkus.vertx.http.runtime.VertxHttpRecorder;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import java.util.Set;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Limits request bodies per route, in place of the global {@code quarkus.http.limits.max-body-size}
+ * (left unset so Quarkus does not register its own limit). Every route keeps the usual 10M, only
+ * the import endpoints, which stream their body into batches, accept {@code import.max-body-size}.
+ *
+ * <p>Like the Quarkus limit, a body announced larger than the limit is refused with 413 before it
+ * is read and the connection is closed; a chunked body is cut off by the REST layer once it has
+ * read more than the limit.
+ */
+@ApplicationScoped
+public class RequestBodyLimits {
+
+  static final Set<String> IMPORT_PATHS = Set.of("/product/import", "/store/import");
+
+  private final long maxBodySize;
+  private final long importMaxBodySize;
+
+  public RequestBodyLimits(
+      @ConfigProperty(name = "request-body.max-size", defaultValue = "10M")
+          MemorySize maxBodySize,
+      @ConfigProperty(name = "import.max-body-size", defaultValue = "8G")
+          MemorySize importMaxBodySize) {
+    this.maxBodySize = maxBodySize.asLongValue();
+    this.importMaxBodySize = importMaxBodySize.asLongValue();
+  }
+
+  // the same order as the Quarkus limit, ahead of every other route
+  void routes(@Observes Router router) {
+    router.route().order(-2).handler(this::enforce);
+  }
+
+  long limit(String path) {
+    return IMPORT_PATHS.contains(path) ? importMaxBodySize : maxBodySize;
+  }
+
+  void enforce(RoutingContext context) {
+    long limit = limit(context.request().path());
+    String contentLength = context.request().getHeader(HttpHeaders.CONTENT_LENGTH);
+    if (contentLength == null) {
+      context.put(VertxHttpRecorder.MAX_REQUEST_SIZE_KEY, limit);
+    } else if (tooLarge(contentLength, limit)) {
+      context.response().putHeader(HttpHeaders.CONNECTION, "close").setStatusCode(413);
+      context.response().endHandler(ended -> context.request().connection().close());
+      context.response().end();
+      return;
+    }
+    context.next();
+  }
+
+  private static boolean tooLarge(String contentLength, long limit) {
+    try {
+      return Long.parseLong(contentLength.trim()) > limit;
+    } catch (NumberFormatException e) {
+      // Vert.x rejects a malformed Content-Length before routing
+      return false;
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.fulfilment.application.monolith.shared;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/** What one HTTP request cost in SQL, filled in by {@link SqlStatisticsCollector}. */
+@RequestScoped
+public class RequestSqlStatistics {
+
+  private int statements;
+  private int entityLoads;
+  private int flushes;
+
+  void statementPrepared() {
+    statements++;
+  }
+
+  void entityLoaded() {
+    entityLoads++;
+  }
+
+  void flushed() {
+    flushes++;
+  }
+
+  public int statements() {
+    return statements;
+  }
+
+  public int entityLoads() {
+    return entityLoads;
+  }
+
+  public int flushes() {
+    return flushes;
+  }
+}
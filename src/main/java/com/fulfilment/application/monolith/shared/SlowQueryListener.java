@@ -0,0 +1,93 @@
+package com.fulfilment.application.monolith.shared;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import java.util.Locale;
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Times every JDBC execution of a session for the {@link SlowQueryLog}. Hibernate creates one per
+ * session, as configured with {@code hibernate.session.events.auto}, and a session stays on one
+ * thread, so the statement it times is the one last prepared on that thread. Sessions opened
+ * without a CDI container, as in plain unit tests, time nothing.
+ *
+ * <p>Inside a traced request every execution is also a client span carrying the statement's shape,
+ * so a trace shows which of a request's queries took the time. Statements run outside one, like
+ * the import script, start no trace of their own.
+ */
+public class SlowQueryListener extends BaseSessionEventListener {
+
+  private final SlowQueryLog slowQueryLog;
+  private long start;
+  private Span span;
+
+  public SlowQueryListener() {
+    this(SlowQueryLog.current());
+  }
+
+  SlowQueryListener(SlowQueryLog slowQueryLog) {
+    this.slowQueryLog = slowQueryLog;
+  }
+
+  @Override
+  public void jdbcExecuteStatementStart() {
+    startSpan(false);
+    start = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteStatementEnd() {
+    if (slowQueryLog != null) {
+      slowQueryLog.executed(System.nanoTime() - start, false);
+    }
+    endSpan();
+  }
+
+  @Override
+  public void jdbcExecuteBatchStart() {
+    startSpan(true);
+    start = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteBatchEnd() {
+    if (slowQueryLog != null) {
+      slowQueryLog.executed(System.nanoTime() - start, true);
+    }
+    endSpan();
+  }
+
+  private void startSpan(boolean batch) {
+    if (!Span.current().getSpanContext().isValid()) {
+      return;
+    }
+    String sql = SlowQueryLog.prepared();
+    span =
+        Tracing.tracer()
+            .spanBuilder(operation(sql) + (batch ? " batch" : ""))
+            .setSpanKind(SpanKind.CLIENT)
+            .setAttribute("db.system", "postgresql")
+            .setAttribute("db.statement", SlowQueryLog.shape(sql))
+            .startSpan();
+  }
+
+  private void endSpan() {
+    if (span != null) {
+      span.end();
+      span = null;
+    }
+  }
+
+  // the leading keyword, like SELECT or INSERT, names the span; the statement is an attribute
+  static String operation(String sql) {
+    if (sql == null) {
+      return "SQL";
+    }
+    String trimmed = sql.strip();
+    int end = 0;
+    while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+      end++;
+    }
+    return end == 0 ? "SQL" : trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+  }
+}
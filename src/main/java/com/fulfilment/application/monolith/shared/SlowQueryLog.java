@@ -0,0 +1,124 @@
+package com.fulfilment.application.monolith.shared;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Logs slow SQL statements, and a sample of the others, with the use case that ran them, instead
+ * of logging every statement. Statements are timed by {@link SlowQueryListener}, which Hibernate
+ * creates per session outside CDI and which looks this bean up when it is created. The settings
+ * come from configuration and can be replaced at runtime through {@link SqlLogEndpoint}.
+ *
+ * <p>A statement that is not logged costs two clock reads and a comparison. Only the logged ones
+ * pay for formatting, and they log the statement with its placeholders, never the bound values.
+ */
+@ApplicationScoped
+public class SlowQueryLog {
+
+  private static final Logger SLOW = Logger.getLogger("sql.slow");
+  private static final Logger SAMPLED = Logger.getLogger("sql.sampled");
+  private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?){3,}");
+  private static final ThreadLocal<String> PREPARED = new ThreadLocal<>();
+
+  private volatile long slowThresholdNanos = -1;
+  private volatile double sampleRate;
+
+  public SlowQueryLog(
+      @ConfigProperty(name = "sql-log.slow-threshold-ms", defaultValue = "500")
+          long slowThresholdMillis,
+      @ConfigProperty(name = "sql-log.sample-rate", defaultValue = "0") double sampleRate) {
+    update(new SqlLogSettings(slowThresholdMillis, sampleRate));
+  }
+
+  /** The application's instance, or null while no CDI container is running. */
+  static SlowQueryLog current() {
+    ArcContainer container = Arc.container();
+    return container == null ? null : container.instance(SlowQueryLog.class).get();
+  }
+
+  public SqlLogSettings settings() {
+    long threshold = slowThresholdNanos;
+    return new SqlLogSettings(
+        threshold < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(threshold), sampleRate);
+  }
+
+  public SqlLogSettings update(SqlLogSettings settings) {
+    if (settings == null || settings.sampleRate < 0 || settings.sampleRate > 1) {
+      throw new WebApplicationException("sampleRate must be between 0 and 1.", 400);
+    }
+    slowThresholdNanos =
+        settings.slowThresholdMillis < 0
+            ? -1
+            : TimeUnit.MILLISECONDS.toNanos(settings.slowThresholdMillis);
+    sampleRate = settings.sampleRate;
+    return settings();
+  }
+
+  /** Remembers the statement the current thread is about to execute. */
+  static void prepared(String sql) {
+    PREPARED.set(sql);
+  }
+
+  /** The statement the current thread last prepared. */
+  static String prepared() {
+    return PREPARED.get();
+  }
+
+  void executed(long nanos, boolean batch) {
+    long threshold = slowThresholdNanos;
+    if (threshold >= 0 && nanos >= threshold) {
+      log(SLOW, "Slow", nanos, batch);
+    } else {
+      double rate = sampleRate;
+      if (rate > 0 && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate)) {
+        log(SAMPLED, "Sampled", nanos, batch);
+      }
+    }
+  }
+
+  private static void log(Logger logger, String kind, long nanos, boolean batch) {
+    String sql = prepared();
+    String useCase = UseCaseMetrics.current();
+    logger.infof(
+        "%s SQL%s, %.1f ms in %s, %d bind parameters: %s",
+        kind,
+        batch ? " batch" : "",
+        nanos / 1_000_000.0,
+        useCase == null ? "no use case" : useCase,
+        parameters(sql),
+        shape(sql));
+  }
+
+  static int parameters(String sql) {
+    int count = 0;
+    if (sql != null) {
+      for (int i = 0; i < sql.length(); i++) {
+        if (sql.charAt(i) == '?') {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  // long placeholder lists only differ in their length, so they are shortened to it
+  static String shape(String sql) {
+    if (sql == null) {
+      return "(unknown statement)";
+    }
+    var matcher = PARAMETER_LIST.matcher(sql);
+    var shape = new StringBuilder();
+    while (matcher.find()) {
+      matcher.appendReplacement(shape, "?... x" + parameters(matcher.group()));
+    }
+    matcher.appendTail(shape);
+    return shape.toString();
+  }
+}
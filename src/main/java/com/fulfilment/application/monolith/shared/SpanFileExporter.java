@@ -0,0 +1,117 @@
+package com.fulfilment.application.monolith.shared;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Exports spans as JSON lines, one per span, so traces can be read without a collector: appended
+ * to {@code tracing.file} when it is set, otherwise logged on the {@code tracing} category. Quarkus
+ * batches the spans and exports them here off the request threads.
+ */
+@ApplicationScoped
+public class SpanFileExporter implements SpanExporter {
+
+  private static final Logger LOG = Logger.getLogger("tracing");
+
+  private final ObjectMapper objectMapper;
+  private final Optional<Path> file;
+  private Writer writer;
+
+  public SpanFileExporter(
+      ObjectMapper objectMapper, @ConfigProperty(name = "tracing.file") Optional<String> file) {
+    this.objectMapper = objectMapper;
+    this.file = file.filter(path -> !path.isBlank()).map(Path::of);
+  }
+
+  @Override
+  public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+    try {
+      for (SpanData span : spans) {
+        String line = objectMapper.writeValueAsString(toJson(span));
+        if (file.isPresent()) {
+          writer().write(line);
+          writer().write('\n');
+        } else {
+          LOG.info(line);
+        }
+      }
+      if (writer != null) {
+        writer.flush();
+      }
+      return CompletableResultCode.ofSuccess();
+    } catch (IOException e) {
+      LOG.warnf("Could not export %d spans: %s", spans.size(), e.getMessage());
+      return CompletableResultCode.ofFailure();
+    }
+  }
+
+  @Override
+  public CompletableResultCode flush() {
+    return CompletableResultCode.ofSuccess();
+  }
+
+  @Override
+  public synchronized CompletableResultCode shutdown() {
+    if (writer != null) {
+      try {
+        writer.close();
+      } catch (IOException e) {
+        return CompletableResultCode.ofFailure();
+      } finally {
+        writer = null;
+      }
+    }
+    return CompletableResultCode.ofSuccess();
+  }
+
+  // opened on the first export, so an unwritable path fails the export rather than startup
+  private Writer writer() throws IOException {
+    if (writer == null) {
+      Path path = file.get();
+      if (path.getParent() != null) {
+        Files.createDirectories(path.getParent());
+      }
+      writer =
+          Files.newBufferedWriter(
+              path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+    return writer;
+  }
+
+  static Map<String, Object> toJson(SpanData span) {
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put("traceId", span.getTraceId());
+    json.put("spanId", span.getSpanId());
+    if (span.getParentSpanContext().isValid()) {
+      json.put("parentSpanId", span.getParentSpanId());
+    }
+    json.put("name", span.getName());
+    json.put("kind", span.getKind().name());
+    json.put("start", Instant.EPOCH.plusNanos(span.getStartEpochNanos()).toString());
+    json.put(
+        "durationMicros",
+        TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()));
+    json.put("status", span.getStatus().getStatusCode().name());
+    Map<String, Object> attributes = new LinkedHashMap<>();
+    span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+    json.put("attributes", attributes);
+    return json;
+  }
+}
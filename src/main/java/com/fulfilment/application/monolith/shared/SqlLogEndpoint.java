@@ -0,0 +1,77 @@
+package com.fulfilment.application.monolith.shared;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.vertx.http.ManagementInterface;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.ws.rs.WebApplicationException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Reads and replaces the {@link SlowQueryLog} settings of the running application with GET and PUT
+ * /admin/sql-log. Like the JFR routes these are on the management interface, not the public HTTP
+ * port, as sampling every statement is an easy way to slow the application down.
+ */
+@ApplicationScoped
+public class SqlLogEndpoint {
+
+  private final SlowQueryLog slowQueryLog;
+  private final ObjectMapper objectMapper;
+
+  public SqlLogEndpoint(SlowQueryLog slowQueryLog, ObjectMapper objectMapper) {
+    this.slowQueryLog = slowQueryLog;
+    this.objectMapper = objectMapper;
+  }
+
+  void routes(@Observes ManagementInterface management) {
+    management.router().get("/admin/sql-log").handler(this::get);
+    management.router().put("/admin/sql-log").handler(this::update);
+  }
+
+  private void get(RoutingContext context) {
+    respond(context, slowQueryLog.settings());
+  }
+
+  // the management router reads bodies up front; a bare router leaves them to the handler
+  private void update(RoutingContext context) {
+    if (context.body().available()) {
+      update(context, context.body().buffer());
+    } else {
+      context.request().body().onFailure(context::fail).onSuccess(body -> update(context, body));
+    }
+  }
+
+  private void update(RoutingContext context, Buffer body) {
+    SqlLogSettings settings;
+    try {
+      settings =
+          objectMapper.readValue(
+              body == null ? new byte[0] : body.getBytes(), SqlLogSettings.class);
+    } catch (IOException e) {
+      context
+          .response()
+          .setStatusCode(400)
+          .end("The settings must be a JSON object with slowThresholdMillis and sampleRate.");
+      return;
+    }
+    try {
+      respond(context, slowQueryLog.update(settings));
+    } catch (WebApplicationException e) {
+      context.response().setStatusCode(e.getResponse().getStatus()).end(e.getMessage());
+    }
+  }
+
+  private void respond(RoutingContext context, SqlLogSettings settings) {
+    try {
+      context
+          .response()
+          .putHeader("Content-Type", "application/json")
+          .end(Buffer.buffer(objectMapper.writeValueAsBytes(settings)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
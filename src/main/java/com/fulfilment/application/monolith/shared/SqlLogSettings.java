@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.shared;
+
+/** The slow-query log settings, as read and replaced through {@link SqlLogEndpoint}. */
+public class SqlLogSettings {
+
+  /** Statements taking at least this long are logged as slow; negative turns that off. */
+  public long slowThresholdMillis;
+
+  /** The share of the other statements that is logged, from 0 for none to 1 for all of them. */
+  public double sampleRate;
+
+  public SqlLogSettings() {}
+
+  public SqlLogSettings(long slowThresholdMillis, double sampleRate) {
+    this.slowThresholdMillis = slowThresholdMillis;
+    this.sampleRate = sampleRate;
+  }
+}
@@ -0,0 +1,54 @@
+package com.fulfilment.application.monolith.shared;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+/**
+ * Reports the SQL cost of every request: requests preparing more statements than {@code
+ * sql-budget.max-statements} are logged, which is how a query inside a loop shows up, and with
+ * {@code sql-budget.response-headers} the counts are returned as headers so tests can assert them.
+ */
+public class SqlStatementBudget {
+
+  public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+  public static final String ENTITY_LOADS_HEADER = "X-Sql-Entity-Loads";
+  public static final String FLUSHES_HEADER = "X-Sql-Flushes";
+
+  private static final Logger LOGGER = Logger.getLogger(SqlStatementBudget.class);
+
+  private final RequestSqlStatistics statistics;
+  private final int maxStatements;
+  private final boolean responseHeaders;
+
+  public SqlStatementBudget(
+      RequestSqlStatistics statistics,
+      @ConfigProperty(name = "sql-budget.max-statements", defaultValue = "20") int maxStatements,
+      @ConfigProperty(name = "sql-budget.response-headers", defaultValue = "false")
+          boolean responseHeaders) {
+    this.statistics = statistics;
+    this.maxStatements = maxStatements;
+    this.responseHeaders = responseHeaders;
+  }
+
+  @ServerResponseFilter
+  public void report(ContainerRequestContext request, ContainerResponseContext response) {
+    if (responseHeaders) {
+      response.getHeaders().putSingle(STATEMENTS_HEADER, statistics.statements());
+      response.getHeaders().putSingle(ENTITY_LOADS_HEADER, statistics.entityLoads());
+      response.getHeaders().putSingle(FLUSHES_HEADER, statistics.flushes());
+    }
+    if (statistics.statements() > maxStatements) {
+      LOGGER.warnf(
+          "%s %s prepared %d SQL statements, over the budget of %d (%d entity loads, %d flushes)",
+          request.getMethod(),
+          request.getUriInfo().getPath(),
+          statistics.statements(),
+          maxStatements,
+          statistics.entityLoads(),
+          statistics.flushes());
+    }
+  }
+}
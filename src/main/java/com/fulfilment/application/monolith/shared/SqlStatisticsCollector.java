@@ -0,0 +1,57 @@
+package com.fulfilment.application.monolith.shared;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.Iterator;
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Counts the statements Hibernate prepares, the entities it loads and its flushes into the {@link
+ * RequestSqlStatistics} of the current request. The session factory statistics only add up across
+ * all requests, so these hooks attribute the work per request instead. Outside a request, during
+ * startup for instance, nothing is counted. Each statement is also handed to the {@link
+ * SlowQueryLog}, in case its execution turns out to be worth logging.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class SqlStatisticsCollector implements StatementInspector, Interceptor {
+
+  private final RequestSqlStatistics statistics;
+
+  public SqlStatisticsCollector(RequestSqlStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  @Override
+  public String inspect(String sql) {
+    SlowQueryLog.prepared(sql);
+    if (inRequest()) {
+      statistics.statementPrepared();
+    }
+    return sql;
+  }
+
+  @Override
+  public boolean onLoad(
+      Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+    if (inRequest()) {
+      statistics.entityLoaded();
+    }
+    return false;
+  }
+
+  @Override
+  public void preFlush(Iterator<Object> entities) {
+    if (inRequest()) {
+      statistics.flushed();
+    }
+  }
+
+  // package-private so unit tests can count without a CDI request context
+  boolean inRequest() {
+    return Arc.container().requestContext().isActive();
+  }
+}
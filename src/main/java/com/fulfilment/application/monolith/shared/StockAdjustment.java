@@ -0,0 +1,15 @@
+package com.fulfilment.application.monolith.shared;
+
+public class StockAdjustment {
+
+  public Long id;
+
+  public Integer delta;
+
+  public StockAdjustment() {}
+
+  public StockAdjustment(Long id, Integer delta) {
+    this.id = id;
+    this.delta = delta;
+  }
+}
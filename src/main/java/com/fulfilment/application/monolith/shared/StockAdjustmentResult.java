@@ -0,0 +1,24 @@
+package com.fulfilment.application.monolith.shared;
+
+public class StockAdjustmentResult {
+
+  public enum Status {
+    APPLIED,
+    NOT_FOUND,
+    INSUFFICIENT_STOCK
+  }
+
+  public Long id;
+
+  public Integer delta;
+
+  public Status status;
+
+  public StockAdjustmentResult() {}
+
+  public StockAdjustmentResult(Long id, Integer delta, Status status) {
+    this.id = id;
+    this.delta = delta;
+    this.status = status;
+  }
+}
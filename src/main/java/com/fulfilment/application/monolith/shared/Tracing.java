@@ -0,0 +1,49 @@
+package com.fulfilment.application.monolith.shared;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.TracerProvider;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.quarkus.runtime.Startup;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * The tracer for the application's own spans. REST handlers are traced by Quarkus; use cases, SQL
+ * statements and the post-commit legacy callbacks are traced here. {@link SlowQueryListener} is
+ * created by Hibernate outside CDI, so the tracer is static; until the container sets it, and in
+ * plain unit tests, it is a no-op.
+ */
+@Startup
+@ApplicationScoped
+public class Tracing {
+
+  private static volatile Tracer tracer = TracerProvider.noop().get("fulfilment");
+
+  public Tracing(Tracer tracer) {
+    Tracing.tracer = tracer;
+  }
+
+  public static Tracer tracer() {
+    return tracer;
+  }
+
+  /** Runs the work in a span that is a child of the given context. */
+  public static void run(String name, Context parent, Runnable work) {
+    Span span = tracer.spanBuilder(name).setParent(parent).startSpan();
+    try (Scope scope = span.makeCurrent()) {
+      work.run();
+    } catch (RuntimeException e) {
+      failed(span, e);
+      throw e;
+    } finally {
+      span.end();
+    }
+  }
+
+  static void failed(Span span, Throwable failure) {
+    span.recordException(failure);
+    span.setStatus(StatusCode.ERROR);
+  }
+}
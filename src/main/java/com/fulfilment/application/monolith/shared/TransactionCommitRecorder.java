@@ -0,0 +1,48 @@
+package com.fulfilment.application.monolith.shared;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionScoped;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jdk.jfr.EventType;
+
+/**
+ * Records the completion of every transaction as a {@link FlightRecorderEvents.TransactionCommit}
+ * event while a recording enables it. Otherwise a transaction start only costs the enabled check.
+ */
+@ApplicationScoped
+public class TransactionCommitRecorder {
+
+  private static final EventType TRANSACTION_COMMIT =
+      EventType.getEventType(FlightRecorderEvents.TransactionCommit.class);
+
+  private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+  public TransactionCommitRecorder(
+      TransactionSynchronizationRegistry transactionSynchronizationRegistry) {
+    this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+  }
+
+  void onBegin(@Observes @Initialized(TransactionScoped.class) Object transaction) {
+    if (!TRANSACTION_COMMIT.isEnabled()) {
+      return;
+    }
+    var event = new FlightRecorderEvents.TransactionCommit();
+    transactionSynchronizationRegistry.registerInterposedSynchronization(
+        new Synchronization() {
+          @Override
+          public void beforeCompletion() {
+            event.begin();
+          }
+
+          @Override
+          public void afterCompletion(int status) {
+            event.committed = status == Status.STATUS_COMMITTED;
+            event.commit();
+          }
+        });
+  }
+}
@@ -0,0 +1,116 @@
+package com.fulfilment.application.monolith.shared;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.function.Supplier;
+
+/**
+ * Times the use cases and counts their rejections per business rule. Tags are limited to the use
+ * case, the outcome and the rule name, so ids and business unit codes never reach the metrics.
+ * Every run is also a {@link FlightRecorderEvents.UseCase} event while a recording enables it,
+ * and a span named after the use case, see {@link Tracing}.
+ */
+@ApplicationScoped
+public class UseCaseMetrics {
+
+  static final String DURATION = "usecase.duration";
+  static final String REJECTIONS = "usecase.rejections";
+
+  // the use case running on this thread, for the slow-query log
+  private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+  private final MeterRegistry meterRegistry;
+
+  public UseCaseMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  public void run(String useCase, Runnable work) {
+    var event = new FlightRecorderEvents.UseCase();
+    event.begin();
+    Span span = Tracing.tracer().spanBuilder(useCase).startSpan();
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = "failure";
+    Throwable failure = null;
+    String caller = CURRENT.get();
+    CURRENT.set(useCase);
+    try (Scope scope = span.makeCurrent()) {
+      work.run();
+      outcome = "success";
+    } catch (RuntimeException e) {
+      outcome = outcome(useCase, e);
+      failure = e;
+      throw e;
+    } finally {
+      CURRENT.set(caller);
+      sample.stop(timer(useCase, outcome));
+      commit(event, useCase, outcome);
+      end(span, outcome, failure);
+    }
+  }
+
+  /** The blocking use case running on the current thread, or null outside of one. */
+  public static String current() {
+    return CURRENT.get();
+  }
+
+  /** Times the {@link Uni} from subscription until it emits its item or failure. */
+  public <T> Uni<T> observe(String useCase, Supplier<Uni<T>> work) {
+    return Uni.createFrom()
+        .deferred(
+            () -> {
+              var event = new FlightRecorderEvents.UseCase();
+              event.begin();
+              Span span = Tracing.tracer().spanBuilder(useCase).startSpan();
+              Timer.Sample sample = Timer.start(meterRegistry);
+              Uni<T> uni;
+              try (Scope scope = span.makeCurrent()) {
+                uni = work.get();
+              }
+              return uni.onItemOrFailure()
+                  .invoke(
+                      (item, failure) -> {
+                        String outcome = failure == null ? "success" : outcome(useCase, failure);
+                        sample.stop(timer(useCase, outcome));
+                        commit(event, useCase, outcome);
+                        end(span, outcome, failure);
+                      });
+            });
+  }
+
+  // rejections are expected client errors, so only failures mark the span as an error
+  private static void end(Span span, String outcome, Throwable failure) {
+    span.setAttribute("usecase.outcome", outcome);
+    if (failure != null && outcome.equals("failure")) {
+      Tracing.failed(span, failure);
+    }
+    span.end();
+  }
+
+  private String outcome(String useCase, Throwable failure) {
+    if (failure instanceof BusinessRuleException rejection) {
+      meterRegistry.counter(REJECTIONS, "usecase", useCase, "rule", rejection.rule()).increment();
+      return "rejected";
+    }
+    return "failure";
+  }
+
+  private static void commit(FlightRecorderEvents.UseCase event, String useCase, String outcome) {
+    if (event.shouldCommit()) {
+      event.useCase = useCase;
+      event.outcome = outcome;
+      event.commit();
+    }
+  }
+
+  private Timer timer(String useCase, String outcome) {
+    return Timer.builder(DURATION)
+        .tags("usecase", useCase, "outcome", outcome)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+}
@@ -1,51 +1,100 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fulfilment.application.monolith.shared.FlightRecorderEvents;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.enterprise.context.ApplicationScoped;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import org.jboss.logging.Logger;
 
 @ApplicationScoped
 public class LegacyStoreManagerGateway {
 
+  private static final Logger LOGGER = Logger.getLogger(LegacyStoreManagerGateway.class);
+
+  private final MeterRegistry meterRegistry;
+
+  public LegacyStoreManagerGateway(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
   public void createStoreOnLegacySystem(Store store) {
     // just to emulate as this would send this to a legacy system, let's write a temp file with the
-    writeToFile(store);
+    sync("create", store.name, describe(store));
   }
 
   public void updateStoreOnLegacySystem(Store store) {
     // just to emulate as this would send this to a legacy system, let's write a temp file with the
-    writeToFile(store);
+    sync("update", store.name, describe(store));
   }
 
-  private void writeToFile(Store store) {
+  public void createStoresOnLegacySystem(List<Store> stores) {
+    // one message per imported batch instead of one per store
+    if (stores.isEmpty()) {
+      return;
+    }
+    var content = new StringBuilder();
+    for (Store store : stores) {
+      content.append(describe(store)).append('\n');
+    }
+    sync("import", "store-import", content.toString());
+  }
+
+  private static String describe(Store store) {
+    return "Store created. [ name ="
+        + store.name
+        + " ] [ items on stock ="
+        + store.quantityProductsInStock
+        + "]";
+  }
+
+  // the operation is the only tag, store names would make one series per store
+  private void sync(String operation, String prefix, String content) {
+    var event = new FlightRecorderEvents.LegacyGatewayCall();
+    event.begin();
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = "success";
     try {
-      // Step 1: Create a temporary file
-      Path tempFile;
+      writeToFile(prefix, content);
+    } catch (IOException | RuntimeException e) {
+      outcome = "failure";
+      meterRegistry.counter("legacy_sync.failures", "operation", operation).increment();
+      LOGGER.errorf(e, "Syncing a store %s to the legacy system failed", operation);
+    } finally {
+      sample.stop(
+          Timer.builder("legacy_sync.duration")
+              .tags("operation", operation, "outcome", outcome)
+              .register(meterRegistry));
+      if (event.shouldCommit()) {
+        event.operation = operation;
+        event.succeeded = outcome.equals("success");
+        event.commit();
+      }
+    }
+  }
 
-      tempFile = Files.createTempFile(store.name, ".txt");
+  // package-private so tests can make the legacy call fail
+  void writeToFile(String prefix, String content) throws IOException {
+    // Step 1: Create a temporary file
+    Path tempFile;
 
-      System.out.println("Temporary file created at: " + tempFile.toString());
+    tempFile = Files.createTempFile(prefix, ".txt");
 
-      // Step 2: Write data to the temporary file
-      String content =
-          "Store created. [ name ="
-              + store.name
-              + " ] [ items on stock ="
-              + store.quantityProductsInStock
-              + "]";
-      Files.write(tempFile, content.getBytes());
-      System.out.println("Data written to temporary file.");
+    LOGGER.debugf("Temporary file created at: %s", tempFile);
 
-      // Step 3: Optionally, read the data back to verify
-      String readContent = new String(Files.readAllBytes(tempFile));
-      System.out.println("Data read from temporary file: " + readContent);
+    // Step 2: Write data to the temporary file
+    Files.write(tempFile, content.getBytes());
+    LOGGER.debug("Data written to temporary file.");
 
-      // Step 4: Delete the temporary file when done
-      Files.delete(tempFile);
-      System.out.println("Temporary file deleted.");
+    // Step 3: Optionally, read the data back to verify
+    String readContent = new String(Files.readAllBytes(tempFile));
+    LOGGER.debugf("Data read from temporary file: %s", readContent);
 
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
+    // Step 4: Delete the temporary file when done
+    Files.delete(tempFile);
+    LOGGER.debug("Temporary file deleted.");
   }
 }
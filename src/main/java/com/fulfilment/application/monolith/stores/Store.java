@@ -1,22 +1,110 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fulfilment.application.monolith.shared.LikePatterns;
+import com.fulfilment.application.monolith.shared.ReadReplica;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Version;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Cacheable
 public class Store extends PanacheEntity {
 
-  @Column(length = 40, unique = true)
+  private static final String SELECT_VIEW =
+      "select new "
+          + StoreView.class.getName()
+          + "(s.id, s.name, s.quantityProductsInStock, s.version) from Store s";
+
+  // "C" collation lets the unique index on name serve prefix LIKE, keyset ranges and ordering alike
+  @Column(length = 40, unique = true, columnDefinition = "varchar(40) " + LikePatterns.C_COLLATION)
   public String name;
 
   public int quantityProductsInStock;
 
+  @Version
+  @ColumnDefault("0")
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  public long version;
+
   public Store() {}
 
   public Store(String name) {
     this.name = name;
   }
+
+  // single conditional UPDATE so concurrent adjustments never lose each other or go negative
+  public static int adjustStock(Long id, int delta) {
+    return update(
+        "quantityProductsInStock = quantityProductsInStock + ?1, version = version + 1"
+            + " where id = ?2 and quantityProductsInStock + ?1 >= 0",
+        delta,
+        id);
+  }
+
+  // served from the L2 cache, which a projection query would bypass for a round trip per read
+  public static StoreView findViewById(Long id) {
+    Store store = findById(id);
+    return store == null
+        ? null
+        : new StoreView(store.id, store.name, store.quantityProductsInStock, store.version);
+  }
+
+  // the list queries below run on the read datasource inside a read-only endpoint, so they use a
+  // constructor expression on its entity manager rather than Panache's projection
+  public static List<StoreView> listViews() {
+    return readEntityManager()
+        .createQuery(SELECT_VIEW + " order by s.name", StoreView.class)
+        .getResultList();
+  }
+
+  // a single IN query; the result is aligned with ids and holds null for the ids that do not exist
+  public static List<StoreView> findViewsByIds(List<Long> ids) {
+    Map<Long, StoreView> found = new HashMap<>();
+    List<StoreView> views =
+        readEntityManager()
+            .createQuery(SELECT_VIEW + " where s.id in :ids", StoreView.class)
+            .setParameter("ids", ids)
+            .getResultList();
+    for (StoreView view : views) {
+      found.put(view.id, view);
+    }
+    List<StoreView> aligned = new ArrayList<>(ids.size());
+    for (Long id : ids) {
+      aligned.add(found.get(id));
+    }
+    return aligned;
+  }
+
+  public static List<StoreView> findViewPage(String namePrefix, String afterName, int limit) {
+    List<String> conditions = new ArrayList<>();
+    Map<String, Object> parameters = new HashMap<>();
+    if (namePrefix != null && !namePrefix.isEmpty()) {
+      conditions.add(LikePatterns.startsWith("s.name", "prefix"));
+      parameters.put("prefix", LikePatterns.prefix(namePrefix));
+    }
+    if (afterName != null) {
+      conditions.add("s.name > :after");
+      parameters.put("after", afterName);
+    }
+    String where = conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+    var query =
+        readEntityManager()
+            .createQuery(SELECT_VIEW + where + " order by s.name", StoreView.class)
+            .setMaxResults(limit);
+    parameters.forEach(query::setParameter);
+    return query.getResultList();
+  }
+
+  private static EntityManager readEntityManager() {
+    return ReadReplica.entityManager(getEntityManager());
+  }
 }
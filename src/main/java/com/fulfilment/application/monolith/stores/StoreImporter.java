@@ -0,0 +1,197 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fulfilment.application.monolith.shared.BulkImporter;
+import com.fulfilment.application.monolith.shared.ChangeTracker;
+import com.fulfilment.application.monolith.shared.EntityIds;
+import com.fulfilment.application.monolith.shared.ImportRecord;
+import com.fulfilment.application.monolith.shared.PinningGuard;
+import com.fulfilment.application.monolith.shared.PostgresCopy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.hibernate.Session;
+
+/**
+ * Writes imported stores batch by batch. On Postgres a batch is copied into a temporary staging
+ * table and moved over with a single {@code INSERT ... ON CONFLICT DO NOTHING}; elsewhere it falls
+ * back to JDBC-batched inserts. Either way the legacy system is told about a batch once, after it
+ * committed.
+ */
+@ApplicationScoped
+public class StoreImporter implements BulkImporter.BatchWriter<Store> {
+
+  static final String DUPLICATE_NAME = "Store name already exists.";
+
+  private static final String CREATE_STAGING_TABLE =
+      "create temporary table if not exists store_import (line bigint, id bigint,"
+          + " name varchar(40), quantityProductsInStock int) on commit delete rows";
+  private static final String COPY_STAGING_TABLE =
+      "copy store_import (line, id, name, quantityProductsInStock) from stdin with (format csv)";
+  private static final String INSERT_FROM_STAGING_TABLE =
+      "insert into store (id, name, quantityProductsInStock, version)"
+          + " select id, name, quantityProductsInStock, 0"
+          + " from store_import order by line"
+          + " on conflict (name) do nothing returning id, name";
+
+  private final LegacyStoreManagerGateway legacyStoreManagerGateway;
+  private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+  private final ChangeTracker changeTracker;
+  private final PinningGuard pinningGuard;
+
+  public StoreImporter(
+      LegacyStoreManagerGateway legacyStoreManagerGateway,
+      TransactionSynchronizationRegistry transactionSynchronizationRegistry,
+      ChangeTracker changeTracker,
+      PinningGuard pinningGuard) {
+    this.legacyStoreManagerGateway = legacyStoreManagerGateway;
+    this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+    this.changeTracker = changeTracker;
+    this.pinningGuard = pinningGuard;
+  }
+
+  public static Store toStore(ImportRecord record) {
+    String name = record.get("name");
+    if (name == null || name.isBlank()) {
+      throw new IllegalArgumentException("Store Name was not set.");
+    }
+    if (name.length() > 40) {
+      throw new IllegalArgumentException("Store Name must be at most 40 characters.");
+    }
+
+    Store store = new Store(name);
+    String quantity = record.get("quantityProductsInStock");
+    if (quantity != null) {
+      try {
+        store.quantityProductsInStock = Integer.parseInt(quantity.trim());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("quantityProductsInStock must be a whole number.");
+      }
+      if (store.quantityProductsInStock < 0) {
+        throw new IllegalArgumentException("quantityProductsInStock must not be negative.");
+      }
+    }
+    return store;
+  }
+
+  @Override
+  public Map<Long, String> write(List<BulkImporter.Row<Store>> rows) {
+    Map<Long, String> rejected = new TreeMap<>();
+    List<BulkImporter.Row<Store>> unique = new ArrayList<>(rows.size());
+    Set<String> names = new HashSet<>();
+    for (BulkImporter.Row<Store> row : rows) {
+      if (names.add(row.value.name)) {
+        unique.add(row);
+      } else {
+        rejected.put(row.line, DUPLICATE_NAME);
+      }
+    }
+
+    Session session = Store.getEntityManager().unwrap(Session.class);
+    List<Store> inserted;
+    if (session.doReturningWork(PostgresCopy::isAvailable)) {
+      long[] ids = EntityIds.allocate(session, Store.class, unique.size());
+      inserted = session.doReturningWork(connection -> copy(connection, unique, ids, rejected));
+    } else {
+      inserted = insert(unique, rejected);
+    }
+
+    if (!inserted.isEmpty()) {
+      changeTracker.changedAfterCommit(ChangeTracker.STORES, null);
+      runAfterCommit(() -> legacyStoreManagerGateway.createStoresOnLegacySystem(inserted));
+    }
+    return rejected;
+  }
+
+  private static List<Store> copy(
+      Connection connection,
+      List<BulkImporter.Row<Store>> rows,
+      long[] ids,
+      Map<Long, String> rejected)
+      throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(CREATE_STAGING_TABLE);
+    }
+
+    var csv = new StringBuilder();
+    for (int i = 0; i < rows.size(); i++) {
+      BulkImporter.Row<Store> row = rows.get(i);
+      PostgresCopy.appendRow(
+          csv, row.line, ids[i], row.value.name, row.value.quantityProductsInStock);
+    }
+    PostgresCopy.copyIn(connection, COPY_STAGING_TABLE, csv);
+
+    Map<String, Long> insertedIds = new HashMap<>();
+    try (PreparedStatement insert = connection.prepareStatement(INSERT_FROM_STAGING_TABLE);
+        ResultSet result = insert.executeQuery()) {
+      while (result.next()) {
+        insertedIds.put(result.getString(2), result.getLong(1));
+      }
+    }
+
+    List<Store> inserted = new ArrayList<>(insertedIds.size());
+    for (BulkImporter.Row<Store> row : rows) {
+      Long id = insertedIds.get(row.value.name);
+      if (id == null) {
+        rejected.put(row.line, DUPLICATE_NAME);
+      } else {
+        row.value.id = id;
+        inserted.add(row.value);
+      }
+    }
+    return inserted;
+  }
+
+  private static List<Store> insert(
+      List<BulkImporter.Row<Store>> rows, Map<Long, String> rejected) {
+    List<String> names = rows.stream().map(row -> row.value.name).toList();
+    Set<String> existing =
+        names.isEmpty()
+            ? Set.of()
+            : new HashSet<>(
+                Store.getEntityManager()
+                    .createQuery("select s.name from Store s where s.name in :names", String.class)
+                    .setParameter("names", names)
+                    .getResultList());
+
+    List<Store> inserted = new ArrayList<>(rows.size());
+    for (BulkImporter.Row<Store> row : rows) {
+      if (existing.contains(row.value.name)) {
+        rejected.put(row.line, DUPLICATE_NAME);
+      } else {
+        row.value.persist();
+        inserted.add(row.value);
+      }
+    }
+    Store.flush();
+    Store.getEntityManager().clear();
+    return inserted;
+  }
+
+  private void runAfterCommit(Runnable action) {
+    transactionSynchronizationRegistry.registerInterposedSynchronization(
+        new Synchronization() {
+          @Override
+          public void beforeCompletion() {}
+
+          @Override
+          public void afterCompletion(int status) {
+            if (status == Status.STATUS_COMMITTED) {
+              pinningGuard.run(action);
+            }
+          }
+        });
+  }
+}
@@ -1,6 +1,21 @@
 package com.fulfilment.application.monolith.stores;
 
-import io.quarkus.panache.common.Sort;
+import com.fulfilment.application.monolith.shared.BulkImporter;
+import com.fulfilment.application.monolith.shared.ChangeTracker;
+import com.fulfilment.application.monolith.shared.EndpointGroup;
+import com.fulfilment.application.monolith.shared.EntityVersions;
+import com.fulfilment.application.monolith.shared.HttpCaching;
+import com.fulfilment.application.monolith.shared.ImportRecordReader;
+import com.fulfilment.application.monolith.shared.ImportReport;
+import com.fulfilment.application.monolith.shared.MultiGetKeys;
+import com.fulfilment.application.monolith.shared.MultiGetResult;
+import com.fulfilment.application.monolith.shared.OptimisticLockRetry;
+import com.fulfilment.application.monolith.shared.PinningGuard;
+import com.fulfilment.application.monolith.shared.ReadOnlyEndpoint;
+import com.fulfilment.application.monolith.shared.StockAdjustment;
+import com.fulfilment.application.monolith.shared.StockAdjustmentResult;
+import com.fulfilment.application.monolith.shared.Tracing;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Status;
@@ -10,115 +25,303 @@ import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.PATCH;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Path("store")
 @ApplicationScoped
 @Produces("application/json")
 @Consumes("application/json")
+@RunOnVirtualThread
 public class StoreResource {
 
+  static final int DEFAULT_PAGE_SIZE = 50;
+  static final int MAX_PAGE_SIZE = 500;
+
   @Inject LegacyStoreManagerGateway legacyStoreManagerGateway;
   @Inject TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+  @Inject OptimisticLockRetry optimisticLockRetry;
+  @Inject BulkImporter bulkImporter;
+  @Inject StoreImporter storeImporter;
+  @Inject ChangeTracker changeTracker;
+  @Inject HttpCaching httpCaching;
+  @Inject PinningGuard pinningGuard;
 
   @GET
-  public List<Store> get() {
-    return Store.listAll(Sort.by("name"));
+  @ReadOnlyEndpoint
+  @EndpointGroup(EndpointGroup.BULK_READ)
+  public Response get(
+      @QueryParam("ids") String ids,
+      @QueryParam("namePrefix") String namePrefix,
+      @QueryParam("after") String after,
+      @QueryParam("limit") Integer limit,
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+      @Context UriInfo uriInfo) {
+    List<Long> keys = ids == null ? null : MultiGetKeys.parseIds(ids);
+    int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+    if (keys == null && (pageSize < 1 || pageSize > MAX_PAGE_SIZE)) {
+      throw new WebApplicationException("Limit must be between 1 and " + MAX_PAGE_SIZE + ".", 422);
+    }
+
+    // read before the query, so a write committed meanwhile can only make the tag older
+    EntityTag tag = changeTracker.collectionTag(ChangeTracker.STORES);
+    Response notModified = httpCaching.notModified(ChangeTracker.STORES, ifNoneMatch, tag);
+    if (notModified != null) {
+      return notModified;
+    }
+
+    if (keys != null) {
+      List<StoreView> found = Store.findViewsByIds(keys);
+      List<StoreView> items = new ArrayList<>(keys.size());
+      List<Long> missing = new ArrayList<>();
+      for (int i = 0; i < keys.size(); i++) {
+        if (found.get(i) == null) {
+          missing.add(keys.get(i));
+        } else {
+          items.add(found.get(i));
+        }
+      }
+      return httpCaching
+          .ok(ChangeTracker.STORES, tag, new MultiGetResult<>(items, missing))
+          .build();
+    }
+
+    if (namePrefix == null && after == null && limit == null) {
+      return httpCaching.ok(ChangeTracker.STORES, tag, Store.listViews()).build();
+    }
+
+    // one extra row tells us whether there is a next page without a count query
+    List<StoreView> stores = Store.findViewPage(namePrefix, after, pageSize + 1);
+    if (stores.size() <= pageSize) {
+      return httpCaching.ok(ChangeTracker.STORES, tag, stores).build();
+    }
+
+    List<StoreView> page = stores.subList(0, pageSize);
+    var next =
+        uriInfo
+            .getRequestUriBuilder()
+            .replaceQueryParam("after", page.get(pageSize - 1).name)
+            .replaceQueryParam("limit", pageSize)
+            .build();
+    return httpCaching.ok(ChangeTracker.STORES, tag, page).link(next, "next").build();
   }
 
   @GET
   @Path("{id}")
-  public Store getSingle(Long id) {
-    Store entity = Store.findById(id);
-    if (entity == null) {
+  public Response getSingle(Long id, @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+    // the version last read stays current until the store changes, so it revalidates without a read
+    Long known = changeTracker.knownVersion(ChangeTracker.STORES, id);
+    if (known != null) {
+      Response notModified =
+          httpCaching.notModified(ChangeTracker.STORES, ifNoneMatch, EntityVersions.tag(known));
+      if (notModified != null) {
+        return notModified;
+      }
+    }
+
+    long collectionVersion = changeTracker.version(ChangeTracker.STORES);
+    StoreView store = Store.findViewById(id);
+    if (store == null) {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
-    return entity;
+    changeTracker.remember(ChangeTracker.STORES, id, store.version, collectionVersion);
+    EntityTag tag = EntityVersions.tag(store.version);
+    Response notModified = httpCaching.notModified(ChangeTracker.STORES, ifNoneMatch, tag);
+    if (notModified != null) {
+      return notModified;
+    }
+    return httpCaching.ok(ChangeTracker.STORES, tag, store).build();
   }
 
   @POST
   @Transactional
+  @EndpointGroup(EndpointGroup.WRITE)
   public Response create(Store store) {
     if (store.id != null) {
       throw new WebApplicationException("Id was invalidly set on request.", 422);
     }
 
     store.persist();
+    changeTracker.changedAfterCommit(ChangeTracker.STORES, store.id);
 
     runAfterCommit(() -> legacyStoreManagerGateway.createStoreOnLegacySystem(store));
 
     return Response.ok(store).status(201).build();
   }
 
+  @POST
+  @Path("import")
+  @Consumes({ImportRecordReader.CSV, ImportRecordReader.NDJSON})
+  @EndpointGroup(EndpointGroup.IMPORT)
+  public ImportReport importStores(
+      InputStream body, @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType) {
+    return bulkImporter.run(body, contentType, StoreImporter::toStore, storeImporter);
+  }
+
   @PUT
   @Path("{id}")
-  @Transactional
-  public Store update(Long id, Store updatedStore) {
+  @EndpointGroup(EndpointGroup.WRITE)
+  public Store update(
+      Long id, Store updatedStore, @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
     if (updatedStore.name == null) {
       throw new WebApplicationException("Store Name was not set on request.", 422);
     }
+    Long expectedVersion = EntityVersions.expectedVersion(ifMatch);
 
-    Store entity = Store.findById(id);
+    return optimisticLockRetry.call(
+        "store.update",
+        expectedVersion == null,
+        () -> {
+          Store entity = Store.findById(id);
 
-    if (entity == null) {
-      throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
-    }
+          if (entity == null) {
+            throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
+          }
+          EntityVersions.checkVersion(expectedVersion, entity.version);
 
-    entity.name = updatedStore.name;
-    entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
+          entity.name = updatedStore.name;
+          entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
 
-    runAfterCommit(() -> legacyStoreManagerGateway.updateStoreOnLegacySystem(entity));
+          changeTracker.changedAfterCommit(ChangeTracker.STORES, id);
+          runAfterCommit(() -> legacyStoreManagerGateway.updateStoreOnLegacySystem(entity));
 
-    return entity;
+          return entity;
+        });
   }
 
   @PATCH
   @Path("{id}")
-  @Transactional
-  public Store patch(Long id, Store updatedStore) {
+  @EndpointGroup(EndpointGroup.WRITE)
+  public Store patch(
+      Long id, Store updatedStore, @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
     if (updatedStore.name == null) {
       throw new WebApplicationException("Store Name was not set on request.", 422);
     }
+    Long expectedVersion = EntityVersions.expectedVersion(ifMatch);
 
-    Store entity = Store.findById(id);
+    return optimisticLockRetry.call(
+        "store.patch",
+        expectedVersion == null,
+        () -> {
+          Store entity = Store.findById(id);
 
-    if (entity == null) {
-      throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
-    }
+          if (entity == null) {
+            throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
+          }
+          EntityVersions.checkVersion(expectedVersion, entity.version);
+
+          if (entity.name != null) {
+            entity.name = updatedStore.name;
+          }
 
-    if (entity.name != null) {
-      entity.name = updatedStore.name;
+          if (entity.quantityProductsInStock != 0) {
+            entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
+          }
+
+          changeTracker.changedAfterCommit(ChangeTracker.STORES, id);
+          runAfterCommit(() -> legacyStoreManagerGateway.updateStoreOnLegacySystem(entity));
+
+          return entity;
+        });
+  }
+
+  @POST
+  @Path("{id}/stock-adjustments")
+  @Transactional
+  @EndpointGroup(EndpointGroup.WRITE)
+  public Store adjustStock(Long id, StockAdjustment adjustment) {
+    if (adjustment == null || adjustment.delta == null) {
+      throw new WebApplicationException("Stock delta was not set on request.", 422);
     }
 
-    if (entity.quantityProductsInStock != 0) {
-      entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
+    if (Store.adjustStock(id, adjustment.delta) == 0) {
+      if (Store.count("id", id) == 0) {
+        throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
+      }
+      throw new WebApplicationException(
+          "Store with id of " + id + " does not have enough stock for this adjustment.", 409);
     }
 
+    Store entity = Store.findById(id);
+
+    changeTracker.changedAfterCommit(ChangeTracker.STORES, id, ChangeTracker.Kind.STOCK);
     runAfterCommit(() -> legacyStoreManagerGateway.updateStoreOnLegacySystem(entity));
 
     return entity;
   }
 
+  @POST
+  @Path("stock-adjustments")
+  @Transactional
+  @EndpointGroup(EndpointGroup.WRITE)
+  public List<StockAdjustmentResult> adjustStocks(List<StockAdjustment> adjustments) {
+    if (adjustments == null) {
+      throw new WebApplicationException("Stock adjustments were not set on request.", 422);
+    }
+    for (StockAdjustment adjustment : adjustments) {
+      if (adjustment == null || adjustment.id == null || adjustment.delta == null) {
+        throw new WebApplicationException("Stock adjustment id and delta are required.", 422);
+      }
+    }
+
+    List<StockAdjustmentResult> results = new ArrayList<>(adjustments.size());
+    Set<Long> adjustedIds = new LinkedHashSet<>();
+    for (StockAdjustment adjustment : adjustments) {
+      StockAdjustmentResult.Status status;
+      if (Store.adjustStock(adjustment.id, adjustment.delta) > 0) {
+        status = StockAdjustmentResult.Status.APPLIED;
+        adjustedIds.add(adjustment.id);
+      } else if (Store.count("id", adjustment.id) == 0) {
+        status = StockAdjustmentResult.Status.NOT_FOUND;
+      } else {
+        status = StockAdjustmentResult.Status.INSUFFICIENT_STOCK;
+      }
+      results.add(new StockAdjustmentResult(adjustment.id, adjustment.delta, status));
+    }
+
+    if (!adjustedIds.isEmpty()) {
+      List<Store> adjustedStores = Store.list("id in ?1", adjustedIds);
+      changeTracker.changedAfterCommit(ChangeTracker.STORES, null, ChangeTracker.Kind.STOCK);
+      runAfterCommit(
+          () -> adjustedStores.forEach(legacyStoreManagerGateway::updateStoreOnLegacySystem));
+    }
+
+    return results;
+  }
+
   @DELETE
   @Path("{id}")
   @Transactional
+  @EndpointGroup(EndpointGroup.WRITE)
   public Response delete(Long id) {
     Store entity = Store.findById(id);
     if (entity == null) {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
     entity.delete();
+    changeTracker.changedAfterCommit(ChangeTracker.STORES, id);
     return Response.status(204).build();
   }
 
+  // traced as a child of the request, which the commit may already have left
   private void runAfterCommit(Runnable action) {
+    io.opentelemetry.context.Context request = io.opentelemetry.context.Context.current();
     transactionSynchronizationRegistry.registerInterposedSynchronization(
         new Synchronization() {
           @Override
@@ -127,7 +330,7 @@ public class StoreResource {
           @Override
           public void afterCompletion(int status) {
             if (status == Status.STATUS_COMMITTED) {
-              action.run();
+              Tracing.run("legacy-store-sync", request, () -> pinningGuard.run(action));
             }
           }
         });
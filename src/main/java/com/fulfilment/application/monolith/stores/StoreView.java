@@ -0,0 +1,20 @@
+package com.fulfilment.application.monolith.stores;
+
+/**
+ * Read-only projection of a {@link Store} with the same JSON shape, selected straight from the
+ * query so read endpoints never put entities into the persistence context.
+ */
+public class StoreView {
+
+  public final Long id;
+  public final String name;
+  public final int quantityProductsInStock;
+  public final long version;
+
+  public StoreView(Long id, String name, int quantityProductsInStock, long version) {
+    this.id = id;
+    this.name = name;
+    this.quantityProductsInStock = quantityProductsInStock;
+    this.version = version;
+  }
+}
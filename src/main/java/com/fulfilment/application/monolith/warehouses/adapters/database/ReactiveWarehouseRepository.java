@@ -0,0 +1,210 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.SqlClient;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@link ReactiveWarehouseStore} on the reactive Postgres client, against the table mapped by
+ * {@link DbWarehouse}. Only part of builds with {@code warehouse.reactive-adapter=true}.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "warehouse.reactive-adapter", stringValue = "true")
+public class ReactiveWarehouseRepository implements ReactiveWarehouseStore {
+
+  private static final String COLUMNS =
+      "select businessUnitCode, location, capacity, stock, createdAt, archivedAt from warehouse";
+
+  // the allocation size of the sequence behind DbWarehouse's @GeneratedValue
+  static final int ALLOCATION_SIZE = 50;
+
+  private final PgPool pool;
+  private final SqlClient client;
+  private final IdBlock ids;
+
+  @Inject
+  public ReactiveWarehouseRepository(PgPool pool) {
+    this(pool, pool, new IdBlock(ALLOCATION_SIZE));
+  }
+
+  ReactiveWarehouseRepository(PgPool pool, SqlClient client, IdBlock ids) {
+    this.pool = pool;
+    this.client = client;
+    this.ids = ids;
+  }
+
+  @Override
+  public Uni<List<Warehouse>> getAll() {
+    return list(COLUMNS + " where archivedAt is null order by id", Tuple.tuple());
+  }
+
+  @Override
+  public Uni<List<Warehouse>> getByLocation(String location) {
+    return list(
+        COLUMNS + " where location = $1 and archivedAt is null order by id", Tuple.of(location));
+  }
+
+  @Override
+  public Uni<Void> create(Warehouse warehouse) {
+    return nextId()
+        .chain(
+            id ->
+                execute(
+                    "insert into warehouse (id, businessUnitCode, location, capacity, stock,"
+                        + " createdAt, archivedAt) values ($7, $1, $2, $3, $4, $5, $6)",
+                    Tuple.of(
+                            warehouse.businessUnitCode,
+                            warehouse.location,
+                            warehouse.capacity,
+                            warehouse.stock,
+                            warehouse.createdAt != null
+                                ? warehouse.createdAt
+                                : LocalDateTime.now(),
+                            warehouse.archivedAt)
+                        .addLong(id)));
+  }
+
+  // same target as the blocking adapter: the active unit, or else the most recently created one
+  @Override
+  public Uni<Void> update(Warehouse warehouse) {
+    return execute(
+        "update warehouse set location = $2, capacity = $3, stock = $4, createdAt = $5,"
+            + " archivedAt = $6 where id = (select id from warehouse where businessUnitCode = $1"
+            + " order by archivedAt is null desc, createdAt desc limit 1)",
+        Tuple.of(
+            warehouse.businessUnitCode,
+            warehouse.location,
+            warehouse.capacity,
+            warehouse.stock,
+            warehouse.createdAt,
+            warehouse.archivedAt));
+  }
+
+  @Override
+  public Uni<Void> remove(Warehouse warehouse) {
+    return execute(
+        "delete from warehouse where businessUnitCode = $1 and archivedAt is null",
+        Tuple.of(warehouse.businessUnitCode));
+  }
+
+  @Override
+  public Uni<Warehouse> findByBusinessUnitCode(String buCode) {
+    return first(
+        COLUMNS + " where businessUnitCode = $1 and archivedAt is null limit 1",
+        Tuple.of(buCode));
+  }
+
+  @Override
+  public <T> Uni<T> inTransaction(Function<ReactiveWarehouseStore, Uni<T>> work) {
+    return pool.withTransaction(
+        connection -> work.apply(new ReactiveWarehouseRepository(pool, connection, ids)));
+  }
+
+  public Uni<List<Warehouse>> findActiveByBusinessUnitCodes(Collection<String> buCodes) {
+    return list(
+        COLUMNS + " where businessUnitCode = any($1) and archivedAt is null",
+        Tuple.of(buCodes.toArray(new String[0])));
+  }
+
+  // one statement for a numeric path segment; a warehouse whose code matches wins over the id
+  public Uni<Warehouse> findActiveByIdOrBusinessUnitCode(String idOrCode) {
+    Long id;
+    try {
+      id = Long.valueOf(idOrCode);
+    } catch (NumberFormatException ignored) {
+      return findByBusinessUnitCode(idOrCode);
+    }
+    return first(
+        COLUMNS
+            + " where (businessUnitCode = $1 or id = $2) and archivedAt is null"
+            + " order by case when businessUnitCode = $1 then 0 else 1 end limit 1",
+        Tuple.of(idOrCode, id));
+  }
+
+  // a nextval only when the block is used up, like Hibernate's pooled-lo optimizer
+  private Uni<Long> nextId() {
+    Long id = ids.next();
+    if (id != null) {
+      return Uni.createFrom().item(id);
+    }
+    return client
+        .preparedQuery("select nextval('warehouse_seq')")
+        .execute(Tuple.tuple())
+        .map(rows -> ids.refill(rows.iterator().next().getLong(0)));
+  }
+
+  private Uni<List<Warehouse>> list(String sql, Tuple parameters) {
+    return client
+        .preparedQuery(sql)
+        .execute(parameters)
+        .map(
+            rows -> {
+              List<Warehouse> warehouses = new ArrayList<>(rows.size());
+              for (Row row : rows) {
+                warehouses.add(toWarehouse(row));
+              }
+              return warehouses;
+            });
+  }
+
+  private Uni<Warehouse> first(String sql, Tuple parameters) {
+    return list(sql, parameters).map(warehouses -> warehouses.isEmpty() ? null : warehouses.get(0));
+  }
+
+  private Uni<Void> execute(String sql, Tuple parameters) {
+    return client.preparedQuery(sql).execute(parameters).replaceWithVoid();
+  }
+
+  /**
+   * The ids of the sequence value fetched last. Each {@code nextval} reserves the block from that
+   * value up to the next multiple of the allocation size, the scheme of Hibernate's pooled-lo
+   * optimizer, so the blocks of this adapter and of the Hibernate one never overlap and no id is
+   * skipped.
+   */
+  static final class IdBlock {
+    private final int size;
+    private long next;
+    private long end;
+
+    IdBlock(int size) {
+      this.size = size;
+    }
+
+    synchronized Long next() {
+      return next < end ? next++ : null;
+    }
+
+    // the caller takes the first id; the rest replaces the block only once it is used up, a block
+    // fetched concurrently otherwise goes unused
+    synchronized long refill(long value) {
+      if (next >= end) {
+        next = value + 1;
+        end = value + size;
+      }
+      return value;
+    }
+  }
+
+  static Warehouse toWarehouse(Row row) {
+    var warehouse = new Warehouse();
+    warehouse.businessUnitCode = row.getString(0);
+    warehouse.location = row.getString(1);
+    warehouse.capacity = row.getInteger(2);
+    warehouse.stock = row.getInteger(3);
+    warehouse.createdAt = row.getLocalDateTime(4);
+    warehouse.archivedAt = row.getLocalDateTime(5);
+    return warehouse;
+  }
+}
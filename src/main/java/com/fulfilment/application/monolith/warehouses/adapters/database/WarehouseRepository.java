@@ -1,16 +1,23 @@
 package com.fulfilment.application.monolith.warehouses.adapters.database;
 
+import com.fulfilment.application.monolith.shared.ReadReplica;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 
 @ApplicationScoped
 public class WarehouseRepository implements WarehouseStore, PanacheRepository<DbWarehouse> {
 
+  // one statement for a numeric path segment; a warehouse whose code matches wins over the id
+  static final String BY_CODE_OR_ID =
+      "(businessUnitCode = ?1 or id = ?2) and archivedAt is null"
+          + " order by case when businessUnitCode = ?1 then 0 else 1 end";
+
   @Override
   public List<Warehouse> getAll() {
     return this.find("archivedAt is null").list().stream().map(DbWarehouse::toWarehouse).toList();
@@ -64,16 +71,51 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
     return warehouse == null ? null : warehouse.toWarehouse();
   }
 
-  public Warehouse findActiveByIdOrBusinessUnitCode(String idOrCode) {
-    DbWarehouse warehouse = find("businessUnitCode = ?1 and archivedAt is null", idOrCode).firstResult();
-    if (warehouse != null) {
-      return warehouse.toWarehouse();
+  // the read endpoints select their response type directly, through PanacheQuery#project or a
+  // constructor expression, which needs a view constructor taking (businessUnitCode, location,
+  // capacity, stock); the list queries run on the read datasource inside a read-only endpoint
+  public <T> List<T> listActive(Class<T> view) {
+    return ReadReplica.entityManager(getEntityManager())
+        .createQuery(selectView(view) + " where w.archivedAt is null", view)
+        .getResultList();
+  }
+
+  public <T> List<T> findActiveByBusinessUnitCodes(Collection<String> buCodes, Class<T> view) {
+    return ReadReplica.entityManager(getEntityManager())
+        .createQuery(
+            selectView(view) + " where w.businessUnitCode in :codes and w.archivedAt is null", view)
+        .setParameter("codes", buCodes)
+        .getResultList();
+  }
+
+  private static String selectView(Class<?> view) {
+    return "select new "
+        + view.getName()
+        + "(w.businessUnitCode, w.location, w.capacity, w.stock) from DbWarehouse w";
+  }
+
+  public <T> T findActiveByIdOrBusinessUnitCode(String idOrCode, Class<T> view) {
+    Long id = parseId(idOrCode);
+    if (id == null) {
+      return find("businessUnitCode = ?1 and archivedAt is null", idOrCode)
+          .project(view)
+          .firstResult();
     }
+    return find(BY_CODE_OR_ID, idOrCode, id).project(view).firstResult();
+  }
+
+  public Warehouse findActiveByIdOrBusinessUnitCode(String idOrCode) {
+    Long id = parseId(idOrCode);
+    DbWarehouse warehouse =
+        id == null
+            ? find("businessUnitCode = ?1 and archivedAt is null", idOrCode).firstResult()
+            : find(BY_CODE_OR_ID, idOrCode, id).firstResult();
+    return warehouse == null ? null : warehouse.toWarehouse();
+  }
 
+  private static Long parseId(String idOrCode) {
     try {
-      Long id = Long.valueOf(idOrCode);
-      warehouse = find("id = ?1 and archivedAt is null", id).firstResult();
-      return warehouse == null ? null : warehouse.toWarehouse();
+      return Long.valueOf(idOrCode);
     } catch (NumberFormatException ignored) {
       return null;
     }
@@ -0,0 +1,200 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fulfilment.application.monolith.shared.ChangeTracker;
+import com.fulfilment.application.monolith.shared.HttpCaching;
+import com.fulfilment.application.monolith.shared.MultiGetKeys;
+import com.fulfilment.application.monolith.warehouses.adapters.database.ReactiveWarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveCreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveReplaceWarehouseOperation;
+import com.warehouse.api.beans.Warehouse;
+import com.warehouse.api.beans.WarehouseMultiGet;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The warehouse API of {@link WarehouseResourceImpl} on the reactive adapter and use cases, so the
+ * requests run end to end on the event loop. Replaces it in builds with {@code
+ * warehouse.reactive-adapter=true}.
+ */
+@Path("warehouse")
+@ApplicationScoped
+@Produces("application/json")
+@Consumes("application/json")
+@IfBuildProperty(name = "warehouse.reactive-adapter", stringValue = "true")
+public class ReactiveWarehouseResource {
+
+  @Inject ReactiveWarehouseRepository warehouseRepository;
+  @Inject ReactiveCreateWarehouseOperation createWarehouseOperation;
+  @Inject ReactiveReplaceWarehouseOperation replaceWarehouseOperation;
+  @Inject ReactiveArchiveWarehouseOperation archiveWarehouseOperation;
+  @Inject ChangeTracker changeTracker;
+  @Inject HttpCaching httpCaching;
+
+  @GET
+  public Uni<Response> listAllWarehousesUnits(
+      @QueryParam("businessUnitCodes") List<String> businessUnitCodes,
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+    List<String> codes =
+        businessUnitCodes == null || businessUnitCodes.isEmpty()
+            ? null
+            : MultiGetKeys.parse(businessUnitCodes);
+    EntityTag tag = changeTracker.collectionTag(ChangeTracker.WAREHOUSES);
+    Response notModified = httpCaching.notModified(ChangeTracker.WAREHOUSES, ifNoneMatch, tag);
+    if (notModified != null) {
+      return Uni.createFrom().item(notModified);
+    }
+
+    if (codes == null) {
+      return warehouseRepository
+          .getAll()
+          .map(
+              warehouses ->
+                  httpCaching
+                      .ok(
+                          ChangeTracker.WAREHOUSES,
+                          tag,
+                          warehouses.stream().map(ReactiveWarehouseResource::toResponse).toList())
+                      .build());
+    }
+
+    return warehouseRepository
+        .findActiveByBusinessUnitCodes(codes)
+        .map(
+            warehouses -> {
+              Map<String, Warehouse> found = new HashMap<>();
+              for (var warehouse : warehouses) {
+                found.put(warehouse.businessUnitCode, toResponse(warehouse));
+              }
+
+              var result = new WarehouseMultiGet();
+              result.setItems(new ArrayList<>());
+              result.setMissing(new ArrayList<>());
+              for (String code : codes) {
+                Warehouse warehouse = found.get(code);
+                if (warehouse == null) {
+                  result.getMissing().add(code);
+                } else {
+                  result.getItems().add(warehouse);
+                }
+              }
+              return httpCaching.ok(ChangeTracker.WAREHOUSES, tag, result).build();
+            });
+  }
+
+  @POST
+  public Uni<Warehouse> createANewWarehouseUnit(Warehouse data) {
+    var warehouse = toDomainModel(data);
+    return createWarehouseOperation
+        .create(warehouse)
+        .invoke(() -> changeTracker.changed(ChangeTracker.WAREHOUSES, warehouse.businessUnitCode))
+        .map(ignored -> toResponse(warehouse));
+  }
+
+  @GET
+  @Path("{id}")
+  public Uni<Response> getAWarehouseUnitByID(
+      @PathParam("id") String id, @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+    // changes are tracked by business unit code, a database id falls back to the collection tag
+    EntityTag tag =
+        isDatabaseId(id)
+            ? changeTracker.collectionTag(ChangeTracker.WAREHOUSES)
+            : changeTracker.entityTag(ChangeTracker.WAREHOUSES, id);
+    Response notModified = httpCaching.notModified(ChangeTracker.WAREHOUSES, ifNoneMatch, tag);
+    if (notModified != null) {
+      return Uni.createFrom().item(notModified);
+    }
+
+    return warehouseRepository
+        .findActiveByIdOrBusinessUnitCode(id)
+        .map(
+            warehouse -> {
+              if (warehouse == null) {
+                throw new WebApplicationException(
+                    "Warehouse with id of " + id + " does not exist.", 404);
+              }
+              return httpCaching.ok(ChangeTracker.WAREHOUSES, tag, toResponse(warehouse)).build();
+            });
+  }
+
+  @DELETE
+  @Path("{id}")
+  public Uni<Void> archiveAWarehouseUnitByID(@PathParam("id") String id) {
+    return warehouseRepository
+        .findActiveByIdOrBusinessUnitCode(id)
+        .chain(
+            warehouse -> {
+              if (warehouse == null) {
+                throw new WebApplicationException(
+                    "Warehouse with id of " + id + " does not exist.", 404);
+              }
+              return archiveWarehouseOperation
+                  .archive(warehouse)
+                  .invoke(
+                      () ->
+                          changeTracker.changed(
+                              ChangeTracker.WAREHOUSES, warehouse.businessUnitCode));
+            });
+  }
+
+  @POST
+  @Path("{businessUnitCode}/replacement")
+  public Uni<Warehouse> replaceTheCurrentActiveWarehouse(
+      @PathParam("businessUnitCode") String businessUnitCode, Warehouse data) {
+    var warehouse = toDomainModel(data);
+    warehouse.businessUnitCode = businessUnitCode;
+    return replaceWarehouseOperation
+        .replace(warehouse)
+        .invoke(() -> changeTracker.changed(ChangeTracker.WAREHOUSES, businessUnitCode))
+        .chain(() -> warehouseRepository.findByBusinessUnitCode(businessUnitCode))
+        .map(
+            created -> {
+              if (created == null) {
+                throw new WebApplicationException("Warehouse replacement failed.", 500);
+              }
+              return toResponse(created);
+            });
+  }
+
+  private static boolean isDatabaseId(String id) {
+    return !id.isEmpty() && id.chars().allMatch(Character::isDigit);
+  }
+
+  private static Warehouse toResponse(
+      com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse) {
+    return new WarehouseResponse(
+        warehouse.businessUnitCode, warehouse.location, warehouse.capacity, warehouse.stock);
+  }
+
+  private static com.fulfilment.application.monolith.warehouses.domain.models.Warehouse
+      toDomainModel(Warehouse warehouse) {
+    if (warehouse == null) {
+      throw new WebApplicationException("Warehouse payload is required.", 400);
+    }
+    var result = new com.fulfilment.application.monolith.warehouses.domain.models.Warehouse();
+    result.businessUnitCode = warehouse.getBusinessUnitCode();
+    result.location = warehouse.getLocation();
+    result.capacity = warehouse.getCapacity();
+    result.stock = warehouse.getStock();
+    return result;
+  }
+}
@@ -4,62 +4,166 @@ import com.fulfilment.application.monolith.warehouses.adapters.database.Warehous
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.shared.ChangeTracker;
+import com.fulfilment.application.monolith.shared.EndpointGroup;
+import com.fulfilment.application.monolith.shared.HttpCaching;
+import com.fulfilment.application.monolith.shared.MultiGetKeys;
+import com.fulfilment.application.monolith.shared.ReadOnlyEndpoint;
 import com.warehouse.api.WarehouseResource;
 import com.warehouse.api.beans.Warehouse;
+import com.warehouse.api.beans.WarehouseMultiGet;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RequestScoped
+@UnlessBuildProperty(
+    name = "warehouse.reactive-adapter",
+    stringValue = "true",
+    enableIfMissing = true)
+// the JAX-RS annotations of the generated interface are repeated on the methods, so that they are
+// the endpoint methods and @RunOnVirtualThread applies; the paths and media types are the spec's
 public class WarehouseResourceImpl implements WarehouseResource {
 
   @Inject private WarehouseRepository warehouseRepository;
   @Inject private CreateWarehouseOperation createWarehouseOperation;
   @Inject private ReplaceWarehouseOperation replaceWarehouseOperation;
   @Inject private ArchiveWarehouseOperation archiveWarehouseOperation;
+  @Inject private ChangeTracker changeTracker;
+  @Inject private HttpCaching httpCaching;
 
   @Override
-  public List<Warehouse> listAllWarehousesUnits() {
-    return warehouseRepository.getAll().stream().map(this::toWarehouseResponse).toList();
+  @GET
+  @Produces("application/json")
+  @RunOnVirtualThread
+  @ReadOnlyEndpoint
+  @EndpointGroup(EndpointGroup.BULK_READ)
+  public Response listAllWarehousesUnits(
+      @QueryParam("businessUnitCodes") List<String> businessUnitCodes,
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+    List<String> codes =
+        businessUnitCodes == null || businessUnitCodes.isEmpty()
+            ? null
+            : MultiGetKeys.parse(businessUnitCodes);
+    EntityTag tag = changeTracker.collectionTag(ChangeTracker.WAREHOUSES);
+    Response notModified = httpCaching.notModified(ChangeTracker.WAREHOUSES, ifNoneMatch, tag);
+    if (notModified != null) {
+      return notModified;
+    }
+
+    if (codes == null) {
+      var warehouses = warehouseRepository.listActive(WarehouseResponse.class);
+      return httpCaching.ok(ChangeTracker.WAREHOUSES, tag, warehouses).build();
+    }
+
+    Map<String, Warehouse> found = new HashMap<>();
+    for (var warehouse :
+        warehouseRepository.findActiveByBusinessUnitCodes(codes, WarehouseResponse.class)) {
+      found.put(warehouse.getBusinessUnitCode(), warehouse);
+    }
+
+    var result = new WarehouseMultiGet();
+    result.setItems(new ArrayList<>());
+    result.setMissing(new ArrayList<>());
+    for (String code : codes) {
+      Warehouse warehouse = found.get(code);
+      if (warehouse == null) {
+        result.getMissing().add(code);
+      } else {
+        result.getItems().add(warehouse);
+      }
+    }
+    return httpCaching.ok(ChangeTracker.WAREHOUSES, tag, result).build();
   }
 
   @Override
+  @POST
+  @Produces("application/json")
+  @Consumes("application/json")
+  @RunOnVirtualThread
   @Transactional
+  @EndpointGroup(EndpointGroup.WRITE)
   public Warehouse createANewWarehouseUnit(@NotNull Warehouse data) {
     var warehouse = toDomainModel(data);
     createWarehouseOperation.create(warehouse);
+    changeTracker.changedAfterCommit(ChangeTracker.WAREHOUSES, warehouse.businessUnitCode);
     return toWarehouseResponse(warehouse);
   }
 
   @Override
-  public Warehouse getAWarehouseUnitByID(String id) {
-    var warehouse = warehouseRepository.findActiveByIdOrBusinessUnitCode(id);
+  @GET
+  @Path("{id}")
+  @Produces("application/json")
+  @RunOnVirtualThread
+  public Response getAWarehouseUnitByID(
+      @PathParam("id") String id, @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+    // changes are tracked by business unit code, a database id falls back to the collection tag
+    EntityTag tag =
+        isDatabaseId(id)
+            ? changeTracker.collectionTag(ChangeTracker.WAREHOUSES)
+            : changeTracker.entityTag(ChangeTracker.WAREHOUSES, id);
+    Response notModified = httpCaching.notModified(ChangeTracker.WAREHOUSES, ifNoneMatch, tag);
+    if (notModified != null) {
+      return notModified;
+    }
+
+    var warehouse =
+        warehouseRepository.findActiveByIdOrBusinessUnitCode(id, WarehouseResponse.class);
     if (warehouse == null) {
       throw new WebApplicationException("Warehouse with id of " + id + " does not exist.", 404);
     }
-    return toWarehouseResponse(warehouse);
+    return httpCaching.ok(ChangeTracker.WAREHOUSES, tag, warehouse).build();
   }
 
   @Override
+  @DELETE
+  @Path("{id}")
+  @RunOnVirtualThread
   @Transactional
-  public void archiveAWarehouseUnitByID(String id) {
+  @EndpointGroup(EndpointGroup.WRITE)
+  public void archiveAWarehouseUnitByID(@PathParam("id") String id) {
     var warehouse = warehouseRepository.findActiveByIdOrBusinessUnitCode(id);
     if (warehouse == null) {
       throw new WebApplicationException("Warehouse with id of " + id + " does not exist.", 404);
     }
     archiveWarehouseOperation.archive(warehouse);
+    changeTracker.changedAfterCommit(ChangeTracker.WAREHOUSES, warehouse.businessUnitCode);
   }
 
   @Override
+  @POST
+  @Path("{businessUnitCode}/replacement")
+  @Produces("application/json")
+  @Consumes("application/json")
+  @RunOnVirtualThread
   @Transactional
+  @EndpointGroup(EndpointGroup.WRITE)
   public Warehouse replaceTheCurrentActiveWarehouse(
-      String businessUnitCode, @NotNull Warehouse data) {
+      @PathParam("businessUnitCode") String businessUnitCode, @NotNull Warehouse data) {
     var warehouse = toDomainModel(data);
     warehouse.businessUnitCode = businessUnitCode;
     replaceWarehouseOperation.replace(warehouse);
+    changeTracker.changedAfterCommit(ChangeTracker.WAREHOUSES, businessUnitCode);
     var createdWarehouse = warehouseRepository.findByBusinessUnitCode(businessUnitCode);
     if (createdWarehouse == null) {
       throw new WebApplicationException("Warehouse replacement failed.", 500);
@@ -67,6 +171,10 @@ public class WarehouseResourceImpl implements WarehouseResource {
     return toWarehouseResponse(createdWarehouse);
   }
 
+  private static boolean isDatabaseId(String id) {
+    return !id.isEmpty() && id.chars().allMatch(Character::isDigit);
+  }
+
   private Warehouse toWarehouseResponse(
       com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse) {
     var response = new Warehouse();
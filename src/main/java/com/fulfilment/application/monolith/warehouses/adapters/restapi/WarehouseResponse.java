@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.warehouse.api.beans.Warehouse;
+
+/**
+ * The API {@link Warehouse} bean with a constructor, so read queries can select it directly instead
+ * of loading entities and mapping them twice.
+ */
+public class WarehouseResponse extends Warehouse {
+
+  public WarehouseResponse(
+      String businessUnitCode, String location, Integer capacity, Integer stock) {
+    setBusinessUnitCode(businessUnitCode);
+    setLocation(location);
+    setCapacity(capacity);
+    setStock(stock);
+  }
+}
@@ -0,0 +1,33 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.smallrye.mutiny.Uni;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/** Non-blocking counterpart of {@link WarehouseStore}, for use cases running on the event loop. */
+public interface ReactiveWarehouseStore {
+
+  Uni<List<Warehouse>> getAll();
+
+  default Uni<List<Warehouse>> getByLocation(String location) {
+    return getAll()
+        .map(
+            warehouses ->
+                warehouses.stream()
+                    .filter(warehouse -> Objects.equals(warehouse.location, location))
+                    .toList());
+  }
+
+  Uni<Void> create(Warehouse warehouse);
+
+  Uni<Void> update(Warehouse warehouse);
+
+  Uni<Void> remove(Warehouse warehouse);
+
+  Uni<Warehouse> findByBusinessUnitCode(String buCode);
+
+  /** Runs the work in a single transaction, against the store it is handed. */
+  <T> Uni<T> inTransaction(Function<ReactiveWarehouseStore, Uni<T>> work);
+}
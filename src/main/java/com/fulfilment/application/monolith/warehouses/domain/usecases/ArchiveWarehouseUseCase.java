@@ -1,26 +1,30 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.shared.UseCaseMetrics;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.ws.rs.WebApplicationException;
 import java.time.LocalDateTime;
 
 @ApplicationScoped
 public class ArchiveWarehouseUseCase implements ArchiveWarehouseOperation {
 
   private final WarehouseStore warehouseStore;
+  private final UseCaseMetrics useCaseMetrics;
 
-  public ArchiveWarehouseUseCase(WarehouseStore warehouseStore) {
+  public ArchiveWarehouseUseCase(WarehouseStore warehouseStore, UseCaseMetrics useCaseMetrics) {
     this.warehouseStore = warehouseStore;
+    this.useCaseMetrics = useCaseMetrics;
   }
 
   @Override
   public void archive(Warehouse warehouse) {
-    if (warehouse == null || warehouse.businessUnitCode == null || warehouse.businessUnitCode.isBlank()) {
-      throw new WebApplicationException("Warehouse not found.", 404);
-    }
+    useCaseMetrics.run("archive-warehouse", () -> archiveWarehouse(warehouse));
+  }
+
+  private void archiveWarehouse(Warehouse warehouse) {
+    WarehouseRules.validateArchive(warehouse);
 
     warehouse.archivedAt = LocalDateTime.now();
     warehouseStore.update(warehouse);
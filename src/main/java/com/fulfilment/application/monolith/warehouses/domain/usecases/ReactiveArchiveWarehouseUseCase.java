@@ -0,0 +1,40 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.shared.UseCaseMetrics;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.time.LocalDateTime;
+
+@ApplicationScoped
+@IfBuildProperty(name = "warehouse.reactive-adapter", stringValue = "true")
+public class ReactiveArchiveWarehouseUseCase implements ReactiveArchiveWarehouseOperation {
+
+  private final ReactiveWarehouseStore warehouseStore;
+  private final UseCaseMetrics useCaseMetrics;
+
+  public ReactiveArchiveWarehouseUseCase(
+      ReactiveWarehouseStore warehouseStore, UseCaseMetrics useCaseMetrics) {
+    this.warehouseStore = warehouseStore;
+    this.useCaseMetrics = useCaseMetrics;
+  }
+
+  @Override
+  public Uni<Void> archive(Warehouse warehouse) {
+    return useCaseMetrics.observe("archive-warehouse", () -> archiveWarehouse(warehouse));
+  }
+
+  private Uni<Void> archiveWarehouse(Warehouse warehouse) {
+    return Uni.createFrom()
+        .item(warehouse)
+        .invoke(WarehouseRules::validateArchive)
+        .chain(
+            () -> {
+              warehouse.archivedAt = LocalDateTime.now();
+              return warehouseStore.update(warehouse);
+            });
+  }
+}
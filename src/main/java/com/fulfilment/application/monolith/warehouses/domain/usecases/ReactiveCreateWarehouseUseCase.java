@@ -0,0 +1,65 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.shared.UseCaseMetrics;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveCreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.time.LocalDateTime;
+
+@ApplicationScoped
+@IfBuildProperty(name = "warehouse.reactive-adapter", stringValue = "true")
+public class ReactiveCreateWarehouseUseCase implements ReactiveCreateWarehouseOperation {
+
+  private final ReactiveWarehouseStore warehouseStore;
+  private final LocationResolver locationResolver;
+  private final UseCaseMetrics useCaseMetrics;
+
+  public ReactiveCreateWarehouseUseCase(
+      ReactiveWarehouseStore warehouseStore,
+      LocationResolver locationResolver,
+      UseCaseMetrics useCaseMetrics) {
+    this.warehouseStore = warehouseStore;
+    this.locationResolver = locationResolver;
+    this.useCaseMetrics = useCaseMetrics;
+  }
+
+  @Override
+  public Uni<Void> create(Warehouse warehouse) {
+    return useCaseMetrics.observe("create-warehouse", () -> createWarehouse(warehouse));
+  }
+
+  private Uni<Void> createWarehouse(Warehouse warehouse) {
+    return Uni.createFrom()
+        .item(warehouse)
+        .invoke(WarehouseRules::validatePayload)
+        .chain(
+            () ->
+                warehouseStore.inTransaction(
+                    store ->
+                        store
+                            .findByBusinessUnitCode(warehouse.businessUnitCode)
+                            .invoke(WarehouseRules::rejectExisting)
+                            .map(
+                                existing ->
+                                    WarehouseRules.requireLocation(
+                                        locationResolver, warehouse.location))
+                            .chain(
+                                location ->
+                                    store
+                                        .getByLocation(warehouse.location)
+                                        .invoke(
+                                            inLocation ->
+                                                WarehouseRules.checkCreate(
+                                                    warehouse, location, inLocation)))
+                            .chain(
+                                () -> {
+                                  warehouse.createdAt = LocalDateTime.now();
+                                  warehouse.archivedAt = null;
+                                  return store.create(warehouse);
+                                })));
+  }
+}
@@ -0,0 +1,70 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.shared.UseCaseMetrics;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.time.LocalDateTime;
+
+@ApplicationScoped
+@IfBuildProperty(name = "warehouse.reactive-adapter", stringValue = "true")
+public class ReactiveReplaceWarehouseUseCase implements ReactiveReplaceWarehouseOperation {
+
+  private final ReactiveWarehouseStore warehouseStore;
+  private final LocationResolver locationResolver;
+  private final UseCaseMetrics useCaseMetrics;
+
+  public ReactiveReplaceWarehouseUseCase(
+      ReactiveWarehouseStore warehouseStore,
+      LocationResolver locationResolver,
+      UseCaseMetrics useCaseMetrics) {
+    this.warehouseStore = warehouseStore;
+    this.locationResolver = locationResolver;
+    this.useCaseMetrics = useCaseMetrics;
+  }
+
+  @Override
+  public Uni<Void> replace(Warehouse newWarehouse) {
+    return useCaseMetrics.observe("replace-warehouse", () -> replaceWarehouse(newWarehouse));
+  }
+
+  private Uni<Void> replaceWarehouse(Warehouse newWarehouse) {
+    return Uni.createFrom()
+        .item(newWarehouse)
+        .invoke(WarehouseRules::validatePayload)
+        .chain(
+            () ->
+                warehouseStore.inTransaction(
+                    store ->
+                        store
+                            .findByBusinessUnitCode(newWarehouse.businessUnitCode)
+                            .invoke(
+                                current -> WarehouseRules.checkReplacement(newWarehouse, current))
+                            .chain(current -> replace(store, newWarehouse, current))));
+  }
+
+  private Uni<Void> replace(
+      ReactiveWarehouseStore store, Warehouse newWarehouse, Warehouse currentWarehouse) {
+    var location = WarehouseRules.requireLocation(locationResolver, newWarehouse.location);
+    return store
+        .getByLocation(newWarehouse.location)
+        .invoke(
+            inLocation ->
+                WarehouseRules.checkReplace(newWarehouse, currentWarehouse, location, inLocation))
+        .chain(
+            () -> {
+              currentWarehouse.archivedAt = LocalDateTime.now();
+              return store.update(currentWarehouse);
+            })
+        .chain(
+            () -> {
+              newWarehouse.createdAt = LocalDateTime.now();
+              newWarehouse.archivedAt = null;
+              return store.create(newWarehouse);
+            });
+  }
+}
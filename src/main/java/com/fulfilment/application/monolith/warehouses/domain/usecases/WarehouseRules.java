@@ -0,0 +1,135 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.shared.BusinessRuleException;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import java.util.List;
+
+/**
+ * The warehouse business rules, shared by the blocking use cases and their reactive counterparts
+ * so both always accept and reject the same requests.
+ */
+final class WarehouseRules {
+
+  private WarehouseRules() {}
+
+  static void validatePayload(Warehouse warehouse) {
+    if (warehouse == null) {
+      throw new BusinessRuleException("payload", "Warehouse payload is required.", 400);
+    }
+    if (warehouse.businessUnitCode == null || warehouse.businessUnitCode.isBlank()) {
+      throw new BusinessRuleException("payload", "Warehouse business unit code is required.", 400);
+    }
+    if (warehouse.location == null || warehouse.location.isBlank()) {
+      throw new BusinessRuleException("payload", "Warehouse location is required.", 400);
+    }
+    if (warehouse.capacity == null || warehouse.capacity < 0) {
+      throw new BusinessRuleException(
+          "payload", "Warehouse capacity must be zero or greater.", 400);
+    }
+    if (warehouse.stock == null || warehouse.stock < 0) {
+      throw new BusinessRuleException("payload", "Warehouse stock must be zero or greater.", 400);
+    }
+  }
+
+  static void validateArchive(Warehouse warehouse) {
+    if (warehouse == null
+        || warehouse.businessUnitCode == null
+        || warehouse.businessUnitCode.isBlank()) {
+      throw new BusinessRuleException("warehouse-exists", "Warehouse not found.", 404);
+    }
+  }
+
+  static void rejectExisting(Warehouse existing) {
+    if (existing != null) {
+      throw new BusinessRuleException(
+          "unique-business-unit-code", "Warehouse business unit code already exists.", 400);
+    }
+  }
+
+  static Location requireLocation(LocationResolver locationResolver, String identifier) {
+    var location = locationResolver.resolveByIdentifier(identifier);
+    if (location == null) {
+      throw new BusinessRuleException("known-location", "Invalid warehouse location.", 400);
+    }
+    return location;
+  }
+
+  static void checkCreate(
+      Warehouse warehouse, Location location, List<Warehouse> activeWarehousesInLocation) {
+    if (activeWarehousesInLocation.size() >= location.maxNumberOfWarehouses) {
+      throw new BusinessRuleException(
+          "location-warehouse-limit",
+          "Maximum number of warehouses for this location has been reached.",
+          400);
+    }
+
+    int totalCapacityOnLocation = capacity(activeWarehousesInLocation) + warehouse.capacity;
+    if (totalCapacityOnLocation > location.maxCapacity) {
+      throw new BusinessRuleException(
+          "location-capacity-limit", "Warehouse capacity exceeds location maximum capacity.", 400);
+    }
+
+    checkStock(warehouse);
+  }
+
+  static void checkReplacement(Warehouse newWarehouse, Warehouse currentWarehouse) {
+    if (currentWarehouse == null) {
+      throw new BusinessRuleException("warehouse-exists", "Warehouse not found.", 404);
+    }
+
+    if (!newWarehouse.stock.equals(currentWarehouse.stock)) {
+      throw new BusinessRuleException(
+          "replacement-stock-matches",
+          "Replacement warehouse stock must match the existing warehouse stock.",
+          400);
+    }
+
+    if (newWarehouse.capacity < currentWarehouse.stock) {
+      throw new BusinessRuleException(
+          "replacement-capacity-fits-stock",
+          "Replacement warehouse capacity must accommodate existing warehouse stock.",
+          400);
+    }
+  }
+
+  static void checkReplace(
+      Warehouse newWarehouse,
+      Warehouse currentWarehouse,
+      Location location,
+      List<Warehouse> warehousesInLocation) {
+    boolean sameLocation = newWarehouse.location.equals(currentWarehouse.location);
+    int currentCount = warehousesInLocation.size();
+    int adjustedCount = sameLocation ? currentCount : currentCount + 1;
+    if (adjustedCount > location.maxNumberOfWarehouses) {
+      throw new BusinessRuleException(
+          "location-warehouse-limit",
+          "Maximum number of warehouses for this location has been reached.",
+          400);
+    }
+
+    int capacityAtLocation = capacity(warehousesInLocation);
+    int adjustedCapacity =
+        sameLocation
+            ? capacityAtLocation - currentWarehouse.capacity + newWarehouse.capacity
+            : capacityAtLocation + newWarehouse.capacity;
+    if (adjustedCapacity > location.maxCapacity) {
+      throw new BusinessRuleException(
+          "location-capacity-limit", "Warehouse capacity exceeds location maximum capacity.", 400);
+    }
+
+    checkStock(newWarehouse);
+  }
+
+  private static void checkStock(Warehouse warehouse) {
+    if (warehouse.stock > warehouse.capacity) {
+      throw new BusinessRuleException(
+          "stock-within-capacity", "Warehouse stock cannot exceed warehouse capacity.", 400);
+    }
+  }
+
+  private static int capacity(List<Warehouse> warehouses) {
+    return warehouses.stream().mapToInt(w -> w.capacity == null ? 0 : w.capacity).sum();
+  }
+}
@@ -1,10 +1,14 @@
 package com.fulfilment.application.monolith.warehouses.fulfilment;
 
 import com.fulfilment.application.monolith.products.ProductRepository;
+import com.fulfilment.application.monolith.shared.BusinessRuleException;
+import com.fulfilment.application.monolith.shared.ChangeTracker;
+import com.fulfilment.application.monolith.shared.FlightRecorderEvents;
+import com.fulfilment.application.monolith.shared.UseCaseMetrics;
 import com.fulfilment.application.monolith.stores.Store;
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.ws.rs.WebApplicationException;
+import java.util.function.BooleanSupplier;
 
 @ApplicationScoped
 public class AssignWarehouseFulfilmentUseCase implements AssignWarehouseFulfilmentOperation {
@@ -12,31 +16,43 @@ public class AssignWarehouseFulfilmentUseCase implements AssignWarehouseFulfilme
   private final WarehouseFulfilmentLinkRepository warehouseFulfilmentLinkRepository;
   private final WarehouseRepository warehouseRepository;
   private final ProductRepository productRepository;
+  private final ChangeTracker changeTracker;
+  private final UseCaseMetrics useCaseMetrics;
 
   public AssignWarehouseFulfilmentUseCase(
       WarehouseFulfilmentLinkRepository warehouseFulfilmentLinkRepository,
       WarehouseRepository warehouseRepository,
-      ProductRepository productRepository) {
+      ProductRepository productRepository,
+      ChangeTracker changeTracker,
+      UseCaseMetrics useCaseMetrics) {
     this.warehouseFulfilmentLinkRepository = warehouseFulfilmentLinkRepository;
     this.warehouseRepository = warehouseRepository;
     this.productRepository = productRepository;
+    this.changeTracker = changeTracker;
+    this.useCaseMetrics = useCaseMetrics;
   }
 
   @Override
   public void assign(Long storeId, Long productId, String warehouseBusinessUnitCode) {
+    useCaseMetrics.run(
+        "assign-fulfilment", () -> assignFulfilment(storeId, productId, warehouseBusinessUnitCode));
+  }
+
+  private void assignFulfilment(Long storeId, Long productId, String warehouseBusinessUnitCode) {
     if (storeId == null || productId == null || warehouseBusinessUnitCode == null
         || warehouseBusinessUnitCode.isBlank()) {
-      throw new WebApplicationException("storeId, productId and warehouseBusinessUnitCode are required.", 400);
+      throw new BusinessRuleException(
+          "payload", "storeId, productId and warehouseBusinessUnitCode are required.", 400);
     }
 
-    if (Store.findById(storeId) == null) {
-      throw new WebApplicationException("Store not found.", 404);
+    if (!storeExists(storeId)) {
+      throw new BusinessRuleException("store-exists", "Store not found.", 404);
     }
     if (productRepository.findById(productId) == null) {
-      throw new WebApplicationException("Product not found.", 404);
+      throw new BusinessRuleException("product-exists", "Product not found.", 404);
     }
     if (warehouseRepository.findByBusinessUnitCode(warehouseBusinessUnitCode) == null) {
-      throw new WebApplicationException("Warehouse not found.", 404);
+      throw new BusinessRuleException("warehouse-exists", "Warehouse not found.", 404);
     }
 
     if (warehouseFulfilmentLinkRepository.existsByStoreAndProductAndWarehouse(
@@ -44,34 +60,56 @@ public class AssignWarehouseFulfilmentUseCase implements AssignWarehouseFulfilme
       return;
     }
 
-    long warehousesPerStoreAndProduct =
-        warehouseFulfilmentLinkRepository.countDistinctWarehousesForStoreAndProduct(storeId, productId);
-    if (warehousesPerStoreAndProduct >= 2) {
-      throw new WebApplicationException(
-          "A product can be fulfilled by a maximum of 2 warehouses per store.", 400);
-    }
-
-    boolean warehouseAlreadyUsedByStore =
-        warehouseFulfilmentLinkRepository.existsByStoreAndWarehouse(storeId, warehouseBusinessUnitCode);
-    if (!warehouseAlreadyUsedByStore
-        && warehouseFulfilmentLinkRepository.countDistinctWarehousesForStore(storeId) >= 3) {
-      throw new WebApplicationException(
-          "A store can be fulfilled by a maximum of 3 different warehouses.", 400);
-    }
-
-    boolean productAlreadyStoredByWarehouse =
-        warehouseFulfilmentLinkRepository.existsByWarehouseAndProduct(warehouseBusinessUnitCode, productId);
-    if (!productAlreadyStoredByWarehouse
-        && warehouseFulfilmentLinkRepository.countDistinctProductsForWarehouse(warehouseBusinessUnitCode)
-            >= 5) {
-      throw new WebApplicationException(
-          "A warehouse can store a maximum of 5 different product types.", 400);
-    }
+    check(
+        "warehouses-per-store-product-limit",
+        "A product can be fulfilled by a maximum of 2 warehouses per store.",
+        () ->
+            warehouseFulfilmentLinkRepository.countDistinctWarehousesForStoreAndProduct(
+                    storeId, productId)
+                >= 2);
+    check(
+        "warehouses-per-store-limit",
+        "A store can be fulfilled by a maximum of 3 different warehouses.",
+        () ->
+            !warehouseFulfilmentLinkRepository.existsByStoreAndWarehouse(
+                    storeId, warehouseBusinessUnitCode)
+                && warehouseFulfilmentLinkRepository.countDistinctWarehousesForStore(storeId) >= 3);
+    check(
+        "products-per-warehouse-limit",
+        "A warehouse can store a maximum of 5 different product types.",
+        () ->
+            !warehouseFulfilmentLinkRepository.existsByWarehouseAndProduct(
+                    warehouseBusinessUnitCode, productId)
+                && warehouseFulfilmentLinkRepository.countDistinctProductsForWarehouse(
+                        warehouseBusinessUnitCode)
+                    >= 5);
 
     var link = new WarehouseFulfilmentLink();
     link.storeId = storeId;
     link.productId = productId;
     link.warehouseBusinessUnitCode = warehouseBusinessUnitCode;
     warehouseFulfilmentLinkRepository.persist(link);
+    changeTracker.changedAfterCommit(ChangeTracker.FULFILMENT_LINKS, link.id);
+  }
+
+  // each constraint is recorded as a flight recorder event, so a recording shows which of them,
+  // queries included, a slow assignment spent its time on
+  private static void check(String constraint, String message, BooleanSupplier violated) {
+    var event = new FlightRecorderEvents.ConstraintEvaluation();
+    event.begin();
+    boolean rejected = violated.getAsBoolean();
+    if (event.shouldCommit()) {
+      event.constraint = constraint;
+      event.rejected = rejected;
+      event.commit();
+    }
+    if (rejected) {
+      throw new BusinessRuleException(constraint, message, 400);
+    }
+  }
+
+  // Store is an active record, so its lookup is kept overridable for use outside the container
+  boolean storeExists(Long storeId) {
+    return Store.findById(storeId) != null;
   }
 }
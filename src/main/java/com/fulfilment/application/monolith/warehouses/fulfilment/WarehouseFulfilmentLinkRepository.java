@@ -1,5 +1,7 @@
 package com.fulfilment.application.monolith.warehouses.fulfilment;
 
+import com.fulfilment.application.monolith.shared.ReadReplica;
+import com.fulfilment.application.monolith.warehouses.fulfilment.WarehouseFulfilmentResource.WarehouseFulfilmentRequest;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.util.List;
@@ -51,7 +53,16 @@ public class WarehouseFulfilmentLinkRepository implements PanacheRepository<Ware
     return count("warehouseBusinessUnitCode = ?1 and productId = ?2", businessUnitCode, productId) > 0;
   }
 
-  public List<WarehouseFulfilmentLink> listAllLinks() {
-    return listAll();
+  // selects the response shape directly, so listing never loads or tracks link entities; inside a
+  // read-only endpoint it runs on the read datasource
+  public List<WarehouseFulfilmentRequest> listAllRequests() {
+    return ReadReplica.entityManager(getEntityManager())
+        .createQuery(
+            "select new "
+                + WarehouseFulfilmentRequest.class.getName()
+                + "(l.storeId, l.productId, l.warehouseBusinessUnitCode)"
+                + " from WarehouseFulfilmentLink l order by l.id",
+            WarehouseFulfilmentRequest.class)
+        .getResultList();
   }
 }
@@ -1,27 +1,40 @@
 package com.fulfilment.application.monolith.warehouses.fulfilment;
 
+import com.fulfilment.application.monolith.shared.ChangeTracker;
+import com.fulfilment.application.monolith.shared.EndpointGroup;
+import com.fulfilment.application.monolith.shared.HttpCaching;
+import com.fulfilment.application.monolith.shared.ReadOnlyEndpoint;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
 import java.util.List;
 
 @Path("warehouse-fulfilment")
 @ApplicationScoped
 @Produces("application/json")
 @Consumes("application/json")
+@RunOnVirtualThread
 public class WarehouseFulfilmentResource {
 
   @Inject AssignWarehouseFulfilmentOperation assignWarehouseFulfilmentOperation;
   @Inject WarehouseFulfilmentLinkRepository warehouseFulfilmentLinkRepository;
+  @Inject ChangeTracker changeTracker;
+  @Inject HttpCaching httpCaching;
 
   @POST
   @Transactional
+  @EndpointGroup(EndpointGroup.WRITE)
   public WarehouseFulfilmentRequest create(WarehouseFulfilmentRequest request) {
     if (request == null) {
       throw new WebApplicationException("Request payload is required.", 400);
@@ -32,22 +45,32 @@ public class WarehouseFulfilmentResource {
   }
 
   @GET
-  public List<WarehouseFulfilmentRequest> list() {
-    return warehouseFulfilmentLinkRepository.listAllLinks().stream()
-        .map(
-            link -> {
-              var response = new WarehouseFulfilmentRequest();
-              response.storeId = link.storeId;
-              response.productId = link.productId;
-              response.warehouseBusinessUnitCode = link.warehouseBusinessUnitCode;
-              return response;
-            })
-        .toList();
+  @ReadOnlyEndpoint
+  @EndpointGroup(EndpointGroup.BULK_READ)
+  public Response list(@HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+    EntityTag tag = changeTracker.collectionTag(ChangeTracker.FULFILMENT_LINKS);
+    Response notModified =
+        httpCaching.notModified(ChangeTracker.FULFILMENT_LINKS, ifNoneMatch, tag);
+    if (notModified != null) {
+      return notModified;
+    }
+
+    List<WarehouseFulfilmentRequest> links = warehouseFulfilmentLinkRepository.listAllRequests();
+    return httpCaching.ok(ChangeTracker.FULFILMENT_LINKS, tag, links).build();
   }
 
   public static class WarehouseFulfilmentRequest {
     public Long storeId;
     public Long productId;
     public String warehouseBusinessUnitCode;
+
+    public WarehouseFulfilmentRequest() {}
+
+    public WarehouseFulfilmentRequest(
+        Long storeId, Long productId, String warehouseBusinessUnitCode) {
+      this.storeId = storeId;
+      this.productId = productId;
+      this.warehouseBusinessUnitCode = warehouseBusinessUnitCode;
+    }
   }
 }
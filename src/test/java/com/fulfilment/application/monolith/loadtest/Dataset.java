@@ -0,0 +1,51 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** The generated entities the workload picks its request targets from. */
+class Dataset {
+
+  final List<Long> storeIds = new ArrayList<>();
+  final List<Long> productIds = new ArrayList<>();
+  final List<SeededWarehouse> warehouses = new ArrayList<>();
+  final List<Link> links = new ArrayList<>();
+
+  @Override
+  public String toString() {
+    return storeIds.size()
+        + " stores, "
+        + productIds.size()
+        + " products, "
+        + warehouses.size()
+        + " warehouses, "
+        + links.size()
+        + " fulfilment links";
+  }
+
+  static class SeededWarehouse {
+    final String businessUnitCode;
+    final String location;
+    final int capacity;
+    final int stock;
+
+    SeededWarehouse(String businessUnitCode, String location, int capacity, int stock) {
+      this.businessUnitCode = businessUnitCode;
+      this.location = location;
+      this.capacity = capacity;
+      this.stock = stock;
+    }
+  }
+
+  static class Link {
+    final long storeId;
+    final long productId;
+    final String warehouseBusinessUnitCode;
+
+    Link(long storeId, long productId, String warehouseBusinessUnitCode) {
+      this.storeId = storeId;
+      this.productId = productId;
+      this.warehouseBusinessUnitCode = warehouseBusinessUnitCode;
+    }
+  }
+}
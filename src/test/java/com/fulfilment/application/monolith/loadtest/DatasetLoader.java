@@ -0,0 +1,77 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.shared.DatasetGenerator;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Collects the request targets from the dataset the {@link DatasetGenerator} seeded at startup:
+ * its stores, products, active warehouses and the fulfilment links between them, recognised by the
+ * names and business unit codes the generator gives them. Rows created by hand or by earlier load
+ * tests are left out, so the workload only touches what was generated.
+ */
+class DatasetLoader {
+
+  static final String STORE_PREFIX = "STORE-";
+  static final String PRODUCT_PREFIX = "PRODUCT-";
+  static final String WAREHOUSE_PREFIX = "MWH.G";
+
+  private final HttpClient client;
+  private final URI baseUrl;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  DatasetLoader(HttpClient client, URI baseUrl) {
+    this.client = client;
+    this.baseUrl = baseUrl;
+  }
+
+  Dataset load() throws IOException, InterruptedException {
+    var dataset = new Dataset();
+    for (JsonNode store : get("/store")) {
+      if (store.get("name").asText().startsWith(STORE_PREFIX)) {
+        dataset.storeIds.add(store.get("id").asLong());
+      }
+    }
+    for (JsonNode product : get("/product")) {
+      if (product.get("name").asText().startsWith(PRODUCT_PREFIX)) {
+        dataset.productIds.add(product.get("id").asLong());
+      }
+    }
+    for (JsonNode warehouse : get("/warehouse")) {
+      String businessUnitCode = warehouse.get("businessUnitCode").asText();
+      if (businessUnitCode.startsWith(WAREHOUSE_PREFIX)) {
+        dataset.warehouses.add(
+            new Dataset.SeededWarehouse(
+                businessUnitCode,
+                warehouse.get("location").asText(),
+                warehouse.get("capacity").asInt(),
+                warehouse.get("stock").asInt()));
+      }
+    }
+    for (JsonNode link : get("/warehouse-fulfilment")) {
+      String businessUnitCode = link.get("warehouseBusinessUnitCode").asText();
+      if (businessUnitCode.startsWith(WAREHOUSE_PREFIX)) {
+        dataset.links.add(
+            new Dataset.Link(
+                link.get("storeId").asLong(), link.get("productId").asLong(), businessUnitCode));
+      }
+    }
+    return dataset;
+  }
+
+  private JsonNode get(String path) throws IOException, InterruptedException {
+    HttpResponse<String> response =
+        client.send(
+            HttpRequest.newBuilder(baseUrl.resolve(path)).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+    }
+    return objectMapper.readTree(response.body());
+  }
+}
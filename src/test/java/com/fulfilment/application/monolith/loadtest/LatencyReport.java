@@ -0,0 +1,145 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency distributions per operation of one load test run. Written as JSON with the headline
+ * percentiles plus every full histogram, so a later run can be compared against it on any
+ * percentile.
+ */
+class LatencyReport {
+
+  static final double[] PERCENTILES = {50, 90, 99, 99.9};
+  static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+  private final double requestsPerSecond;
+  private final long durationMillis;
+  private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+  LatencyReport(double requestsPerSecond, long durationMillis) {
+    this.requestsPerSecond = requestsPerSecond;
+    this.durationMillis = durationMillis;
+  }
+
+  void add(String operation, Histogram histogram, long errors, long dropped) {
+    entries.put(operation, new Entry(histogram, errors, dropped));
+  }
+
+  void print(PrintStream out) {
+    out.printf(
+        "%.0f requests/s for %d s, latencies in ms from the scheduled send time,"
+            + " dropped requests counted as %.0f ms timeouts%n",
+        requestsPerSecond, durationMillis / 1000, millis(OpenLoopDriver.HIGHEST_LATENCY_MICROS));
+    out.printf(
+        "%-48s %8s %7s %7s %9s %9s %9s %9s %9s%n",
+        "operation", "count", "errors", "dropped", "p50", "p90", "p99", "p99.9", "max");
+    entries.forEach(
+        (operation, entry) -> {
+          out.printf(
+              "%-48s %8d %7d %7d",
+              operation, entry.histogram.getTotalCount(), entry.errors, entry.dropped);
+          for (double percentile : PERCENTILES) {
+            out.printf(" %9.2f", millis(entry.histogram.getValueAtPercentile(percentile)));
+          }
+          out.printf(" %9.2f%n", millis(entry.histogram.getMaxValue()));
+        });
+  }
+
+  /** Prints how the median and tail latencies moved against a baseline run. */
+  void printComparison(LatencyReport baseline, PrintStream out) {
+    out.printf("%-48s %22s %22s %22s%n", "operation", "p50", "p99", "p99.9");
+    entries.forEach(
+        (operation, entry) -> {
+          Entry before = baseline.entries.get(operation);
+          if (before == null) {
+            return;
+          }
+          out.printf("%-48s", operation);
+          for (double percentile : new double[] {50, 99, 99.9}) {
+            double was = millis(before.histogram.getValueAtPercentile(percentile));
+            double now = millis(entry.histogram.getValueAtPercentile(percentile));
+            out.printf(
+                " %7.2f -> %7.2f %+4.0f%%", was, now, was == 0 ? 0 : (now - was) / was * 100);
+          }
+          out.println();
+        });
+  }
+
+  void write(Path file, ObjectMapper objectMapper) throws IOException {
+    ObjectNode root = objectMapper.createObjectNode();
+    root.put("requestsPerSecond", requestsPerSecond);
+    root.put("durationMillis", durationMillis);
+    ObjectNode operations = root.putObject("operations");
+    entries.forEach(
+        (operation, entry) -> {
+          ObjectNode node = operations.putObject(operation);
+          node.put("count", entry.histogram.getTotalCount());
+          node.put("errors", entry.errors);
+          node.put("dropped", entry.dropped);
+          for (int i = 0; i < PERCENTILES.length; i++) {
+            node.put(
+                PERCENTILE_NAMES[i] + "Ms",
+                millis(entry.histogram.getValueAtPercentile(PERCENTILES[i])));
+          }
+          node.put("maxMs", millis(entry.histogram.getMaxValue()));
+          ByteBuffer buffer = ByteBuffer.allocate(entry.histogram.getNeededByteBufferCapacity());
+          int length = entry.histogram.encodeIntoCompressedByteBuffer(buffer);
+          node.put(
+              "histogram",
+              Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+        });
+    if (file.getParent() != null) {
+      Files.createDirectories(file.getParent());
+    }
+    objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), root);
+  }
+
+  static LatencyReport read(Path file, ObjectMapper objectMapper)
+      throws IOException, DataFormatException {
+    JsonNode root = objectMapper.readTree(file.toFile());
+    var report =
+        new LatencyReport(
+            root.get("requestsPerSecond").asDouble(), root.get("durationMillis").asLong());
+    var operations = root.get("operations").fields();
+    while (operations.hasNext()) {
+      var operation = operations.next();
+      JsonNode node = operation.getValue();
+      byte[] encoded = Base64.getDecoder().decode(node.get("histogram").asText());
+      report.add(
+          operation.getKey(),
+          Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(encoded), 0),
+          node.get("errors").asLong(),
+          node.get("dropped").asLong());
+    }
+    return report;
+  }
+
+  private static double millis(long micros) {
+    return micros / 1000.0;
+  }
+
+  private static class Entry {
+    private final Histogram histogram;
+    private final long errors;
+    private final long dropped;
+
+    Entry(Histogram histogram, long errors, long dropped) {
+      this.histogram = histogram;
+      this.errors = errors;
+      this.dropped = dropped;
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.shared.DatasetGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test of the REST endpoints. It boots the packaged application against the local
+ * Postgres from the README, unless loadtest.baseUrl points at one that is already running, drives
+ * the {@link Workload} mix open loop at a fixed rate against the dataset the {@link
+ * DatasetGenerator} seeds and reports latency percentiles per operation. It is not part of the test
+ * suite:
+ *
+ * <pre>
+ * mvn package -DskipTests
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.fulfilment.application.monolith.loadtest.LoadTest \
+ *   -Dloadtest.rate=500 -Dloadtest.report=target/load-test/release-candidate.json \
+ *   -Dloadtest.baseline=target/load-test/previous-release.json
+ * </pre>
+ *
+ * The report holds the full histograms, so any earlier report can serve as the baseline. The
+ * packaged application is started with the generator enabled, sized by loadtest.stores and
+ * loadtest.products; -Dloadtest.generate=false reuses a dataset generated by an earlier run. An
+ * application at loadtest.baseUrl must have been started with dataset-generator.enabled itself.
+ */
+public class LoadTest {
+
+  private static final String BASE_URL = System.getProperty("loadtest.baseUrl");
+  private static final String APPLICATION =
+      System.getProperty("loadtest.application", "target/quarkus-app/quarkus-run.jar");
+  private static final int STORES = Integer.getInteger("loadtest.stores", 1_000);
+  private static final int PRODUCTS = Integer.getInteger("loadtest.products", 1_000);
+  private static final boolean GENERATE =
+      Boolean.parseBoolean(System.getProperty("loadtest.generate", "true"));
+  private static final long SEED = Long.getLong("loadtest.seed", 42);
+  private static final String MIX = System.getProperty("loadtest.mix", Workload.DEFAULT_MIX);
+  private static final double RATE =
+      Double.parseDouble(System.getProperty("loadtest.rate", "200"));
+  private static final int MAX_IN_FLIGHT = Integer.getInteger("loadtest.maxInFlight", 5_000);
+  private static final long WARMUP_MILLIS = Long.getLong("loadtest.warmupMillis", 30_000);
+  private static final long DURATION_MILLIS = Long.getLong("loadtest.durationMillis", 120_000);
+  private static final Path REPORT =
+      Path.of(System.getProperty("loadtest.report", "target/load-test/report.json"));
+  private static final String BASELINE = System.getProperty("loadtest.baseline");
+
+  public static void main(String[] args) throws Exception {
+    HttpClient client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    Process application = null;
+    URI baseUrl;
+    if (BASE_URL == null) {
+      application = start(APPLICATION, GENERATE, REPORT.resolveSibling("application.log"));
+      baseUrl = URI.create("http://localhost:8080");
+    } else {
+      baseUrl = URI.create(BASE_URL);
+    }
+
+    try {
+      awaitReady(client, baseUrl);
+      var random = new Random(SEED);
+      Dataset dataset = new DatasetLoader(client, baseUrl).load();
+      System.out.println("loaded " + dataset);
+
+      var driver =
+          new OpenLoopDriver(client, new Workload(baseUrl, dataset, MIX), random, MAX_IN_FLIGHT);
+      LatencyReport report = driver.run(RATE, WARMUP_MILLIS, DURATION_MILLIS);
+
+      var objectMapper = new ObjectMapper();
+      report.print(System.out);
+      report.write(REPORT, objectMapper);
+      System.out.println("report written to " + REPORT.toAbsolutePath());
+      if (BASELINE != null) {
+        System.out.println("compared with " + BASELINE);
+        report.printComparison(LatencyReport.read(Path.of(BASELINE), objectMapper), System.out);
+      }
+    } finally {
+      if (application != null) {
+        application.destroy();
+        application.waitFor(30, TimeUnit.SECONDS);
+      }
+    }
+    System.exit(0);
+  }
+
+  // the prod profile of the packaged jar connects to the README's Postgres on port 15432
+  static Process start(String application, boolean generate, Path log) throws Exception {
+    if (!new File(application).isFile()) {
+      throw new IllegalStateException(application + " is missing, run mvn package first.");
+    }
+    Files.createDirectories(log.getParent());
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    if (generate) {
+      command.add("-Ddataset-generator.enabled=true");
+      command.add("-Ddataset-generator.seed=" + SEED);
+      command.add("-Ddataset-generator.stores=" + STORES);
+      command.add("-Ddataset-generator.products=" + PRODUCTS);
+    }
+    command.add("-jar");
+    command.add(application);
+    System.out.println("starting " + application + ", logging to " + log);
+    return new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(log.toFile())
+        .start();
+  }
+
+  static void awaitReady(HttpClient client, URI baseUrl) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(2);
+    HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve("/warehouse")).build();
+    while (System.currentTimeMillis() < deadline) {
+      try {
+        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+          return;
+        }
+      } catch (IOException notYetListening) {
+        // keeps polling until the deadline
+      }
+      Thread.sleep(500);
+    }
+    throw new IllegalStateException("The application at " + baseUrl + " did not become ready.");
+  }
+}
@@ -0,0 +1,119 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Sends requests on a fixed schedule, whether or not earlier ones have completed, and measures
+ * every latency from the moment the request was due rather than from when it was sent. A stalled
+ * server therefore shows up in the percentiles instead of quietly slowing the load down, which is
+ * what a closed loop of clients waiting on their previous response would do.
+ */
+class OpenLoopDriver {
+
+  // latencies are recorded in microseconds, up to a minute at three significant digits
+  static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+  private final HttpClient client;
+  private final Workload workload;
+  private final Random random;
+  private final int maxInFlight;
+  private final Semaphore inFlight;
+  private final Recorder[] recorders;
+  private final LongAdder[] errors;
+  private final LongAdder[] dropped;
+  private boolean measuring;
+
+  OpenLoopDriver(HttpClient client, Workload workload, Random random, int maxInFlight) {
+    this.client = client;
+    this.workload = workload;
+    this.random = random;
+    this.maxInFlight = maxInFlight;
+    this.inFlight = new Semaphore(maxInFlight);
+    int operations = workload.names().size();
+    this.recorders = new Recorder[operations];
+    this.errors = new LongAdder[operations];
+    this.dropped = new LongAdder[operations];
+    for (int i = 0; i < operations; i++) {
+      recorders[i] = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+      errors[i] = new LongAdder();
+      dropped[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Drives the workload at the given rate, first for the warm-up, whose results are thrown away,
+   * then for the measured duration, and returns what was measured.
+   */
+  LatencyReport run(double requestsPerSecond, long warmupMillis, long durationMillis) {
+    long interval = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+    long start = System.nanoTime();
+    long measureFrom = start + TimeUnit.MILLISECONDS.toNanos(warmupMillis);
+    long end = measureFrom + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+
+    for (long due = start; due < end; due += interval) {
+      long wait = due - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      if (!measuring && due >= measureFrom) {
+        measuring = true;
+        for (Recorder recorder : recorders) {
+          recorder.reset();
+        }
+      }
+      send(workload.next(random), due);
+    }
+    // waits for the stragglers, their latencies belong to the measurement too
+    inFlight.acquireUninterruptibly(maxInFlight);
+
+    var report = new LatencyReport(requestsPerSecond, durationMillis);
+    for (int i = 0; i < recorders.length; i++) {
+      report.add(
+          workload.names().get(i),
+          recorders[i].getIntervalHistogram(),
+          errors[i].sum(),
+          dropped[i].sum());
+    }
+    return report;
+  }
+
+  private void send(int operation, long due) {
+    HttpRequest request = workload.request(operation, random);
+    // beyond the in-flight limit the client itself would be the bottleneck, so the request is not
+    // queued behind the others; it is recorded as a timeout, as leaving it out would flatter the
+    // percentiles exactly when the server falls behind
+    if (!inFlight.tryAcquire()) {
+      if (measuring) {
+        recorders[operation].recordValue(HIGHEST_LATENCY_MICROS);
+        dropped[operation].increment();
+      }
+      return;
+    }
+    boolean measured = measuring;
+    client
+        .sendAsync(request, HttpResponse.BodyHandlers.discarding())
+        .whenComplete(
+            (response, error) -> {
+              if (measured) {
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due);
+                recorders[operation].recordValue(Math.min(micros, HIGHEST_LATENCY_MICROS));
+                if (error != null || !succeeded(response.statusCode())) {
+                  errors[operation].increment();
+                }
+              }
+              inFlight.release();
+            });
+  }
+
+  private static boolean succeeded(int status) {
+    return status < 400;
+  }
+}
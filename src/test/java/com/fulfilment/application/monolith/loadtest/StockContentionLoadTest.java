@@ -0,0 +1,118 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Compares stock adjustments on one hot product between the single-row stock column and sharded
+ * stock rows. It creates its own product, drives POST /product/{id}/stock-adjustments on it open
+ * loop at a fixed rate, switches the product to sharded stock with PUT /product/{id}/stock-shards,
+ * drives it again, and prints both latency distributions, the sharded one against the single-row
+ * one. The product is deleted afterwards. It needs a running application, e.g. the packaged one
+ * against the Postgres from the README, and is not part of the test suite:
+ *
+ * <pre>
+ * java -jar target/quarkus-app/quarkus-run.jar
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.fulfilment.application.monolith.loadtest.StockContentionLoadTest \
+ *   -Dloadtest.rate=2000 -Dloadtest.shards=16
+ * </pre>
+ *
+ * Both reports are written next to loadtest.report, so either can serve as a later baseline.
+ */
+public class StockContentionLoadTest {
+
+  private static final String OPERATION = "POST /product/{id}/stock-adjustments";
+
+  private static final URI BASE_URL =
+      URI.create(System.getProperty("loadtest.baseUrl", "http://localhost:8080"));
+  private static final int SHARDS = Integer.getInteger("loadtest.shards", 16);
+  private static final double RATE =
+      Double.parseDouble(System.getProperty("loadtest.rate", "1000"));
+  private static final int MAX_IN_FLIGHT = Integer.getInteger("loadtest.maxInFlight", 5_000);
+  private static final long WARMUP_MILLIS = Long.getLong("loadtest.warmupMillis", 10_000);
+  private static final long DURATION_MILLIS = Long.getLong("loadtest.durationMillis", 30_000);
+  private static final Path REPORT =
+      Path.of(System.getProperty("loadtest.report", "target/load-test/stock-contention.json"));
+
+  public static void main(String[] args) throws Exception {
+    HttpClient client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    var objectMapper = new ObjectMapper();
+
+    String name = "contention-" + Long.toString(System.currentTimeMillis(), 36);
+    long id =
+        objectMapper
+            .readTree(send(client, "POST", "/product", "{\"name\":\"" + name + "\",\"stock\":0}"))
+            .get("id")
+            .asLong();
+    try {
+      var dataset = new Dataset();
+      dataset.productIds.add(id);
+      var workload = new Workload(BASE_URL, dataset, OPERATION + "=1");
+
+      LatencyReport single = run(client, workload);
+      send(client, "PUT", "/product/" + id + "/stock-shards", "{\"shards\":" + SHARDS + "}");
+      LatencyReport sharded = run(client, workload);
+
+      System.out.println("single-row stock column:");
+      single.print(System.out);
+      System.out.println(SHARDS + " stock shards:");
+      sharded.print(System.out);
+      System.out.println("sharded compared with single-row:");
+      sharded.printComparison(single, System.out);
+
+      single.write(sibling("single-row"), objectMapper);
+      sharded.write(sibling("sharded"), objectMapper);
+      System.out.println("reports written next to " + REPORT.toAbsolutePath());
+
+      JsonNode product = objectMapper.readTree(send(client, "GET", "/product/" + id, null));
+      System.out.println("stock after both runs: " + product.get("stock").asLong());
+    } finally {
+      send(client, "DELETE", "/product/" + id, null);
+    }
+    System.exit(0);
+  }
+
+  private static LatencyReport run(HttpClient client, Workload workload) {
+    var driver = new OpenLoopDriver(client, workload, new Random(42), MAX_IN_FLIGHT);
+    return driver.run(RATE, WARMUP_MILLIS, DURATION_MILLIS);
+  }
+
+  private static Path sibling(String variant) {
+    String file = REPORT.getFileName().toString().replaceFirst("\\.json$", "");
+    return REPORT.resolveSibling(file + "-" + variant + ".json");
+  }
+
+  private static String send(HttpClient client, String method, String path, String json)
+      throws IOException, InterruptedException {
+    var request =
+        HttpRequest.newBuilder(BASE_URL.resolve(path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .method(
+                method,
+                json == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() >= 400) {
+      throw new IllegalStateException(
+          method + " " + path + " failed with " + response.statusCode() + ": " + response.body());
+    }
+    return response.body();
+  }
+}
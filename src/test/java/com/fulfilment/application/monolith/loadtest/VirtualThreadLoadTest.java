@@ -0,0 +1,96 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the worker pool with virtual threads on the blocking read endpoints. It boots the
+ * worker-pool build, drives the read mix open loop at a fixed rate, stops it, does the same with
+ * the virtual-threads build on the same generated dataset, and prints both latency distributions,
+ * the virtual threads one against the worker pool one. Both builds run against the local Postgres
+ * from the README, one after the other on port 8080, and it is not part of the test suite:
+ *
+ * <pre>
+ * mvn package -DskipTests && cp -r target/quarkus-app target/worker-pool-app
+ * mvn package -DskipTests -Pvirtual-threads
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.fulfilment.application.monolith.loadtest.VirtualThreadLoadTest \
+ *   -Dloadtest.rate=2000
+ * </pre>
+ *
+ * The rate should be above what the worker pool sustains, so its queueing shows in the tail. Both
+ * reports are written next to loadtest.report, so either can serve as a later baseline.
+ */
+public class VirtualThreadLoadTest {
+
+  private static final String READ_MIX =
+      "GET /store/{id}=1,GET /warehouse=1,GET /warehouse-fulfilment=1";
+
+  private static final URI BASE_URL = URI.create("http://localhost:8080");
+  private static final String WORKER_POOL =
+      System.getProperty("loadtest.workerPool", "target/worker-pool-app/quarkus-run.jar");
+  private static final String VIRTUAL_THREADS =
+      System.getProperty("loadtest.virtualThreads", "target/quarkus-app/quarkus-run.jar");
+  private static final long SEED = Long.getLong("loadtest.seed", 42);
+  private static final String MIX = System.getProperty("loadtest.mix", READ_MIX);
+  private static final double RATE =
+      Double.parseDouble(System.getProperty("loadtest.rate", "2000"));
+  private static final int MAX_IN_FLIGHT = Integer.getInteger("loadtest.maxInFlight", 5_000);
+  private static final long WARMUP_MILLIS = Long.getLong("loadtest.warmupMillis", 10_000);
+  private static final long DURATION_MILLIS = Long.getLong("loadtest.durationMillis", 30_000);
+  private static final Path REPORT =
+      Path.of(System.getProperty("loadtest.report", "target/load-test/virtual-threads.json"));
+
+  public static void main(String[] args) throws Exception {
+    HttpClient client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    // each boot recreates the schema, and the seeded generator fills it with the same dataset
+    LatencyReport workerPool = run(client, WORKER_POOL, "worker-pool");
+    LatencyReport virtualThreads = run(client, VIRTUAL_THREADS, "virtual-threads");
+
+    System.out.println("worker pool:");
+    workerPool.print(System.out);
+    System.out.println("virtual threads:");
+    virtualThreads.print(System.out);
+    System.out.println("virtual threads compared with the worker pool:");
+    virtualThreads.printComparison(workerPool, System.out);
+
+    var objectMapper = new ObjectMapper();
+    workerPool.write(sibling("worker-pool"), objectMapper);
+    virtualThreads.write(sibling("virtual-threads"), objectMapper);
+    System.out.println("reports written next to " + REPORT.toAbsolutePath());
+    System.exit(0);
+  }
+
+  private static LatencyReport run(
+      HttpClient client, String application, String variant) throws Exception {
+    Process process = LoadTest.start(application, true, REPORT.resolveSibling(variant + ".log"));
+    try {
+      LoadTest.awaitReady(client, BASE_URL);
+      Dataset dataset = new DatasetLoader(client, BASE_URL).load();
+      System.out.println(variant + " loaded " + dataset);
+      var driver =
+          new OpenLoopDriver(
+              client, new Workload(BASE_URL, dataset, MIX), new Random(SEED), MAX_IN_FLIGHT);
+      return driver.run(RATE, WARMUP_MILLIS, DURATION_MILLIS);
+    } finally {
+      process.destroy();
+      process.waitFor(30, TimeUnit.SECONDS);
+    }
+  }
+
+  private static Path sibling(String variant) {
+    String file = REPORT.getFileName().toString().replaceFirst("\\.json$", "");
+    return REPORT.resolveSibling(file + "-" + variant + ".json");
+  }
+}
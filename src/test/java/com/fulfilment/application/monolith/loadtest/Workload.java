@@ -0,0 +1,164 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * The weighted mix of requests a load test sends. Operations are named after the endpoint they
+ * hit, and latencies are reported per name, so ids never multiply the report rows.
+ */
+class Workload {
+
+  static final String DEFAULT_MIX =
+      "GET /warehouse=10,"
+          + "GET /warehouse/{businessUnitCode}=15,"
+          + "GET /store/{id}=20,"
+          + "GET /product/{id}=20,"
+          + "GET /warehouse-fulfilment=5,"
+          + "POST /store/{id}/stock-adjustments=10,"
+          + "POST /product/{id}/stock-adjustments=10,"
+          + "POST /warehouse-fulfilment=5,"
+          + "POST /warehouse/{businessUnitCode}/replacement=5";
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  private final List<String> names = new ArrayList<>();
+  private final List<BiFunction<Random, Dataset, HttpRequest>> requests = new ArrayList<>();
+  private final int[] cumulativeWeights;
+  private final Dataset dataset;
+
+  /** Builds the mix from "name=weight" pairs, see {@link #DEFAULT_MIX} for the known names. */
+  Workload(URI baseUrl, Dataset dataset, String mix) {
+    this.dataset = dataset;
+    Map<String, BiFunction<Random, Dataset, HttpRequest>> operations = operations(baseUrl);
+    Map<String, Integer> weights = new LinkedHashMap<>();
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.trim().split("=");
+      if (parts.length != 2 || !operations.containsKey(parts[0].trim())) {
+        throw new IllegalArgumentException(
+            "Unknown workload entry '" + entry + "', expected one of " + operations.keySet());
+      }
+      weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+    }
+
+    cumulativeWeights = new int[weights.size()];
+    int total = 0;
+    for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+      total += weight.getValue();
+      cumulativeWeights[names.size()] = total;
+      names.add(weight.getKey());
+      requests.add(operations.get(weight.getKey()));
+    }
+    if (total <= 0) {
+      throw new IllegalArgumentException("The workload mix needs a positive total weight.");
+    }
+  }
+
+  List<String> names() {
+    return names;
+  }
+
+  /** Picks the next operation by weight, returning its index into {@link #names()}. */
+  int next(Random random) {
+    int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+    for (int i = 0; i < cumulativeWeights.length; i++) {
+      if (pick < cumulativeWeights[i]) {
+        return i;
+      }
+    }
+    throw new IllegalStateException();
+  }
+
+  HttpRequest request(int operation, Random random) {
+    return requests.get(operation).apply(random, dataset);
+  }
+
+  private static Map<String, BiFunction<Random, Dataset, HttpRequest>> operations(URI baseUrl) {
+    Map<String, BiFunction<Random, Dataset, HttpRequest>> operations = new LinkedHashMap<>();
+    operations.put("GET /warehouse", (random, data) -> get(baseUrl, "/warehouse"));
+    operations.put(
+        "GET /warehouse/{businessUnitCode}",
+        (random, data) ->
+            get(baseUrl, "/warehouse/" + pick(random, data.warehouses).businessUnitCode));
+    operations.put(
+        "GET /store/{id}", (random, data) -> get(baseUrl, "/store/" + pick(random, data.storeIds)));
+    operations.put(
+        "GET /product/{id}",
+        (random, data) -> get(baseUrl, "/product/" + pick(random, data.productIds)));
+    operations.put(
+        "GET /warehouse-fulfilment", (random, data) -> get(baseUrl, "/warehouse-fulfilment"));
+    operations.put(
+        "POST /store/{id}/stock-adjustments",
+        (random, data) ->
+            post(
+                baseUrl,
+                "/store/" + pick(random, data.storeIds) + "/stock-adjustments",
+                "{\"delta\":1}"));
+    operations.put(
+        "POST /product/{id}/stock-adjustments",
+        (random, data) ->
+            post(
+                baseUrl,
+                "/product/" + pick(random, data.productIds) + "/stock-adjustments",
+                "{\"delta\":1}"));
+    // re-assigns a seeded link, which the use case validates in full before finding it exists
+    operations.put(
+        "POST /warehouse-fulfilment",
+        (random, data) -> {
+          Dataset.Link link = pick(random, data.links);
+          return post(
+              baseUrl,
+              "/warehouse-fulfilment",
+              "{\"storeId\":"
+                  + link.storeId
+                  + ",\"productId\":"
+                  + link.productId
+                  + ",\"warehouseBusinessUnitCode\":\""
+                  + link.warehouseBusinessUnitCode
+                  + "\"}");
+        });
+    // an identical replacement, so the location limits hold however often it runs
+    operations.put(
+        "POST /warehouse/{businessUnitCode}/replacement",
+        (random, data) -> {
+          Dataset.SeededWarehouse warehouse = pick(random, data.warehouses);
+          return post(
+              baseUrl,
+              "/warehouse/" + warehouse.businessUnitCode + "/replacement",
+              "{\"location\":\""
+                  + warehouse.location
+                  + "\",\"capacity\":"
+                  + warehouse.capacity
+                  + ",\"stock\":"
+                  + warehouse.stock
+                  + "}");
+        });
+    return operations;
+  }
+
+  private static <T> T pick(Random random, List<T> values) {
+    if (values.isEmpty()) {
+      throw new IllegalStateException("The seeded dataset has nothing to pick a target from.");
+    }
+    return values.get(random.nextInt(values.size()));
+  }
+
+  private static HttpRequest get(URI baseUrl, String path) {
+    return HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(TIMEOUT).GET().build();
+  }
+
+  private static HttpRequest post(URI baseUrl, String path, String json) {
+    return HttpRequest.newBuilder(baseUrl.resolve(path))
+        .timeout(TIMEOUT)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(json))
+        .build();
+  }
+}
@@ -28,4 +28,14 @@ public class LocationGatewayTest {
 
     assertNull(location);
   }
+
+  @Test
+  void listAllReturnsEveryLocation() {
+    var locationGateway = new LocationGateway();
+
+    var locations = locationGateway.listAll();
+
+    assertEquals(8, locations.size());
+    assertEquals("ZWOLLE-001", locations.get(0).identification);
+  }
 }
@@ -0,0 +1,152 @@
+package com.fulfilment.application.monolith.products;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.shared.ChangeFeed;
+import com.fulfilment.application.monolith.shared.ChangeTracker;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProductCatalogueTest {
+
+  private List<Product> products;
+  private int loads;
+  private int stockLoads;
+  private ChangeTracker changeTracker;
+  private ProductCatalogue catalogue;
+
+  @BeforeEach
+  void setUp() {
+    products = new ArrayList<>();
+    changeTracker =
+        new ChangeTracker(null, new ChangeFeed(100, 10, ChangeFeed.SlowConsumerPolicy.DISCONNECT));
+    catalogue =
+        new ProductCatalogue(null, null, new ObjectMapper(), changeTracker) {
+          @Override
+          protected List<Product> loadProducts() {
+            loads++;
+            List<Product> copy = new ArrayList<>();
+            for (Product product : products) {
+              Product loaded = new Product(product.name);
+              loaded.id = product.id;
+              loaded.stock = product.stock;
+              loaded.stockShards = product.stockShards;
+              copy.add(loaded);
+            }
+            return copy;
+          }
+
+          @Override
+          protected Map<Long, StockLevel> loadStock() {
+            stockLoads++;
+            Map<Long, StockLevel> levels = new HashMap<>();
+            for (Product product : products) {
+              int stock = product.stockShards > 0 ? 42 : product.stock;
+              levels.put(product.id, new StockLevel(stock, product.version));
+            }
+            return levels;
+          }
+        };
+  }
+
+  private Product product(long id, String name) {
+    Product product = new Product(name);
+    product.id = id;
+    products.add(product);
+    return product;
+  }
+
+  @Test
+  void snapshotIsReusedUntilInvalidated() {
+    product(1, "Desk");
+
+    var first = catalogue.current();
+
+    assertSame(first, catalogue.current());
+    assertSame(first.json(), catalogue.current().json());
+    assertEquals(changeTracker.collectionTag(ChangeTracker.PRODUCTS), first.tag());
+    assertEquals(1, loads);
+
+    product(2, "Lamp");
+    changeTracker.changed(ChangeTracker.PRODUCTS, 2L);
+    var second = catalogue.current();
+
+    assertNotSame(first, second);
+    assertEquals(2, second.size());
+    assertEquals(1, first.size());
+    assertEquals(catalogue.version(), second.version);
+  }
+
+  @Test
+  void snapshotHandsOutCopies() {
+    product(7, "Desk");
+
+    var snapshot = catalogue.current();
+    snapshot.product(7L).name = "Changed";
+
+    assertEquals("Desk", snapshot.product(7L).name);
+    assertNotSame(snapshot.product(7L), snapshot.product(7L));
+    assertNull(snapshot.product(8L));
+  }
+
+  @Test
+  void stockChangesPatchTheSnapshotWithoutReloadingTheProducts() throws Exception {
+    product(1, "Desk").stock = 5;
+    product(2, "Lamp").stock = 3;
+    var first = catalogue.current();
+
+    products.get(1).stock = 1;
+    products.get(1).version = 1;
+    changeTracker.changed(ChangeTracker.PRODUCTS, 2L, ChangeTracker.Kind.STOCK);
+    var second = catalogue.current();
+
+    assertEquals(1, loads);
+    assertEquals(1, stockLoads);
+    assertEquals(1, second.product(2L).stock);
+    assertEquals(1, second.product(2L).version);
+    assertEquals(3, first.product(2L).stock);
+    var json = new ObjectMapper().readTree(second.json());
+    assertEquals(5, json.get(0).get("stock").asInt());
+    assertEquals(1, json.get(1).get("stock").asInt());
+    assertEquals("Lamp", json.get(1).get("name").asText());
+    assertEquals(catalogue.version(), second.version);
+
+    product(3, "Rug");
+    changeTracker.changed(ChangeTracker.PRODUCTS, 3L);
+
+    assertEquals(3, catalogue.current().size());
+    assertEquals(2, loads);
+  }
+
+  @Test
+  void changesOfOtherInstancesRefreshTheSnapshot() {
+    product(1, "Desk");
+    var first = catalogue.current();
+
+    product(2, "Lamp");
+    changeTracker.changedElsewhere(ChangeTracker.PRODUCTS, "2", ChangeTracker.Kind.EDIT);
+
+    assertEquals(2, catalogue.current().size());
+    assertEquals(changeTracker.collectionTag(ChangeTracker.PRODUCTS), catalogue.current().tag());
+    assertNotEquals(first.tag(), catalogue.current().tag());
+  }
+
+  @Test
+  void shardedProductsCarryTheirCurrentStock() throws Exception {
+    product(1, "Desk").stockShards = 4;
+
+    var snapshot = catalogue.current();
+
+    assertEquals(42, snapshot.product(1L).stock);
+    assertEquals(42, new ObjectMapper().readTree(snapshot.json()).get(0).get("stock").asInt());
+  }
+}
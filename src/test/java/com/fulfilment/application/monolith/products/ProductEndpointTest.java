@@ -5,6 +5,7 @@ import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.core.IsNot.not;
 
 import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
 import org.junit.jupiter.api.Test;
 
 @QuarkusTest
@@ -33,4 +34,32 @@ public class ProductEndpointTest {
         .statusCode(200)
         .body(not(containsString("TONSTAD")), containsString("KALLAX"), containsString("BESTÅ"));
   }
+
+  @Test
+  public void testUpdateWithTheETagOfTheGet() {
+    final String path = "product/3";
+
+    String etag = given().when().get(path).then().statusCode(200).extract().header("ETag");
+
+    given().header("If-None-Match", etag).when().get(path).then().statusCode(304);
+
+    given()
+        .contentType(ContentType.JSON)
+        .header("If-Match", etag)
+        .body("{\"name\": \"BESTÅ\", \"stock\": 4}")
+        .when()
+        .put(path)
+        .then()
+        .statusCode(200);
+
+    // the tag of the first GET is stale now:
+    given()
+        .contentType(ContentType.JSON)
+        .header("If-Match", etag)
+        .body("{\"name\": \"BESTÅ\", \"stock\": 5}")
+        .when()
+        .put(path)
+        .then()
+        .statusCode(412);
+  }
 }
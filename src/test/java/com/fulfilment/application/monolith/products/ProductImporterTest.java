@@ -0,0 +1,54 @@
+package com.fulfilment.application.monolith.products;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fulfilment.application.monolith.shared.ImportRecord;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ProductImporterTest {
+
+  private static ImportRecord record(String name, String price, String stock) {
+    Map<String, String> fields = new HashMap<>();
+    fields.put("name", name);
+    fields.put("price", price);
+    fields.put("stock", stock);
+    return ImportRecord.of(2, fields);
+  }
+
+  @Test
+  void toProductMapsFields() {
+    Product product = ProductImporter.toProduct(record("KALLAX", "12.5", "3"));
+
+    assertEquals("KALLAX", product.name);
+    assertEquals(new BigDecimal("12.50"), product.price);
+    assertEquals(3, product.stock);
+    assertNull(product.description);
+  }
+
+  @Test
+  void toProductRejectsPricesTheColumnCannotHold() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> ProductImporter.toProduct(record("KALLAX", "1.005", "3")));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> ProductImporter.toProduct(record("KALLAX", "123456789.00", "3")));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> ProductImporter.toProduct(record("KALLAX", "abc", "3")));
+  }
+
+  @Test
+  void toProductRejectsMissingNameAndBadStock() {
+    assertThrows(
+        IllegalArgumentException.class, () -> ProductImporter.toProduct(record(null, "1", "3")));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> ProductImporter.toProduct(record("KALLAX", "1", "-3")));
+  }
+}
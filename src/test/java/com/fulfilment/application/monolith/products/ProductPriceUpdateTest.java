@@ -0,0 +1,70 @@
+package com.fulfilment.application.monolith.products;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jakarta.ws.rs.WebApplicationException;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ProductPriceUpdateTest {
+
+  private static ProductPriceUpdate update(ProductPriceUpdate.Operation operation, String value) {
+    var update = new ProductPriceUpdate();
+    update.filter = new ProductPriceUpdate.Filter();
+    update.filter.ids = List.of(1L, 2L);
+    update.operation = operation;
+    update.value = value == null ? null : new BigDecimal(value);
+    return update;
+  }
+
+  private static void assert422(ProductPriceUpdate update) {
+    var ex = assertThrows(WebApplicationException.class, update::validate);
+    assertEquals(422, ex.getResponse().getStatus());
+  }
+
+  @Test
+  void validateRequiresFilterOperationAndValue() {
+    var noFilter = update(ProductPriceUpdate.Operation.SET, "1");
+    noFilter.filter = new ProductPriceUpdate.Filter();
+    assert422(noFilter);
+    assert422(update(null, "1"));
+    assert422(update(ProductPriceUpdate.Operation.SET, null));
+  }
+
+  @Test
+  void validateRejectsInvalidPriceRange() {
+    var update = update(ProductPriceUpdate.Operation.SET, "1");
+    update.filter.minPrice = new BigDecimal("10");
+    update.filter.maxPrice = new BigDecimal("5");
+
+    assert422(update);
+  }
+
+  @Test
+  void validateChecksValueAgainstOperation() {
+    assert422(update(ProductPriceUpdate.Operation.SET, "1.005"));
+    assert422(update(ProductPriceUpdate.Operation.SET, "100000000.00"));
+    assert422(update(ProductPriceUpdate.Operation.ADJUST_PERCENT, "-100.5"));
+    assert422(update(ProductPriceUpdate.Operation.ROUND, "3"));
+    assert422(update(ProductPriceUpdate.Operation.ROUND, "1.5"));
+    assertDoesNotThrow(() -> update(ProductPriceUpdate.Operation.ROUND, "2.0").validate());
+  }
+
+  @Test
+  void applyFollowsColumnScaleWithHalfUpRounding() {
+    assertEquals(
+        new BigDecimal("9.00"), update(ProductPriceUpdate.Operation.SET, "9").apply(BigDecimal.TEN));
+    assertEquals(
+        new BigDecimal("11.11"),
+        update(ProductPriceUpdate.Operation.ADJUST_PERCENT, "10").apply(new BigDecimal("10.10")));
+    assertEquals(
+        new BigDecimal("0.01"),
+        update(ProductPriceUpdate.Operation.ADJUST_PERCENT, "-50").apply(new BigDecimal("0.01")));
+    assertEquals(
+        new BigDecimal("13.00"),
+        update(ProductPriceUpdate.Operation.ROUND, "0").apply(new BigDecimal("12.50")));
+  }
+}
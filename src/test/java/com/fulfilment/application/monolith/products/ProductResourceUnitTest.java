@@ -1,15 +1,31 @@
 package com.fulfilment.application.monolith.products;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.shared.ChangeFeed;
+import com.fulfilment.application.monolith.shared.ChangeTracker;
+import com.fulfilment.application.monolith.shared.HttpCaching;
+import com.fulfilment.application.monolith.shared.MultiGetResult;
+import com.fulfilment.application.monolith.shared.OptimisticLockRetry;
+import com.fulfilment.application.monolith.shared.StockAdjustment;
+import com.fulfilment.application.monolith.shared.StockAdjustmentResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.quarkus.panache.common.Sort;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import jakarta.enterprise.inject.Vetoed;
 import jakarta.ws.rs.WebApplicationException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -17,41 +33,140 @@ class ProductResourceUnitTest {
 
   private ProductResource resource;
   private FakeProductRepository repository;
+  private FakeShardedProductStock shardedProductStock;
+  private FakeProductSearchIndex searchIndex;
+  private FakeProductCatalogue catalogue;
 
   @BeforeEach
   void setUp() {
     resource = new ProductResource();
     repository = new FakeProductRepository();
+    shardedProductStock = new FakeShardedProductStock();
     resource.productRepository = repository;
+    resource.shardedProductStock = shardedProductStock;
+    resource.optimisticLockRetry = new DirectOptimisticLockRetry();
+    searchIndex = new FakeProductSearchIndex();
+    resource.productSearchIndex = searchIndex;
+    catalogue =
+        new FakeProductCatalogue(
+            repository,
+            shardedProductStock,
+            new ChangeTracker(
+                null, new ChangeFeed(100, 10, ChangeFeed.SlowConsumerPolicy.DISCONNECT)));
+    resource.productCatalogue = catalogue;
+    resource.httpCaching = new HttpCaching(new SmallRyeConfigBuilder().build());
   }
 
   @Test
-  void getReturnsAllProducts() {
+  void getReturnsAllProducts() throws Exception {
     var a = new Product("A");
     var b = new Product("B");
     repository.list = List.of(a, b);
 
-    var result = resource.get();
+    var result = new ObjectMapper().readTree((byte[]) resource.get(null, null).getEntity());
 
     assertEquals(2, result.size());
-    assertSame(a, result.get(0));
-    assertSame(b, result.get(1));
+    assertEquals("A", result.get(0).get("name").asText());
+    assertEquals("B", result.get(1).get("name").asText());
+  }
+
+  @Test
+  void getReusesSnapshotUntilAWriteCommits() {
+    repository.list = List.of(new Product("A"));
+    var first = resource.get(null, null).getEntity();
+
+    assertSame(first, resource.get(null, null).getEntity());
+    assertEquals(1, catalogue.loads);
+
+    resource.create(new Product("B"));
+    assertSame(first, resource.get(null, null).getEntity());
+
+    catalogue.commit();
+
+    assertNotSame(first, resource.get(null, null).getEntity());
+    assertEquals(2, catalogue.loads);
+  }
+
+  @Test
+  void getWithIdsReturnsFoundProductsAndMissingIds() {
+    var desk = new Product("Desk");
+    desk.id = 1L;
+    repository.list = List.of(desk);
+
+    @SuppressWarnings("unchecked")
+    var result = (MultiGetResult<Product, Long>) resource.get("1, 9,1", null).getEntity();
+
+    assertEquals(1, result.items.size());
+    assertEquals("Desk", result.items.get(0).name);
+    assertNotSame(desk, result.items.get(0));
+    assertEquals(List.of(9L), result.missing);
+  }
+
+  @Test
+  void getWithInvalidIdsThrows422() {
+    var ex = assertThrows(WebApplicationException.class, () -> resource.get("1,x", null));
+    assertEquals(422, ex.getResponse().getStatus());
+  }
+
+  @Test
+  void getAnswers304UntilAProductWriteCommits() {
+    repository.list = List.of(new Product("A"));
+    var first = resource.get(null, null);
+    var etag = "\"" + first.getEntityTag().getValue() + "\"";
+
+    assertEquals(304, resource.get(null, etag).getStatus());
+    assertEquals("no-cache", resource.get(null, etag).getHeaderString("Cache-Control"));
+    assertEquals(1, catalogue.loads);
+
+    var created = new Product("B");
+    resource.create(created);
+    repository.list = List.of(repository.list.get(0), created);
+    catalogue.commit();
+
+    var second = resource.get(null, etag);
+    assertEquals(200, second.getStatus());
+    assertNotEquals(first.getEntityTag(), second.getEntityTag());
+  }
+
+  @Test
+  void getSingleAnswers304UntilThatProductChanges() {
+    var desk = new Product("Desk");
+    desk.id = 5L;
+    var lamp = new Product("Lamp");
+    lamp.id = 6L;
+    repository.list = List.of(desk, lamp);
+    var etag = "W/\"" + resource.getSingle(5L, null).getEntityTag().getValue() + "\"";
+
+    lamp.description = "Brass";
+    lamp.version++;
+    catalogue.invalidateAfterCommit(6L);
+    catalogue.commit();
+    assertEquals(304, resource.getSingle(5L, etag).getStatus());
+
+    desk.description = "Oak";
+    desk.version++;
+    catalogue.invalidateAfterCommit(5L);
+    catalogue.commit();
+    assertEquals(200, resource.getSingle(5L, etag).getStatus());
   }
 
   @Test
   void getSingleThrows404WhenMissing() {
-    var ex = assertThrows(WebApplicationException.class, () -> resource.getSingle(9L));
+    var ex = assertThrows(WebApplicationException.class, () -> resource.getSingle(9L, null));
     assertEquals(404, ex.getResponse().getStatus());
   }
 
   @Test
   void getSingleReturnsEntityWhenFound() {
     var product = new Product("Desk");
-    repository.byId = product;
+    product.id = 5L;
+    repository.list = List.of(product);
 
-    var result = resource.getSingle(5L);
+    var result = (Product) resource.getSingle(5L, null).getEntity();
 
-    assertSame(product, result);
+    assertEquals("Desk", result.name);
+    assertEquals(5L, result.id);
+    assertNotSame(product, result);
   }
 
   @Test
@@ -73,6 +188,7 @@ class ProductResourceUnitTest {
     assertEquals(201, response.getStatus());
     assertSame(product, response.getEntity());
     assertEquals(1, repository.persisted.size());
+    assertEquals(List.of(product), searchIndex.indexed);
   }
 
   @Test
@@ -80,7 +196,7 @@ class ProductResourceUnitTest {
     var product = new Product("Desk");
     product.name = null;
 
-    var ex = assertThrows(WebApplicationException.class, () -> resource.update(1L, product));
+    var ex = assertThrows(WebApplicationException.class, () -> resource.update(1L, product, null));
 
     assertEquals(422, ex.getResponse().getStatus());
   }
@@ -89,7 +205,7 @@ class ProductResourceUnitTest {
   void updateThrows404WhenTargetMissing() {
     var product = new Product("New");
 
-    var ex = assertThrows(WebApplicationException.class, () -> resource.update(1L, product));
+    var ex = assertThrows(WebApplicationException.class, () -> resource.update(1L, product, null));
 
     assertEquals(404, ex.getResponse().getStatus());
   }
@@ -104,7 +220,7 @@ class ProductResourceUnitTest {
     update.price = new BigDecimal("12.34");
     update.stock = 7;
 
-    var result = resource.update(1L, update);
+    var result = resource.update(1L, update, null);
 
     assertSame(entity, result);
     assertEquals("New", entity.name);
@@ -114,6 +230,31 @@ class ProductResourceUnitTest {
     assertTrue(repository.persisted.contains(entity));
   }
 
+  @Test
+  void updateThrows412WhenIfMatchIsStale() {
+    var entity = new Product("Old");
+    entity.version = 3;
+    repository.byId = entity;
+
+    var ex =
+        assertThrows(
+            WebApplicationException.class, () -> resource.update(1L, new Product("New"), "\"2\""));
+
+    assertEquals(412, ex.getResponse().getStatus());
+    assertEquals("Old", entity.name);
+  }
+
+  @Test
+  void updateAppliesChangesWhenIfMatchIsCurrent() {
+    var entity = new Product("Old");
+    entity.version = 3;
+    repository.byId = entity;
+
+    var result = resource.update(1L, new Product("New"), "\"3\"");
+
+    assertEquals("New", result.name);
+  }
+
   @Test
   void deleteThrows404WhenMissing() {
     var ex = assertThrows(WebApplicationException.class, () -> resource.delete(4L));
@@ -130,6 +271,406 @@ class ProductResourceUnitTest {
     assertEquals(204, response.getStatus());
     assertEquals(1, repository.deleted.size());
     assertSame(entity, repository.deleted.get(0));
+    assertEquals(List.of(4L), searchIndex.removed);
+  }
+
+  @Test
+  void searchThrows422WhenQueryMissingOrLimitOutOfRange() {
+    var missing =
+        assertThrows(WebApplicationException.class, () -> resource.search(" ", null, null));
+    var tooMany =
+        assertThrows(
+            WebApplicationException.class,
+            () -> resource.search("desk", ProductResource.MAX_SEARCH_LIMIT + 1, null));
+
+    assertEquals(422, missing.getResponse().getStatus());
+    assertEquals(422, tooMany.getResponse().getStatus());
+  }
+
+  @Test
+  void searchReturnsProductsInIndexOrderAndSkipsDeletedOnes() {
+    var desk = new Product("Desk");
+    desk.id = 1L;
+    var deskLamp = new Product("Desk lamp");
+    deskLamp.id = 2L;
+    repository.list = List.of(desk, deskLamp);
+    searchIndex.hits = List.of(2L, 3L, 1L);
+
+    @SuppressWarnings("unchecked")
+    var result = (List<Product>) resource.search("desk", null, null).getEntity();
+
+    assertEquals(List.of(2L, 1L), result.stream().map(product -> product.id).toList());
+  }
+
+  @Test
+  void updatePricesThrows422WhenRequestInvalid() {
+    var missing = assertThrows(WebApplicationException.class, () -> resource.updatePrices(null));
+    var noFilter =
+        assertThrows(
+            WebApplicationException.class,
+            () -> resource.updatePrices(new ProductPriceUpdate()));
+
+    assertEquals(422, missing.getResponse().getStatus());
+    assertEquals(422, noFilter.getResponse().getStatus());
+  }
+
+  @Test
+  void adjustStockThrows422WhenDeltaMissing() {
+    var ex =
+        assertThrows(
+            WebApplicationException.class, () -> resource.adjustStock(1L, new StockAdjustment()));
+
+    assertEquals(422, ex.getResponse().getStatus());
+  }
+
+  @Test
+  void adjustStockThrows404WhenProductMissing() {
+    var ex =
+        assertThrows(
+            WebApplicationException.class,
+            () -> resource.adjustStock(1L, new StockAdjustment(null, -1)));
+
+    assertEquals(404, ex.getResponse().getStatus());
+  }
+
+  @Test
+  void adjustStockThrows409WhenStockWouldGoNegative() {
+    repository.stockById.put(1L, 2);
+
+    var ex =
+        assertThrows(
+            WebApplicationException.class,
+            () -> resource.adjustStock(1L, new StockAdjustment(null, -3)));
+
+    assertEquals(409, ex.getResponse().getStatus());
+    assertEquals(2, repository.stockById.get(1L));
+  }
+
+  @Test
+  void adjustStockAppliesDeltaAndReturnsEntity() {
+    var entity = new Product("Desk");
+    repository.byId = entity;
+    repository.stockById.put(1L, 2);
+
+    var result = resource.adjustStock(1L, new StockAdjustment(null, -2));
+
+    assertSame(entity, result);
+    assertEquals(0, repository.stockById.get(1L));
+  }
+
+  @Test
+  void adjustStockRefreshesTheStockWithoutReloadingTheCatalogue() throws Exception {
+    var desk = new Product("Desk");
+    desk.id = 1L;
+    desk.stock = 2;
+    repository.list = List.of(desk);
+    repository.stockById.put(1L, 2);
+    resource.get(null, null);
+
+    resource.adjustStock(1L, new StockAdjustment(null, -2));
+    catalogue.commit();
+    var result = new ObjectMapper().readTree((byte[]) resource.get(null, null).getEntity());
+
+    assertEquals(0, result.get(0).get("stock").asInt());
+    assertEquals(1, catalogue.loads);
+  }
+
+  @Test
+  void adjustStocksThrows422WhenAdjustmentIsIncomplete() {
+    var ex =
+        assertThrows(
+            WebApplicationException.class,
+            () -> resource.adjustStocks(List.of(new StockAdjustment(1L, 1), new StockAdjustment(null, 1))));
+
+    assertEquals(422, ex.getResponse().getStatus());
+    assertTrue(repository.stockById.isEmpty());
+  }
+
+  @Test
+  void adjustStocksReportsOutcomePerAdjustment() {
+    repository.stockById.put(1L, 5);
+    repository.stockById.put(2L, 1);
+
+    var results =
+        resource.adjustStocks(
+            List.of(
+                new StockAdjustment(1L, -3),
+                new StockAdjustment(2L, -2),
+                new StockAdjustment(3L, 4)));
+
+    assertEquals(3, results.size());
+    assertEquals(StockAdjustmentResult.Status.APPLIED, results.get(0).status);
+    assertEquals(StockAdjustmentResult.Status.INSUFFICIENT_STOCK, results.get(1).status);
+    assertEquals(StockAdjustmentResult.Status.NOT_FOUND, results.get(2).status);
+    assertEquals(2, repository.stockById.get(1L));
+    assertEquals(1, repository.stockById.get(2L));
+  }
+
+  @Test
+  void adjustStocksLeavesTheCatalogueAloneWhenNothingWasApplied() {
+    repository.stockById.put(2L, 1);
+
+    resource.adjustStocks(List.of(new StockAdjustment(2L, -2), new StockAdjustment(3L, 4)));
+
+    assertTrue(catalogue.pending.isEmpty());
+  }
+
+  @Test
+  void adjustStockDelegatesToShardedStockForShardedProducts() {
+    var entity = new Product("Desk");
+    entity.stockShards = 4;
+    repository.byId = entity;
+    shardedProductStock.stock = 10;
+
+    var result = resource.adjustStock(1L, new StockAdjustment(null, -3));
+
+    assertSame(entity, result);
+    assertEquals(7, result.stock);
+    assertTrue(repository.detached.contains(entity));
+  }
+
+  @Test
+  void adjustStockSkipsTheProductRowUpdateOnceAProductIsKnownToBeSharded() {
+    var entity = new Product("Desk");
+    entity.id = 1L;
+    entity.stockShards = 4;
+    repository.byId = entity;
+    shardedProductStock.stock = 10;
+
+    resource.adjustStock(1L, new StockAdjustment(null, -3));
+    resource.adjustStock(1L, new StockAdjustment(null, -3));
+
+    assertEquals(1, repository.adjustStockCalls);
+    assertEquals(4, shardedProductStock.stock);
+  }
+
+  @Test
+  void adjustStockFallsBackToTheProductRowWhenAProductIsNoLongerSharded() {
+    var sharded = new Product("Desk");
+    sharded.id = 1L;
+    sharded.stockShards = 4;
+    shardedProductStock.seen(sharded);
+    repository.stockById.put(1L, 5);
+
+    var result = resource.adjustStock(1L, new StockAdjustment(null, -2));
+
+    assertEquals(3, result.stock);
+    assertEquals(3, repository.stockById.get(1L));
+    assertEquals(1, repository.detached.size());
+  }
+
+  @Test
+  void adjustStockThrows409WhenShardedStockIsInsufficient() {
+    var entity = new Product("Desk");
+    entity.stockShards = 4;
+    repository.byId = entity;
+    shardedProductStock.stock = 2;
+
+    var ex =
+        assertThrows(
+            WebApplicationException.class,
+            () -> resource.adjustStock(1L, new StockAdjustment(null, -3)));
+
+    assertEquals(409, ex.getResponse().getStatus());
+    assertEquals(2, shardedProductStock.stock);
+  }
+
+  @Test
+  void getSingleReportsShardedStock() {
+    var entity = new Product("Desk");
+    entity.id = 1L;
+    entity.stockShards = 2;
+    repository.list = List.of(entity);
+    shardedProductStock.stock = 42;
+
+    var result = (Product) resource.getSingle(1L, null).getEntity();
+
+    assertEquals(42, result.stock);
+  }
+
+  @Test
+  void shardedAdjustmentsMoveTheVersionThatIfMatchIsCheckedAgainst() {
+    var entity = new Product("Desk");
+    entity.id = 1L;
+    entity.version = 3;
+    entity.stockShards = 4;
+    repository.byId = entity;
+    shardedProductStock.stock = 10;
+
+    assertEquals(4, resource.adjustStock(1L, new StockAdjustment(null, -3)).version);
+    entity.version = 3;
+
+    var ex =
+        assertThrows(
+            WebApplicationException.class, () -> resource.update(1L, new Product("Desk"), "\"3\""));
+    assertEquals(412, ex.getResponse().getStatus());
+    assertEquals(7, shardedProductStock.stock);
+
+    var update = new Product("Desk");
+    update.stock = 20;
+    var result = resource.update(1L, update, "\"4\"");
+
+    assertEquals(20, shardedProductStock.stock);
+    assertEquals(5, result.version);
+  }
+
+  @Test
+  void getSingleTagOfAShardedProductMovesWithItsShards() {
+    var entity = new Product("Desk");
+    entity.id = 1L;
+    entity.stockShards = 2;
+    repository.list = List.of(entity);
+    var etag = "\"" + resource.getSingle(1L, null).getEntityTag().getValue() + "\"";
+
+    shardedProductStock.adjust(entity, 5);
+    catalogue.stockChangedAfterCommit(1L);
+    catalogue.commit();
+
+    assertEquals(200, resource.getSingle(1L, etag).getStatus());
+  }
+
+  @Test
+  void configureStockShardsThrows422WhenOutOfRange() {
+    var request = new ProductResource.StockShardsRequest();
+    request.shards = ShardedProductStock.MAX_SHARDS + 1;
+
+    var ex =
+        assertThrows(
+            WebApplicationException.class, () -> resource.configureStockShards(1L, request));
+
+    assertEquals(422, ex.getResponse().getStatus());
+  }
+
+  private static class DirectOptimisticLockRetry extends OptimisticLockRetry {
+
+    DirectOptimisticLockRetry() {
+      super(new SimpleMeterRegistry(), 1);
+    }
+
+    @Override
+    protected <T> T inNewTransaction(Supplier<T> work) {
+      return work.get();
+    }
+  }
+
+  private static class FakeShardedProductStock extends ShardedProductStock {
+    private int stock;
+    private long changes;
+
+    FakeShardedProductStock() {
+      super(null, null);
+    }
+
+    @Override
+    public boolean adjust(Product product, int delta) {
+      if (stock + delta < 0) {
+        return false;
+      }
+      stock += delta;
+      changes++;
+      return true;
+    }
+
+    @Override
+    public void applyCurrent(Product product) {
+      product.stock = stock;
+      product.version += changes;
+    }
+
+    @Override
+    public long lockVersion(Product product) {
+      return product.version + changes;
+    }
+
+    @Override
+    public void reset(Product product, int stock) {
+      this.stock = stock;
+      changes++;
+    }
+  }
+
+  private static class FakeProductCatalogue extends ProductCatalogue {
+    private final FakeProductRepository repository;
+    private int loads;
+    private final ChangeTracker changeTracker;
+    private final FakeShardedProductStock shardedProductStock;
+    private final List<Runnable> pending = new ArrayList<>();
+
+    FakeProductCatalogue(
+        FakeProductRepository repository,
+        FakeShardedProductStock stock,
+        ChangeTracker changeTracker) {
+      super(null, stock, new ObjectMapper(), changeTracker);
+      this.repository = repository;
+      this.shardedProductStock = stock;
+      this.changeTracker = changeTracker;
+    }
+
+    void commit() {
+      pending.forEach(Runnable::run);
+      pending.clear();
+    }
+
+    @Override
+    protected List<Product> loadProducts() {
+      loads++;
+      return new ArrayList<>(repository.list);
+    }
+
+    @Override
+    protected Map<Long, StockLevel> loadStock() {
+      Map<Long, StockLevel> levels = new HashMap<>();
+      for (Product product : repository.list) {
+        if (product.stockShards > 0) {
+          levels.put(
+              product.id,
+              new StockLevel(
+                  shardedProductStock.stock, product.version + shardedProductStock.changes));
+          continue;
+        }
+        int stock = repository.stockById.getOrDefault(product.id, product.stock);
+        levels.put(product.id, new StockLevel(stock, product.version));
+      }
+      return levels;
+    }
+
+    @Override
+    public void invalidateAfterCommit(Long id) {
+      pending.add(() -> changeTracker.changed(ChangeTracker.PRODUCTS, id));
+    }
+
+    @Override
+    public void stockChangedAfterCommit(Long id) {
+      pending.add(
+          () -> changeTracker.changed(ChangeTracker.PRODUCTS, id, ChangeTracker.Kind.STOCK));
+    }
+  }
+
+  // vetoed: it would inherit the startup observer and stay a bean next to the real index
+  @Vetoed
+  private static class FakeProductSearchIndex extends ProductSearchIndex {
+    private List<Long> hits = List.of();
+    private final List<Product> indexed = new ArrayList<>();
+    private final List<Long> removed = new ArrayList<>();
+
+    FakeProductSearchIndex() {
+      super(null, null);
+    }
+
+    @Override
+    public List<Long> search(String query, int limit) {
+      return hits;
+    }
+
+    @Override
+    public void indexAfterCommit(List<Product> products) {
+      indexed.addAll(products);
+    }
+
+    @Override
+    public void removeAfterCommit(Long id) {
+      removed.add(id);
+    }
   }
 
   private static class FakeProductRepository extends ProductRepository {
@@ -137,6 +678,28 @@ class ProductResourceUnitTest {
     private Product byId;
     private final List<Product> persisted = new ArrayList<>();
     private final List<Product> deleted = new ArrayList<>();
+    private final Map<Long, Integer> stockById = new HashMap<>();
+    private final List<Product> detached = new ArrayList<>();
+    private int adjustStockCalls;
+
+    @Override
+    public int adjustStock(Long id, int delta) {
+      adjustStockCalls++;
+      Integer stock = stockById.get(id);
+      if (stock == null || stock + delta < 0) {
+        return 0;
+      }
+      stockById.put(id, stock + delta);
+      return 1;
+    }
+
+    @Override
+    public void detach(Product product) {
+      detached.add(product);
+    }
+
+    @Override
+    public void flush() {}
 
     @Override
     public List<Product> listAll() {
@@ -150,6 +713,15 @@ class ProductResourceUnitTest {
 
     @Override
     public Product findById(Long id) {
+      if (byId == null && stockById.containsKey(id)) {
+        var product = new Product("P" + id);
+        product.id = id;
+        product.stock = stockById.get(id);
+        return product;
+      }
+      if (byId != null && byId.id == null) {
+        byId.id = id;
+      }
       return byId;
     }
 
@@ -0,0 +1,64 @@
+package com.fulfilment.application.monolith.products;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProductSearchIndexTest {
+
+  private ProductSearchIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new ProductSearchIndex(null, null);
+    index.index(1L, "TONSTAD", "Oak desk with drawers");
+    index.index(2L, "KALLAX", "Shelf unit");
+    index.index(3L, "BESTÅ", "TV bench with doors");
+    index.index(4L, "Desk lamp", "Lamp for the desk");
+  }
+
+  @Test
+  void tokenizeLowercasesAndStripsAccents() {
+    assertEquals(List.of("besta", "tv", "bench"), ProductSearchIndex.tokenize("BESTÅ  TV-bench"));
+    assertTrue(ProductSearchIndex.tokenize(null).isEmpty());
+  }
+
+  @Test
+  void nameMatchesRankAboveDescriptionMatches() {
+    assertEquals(List.of(4L, 1L), index.search("desk", 10));
+  }
+
+  @Test
+  void termsMatchAsPrefixAndAllTermsMustMatch() {
+    assertEquals(List.of(3L), index.search("bes", 10));
+    assertEquals(List.of(1L), index.search("desk draw", 10));
+    assertTrue(index.search("desk shelf", 10).isEmpty());
+  }
+
+  @Test
+  void exactTermRanksAbovePrefixMatch() {
+    index.index(5L, "Lampshade", null);
+
+    assertEquals(List.of(4L, 5L), index.search("lamp", 10));
+  }
+
+  @Test
+  void limitKeepsBestHits() {
+    assertEquals(List.of(4L), index.search("desk", 1));
+  }
+
+  @Test
+  void reindexAndRemoveReplacePostings() {
+    index.index(2L, "KALLAX desk", null);
+    assertTrue(index.search("desk", 10).contains(2L));
+    assertTrue(index.search("shelf", 10).isEmpty());
+
+    index.remove(4L);
+
+    assertEquals(3, index.size());
+    assertTrue(index.search("lamp", 10).isEmpty());
+  }
+}
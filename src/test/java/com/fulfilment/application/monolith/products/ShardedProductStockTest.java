@@ -0,0 +1,193 @@
+package com.fulfilment.application.monolith.products;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ShardedProductStockTest {
+
+  private FakeShardRepository shardRepository;
+  private FakeProductRepository productRepository;
+  private ShardedProductStock shardedProductStock;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    shardRepository = new FakeShardRepository();
+    productRepository = new FakeProductRepository();
+    shardedProductStock = new ShardedProductStock(shardRepository, productRepository);
+    product = new Product("Desk");
+    product.id = 1L;
+  }
+
+  @Test
+  void splitSpreadsRemainderOverFirstShards() {
+    assertArrayEquals(new int[] {3, 3, 2, 2}, ShardedProductStock.split(10, 4));
+    assertArrayEquals(new int[] {0, 0, 0}, ShardedProductStock.split(0, 3));
+  }
+
+  @Test
+  void configureMovesStockIntoShards() {
+    product.stock = 10;
+
+    shardedProductStock.configure(product, 4);
+
+    assertEquals(4, product.stockShards);
+    assertEquals(4, shardRepository.shards.size());
+    assertEquals(10, shardRepository.total());
+  }
+
+  @Test
+  void configureWithOneShardCollapsesShardsBackIntoStockColumn() {
+    product.stock = 10;
+    shardedProductStock.configure(product, 4);
+    shardRepository.shards.get(0).stock -= 3;
+
+    shardedProductStock.configure(product, 1);
+
+    assertEquals(0, product.stockShards);
+    assertEquals(7, product.stock);
+    assertTrue(shardRepository.shards.isEmpty());
+  }
+
+  @Test
+  void adjustRebalancesWhenPickedShardRunsDry() {
+    product.stock = 3;
+    shardedProductStock.configure(product, 4);
+    shardRepository.shards.forEach(shard -> shard.stock = 0);
+    shardRepository.shards.get(3).stock = 3;
+
+    assertTrue(shardedProductStock.adjust(product, -2));
+
+    assertEquals(1, shardRepository.total());
+  }
+
+  @Test
+  void adjustFailsWhenAllShardsTogetherLackStock() {
+    product.stock = 3;
+    shardedProductStock.configure(product, 4);
+
+    assertFalse(shardedProductStock.adjust(product, -4));
+
+    assertEquals(3, shardRepository.total());
+  }
+
+  @Test
+  void applyCurrentSumsTheShards() {
+    product.stock = 8;
+    shardedProductStock.configure(product, 2);
+
+    assertTrue(shardedProductStock.adjust(product, 5));
+    shardRepository.shards.get(0).stock -= 2;
+    shardedProductStock.applyCurrent(product);
+
+    assertEquals(11, product.stock);
+  }
+
+  @Test
+  void everyShardChangeMovesTheServedVersion() {
+    product.stock = 3;
+    shardedProductStock.configure(product, 4);
+    long configured = shardedProductStock.lockVersion(product);
+
+    assertTrue(shardedProductStock.adjust(product, 1));
+    long adjusted = shardedProductStock.lockVersion(product);
+    assertTrue(adjusted > configured);
+
+    // the picked shard runs dry, so this one rebalances over all shards
+    shardRepository.shards.forEach(shard -> shard.stock = 0);
+    shardRepository.shards.get(3).stock = 4;
+    assertTrue(shardedProductStock.adjust(product, -1));
+    long rebalanced = shardedProductStock.lockVersion(product);
+    assertTrue(rebalanced > adjusted);
+
+    shardedProductStock.reset(product, 10);
+    assertTrue(shardedProductStock.lockVersion(product) > rebalanced);
+  }
+
+  @Test
+  void configureKeepsTheChangesOfRemovedShardsInTheProductVersion() {
+    product.stock = 10;
+    shardedProductStock.configure(product, 4);
+    assertTrue(shardedProductStock.adjust(product, 1));
+    assertTrue(shardedProductStock.adjust(product, 1));
+    long served = shardedProductStock.lockVersion(product);
+
+    shardedProductStock.configure(product, 0);
+
+    assertEquals(served, product.version);
+    assertEquals(12, product.stock);
+  }
+
+  @Test
+  void remembersWhichProductsAreSharded() {
+    shardedProductStock.configure(product, 4);
+    assertTrue(shardedProductStock.isSharded(1L));
+
+    shardedProductStock.configure(product, 0);
+    assertFalse(shardedProductStock.isSharded(1L));
+
+    shardedProductStock.configure(product, 4);
+    shardedProductStock.remove(product);
+    assertFalse(shardedProductStock.isSharded(1L));
+
+    product.stockShards = 2;
+    shardedProductStock.seen(product);
+    assertTrue(shardedProductStock.isSharded(1L));
+  }
+
+  private static class FakeShardRepository extends ProductStockShardRepository {
+    private final List<ProductStockShard> shards = new ArrayList<>();
+
+    int total() {
+      return shards.stream().mapToInt(s -> s.stock).sum();
+    }
+
+    @Override
+    public int adjust(Long productId, int shard, int delta) {
+      for (ProductStockShard candidate : shards) {
+        if (candidate.shard == shard && candidate.stock + delta >= 0) {
+          candidate.stock += delta;
+          candidate.version++;
+          return 1;
+        }
+      }
+      return 0;
+    }
+
+    @Override
+    public List<ProductStockShard> lockShards(Long productId) {
+      return shards;
+    }
+
+    @Override
+    public Totals totals(Long productId) {
+      return new Totals(total(), shards.stream().mapToLong(s -> s.version).sum());
+    }
+
+    @Override
+    public long deleteShards(Long productId) {
+      int deleted = shards.size();
+      shards.clear();
+      return deleted;
+    }
+
+    @Override
+    public void persist(ProductStockShard shard) {
+      shards.add(shard);
+    }
+  }
+
+  private static class FakeProductRepository extends ProductRepository {
+    @Override
+    public void addToVersion(Product product, long changes) {
+      product.version += changes;
+    }
+  }
+}
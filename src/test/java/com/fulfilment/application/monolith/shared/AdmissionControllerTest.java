@@ -0,0 +1,191 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.shared.AdmissionController.Tier;
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.AgroalDataSourceMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class AdmissionControllerTest {
+
+  private static final Class<?>[] SUBSCRIBE_PARAMETERS = {
+    String.class, String.class, String.class, String.class, SseEventSink.class, Sse.class
+  };
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private long acquired;
+  private Duration blocked = Duration.ZERO;
+  private long awaiting;
+
+  @Test
+  void bulkReadsAreShedBeforeWrites() {
+    AdmissionController controller = controller(10, 3_600_000);
+
+    for (int i = 0; i < 5; i++) {
+      assertTrue(controller.tryAcquire(Tier.BULK));
+    }
+    assertFalse(controller.tryAcquire(Tier.BULK));
+    assertTrue(controller.tryAcquire(Tier.READ));
+    assertTrue(controller.tryAcquire(Tier.READ));
+    assertTrue(controller.tryAcquire(Tier.READ));
+    assertFalse(controller.tryAcquire(Tier.READ));
+    assertTrue(controller.tryAcquire(Tier.WRITE));
+    assertTrue(controller.tryAcquire(Tier.WRITE));
+    assertFalse(controller.tryAcquire(Tier.WRITE));
+
+    assertEquals(10, controller.inFlight());
+    assertEquals(1.0, rejections("bulk"));
+    assertEquals(1.0, rejections("write"));
+  }
+
+  @Test
+  void releasingFreesTheSlot() {
+    AdmissionController controller = controller(2, 3_600_000);
+    controller.tryAcquire(Tier.WRITE);
+    controller.tryAcquire(Tier.WRITE);
+    assertFalse(controller.tryAcquire(Tier.WRITE));
+
+    controller.release();
+
+    assertTrue(controller.tryAcquire(Tier.WRITE));
+  }
+
+  @Test
+  void waitingForConnectionsCutsTheLimit() {
+    AdmissionController controller = controller(20, 0);
+    acquired = 10;
+    blocked = Duration.ofMillis(500);
+
+    controller.adapt(System.nanoTime());
+
+    assertEquals(18, controller.limit());
+    assertEquals(50.0, meterRegistry.get(AdmissionController.POOL_WAIT).gauge().value());
+    assertEquals(18.0, meterRegistry.get(AdmissionController.LIMIT).gauge().value());
+  }
+
+  @Test
+  void aStuckPoolCutsTheLimitDownToTheMinimum() {
+    AdmissionController controller = controller(5, 0);
+    awaiting = 3;
+
+    for (int i = 0; i < 10; i++) {
+      controller.adapt(System.nanoTime());
+    }
+
+    assertEquals(2, controller.limit());
+  }
+
+  @Test
+  void theLimitGrowsWhileItIsReachedAndThePoolKeepsUp() {
+    AdmissionController controller = controller(2, 0);
+    acquired = 10;
+    blocked = Duration.ofMillis(10);
+
+    assertTrue(controller.tryAcquire(Tier.WRITE));
+    assertTrue(controller.tryAcquire(Tier.WRITE));
+    assertTrue(controller.tryAcquire(Tier.WRITE));
+
+    assertEquals(3, controller.limit());
+  }
+
+  @Test
+  void theTierFollowsTheEndpointGroup() throws NoSuchMethodException {
+    assertEquals(Tier.WRITE, AdmissionController.tier(resource("write")));
+    assertEquals(Tier.BULK, AdmissionController.tier(resource("list")));
+    assertEquals(Tier.BULK, AdmissionController.tier(resource("importAll")));
+    assertEquals(Tier.READ, AdmissionController.tier(resource("get")));
+  }
+
+  @Test
+  void eventStreamsAreNotAdmitted() throws NoSuchMethodException {
+    assertNull(AdmissionController.tier(resource("stream")));
+    assertNull(
+        AdmissionController.tier(
+            resource(ChangeFeedResource.class.getMethod("subscribe", SUBSCRIBE_PARAMETERS))));
+  }
+
+  @EndpointGroup(EndpointGroup.WRITE)
+  void write() {}
+
+  @EndpointGroup(EndpointGroup.BULK_READ)
+  void list() {}
+
+  @EndpointGroup(EndpointGroup.IMPORT)
+  void importAll() {}
+
+  void get() {}
+
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  void stream() {}
+
+  private AdmissionController controller(int initialLimit, long windowMillis) {
+    return new AdmissionController(
+        dataSource(),
+        meterRegistry,
+        true,
+        initialLimit,
+        2,
+        100,
+        20,
+        windowMillis,
+        0.9,
+        0.8,
+        0.5,
+        1);
+  }
+
+  private double rejections(String tier) {
+    return meterRegistry.get(AdmissionController.REJECTIONS).tag("tier", tier).counter().count();
+  }
+
+  private static ResourceInfo resource(String name) throws NoSuchMethodException {
+    return resource(AdmissionControllerTest.class.getDeclaredMethod(name));
+  }
+
+  private static ResourceInfo resource(Method method) {
+    return new ResourceInfo() {
+      @Override
+      public Method getResourceMethod() {
+        return method;
+      }
+
+      @Override
+      public Class<?> getResourceClass() {
+        return method.getDeclaringClass();
+      }
+    };
+  }
+
+  private AgroalDataSource dataSource() {
+    AgroalDataSourceMetrics metrics =
+        (AgroalDataSourceMetrics)
+            Proxy.newProxyInstance(
+                AgroalDataSourceMetrics.class.getClassLoader(),
+                new Class<?>[] {AgroalDataSourceMetrics.class},
+                (proxy, method, args) ->
+                    switch (method.getName()) {
+                      case "acquireCount" -> acquired;
+                      case "blockingTimeTotal" -> blocked;
+                      case "awaitingCount" -> awaiting;
+                      default -> null;
+                    });
+    return (AgroalDataSource)
+        Proxy.newProxyInstance(
+            AgroalDataSource.class.getClassLoader(),
+            new Class<?>[] {AgroalDataSource.class},
+            (proxy, method, args) -> "getMetrics".equals(method.getName()) ? metrics : null);
+  }
+}
@@ -0,0 +1,101 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class BulkImporterTest {
+
+  private final List<List<String>> batches = new ArrayList<>();
+
+  private ImportReport run(BulkImporter importer, String csv, BulkImporter.BatchWriter<String> w) {
+    return importer.run(
+        new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+        "text/csv",
+        record -> {
+          String name = record.get("name");
+          if (name == null) {
+            throw new IllegalArgumentException("name missing");
+          }
+          return name;
+        },
+        w);
+  }
+
+  private BulkImporter.BatchWriter<String> recordingWriter() {
+    return rows -> {
+      List<String> batch = new ArrayList<>();
+      Map<Long, String> rejected = new TreeMap<>();
+      for (BulkImporter.Row<String> row : rows) {
+        if (row.value.equals("dup")) {
+          rejected.put(row.line, "duplicate");
+        } else {
+          batch.add(row.value);
+        }
+      }
+      batches.add(batch);
+      return rejected;
+    };
+  }
+
+  @Test
+  void writesInBatchesAndReportsRowErrorsWithoutAborting() {
+    var importer = new DirectBulkImporter(2, 10);
+
+    ImportReport report = run(importer, "name\na\n\"\"\nb\ndup\nc\nd,x\n", recordingWriter());
+
+    assertEquals(List.of(List.of("a", "b"), List.of("c")), batches);
+    assertEquals(3, report.imported);
+    assertEquals(3, report.rejected);
+    assertEquals(List.of(3L, 5L, 7L), report.errors.stream().map(e -> e.line).sorted().toList());
+  }
+
+  @Test
+  void failedBatchRejectsItsRowsAndLaterBatchesStillRun() {
+    var importer = new DirectBulkImporter(2, 10);
+    BulkImporter.BatchWriter<String> writer =
+        rows -> {
+          if (rows.get(0).value.equals("boom")) {
+            throw new IllegalStateException("database down");
+          }
+          return recordingWriter().write(rows);
+        };
+
+    ImportReport report = run(importer, "name\nboom\na\nb\n", writer);
+
+    assertEquals(1, report.imported);
+    assertEquals(2, report.rejected);
+    assertEquals(List.of(List.of("b")), batches);
+  }
+
+  @Test
+  void reportedErrorsAreCapped() {
+    var importer = new DirectBulkImporter(10, 1);
+
+    ImportReport report = run(importer, "name\n\n\"\"\n\"\"\n", recordingWriter());
+
+    assertEquals(2, report.rejected);
+    assertEquals(1, report.errors.size());
+    assertTrue(report.errorsTruncated);
+  }
+
+  private static class DirectBulkImporter extends BulkImporter {
+    DirectBulkImporter(int batchSize, int maxReportedErrors) {
+      super(new ObjectMapper(), batchSize, maxReportedErrors);
+    }
+
+    @Override
+    protected <R> R inNewTransaction(Supplier<R> work) {
+      return work.get();
+    }
+  }
+}
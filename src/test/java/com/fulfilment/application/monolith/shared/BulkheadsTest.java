@@ -0,0 +1,75 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import jakarta.ws.rs.core.HttpHeaders;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class BulkheadsTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final Bulkheads bulkheads =
+      new Bulkheads(
+          new SmallRyeConfigBuilder()
+              .withSources(
+                  new PropertiesConfigSource(
+                      Map.of(
+                          "bulkhead.bulk-read.max-concurrent", "1",
+                          "bulkhead.bulk-read.max-wait-ms", "0",
+                          "bulkhead.bulk-read.retry-after-seconds", "3"),
+                      "test",
+                      100))
+              .build(),
+          meterRegistry);
+
+  @Test
+  void aFullGroupTurnsRequestsAwayWithRetryAfter() throws Exception {
+    var exception =
+        assertThrows(
+            OverloadedException.class,
+            () -> bulkheads.run("bulk-read", () -> bulkheads.run("bulk-read", () -> "inner")));
+
+    assertEquals(503, exception.getResponse().getStatus());
+    assertEquals("3", exception.getResponse().getHeaderString(HttpHeaders.RETRY_AFTER));
+    assertEquals(1, wait("bulk-read", "admitted"));
+    assertEquals(1, wait("bulk-read", "rejected"));
+    assertEquals("done", bulkheads.run("bulk-read", () -> "done"));
+  }
+
+  @Test
+  void groupsDoNotShareTheirPermits() throws Exception {
+    String result = bulkheads.run("bulk-read", () -> bulkheads.run("write", () -> "write"));
+
+    assertEquals("write", result);
+  }
+
+  @Test
+  void aFailedRequestReleasesItsPermit() throws Exception {
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            bulkheads.run(
+                "bulk-read",
+                () -> {
+                  throw new IllegalStateException("boom");
+                }));
+
+    assertEquals("done", bulkheads.run("bulk-read", () -> "done"));
+    assertEquals(
+        0.0, meterRegistry.get(Bulkheads.IN_USE).tag("group", "bulk-read").gauge().value());
+  }
+
+  private long wait(String group, String outcome) {
+    return meterRegistry
+        .get(Bulkheads.WAIT)
+        .tag("group", group)
+        .tag("outcome", outcome)
+        .timer()
+        .count();
+  }
+}
@@ -0,0 +1,144 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ChangeFeedTest {
+
+  private ChangeFeed feed;
+
+  @BeforeEach
+  void setUp() {
+    feed = new ChangeFeed(4, 2, ChangeFeed.SlowConsumerPolicy.DISCONNECT);
+  }
+
+  @Test
+  void liveSubscriberGetsNewEventsOfItsCollectionsInOrder() {
+    feed.publish(ChangeTracker.STORES, 1L);
+    var sink = new RecordingSink();
+    feed.subscribe(null, Set.of(ChangeTracker.STORES), feed.defaultPolicy(), sink);
+
+    feed.publish(ChangeTracker.STORES, 2L);
+    feed.publish(ChangeTracker.PRODUCTS, 7L);
+    feed.publish(ChangeTracker.STORES, null);
+
+    assertEquals(List.of("store:2", "store:null"), sink.received());
+    assertEquals(2, sink.events.get(0).offset);
+  }
+
+  @Test
+  void reconnectingSubscriberGetsOnlyWhatItMissed() {
+    var first = new RecordingSink();
+    feed.subscribe(null, null, feed.defaultPolicy(), first);
+    feed.publish(ChangeTracker.STORES, 1L);
+    feed.publish(ChangeTracker.STORES, 2L);
+    String lastSeen = feed.eventId(first.events.get(0));
+
+    var second = new RecordingSink();
+    feed.subscribe(lastSeen, null, feed.defaultPolicy(), second);
+    feed.publish(ChangeTracker.STORES, 3L);
+
+    assertEquals(List.of("store:2", "store:3"), second.received());
+  }
+
+  @Test
+  void subscriberBehindTheBufferOrFromAnotherBootIsToldToResync() {
+    var first = new RecordingSink();
+    feed.subscribe(null, null, feed.defaultPolicy(), first);
+    for (long id = 1; id <= 6; id++) {
+      feed.publish(ChangeTracker.PRODUCTS, id);
+    }
+
+    var behind = new RecordingSink();
+    feed.subscribe(feed.eventId(first.events.get(0)), null, feed.defaultPolicy(), behind);
+    var otherBoot = new RecordingSink();
+    feed.subscribe("xyz-3", null, feed.defaultPolicy(), otherBoot);
+
+    assertEquals(List.of(ChangeEvent.RESYNC), behind.types());
+    assertEquals(6, behind.events.get(0).offset);
+    assertEquals(List.of(ChangeEvent.RESYNC), otherBoot.types());
+  }
+
+  @Test
+  void slowSubscriberIsDisconnectedWithoutHoldingUpTheOthers() {
+    var slow = new RecordingSink();
+    slow.pending = new CompletableFuture<>();
+    var fast = new RecordingSink();
+    var slowSubscriber = feed.subscribe(null, null, feed.defaultPolicy(), slow);
+    feed.subscribe(null, null, feed.defaultPolicy(), fast);
+
+    // one event in flight and two queued, the fourth overflows the queue of two
+    for (long id = 1; id <= 4; id++) {
+      feed.publish(ChangeTracker.STORES, id);
+    }
+
+    assertTrue(slow.closed);
+    assertTrue(slowSubscriber.isClosed());
+    assertEquals(1, feed.subscriberCount());
+    assertEquals(4, fast.events.size());
+  }
+
+  @Test
+  void resyncPolicyReplacesTheQueuedEvents() {
+    var slow = new RecordingSink();
+    slow.pending = new CompletableFuture<>();
+    feed.subscribe(null, null, ChangeFeed.SlowConsumerPolicy.RESYNC, slow);
+
+    for (long id = 1; id <= 4; id++) {
+      feed.publish(ChangeTracker.STORES, id);
+    }
+    var inFlight = slow.pending;
+    slow.pending = null;
+    inFlight.complete(null);
+
+    assertFalse(slow.closed);
+    assertEquals(List.of(ChangeEvent.CHANGE, ChangeEvent.RESYNC), slow.types());
+    assertEquals(4, slow.events.get(1).offset);
+  }
+
+  @Test
+  void failedSendClosesTheSubscriber() {
+    var gone = new RecordingSink();
+    gone.pending = CompletableFuture.failedFuture(new IllegalStateException("client went away"));
+    feed.subscribe(null, null, feed.defaultPolicy(), gone);
+
+    feed.publish(ChangeTracker.STORES, 1L);
+
+    assertTrue(gone.closed);
+    assertEquals(0, feed.subscriberCount());
+  }
+
+  private static class RecordingSink implements ChangeFeed.Sink {
+    private final List<ChangeEvent> events = new ArrayList<>();
+    private CompletableFuture<Void> pending;
+    private boolean closed;
+
+    List<String> received() {
+      return events.stream().map(e -> e.collection + ":" + e.key).toList();
+    }
+
+    List<String> types() {
+      return events.stream().map(e -> e.type).toList();
+    }
+
+    @Override
+    public CompletionStage<?> send(ChangeEvent event) {
+      events.add(event);
+      return pending == null ? CompletableFuture.completedFuture(null) : pending;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}
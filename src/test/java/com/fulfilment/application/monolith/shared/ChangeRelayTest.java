@@ -0,0 +1,77 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ChangeRelayTest {
+
+  private ChangeTracker changeTracker;
+  private ChangeRelay relay;
+  private List<String> evicted;
+
+  @BeforeEach
+  void setUp() {
+    changeTracker =
+        new ChangeTracker(null, new ChangeFeed(100, 10, ChangeFeed.SlowConsumerPolicy.DISCONNECT));
+    evicted = new ArrayList<>();
+    relay =
+        new ChangeRelay(
+            changeTracker, null, false, Optional.empty(), Optional.empty(), Optional.empty()) {
+          @Override
+          void evict(String collection, String key) {
+            evicted.add(collection + ":" + key);
+          }
+        };
+  }
+
+  @Test
+  void changesFromAnotherInstanceAreApplied() {
+    var lines =
+        List.of(
+            ChangeRelay.line(ChangeTracker.PRODUCTS, 7L, ChangeTracker.Kind.STOCK),
+            ChangeRelay.line(ChangeTracker.STORES, null, ChangeTracker.Kind.EDIT));
+    var before = changeTracker.entityTag(ChangeTracker.STORES, 1L);
+
+    ChangeRelay.payloads("other", lines).forEach(relay::receive);
+
+    assertEquals(List.of("product:7", "store:null"), evicted);
+    assertEquals(1, changeTracker.version(ChangeTracker.PRODUCTS));
+    assertEquals(0, changeTracker.edits(ChangeTracker.PRODUCTS));
+    assertEquals(1, changeTracker.version(ChangeTracker.STORES));
+    assertNotEquals(before, changeTracker.entityTag(ChangeTracker.STORES, 1L));
+  }
+
+  @Test
+  void ownNotificationsAreIgnored() {
+    var lines = List.of(ChangeRelay.line(ChangeTracker.PRODUCTS, 7L, ChangeTracker.Kind.EDIT));
+
+    ChangeRelay.payloads(relay.instance(), lines).forEach(relay::receive);
+
+    assertEquals(0, changeTracker.version(ChangeTracker.PRODUCTS));
+    assertTrue(evicted.isEmpty());
+  }
+
+  @Test
+  void linesArePackedIntoPayloadsBelowTheNotifyLimit() {
+    List<String> lines =
+        new ArrayList<>(
+            Collections.nCopies(
+                2_000,
+                ChangeRelay.line(ChangeTracker.PRODUCTS, 123456L, ChangeTracker.Kind.STOCK)));
+
+    var payloads = ChangeRelay.payloads("other", lines);
+
+    assertTrue(payloads.size() > 1);
+    assertTrue(payloads.stream().allMatch(p -> p.length() <= ChangeRelay.MAX_PAYLOAD));
+    payloads.forEach(relay::receive);
+    assertEquals(2_000, changeTracker.version(ChangeTracker.PRODUCTS));
+  }
+}
@@ -0,0 +1,180 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ChangeTrackerTest {
+
+  private StubTransactionSynchronizationRegistry txRegistry;
+  private ChangeFeed changeFeed;
+  private ChangeTracker changeTracker;
+
+  @BeforeEach
+  void setUp() {
+    txRegistry = new StubTransactionSynchronizationRegistry();
+    changeFeed = new ChangeFeed(100, 10, ChangeFeed.SlowConsumerPolicy.DISCONNECT);
+    changeTracker = new ChangeTracker(txRegistry, changeFeed);
+  }
+
+  @Test
+  void versionsMoveOnlyWhenTheTransactionCommits() {
+    var before = changeTracker.collectionTag(ChangeTracker.STORES);
+
+    changeTracker.changedAfterCommit(ChangeTracker.STORES, 1L);
+    assertEquals(before, changeTracker.collectionTag(ChangeTracker.STORES));
+
+    txRegistry.complete(Status.STATUS_ROLLEDBACK);
+    assertEquals(0, changeTracker.version(ChangeTracker.STORES));
+
+    changeTracker.changedAfterCommit(ChangeTracker.STORES, 1L);
+    txRegistry.complete(Status.STATUS_COMMITTED);
+    assertEquals(1, changeTracker.version(ChangeTracker.STORES));
+    assertNotEquals(before, changeTracker.collectionTag(ChangeTracker.STORES));
+  }
+
+  @Test
+  void entityTagChangesWithItsOwnEntityOnly() {
+    var desk = changeTracker.entityTag(ChangeTracker.PRODUCTS, 1L);
+
+    changeTracker.changed(ChangeTracker.PRODUCTS, 2L);
+    changeTracker.changed(ChangeTracker.STORES, 1L);
+    assertEquals(desk, changeTracker.entityTag(ChangeTracker.PRODUCTS, 1L));
+
+    changeTracker.changed(ChangeTracker.PRODUCTS, 1L);
+    assertNotEquals(desk, changeTracker.entityTag(ChangeTracker.PRODUCTS, 1L));
+  }
+
+  @Test
+  void changeWithoutKeyMovesEveryEntityTagOfTheCollection() {
+    var desk = changeTracker.entityTag(ChangeTracker.PRODUCTS, 1L);
+    var store = changeTracker.entityTag(ChangeTracker.STORES, 1L);
+
+    changeTracker.changed(ChangeTracker.PRODUCTS, null);
+
+    assertNotEquals(desk, changeTracker.entityTag(ChangeTracker.PRODUCTS, 1L));
+    assertEquals(store, changeTracker.entityTag(ChangeTracker.STORES, 1L));
+    assertEquals(1, changeTracker.version(ChangeTracker.PRODUCTS));
+  }
+
+  @Test
+  void committedChangesArePublishedToTheFeed() {
+    var received = new ArrayList<ChangeEvent>();
+    changeFeed.subscribe(
+        null,
+        null,
+        changeFeed.defaultPolicy(),
+        new ChangeFeed.Sink() {
+          @Override
+          public CompletionStage<?> send(ChangeEvent event) {
+            received.add(event);
+            return CompletableFuture.completedFuture(null);
+          }
+
+          @Override
+          public void close() {}
+        });
+
+    changeTracker.changedAfterCommit(ChangeTracker.WAREHOUSES, "MWH.001");
+    txRegistry.complete(Status.STATUS_ROLLEDBACK);
+    changeTracker.changedAfterCommit(ChangeTracker.WAREHOUSES, "MWH.002");
+    txRegistry.complete(Status.STATUS_COMMITTED);
+
+    assertEquals(1, received.size());
+    assertEquals("MWH.002", received.get(0).key);
+  }
+
+  @Test
+  void knownVersionIsForgottenWhenTheEntityChanges() {
+    changeTracker.remember(
+        ChangeTracker.STORES, 1L, 4, changeTracker.version(ChangeTracker.STORES));
+    assertEquals(4L, changeTracker.knownVersion(ChangeTracker.STORES, 1L));
+
+    changeTracker.changed(ChangeTracker.STORES, 2L);
+    assertEquals(4L, changeTracker.knownVersion(ChangeTracker.STORES, 1L));
+
+    changeTracker.changed(ChangeTracker.STORES, 1L);
+    assertNull(changeTracker.knownVersion(ChangeTracker.STORES, 1L));
+
+    changeTracker.remember(
+        ChangeTracker.STORES, 1L, 5, changeTracker.version(ChangeTracker.STORES));
+    changeTracker.changed(ChangeTracker.STORES, null);
+    assertNull(changeTracker.knownVersion(ChangeTracker.STORES, 1L));
+  }
+
+  @Test
+  void versionReadBeforeAConcurrentChangeIsNotRemembered() {
+    long collectionVersion = changeTracker.version(ChangeTracker.STORES);
+    changeTracker.changed(ChangeTracker.STORES, 1L);
+
+    changeTracker.remember(ChangeTracker.STORES, 1L, 4, collectionVersion);
+
+    assertNull(changeTracker.knownVersion(ChangeTracker.STORES, 1L));
+  }
+
+  @Test
+  void ownChangesAreRelayedButChangesFromElsewhereAreNot() {
+    List<String> relayed = new ArrayList<>();
+    changeTracker.relayTo(
+        (collection, key, kind) -> relayed.add(collection + ":" + key + ":" + kind));
+
+    changeTracker.changed(ChangeTracker.PRODUCTS, 1L, ChangeTracker.Kind.STOCK);
+    changeTracker.changedElsewhere(ChangeTracker.PRODUCTS, "2", ChangeTracker.Kind.EDIT);
+
+    assertEquals(List.of("product:1:STOCK"), relayed);
+    assertEquals(2, changeTracker.version(ChangeTracker.PRODUCTS));
+    assertEquals(1, changeTracker.edits(ChangeTracker.PRODUCTS));
+  }
+
+  private static class StubTransactionSynchronizationRegistry
+      implements TransactionSynchronizationRegistry {
+
+    private final List<Synchronization> syncs = new ArrayList<>();
+
+    void complete(int status) {
+      syncs.forEach(sync -> sync.afterCompletion(status));
+      syncs.clear();
+    }
+
+    @Override
+    public void registerInterposedSynchronization(Synchronization sync) {
+      syncs.add(sync);
+    }
+
+    @Override
+    public Object getTransactionKey() {
+      return null;
+    }
+
+    @Override
+    public Object getResource(Object key) {
+      return null;
+    }
+
+    @Override
+    public void putResource(Object key, Object value) {}
+
+    @Override
+    public int getTransactionStatus() {
+      return 0;
+    }
+
+    @Override
+    public void setRollbackOnly() {}
+
+    @Override
+    public boolean getRollbackOnly() {
+      return false;
+    }
+  }
+}
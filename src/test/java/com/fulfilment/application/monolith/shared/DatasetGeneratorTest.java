@@ -0,0 +1,134 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.location.LocationGateway;
+import com.fulfilment.application.monolith.shared.DatasetGenerator.Existing;
+import com.fulfilment.application.monolith.shared.DatasetGenerator.Table;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class DatasetGeneratorTest {
+
+  private final LocationGateway locationGateway = new LocationGateway();
+
+  private static DatasetGenerator generator(LocationGateway locationGateway, long seed) {
+    return new DatasetGenerator(null, locationGateway, true, seed, 200, 300, 3);
+  }
+
+  private Map<Table, List<List<Object>>> generate(long seed, Existing existing) {
+    Map<Table, List<List<Object>>> rows = new EnumMap<>(Table.class);
+    generator(locationGateway, seed)
+        .generate(
+            existing,
+            (table, values) ->
+                rows.computeIfAbsent(table, t -> new ArrayList<>()).add(Arrays.asList(values)));
+    return rows;
+  }
+
+  private static Existing importSql() {
+    var existing = new Existing();
+    for (Table table : Table.values()) {
+      existing.maxIds.put(table, table == Table.LINK ? 0L : 3L);
+    }
+    existing.warehouses.put("ZWOLLE-001", 1);
+    existing.capacity.put("ZWOLLE-001", 100);
+    existing.warehouses.put("AMSTERDAM-001", 1);
+    existing.capacity.put("AMSTERDAM-001", 50);
+    existing.warehouses.put("TILBURG-001", 1);
+    existing.capacity.put("TILBURG-001", 30);
+    return existing;
+  }
+
+  @Test
+  void generatesTheConfiguredRowsAfterTheExistingIds() {
+    var rows = generate(42, importSql());
+
+    assertEquals(200, rows.get(Table.STORE).size());
+    assertEquals(300, rows.get(Table.PRODUCT).size());
+    assertEquals(4L, rows.get(Table.STORE).get(0).get(0));
+    assertEquals(4L, rows.get(Table.PRODUCT).get(0).get(0));
+    assertEquals(4L, rows.get(Table.WAREHOUSE).get(0).get(0));
+    assertEquals(1L, rows.get(Table.LINK).get(0).get(0));
+    for (Table table : rows.keySet()) {
+      Set<Object> ids = new HashSet<>();
+      rows.get(table).forEach(row -> assertTrue(ids.add(row.get(0)), table + " id repeated"));
+    }
+  }
+
+  @Test
+  void sameSeedGivesTheSameRows() {
+    assertEquals(generate(7, importSql()), generate(7, importSql()));
+    assertNotEquals(generate(7, importSql()), generate(8, importSql()));
+  }
+
+  @Test
+  void warehousesStayWithinTheLocationLimits() {
+    Existing existing = importSql();
+    var rows = generate(42, existing);
+
+    Map<String, Integer> count = new HashMap<>(existing.warehouses);
+    Map<String, Integer> capacity = new HashMap<>(existing.capacity);
+    Map<String, Integer> history = new HashMap<>();
+    for (List<Object> warehouse : rows.get(Table.WAREHOUSE)) {
+      String location = (String) warehouse.get(2);
+      int stock = (Integer) warehouse.get(4);
+      assertTrue(stock <= (Integer) warehouse.get(3));
+      if (warehouse.get(6) == null) {
+        count.merge(location, 1, Integer::sum);
+        capacity.merge(location, (Integer) warehouse.get(3), Integer::sum);
+      } else {
+        history.merge((String) warehouse.get(1), 1, Integer::sum);
+      }
+    }
+    history.values().forEach(archived -> assertEquals(3, archived));
+    // every location ends up full; the import.sql ones already were, so they get nothing
+    for (Location location : locationGateway.listAll()) {
+      assertEquals(location.maxNumberOfWarehouses, count.get(location.identification));
+      if (!existing.warehouses.containsKey(location.identification)) {
+        assertTrue(capacity.get(location.identification) <= location.maxCapacity);
+      }
+    }
+  }
+
+  @Test
+  void linksKeepToTheAssignmentRules() {
+    var rows = generate(42, importSql());
+
+    Set<String> active = new HashSet<>();
+    rows.get(Table.WAREHOUSE).stream()
+        .filter(warehouse -> warehouse.get(6) == null)
+        .forEach(warehouse -> active.add((String) warehouse.get(1)));
+    Map<Long, Set<String>> warehousesPerStore = new HashMap<>();
+    Map<String, Set<String>> warehousesPerStoreAndProduct = new HashMap<>();
+    Map<String, Set<Long>> productsPerWarehouse = new HashMap<>();
+    Set<String> links = new HashSet<>();
+    for (List<Object> link : rows.get(Table.LINK)) {
+      Long storeId = (Long) link.get(1);
+      Long productId = (Long) link.get(2);
+      String warehouse = (String) link.get(3);
+      assertTrue(active.contains(warehouse));
+      assertTrue(links.add(storeId + "/" + productId + "/" + warehouse), "link repeated");
+      warehousesPerStore.computeIfAbsent(storeId, k -> new HashSet<>()).add(warehouse);
+      warehousesPerStoreAndProduct
+          .computeIfAbsent(storeId + "/" + productId, k -> new HashSet<>())
+          .add(warehouse);
+      productsPerWarehouse.computeIfAbsent(warehouse, k -> new HashSet<>()).add(productId);
+    }
+
+    assertTrue(warehousesPerStore.size() > 100);
+    warehousesPerStore.values().forEach(warehouses -> assertTrue(warehouses.size() <= 3));
+    warehousesPerStoreAndProduct.values().forEach(warehouses -> assertTrue(warehouses.size() <= 2));
+    productsPerWarehouse.values().forEach(products -> assertTrue(products.size() <= 5));
+  }
+}
@@ -0,0 +1,130 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.Router;
+import jakarta.ws.rs.WebApplicationException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+class FlightRecorderEndpointTest {
+
+  private final FlightRecorderEndpoint endpoint = new FlightRecorderEndpoint(60, 10);
+
+  @Test
+  void recordingContainsTheApplicationEventsButNoSecrets() throws Exception {
+    Vertx vertx = Vertx.vertx();
+    try {
+      Router router = Router.router(vertx);
+      endpoint.routes(() -> router);
+      HttpServer server =
+          vertx
+              .createHttpServer()
+              .requestHandler(router)
+              .listen(0)
+              .toCompletionStage()
+              .toCompletableFuture()
+              .get(10, TimeUnit.SECONDS);
+      HttpClient client = HttpClient.newHttpClient();
+      URI base = URI.create("http://localhost:" + server.actualPort() + "/admin/jfr/");
+
+      var started = client.send(post(base.resolve("start?seconds=5")), bodyAsString());
+      assertEquals(202, started.statusCode());
+      recordUseCases();
+      Path file = Files.createTempFile("recording", ".jfr");
+      var stopped = client.send(post(base.resolve("stop")), HttpResponse.BodyHandlers.ofFile(file));
+      assertEquals(200, stopped.statusCode());
+
+      List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+      Files.delete(file);
+      Set<String> outcomes =
+          events.stream()
+              .filter(event -> event.getEventType().getName().equals("fulfilment.UseCase"))
+              .map(FlightRecorderEndpointTest::describe)
+              .collect(Collectors.toSet());
+      assertEquals(Set.of("create-warehouse success", "archive-warehouse rejected"), outcomes);
+      assertTrue(
+          events.stream()
+              .noneMatch(
+                  event ->
+                      FlightRecorderEndpoint.SENSITIVE_EVENTS.contains(
+                          event.getEventType().getName())));
+
+      assertEquals(404, client.send(post(base.resolve("stop")), bodyAsString()).statusCode());
+      assertEquals(
+          400, client.send(post(base.resolve("start?seconds=soon")), bodyAsString()).statusCode());
+    } finally {
+      vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  void onlyOneRecordingRunsAtATime() throws Exception {
+    endpoint.start(null);
+    try {
+      var exception = assertThrows(WebApplicationException.class, () -> endpoint.start(null));
+      assertEquals(409, exception.getResponse().getStatus());
+    } finally {
+      Files.delete(endpoint.stop());
+    }
+  }
+
+  @Test
+  void stopWithoutRecordingIsNotFound() {
+    var exception = assertThrows(WebApplicationException.class, endpoint::stop);
+
+    assertEquals(404, exception.getResponse().getStatus());
+    assertTrue(exception.getMessage().contains("No recording"));
+  }
+
+  @Test
+  void sensitiveEventsAreTurnedOff() throws Exception {
+    var settings = FlightRecorderEndpoint.settings();
+
+    for (String event : FlightRecorderEndpoint.SENSITIVE_EVENTS) {
+      assertEquals("false", settings.get(event + "#enabled"), event);
+    }
+    assertEquals("true", settings.get("jdk.ExecutionSample#enabled"));
+  }
+
+  private static void recordUseCases() {
+    var metrics = new UseCaseMetrics(new SimpleMeterRegistry());
+    metrics.run("create-warehouse", () -> {});
+    assertThrows(
+        BusinessRuleException.class,
+        () ->
+            metrics.run(
+                "archive-warehouse",
+                () -> {
+                  throw new BusinessRuleException("warehouse-exists", "Not found.", 404);
+                }));
+  }
+
+  private static HttpRequest post(URI uri) {
+    return HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.noBody()).build();
+  }
+
+  private static HttpResponse.BodyHandler<String> bodyAsString() {
+    return HttpResponse.BodyHandlers.ofString();
+  }
+
+  private static String describe(RecordedEvent event) {
+    return event.getString("useCase") + " " + event.getString("outcome");
+  }
+}
@@ -1,33 +1,67 @@
 package com.fulfilment.application.monolith.shared;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
 import org.junit.jupiter.api.Test;
 
 class GlobalExceptionMapperTest {
 
+  private final GlobalExceptionMapper mapper = new GlobalExceptionMapper(1);
+
   @Test
   void toResponseReturns500ForGenericException() {
-    var mapper = new GlobalExceptionMapper();
-    mapper.objectMapper = new ObjectMapper();
-
     var response = mapper.toResponse(new RuntimeException("boom"));
 
     assertEquals(500, response.getStatus());
-    assertTrue(response.getEntity().toString().contains("boom"));
+    var error = (ErrorResponse) response.getEntity();
+    assertEquals("boom", error.error);
+    assertEquals(500, error.code);
+    assertEquals(RuntimeException.class.getName(), error.exceptionType);
   }
 
   @Test
   void toResponseUsesStatusForWebApplicationException() {
-    var mapper = new GlobalExceptionMapper();
-    mapper.objectMapper = new ObjectMapper();
-
     var response = mapper.toResponse(new WebApplicationException("bad", 422));
 
     assertEquals(422, response.getStatus());
-    assertTrue(response.getEntity().toString().contains("bad"));
+    var error = (ErrorResponse) response.getEntity();
+    assertEquals("bad", error.error);
+    assertNull(error.rule);
+  }
+
+  @Test
+  void toResponseReturnsTheRuleOfABusinessRuleException() {
+    for (int i = 0; i < 3; i++) {
+      var response =
+          mapper.toResponse(new BusinessRuleException("location-capacity-limit", "Too big.", 400));
+
+      assertEquals(400, response.getStatus());
+      var error = (ErrorResponse) response.getEntity();
+      assertEquals("Too big.", error.error);
+      assertEquals("location-capacity-limit", error.rule);
+    }
+  }
+
+  @Test
+  void businessRuleExceptionCarriesNoStackTrace() {
+    var exception = new BusinessRuleException("payload", "Warehouse payload is required.", 400);
+
+    assertEquals(0, exception.getStackTrace().length);
+    assertEquals(400, exception.getResponse().getStatus());
+  }
+
+  @Test
+  void overloadedExceptionKeepsItsRetryAfter() {
+    var exception = new OverloadedException("Too many concurrent write requests.", 2);
+
+    var response = mapper.toResponse(exception);
+
+    assertEquals(503, response.getStatus());
+    assertEquals("2", response.getHeaderString(HttpHeaders.RETRY_AFTER));
+    assertEquals(0, exception.getStackTrace().length);
+    assertNull(mapper.toResponse(new RuntimeException("boom")).getHeaderString("Retry-After"));
   }
 }
@@ -0,0 +1,54 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import jakarta.ws.rs.core.EntityTag;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class HttpCachingTest {
+
+  private static final EntityTag TAG = new EntityTag("abc.3");
+
+  @Test
+  void ifNoneMatchUsesWeakComparison() {
+    assertTrue(HttpCaching.matches("\"abc.3\"", TAG));
+    assertTrue(HttpCaching.matches("W/\"abc.3\"", TAG));
+    assertTrue(HttpCaching.matches("\"x\", \"abc.3\"", TAG));
+    assertTrue(HttpCaching.matches("*", TAG));
+    assertFalse(HttpCaching.matches("\"abc.2\"", TAG));
+    assertFalse(HttpCaching.matches(null, TAG));
+    assertFalse(HttpCaching.matches(" ", TAG));
+  }
+
+  @Test
+  void notModifiedCarriesTagAndCacheControl() {
+    var caching = caching(Map.of("cache-control.store", "private, max-age=5"));
+
+    var response = caching.notModified("store", "\"abc.3\"", TAG);
+
+    assertEquals(304, response.getStatus());
+    assertEquals(TAG, response.getEntityTag());
+    assertEquals("private, max-age=5", response.getHeaderString("Cache-Control"));
+    assertNull(caching.notModified("store", "\"abc.2\"", TAG));
+  }
+
+  @Test
+  void cacheControlFallsBackToDefault() {
+    assertEquals("no-cache", caching(Map.of()).cacheControl("product"));
+    var configured = caching(Map.of("cache-control.default", "max-age=60"));
+    assertEquals("max-age=60", configured.cacheControl("product"));
+  }
+
+  private static HttpCaching caching(Map<String, String> properties) {
+    return new HttpCaching(
+        new SmallRyeConfigBuilder()
+            .withSources(new PropertiesConfigSource(properties, "test", 100))
+            .build());
+  }
+}
@@ -0,0 +1,80 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.WebApplicationException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ImportRecordReaderTest {
+
+  private static ImportRecordReader open(String body, String contentType) {
+    return ImportRecordReader.open(
+        new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+        contentType,
+        new ObjectMapper());
+  }
+
+  @Test
+  void parseCsvLineHandlesQuotedCommasAndQuotes() {
+    assertEquals(
+        List.of("a", "b, c", "say \"hi\"", ""),
+        ImportRecordReader.parseCsvLine("a,\"b, c\",\"say \"\"hi\"\"\","));
+  }
+
+  @Test
+  void csvRecordsAreMappedByHeaderAndKeepTheirLineNumber() {
+    var reader = open("name,quantityProductsInStock\nTONSTAD,10\n\nKALLAX,\n", "text/csv");
+
+    ImportRecord first = reader.next();
+    assertEquals(2, first.line);
+    assertEquals("TONSTAD", first.get("name"));
+    assertEquals("10", first.get("quantityProductsInStock"));
+
+    ImportRecord second = reader.next();
+    assertEquals(4, second.line);
+    assertNull(second.get("quantityProductsInStock"));
+
+    assertNull(reader.next());
+  }
+
+  @Test
+  void csvRecordWithWrongColumnCountIsMalformed() {
+    var reader = open("name,quantityProductsInStock\nTONSTAD\n", "text/csv; charset=utf-8");
+
+    ImportRecord record = reader.next();
+
+    assertNull(record.fields);
+    assertNotNull(record.error);
+  }
+
+  @Test
+  void ndjsonRecordsReadOneObjectPerLine() {
+    var reader = open("{\"name\":\"TONSTAD\",\"stock\":10}\nnot json\n[1]\n", "application/x-ndjson");
+
+    ImportRecord record = reader.next();
+    assertEquals("TONSTAD", record.get("name"));
+    assertEquals("10", record.get("stock"));
+    assertNotNull(reader.next().error);
+    assertNotNull(reader.next().error);
+    assertNull(reader.next());
+  }
+
+  @Test
+  void unsupportedContentTypeIsRejected() {
+    var e = assertThrows(WebApplicationException.class, () -> open("", "application/json"));
+    assertEquals(415, e.getResponse().getStatus());
+  }
+
+  @Test
+  void csvWithoutHeaderIsRejected() {
+    var e = assertThrows(WebApplicationException.class, () -> open("\n", "text/csv"));
+    assertEquals(422, e.getResponse().getStatus());
+  }
+}
@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class LikePatternsTest {
+
+  @Test
+  void prefixEscapesWildcards() {
+    assertEquals("KAL\\_1\\%%", LikePatterns.prefix("KAL_1%"));
+    assertEquals("A\\\\B%", LikePatterns.prefix("A\\B"));
+  }
+
+  @Test
+  void startsWithNamesItsEscapeCharacter() {
+    assertEquals("s.name like :prefix escape '\\'", LikePatterns.startsWith("s.name", "prefix"));
+  }
+}
@@ -0,0 +1,37 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jakarta.ws.rs.WebApplicationException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class MultiGetKeysTest {
+
+  @Test
+  void parseSplitsTrimsAndDeduplicatesInOrder() {
+    assertEquals(List.of("B", "A", "C"), MultiGetKeys.parse(List.of("B, A,,B", "C")));
+  }
+
+  @Test
+  void parseIdsRejectsNonNumericIds() {
+    assertEquals(List.of(3L, 1L), MultiGetKeys.parseIds("3,1,03"));
+
+    var ex = assertThrows(WebApplicationException.class, () -> MultiGetKeys.parseIds("1,a"));
+    assertEquals(422, ex.getResponse().getStatus());
+  }
+
+  @Test
+  void parseRejectsEmptyAndTooManyKeys() {
+    var tooMany =
+        IntStream.rangeClosed(0, MultiGetKeys.MAX_KEYS)
+            .mapToObj(String::valueOf)
+            .collect(Collectors.joining(","));
+
+    assertThrows(WebApplicationException.class, () -> MultiGetKeys.parse(List.of(" , ")));
+    assertThrows(WebApplicationException.class, () -> MultiGetKeys.parseIds(tooMany));
+  }
+}
@@ -0,0 +1,119 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OptimisticLockRetryTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private OptimisticLockRetry retry;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    retry =
+        new OptimisticLockRetry(meterRegistry, 3) {
+          @Override
+          protected <T> T inNewTransaction(Supplier<T> work) {
+            return work.get();
+          }
+        };
+  }
+
+  @Test
+  void callRetriesUntilWorkSucceeds() {
+    int[] attempts = {0};
+
+    var result =
+        retry.call(
+            "test",
+            true,
+            () -> {
+              if (++attempts[0] < 3) {
+                throw new RuntimeException(new OptimisticLockException("stale"));
+              }
+              return "done";
+            });
+
+    assertEquals("done", result);
+    assertEquals(3, attempts[0]);
+    assertEquals(2.0, meterRegistry.counter("optimistic_lock.conflicts", "operation", "test").count());
+    assertEquals(2.0, meterRegistry.counter("optimistic_lock.retries", "operation", "test").count());
+  }
+
+  @Test
+  void callFailsWith412WithoutRetryingConditionalWork() {
+    int[] attempts = {0};
+
+    var ex =
+        assertThrows(
+            WebApplicationException.class,
+            () ->
+                retry.call(
+                    "test",
+                    false,
+                    () -> {
+                      attempts[0]++;
+                      throw new OptimisticLockException("stale");
+                    }));
+
+    assertEquals(412, ex.getResponse().getStatus());
+    assertEquals(1, attempts[0]);
+  }
+
+  @Test
+  void callFailsWith409WhenAttemptsAreExhausted() {
+    var ex =
+        assertThrows(
+            WebApplicationException.class,
+            () ->
+                retry.call(
+                    "test",
+                    true,
+                    () -> {
+                      throw new OptimisticLockException("stale");
+                    }));
+
+    assertEquals(409, ex.getResponse().getStatus());
+    assertEquals(1.0, meterRegistry.counter("optimistic_lock.exhausted", "operation", "test").count());
+  }
+
+  @Test
+  void callPropagatesOtherFailuresUnchanged() {
+    var failure = new WebApplicationException("missing", 404);
+
+    var ex =
+        assertThrows(
+            WebApplicationException.class,
+            () ->
+                retry.call(
+                    "test",
+                    true,
+                    () -> {
+                      throw failure;
+                    }));
+
+    assertSame(failure, ex);
+  }
+
+  @Test
+  void expectedVersionParsesStrongWeakAndWildcardTags() {
+    assertEquals(4L, EntityVersions.expectedVersion("\"4\""));
+    assertEquals(4L, EntityVersions.expectedVersion("W/\"4\""));
+    assertEquals(null, EntityVersions.expectedVersion("*"));
+    assertEquals(null, EntityVersions.expectedVersion(null));
+
+    var ex =
+        assertThrows(
+            WebApplicationException.class, () -> EntityVersions.expectedVersion("\"abc\""));
+    assertEquals(412, ex.getResponse().getStatus());
+  }
+}
@@ -0,0 +1,50 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class PinningGuardTest {
+
+  private final PinningGuard guard =
+      new PinningGuard(
+          action -> {
+            throw new AssertionError("platform threads must not hand off");
+          });
+
+  @Test
+  void platformThreadsRunTheActionThemselves() {
+    Thread[] ranOn = {null};
+
+    guard.run(() -> ranOn[0] = Thread.currentThread());
+
+    assertSame(Thread.currentThread(), ranOn[0]);
+  }
+
+  @Test
+  void failuresReachTheCaller() {
+    var thrown =
+        assertThrows(
+            IllegalStateException.class,
+            () ->
+                guard.run(
+                    () -> {
+                      throw new IllegalStateException("legacy system down");
+                    }));
+
+    assertEquals("legacy system down", thrown.getMessage());
+  }
+
+  @Test
+  void virtualThreadsHandTheActionToAPlatformThread() throws InterruptedException {
+    Thread[] ranOn = {null};
+    var handingOff = new PinningGuard(action -> Thread.ofPlatform().start(action));
+
+    Thread.ofVirtual().start(() -> handingOff.run(() -> ranOn[0] = Thread.currentThread())).join();
+
+    assertFalse(ranOn[0].isVirtual());
+  }
+}
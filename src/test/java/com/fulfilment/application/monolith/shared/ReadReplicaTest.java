@@ -0,0 +1,99 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class ReadReplicaTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final Connection replicaConnection = connection();
+  private final Connection primaryConnection = connection();
+  private SQLException replicaFailure;
+
+  private final ReadReplica readReplica =
+      new ReadReplica(
+          dataSource(() -> replicaConnection, () -> replicaFailure),
+          dataSource(() -> primaryConnection, () -> null),
+          null,
+          meterRegistry);
+
+  @Test
+  void readsUseTheReadDataSource() throws SQLException {
+    assertSame(replicaConnection, readReplica.connection());
+    assertEquals(1, poolWaits("read"));
+  }
+
+  @Test
+  void anUnreachableReplicaFallsBackToThePrimary() throws SQLException {
+    replicaFailure =
+        new SQLException("Unable to acquire", null, new SQLException("refused", "08001"));
+
+    assertSame(primaryConnection, readReplica.connection());
+    assertEquals(1, poolWaits("primary"));
+    assertEquals(1.0, meterRegistry.get(ReadReplica.FALLBACKS).counter().count());
+  }
+
+  @Test
+  void anExhaustedReadPoolDoesNotSpillOverToThePrimary() {
+    replicaFailure = new SQLException("Acquisition timeout while waiting for new connection");
+
+    assertSame(replicaFailure, assertThrows(SQLException.class, readReplica::connection));
+    assertFalse(ReadReplica.unreachable(replicaFailure));
+    assertTrue(ReadReplica.unreachable(new SQLException("gone", "08006")));
+  }
+
+  @Test
+  void outsideARoutedEndpointQueriesKeepTheirEntityManager() throws Exception {
+    assertNull(ReadReplica.entityManager(null));
+
+    var routing = readReplica.open();
+    assertNotNull(routing);
+    assertNull(readReplica.open());
+    readReplica.close(routing);
+
+    assertNull(ReadReplica.entityManager(null));
+    var next = readReplica.open();
+    assertNotNull(next);
+    readReplica.close(next);
+  }
+
+  private long poolWaits(String dataSource) {
+    return meterRegistry.get(ReadReplica.POOL_WAIT).tag("datasource", dataSource).timer().count();
+  }
+
+  private static AgroalDataSource dataSource(
+      Supplier<Connection> connection, Supplier<SQLException> failure) {
+    return (AgroalDataSource)
+        Proxy.newProxyInstance(
+            AgroalDataSource.class.getClassLoader(),
+            new Class<?>[] {AgroalDataSource.class},
+            (proxy, method, args) -> {
+              if ("getConnection".equals(method.getName())) {
+                if (failure.get() != null) {
+                  throw failure.get();
+                }
+                return connection.get();
+              }
+              return null;
+            });
+  }
+
+  private static Connection connection() {
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, (p, m, a) -> null);
+  }
+}
@@ -0,0 +1,109 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.quarkus.runtime.configuration.MemorySizeConverter;
+import io.quarkus.vertx.http.runtime.VertxHttpRecorder;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.Router;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RequestBodyLimitsTest {
+
+  private final RequestBodyLimits limits =
+      new RequestBodyLimits(
+          new MemorySizeConverter().convert("1K"), new MemorySizeConverter().convert("1M"));
+
+  private Vertx vertx;
+  private int port;
+
+  @BeforeEach
+  void startServer() throws Exception {
+    vertx = Vertx.vertx();
+    Router router = Router.router(vertx);
+    limits.routes(router);
+    router
+        .route()
+        .handler(
+            context ->
+                context
+                    .response()
+                    .end("limit " + context.get(VertxHttpRecorder.MAX_REQUEST_SIZE_KEY)));
+    HttpServer server =
+        vertx
+            .createHttpServer()
+            .requestHandler(router)
+            .listen(0)
+            .toCompletionStage()
+            .toCompletableFuture()
+            .get(10, TimeUnit.SECONDS);
+    port = server.actualPort();
+  }
+
+  @AfterEach
+  void stopServer() throws Exception {
+    vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void bodiesAnnouncedOverTheLimitAreRefusedBeforeTheyAreRead() throws Exception {
+    assertEquals("HTTP/1.1 413", statusLine("POST /product", "Content-Length: 2048"));
+    assertEquals("HTTP/1.1 413", statusLine("POST /product/import", "Content-Length: 2097152"));
+  }
+
+  @Test
+  void onlyTheImportsAcceptLargeBodies() throws Exception {
+    assertEquals("HTTP/1.1 200", statusLine("POST /product/import", "Content-Length: 2048"));
+    assertEquals("HTTP/1.1 200", statusLine("POST /store/import", "Content-Length: 2048"));
+    assertEquals("HTTP/1.1 200", statusLine("POST /product", "Content-Length: 1024"));
+  }
+
+  @Test
+  void chunkedBodiesCarryTheirRouteLimitForTheRestLayer() throws Exception {
+    assertTrue(response("POST /product", "Transfer-Encoding: chunked").endsWith("limit 1024"));
+    assertTrue(
+        response("POST /store/import", "Transfer-Encoding: chunked").endsWith("limit 1048576"));
+  }
+
+  private String statusLine(String requestLine, String header) throws Exception {
+    return response(requestLine, header).substring(0, "HTTP/1.1 200".length());
+  }
+
+  // sends the headers only: a refused request must be answered without waiting for its body
+  private String response(String requestLine, String header) throws Exception {
+    try (Socket socket = new Socket("localhost", port)) {
+      socket.setSoTimeout(10_000);
+      OutputStream out = socket.getOutputStream();
+      String request = requestLine + " HTTP/1.1\r\nHost: localhost\r\n" + header + "\r\n\r\n";
+      if (header.startsWith("Transfer-Encoding")) {
+        request += "0\r\n\r\n";
+      }
+      out.write(request.getBytes(StandardCharsets.US_ASCII));
+      out.flush();
+      var reader =
+          new BufferedReader(
+              new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+      var response = new StringBuilder(reader.readLine());
+      String line;
+      while ((line = reader.readLine()) != null && !line.isEmpty()) {
+        // skip the headers
+      }
+      if (line != null && response.indexOf(" 200") > 0) {
+        char[] body = new char[64];
+        int read = reader.read(body);
+        response.append('\n').append(body, 0, Math.max(read, 0));
+      }
+      return response.toString();
+    }
+  }
+}
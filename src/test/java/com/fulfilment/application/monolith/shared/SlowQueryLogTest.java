@@ -0,0 +1,71 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.Test;
+
+class SlowQueryLogTest {
+
+  @Test
+  void settingsCanBeReplacedAtRuntime() {
+    var log = new SlowQueryLog(500, 0);
+
+    var updated = log.update(new SqlLogSettings(50, 0.25));
+
+    assertEquals(50, updated.slowThresholdMillis);
+    assertEquals(0.25, updated.sampleRate);
+    assertEquals(50, log.settings().slowThresholdMillis);
+  }
+
+  @Test
+  void everyInstanceKeepsItsOwnSettings() {
+    var log = new SlowQueryLog(500, 0);
+    var other = new SlowQueryLog(20, 1);
+
+    assertEquals(500, log.settings().slowThresholdMillis);
+    assertEquals(0.0, log.settings().sampleRate);
+    assertEquals(20, other.settings().slowThresholdMillis);
+  }
+
+  @Test
+  void negativeThresholdTurnsTheSlowLogOff() {
+    var log = new SlowQueryLog(-5, 0);
+
+    assertEquals(-1, log.settings().slowThresholdMillis);
+  }
+
+  @Test
+  void sampleRateOutsideZeroToOneIsRejected() {
+    var log = new SlowQueryLog(500, 0);
+
+    var exception =
+        assertThrows(WebApplicationException.class, () -> log.update(new SqlLogSettings(10, 2)));
+
+    assertEquals(400, exception.getResponse().getStatus());
+    assertEquals(500, log.settings().slowThresholdMillis);
+  }
+
+  @Test
+  void shapeKeepsPlaceholdersAndShortensLongLists() {
+    String sql = "select s.id from store s where s.name = ? and s.id in (?, ?, ?, ?, ?)";
+
+    assertEquals(6, SlowQueryLog.parameters(sql));
+    assertEquals(
+        "select s.id from store s where s.name = ? and s.id in (?... x5)", SlowQueryLog.shape(sql));
+    assertEquals(
+        "update store set version = ? where id in (?,?)",
+        SlowQueryLog.shape("update store set version = ? where id in (?,?)"));
+  }
+
+  @Test
+  void slowExecutionOfAnUnknownStatementIsStillLogged() {
+    var log = new SlowQueryLog(0, 1);
+    SlowQueryLog.prepared(null);
+
+    log.executed(1_000, true);
+
+    assertEquals("(unknown statement)", SlowQueryLog.shape(null));
+  }
+}
@@ -0,0 +1,51 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SpanFileExporterTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void appendsOneJsonLinePerSpan(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("traces/spans.jsonl");
+    var exporter = new SpanFileExporter(objectMapper, Optional.of(file.toString()));
+    var provider =
+        SdkTracerProvider.builder().addSpanProcessor(SimpleSpanProcessor.create(exporter)).build();
+    var tracer = provider.get("test");
+
+    Span parent = tracer.spanBuilder("POST /warehouse-fulfilment").startSpan();
+    try (Scope scope = parent.makeCurrent()) {
+      tracer.spanBuilder("SELECT").setAttribute("db.system", "postgresql").startSpan().end();
+    } finally {
+      parent.end();
+    }
+    provider.shutdown();
+
+    List<String> lines = Files.readAllLines(file);
+    assertEquals(2, lines.size());
+    JsonNode child = objectMapper.readTree(lines.get(0));
+    JsonNode root = objectMapper.readTree(lines.get(1));
+    assertEquals("SELECT", child.get("name").asText());
+    assertEquals(root.get("spanId").asText(), child.get("parentSpanId").asText());
+    assertEquals(root.get("traceId").asText(), child.get("traceId").asText());
+    assertEquals("postgresql", child.get("attributes").get("db.system").asText());
+    assertEquals("INTERNAL", root.get("kind").asText());
+    assertEquals("UNSET", root.get("status").asText());
+    assertFalse(root.has("parentSpanId"));
+  }
+}
@@ -0,0 +1,71 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.Router;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class SqlLogEndpointTest {
+
+  private final SlowQueryLog slowQueryLog = new SlowQueryLog(500, 0);
+  private final SqlLogEndpoint endpoint = new SqlLogEndpoint(slowQueryLog, new ObjectMapper());
+
+  @Test
+  void settingsAreReadAndReplacedOnTheManagementRouter() throws Exception {
+    Vertx vertx = Vertx.vertx();
+    try {
+      Router router = Router.router(vertx);
+      endpoint.routes(() -> router);
+      HttpServer server =
+          vertx
+              .createHttpServer()
+              .requestHandler(router)
+              .listen(0)
+              .toCompletionStage()
+              .toCompletableFuture()
+              .get(10, TimeUnit.SECONDS);
+      HttpClient client = HttpClient.newHttpClient();
+      URI uri = URI.create("http://localhost:" + server.actualPort() + "/admin/sql-log");
+
+      var read = client.send(HttpRequest.newBuilder(uri).build(), bodyAsString());
+      assertEquals(200, read.statusCode());
+      assertTrue(read.body().contains("\"slowThresholdMillis\":500"));
+
+      var updated =
+          client.send(put(uri, "{\"slowThresholdMillis\":50,\"sampleRate\":0.5}"), bodyAsString());
+      assertEquals(200, updated.statusCode());
+      assertTrue(updated.body().contains("\"sampleRate\":0.5"));
+      assertEquals(50, slowQueryLog.settings().slowThresholdMillis);
+
+      assertEquals(
+          400,
+          client
+              .send(put(uri, "{\"slowThresholdMillis\":50,\"sampleRate\":2}"), bodyAsString())
+              .statusCode());
+      assertEquals(400, client.send(put(uri, "slow"), bodyAsString()).statusCode());
+      assertEquals(0.5, slowQueryLog.settings().sampleRate);
+    } finally {
+      vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+  }
+
+  private static HttpRequest put(URI uri, String json) {
+    return HttpRequest.newBuilder(uri)
+        .header("Content-Type", "application/json")
+        .PUT(HttpRequest.BodyPublishers.ofString(json))
+        .build();
+  }
+
+  private static HttpResponse.BodyHandler<String> bodyAsString() {
+    return HttpResponse.BodyHandlers.ofString();
+  }
+}
@@ -0,0 +1,79 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.UriInfo;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class SqlStatementBudgetTest {
+
+  private final RequestSqlStatistics statistics = new RequestSqlStatistics();
+  private final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+
+  private final SqlStatisticsCollector collector =
+      new SqlStatisticsCollector(statistics) {
+        @Override
+        boolean inRequest() {
+          return true;
+        }
+      };
+
+  @SuppressWarnings("unchecked")
+  private static <T> T stub(Class<T> type, Function<String, Object> answers) {
+    return (T)
+        Proxy.newProxyInstance(
+            type.getClassLoader(),
+            new Class<?>[] {type},
+            (proxy, method, args) -> answers.apply(method.getName()));
+  }
+
+  private void report(SqlStatementBudget budget) {
+    UriInfo uriInfo = stub(UriInfo.class, method -> "/warehouse");
+    ContainerRequestContext request =
+        stub(ContainerRequestContext.class, method -> method.equals("getMethod") ? "GET" : uriInfo);
+    ContainerResponseContext response = stub(ContainerResponseContext.class, method -> headers);
+    budget.report(request, response);
+  }
+
+  @Test
+  void collectorCountsStatementsLoadsAndFlushes() {
+    assertEquals("select 1", collector.inspect("select 1"));
+    collector.inspect("select 2");
+    collector.onLoad(new Object(), (Object) 1L, new Object[0], new String[0], null);
+    collector.preFlush(Collections.emptyIterator());
+
+    assertEquals(2, statistics.statements());
+    assertEquals(1, statistics.entityLoads());
+    assertEquals(1, statistics.flushes());
+  }
+
+  @Test
+  void countsAreReturnedAsHeadersWhenEnabled() {
+    collector.inspect("select 1");
+
+    report(new SqlStatementBudget(statistics, 20, true));
+
+    assertEquals(1, headers.getFirst(SqlStatementBudget.STATEMENTS_HEADER));
+    assertEquals(0, headers.getFirst(SqlStatementBudget.ENTITY_LOADS_HEADER));
+    assertEquals(0, headers.getFirst(SqlStatementBudget.FLUSHES_HEADER));
+  }
+
+  @Test
+  void headersStayOffByDefault() {
+    for (int i = 0; i < 30; i++) {
+      collector.inspect("select " + i);
+    }
+
+    report(new SqlStatementBudget(statistics, 20, false));
+
+    assertTrue(headers.isEmpty());
+  }
+}
@@ -0,0 +1,140 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TracerProvider;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TracingTest {
+
+  private final List<SpanData> spans = new ArrayList<>();
+  private final UseCaseMetrics metrics = new UseCaseMetrics(new SimpleMeterRegistry());
+
+  @BeforeEach
+  void setUp() {
+    var exporter =
+        new SpanExporter() {
+          @Override
+          public CompletableResultCode export(Collection<SpanData> exported) {
+            spans.addAll(exported);
+            return CompletableResultCode.ofSuccess();
+          }
+
+          @Override
+          public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+          }
+
+          @Override
+          public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+          }
+        };
+    var provider =
+        SdkTracerProvider.builder().addSpanProcessor(SimpleSpanProcessor.create(exporter)).build();
+    new Tracing(provider.get("test"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    new Tracing(TracerProvider.noop().get("test"));
+  }
+
+  @Test
+  void statementsAreSpansInsideTheUseCase() {
+    metrics.run(
+        "assign-fulfilment",
+        () -> {
+          SlowQueryLog.prepared("select count(*) from warehouse where location in (?, ?, ?, ?)");
+          var listener = new SlowQueryListener(new SlowQueryLog(500, 0));
+          listener.jdbcExecuteStatementStart();
+          listener.jdbcExecuteStatementEnd();
+        });
+
+    assertEquals(2, spans.size());
+    SpanData statement = spans.get(0);
+    SpanData useCase = spans.get(1);
+    assertEquals("SELECT", statement.getName());
+    assertEquals(SpanKind.CLIENT, statement.getKind());
+    assertEquals(
+        "select count(*) from warehouse where location in (?... x4)",
+        statement.getAttributes().get(AttributeKey.stringKey("db.statement")));
+    assertEquals(useCase.getSpanId(), statement.getParentSpanId());
+    assertEquals("assign-fulfilment", useCase.getName());
+    assertEquals("success", useCase.getAttributes().get(AttributeKey.stringKey("usecase.outcome")));
+  }
+
+  @Test
+  void statementsOutsideATraceStartNoSpan() {
+    var listener = new SlowQueryListener(new SlowQueryLog(500, 0));
+    listener.jdbcExecuteBatchStart();
+    listener.jdbcExecuteBatchEnd();
+
+    assertTrue(spans.isEmpty());
+  }
+
+  @Test
+  void onlyFailuresMarkTheUseCaseSpanAsAnError() {
+    assertThrows(
+        BusinessRuleException.class,
+        () ->
+            metrics.run(
+                "create-warehouse",
+                () -> {
+                  throw new BusinessRuleException("payload", "Invalid.", 400);
+                }));
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            metrics.run(
+                "archive-warehouse",
+                () -> {
+                  throw new IllegalStateException("boom");
+                }));
+
+    assertEquals(StatusCode.UNSET, spans.get(0).getStatus().getStatusCode());
+    assertEquals(
+        "rejected", spans.get(0).getAttributes().get(AttributeKey.stringKey("usecase.outcome")));
+    assertEquals(StatusCode.ERROR, spans.get(1).getStatus().getStatusCode());
+  }
+
+  @Test
+  void runContinuesTheGivenContext() {
+    metrics.run(
+        "create-store",
+        () -> {
+          Context request = Context.current();
+          Tracing.run("legacy-store-sync", Context.root(), () -> {});
+          Tracing.run("legacy-store-sync", request, () -> {});
+        });
+
+    assertEquals(3, spans.size());
+    assertFalse(spans.get(0).getParentSpanContext().isValid());
+    assertEquals(spans.get(2).getSpanId(), spans.get(1).getParentSpanId());
+  }
+
+  @Test
+  void operationIsTheLeadingKeyword() {
+    assertEquals("INSERT", SlowQueryListener.operation("  insert into store values (?)"));
+    assertEquals("SQL", SlowQueryListener.operation(null));
+    assertEquals("SQL", SlowQueryListener.operation("(select 1)"));
+  }
+}
@@ -0,0 +1,80 @@
+package com.fulfilment.application.monolith.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.Test;
+
+class UseCaseMetricsTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final UseCaseMetrics metrics = new UseCaseMetrics(meterRegistry);
+
+  private long timed(String outcome) {
+    return meterRegistry
+        .timer(UseCaseMetrics.DURATION, "usecase", "test", "outcome", outcome)
+        .count();
+  }
+
+  private double rejections(String rule) {
+    return meterRegistry
+        .counter(UseCaseMetrics.REJECTIONS, "usecase", "test", "rule", rule)
+        .count();
+  }
+
+  @Test
+  void timesSuccessfulRuns() {
+    metrics.run("test", () -> {});
+
+    assertEquals(1, timed("success"));
+  }
+
+  @Test
+  void countsRejectionsPerRule() {
+    assertThrows(
+        BusinessRuleException.class,
+        () ->
+            metrics.run(
+                "test",
+                () -> {
+                  throw new BusinessRuleException("limit", "Too many.", 400);
+                }));
+
+    assertEquals(1, timed("rejected"));
+    assertEquals(1.0, rejections("limit"));
+  }
+
+  @Test
+  void otherFailuresAreNotRejections() {
+    assertThrows(
+        WebApplicationException.class,
+        () ->
+            metrics.run(
+                "test",
+                () -> {
+                  throw new WebApplicationException("Broken.", 500);
+                }));
+
+    assertEquals(1, timed("failure"));
+    assertEquals(0, meterRegistry.find(UseCaseMetrics.REJECTIONS).counters().size());
+  }
+
+  @Test
+  void timesUnisFromSubscriptionToOutcome() {
+    Uni<String> rejected =
+        metrics.observe(
+            "test",
+            () -> Uni.createFrom().failure(new BusinessRuleException("limit", "Too many.", 400)));
+    Uni<String> succeeded = metrics.observe("test", () -> Uni.createFrom().item("done"));
+
+    assertEquals(0, timed("success") + timed("rejected"));
+    assertEquals("done", succeeded.await().indefinitely());
+    assertThrows(BusinessRuleException.class, () -> rejected.await().indefinitely());
+    assertEquals(1, timed("success"));
+    assertEquals(1, timed("rejected"));
+    assertEquals(1.0, rejections("limit"));
+  }
+}
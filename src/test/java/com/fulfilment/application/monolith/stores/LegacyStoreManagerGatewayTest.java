@@ -1,26 +1,65 @@
 package com.fulfilment.application.monolith.stores;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 class LegacyStoreManagerGatewayTest {
 
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
   @Test
   void createStoreOnLegacySystemDoesNotThrow() {
-    var gateway = new LegacyStoreManagerGateway();
+    var gateway = new LegacyStoreManagerGateway(meterRegistry);
     var store = new Store("abc-store");
     store.quantityProductsInStock = 10;
 
     assertDoesNotThrow(() -> gateway.createStoreOnLegacySystem(store));
+    assertEquals(
+        1,
+        meterRegistry
+            .timer("legacy_sync.duration", "operation", "create", "outcome", "success")
+            .count());
   }
 
   @Test
   void updateStoreOnLegacySystemDoesNotThrow() {
-    var gateway = new LegacyStoreManagerGateway();
+    var gateway = new LegacyStoreManagerGateway(meterRegistry);
     var store = new Store("def-store");
     store.quantityProductsInStock = 20;
 
     assertDoesNotThrow(() -> gateway.updateStoreOnLegacySystem(store));
   }
+
+  @Test
+  void createStoresOnLegacySystemDoesNotThrow() {
+    var gateway = new LegacyStoreManagerGateway(meterRegistry);
+
+    assertDoesNotThrow(
+        () -> gateway.createStoresOnLegacySystem(List.of(new Store("a"), new Store("b"))));
+    assertDoesNotThrow(() -> gateway.createStoresOnLegacySystem(List.of()));
+  }
+
+  @Test
+  void failedSyncIsCountedInsteadOfThrown() {
+    var gateway =
+        new LegacyStoreManagerGateway(meterRegistry) {
+          @Override
+          void writeToFile(String prefix, String content) throws IOException {
+            throw new IOException("legacy system unavailable");
+          }
+        };
+
+    assertDoesNotThrow(() -> gateway.updateStoreOnLegacySystem(new Store("ghi-store")));
+    assertEquals(1.0, meterRegistry.counter("legacy_sync.failures", "operation", "update").count());
+    assertEquals(
+        1,
+        meterRegistry
+            .timer("legacy_sync.duration", "operation", "update", "outcome", "failure")
+            .count());
+  }
 }
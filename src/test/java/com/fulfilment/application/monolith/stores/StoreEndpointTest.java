@@ -0,0 +1,39 @@
+package com.fulfilment.application.monolith.stores;
+
+import static io.restassured.RestAssured.given;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class StoreEndpointTest {
+
+  @Test
+  public void testUpdateWithTheETagOfTheGet() {
+    final String path = "store/3";
+
+    String etag = given().when().get(path).then().statusCode(200).extract().header("ETag");
+
+    given().header("If-None-Match", etag).when().get(path).then().statusCode(304);
+
+    given()
+        .contentType(ContentType.JSON)
+        .header("If-Match", etag)
+        .body("{\"name\": \"BESTÅ\", \"quantityProductsInStock\": 4}")
+        .when()
+        .put(path)
+        .then()
+        .statusCode(200);
+
+    // the tag of the first GET is stale now:
+    given()
+        .contentType(ContentType.JSON)
+        .header("If-Match", etag)
+        .body("{\"name\": \"BESTÅ\", \"quantityProductsInStock\": 5}")
+        .when()
+        .patch(path)
+        .then()
+        .statusCode(412);
+  }
+}
@@ -0,0 +1,41 @@
+package com.fulfilment.application.monolith.stores;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fulfilment.application.monolith.shared.ImportRecord;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class StoreImporterTest {
+
+  private static ImportRecord record(String name, String quantity) {
+    Map<String, String> fields = new HashMap<>();
+    fields.put("name", name);
+    fields.put("quantityProductsInStock", quantity);
+    return ImportRecord.of(2, fields);
+  }
+
+  @Test
+  void toStoreMapsFields() {
+    Store store = StoreImporter.toStore(record("TONSTAD", " 10 "));
+
+    assertEquals("TONSTAD", store.name);
+    assertEquals(10, store.quantityProductsInStock);
+  }
+
+  @Test
+  void toStoreDefaultsMissingQuantityToZero() {
+    assertEquals(0, StoreImporter.toStore(record("TONSTAD", "")).quantityProductsInStock);
+  }
+
+  @Test
+  void toStoreRejectsInvalidRows() {
+    assertThrows(IllegalArgumentException.class, () -> StoreImporter.toStore(record(" ", "1")));
+    assertThrows(
+        IllegalArgumentException.class, () -> StoreImporter.toStore(record("x".repeat(41), "1")));
+    assertThrows(IllegalArgumentException.class, () -> StoreImporter.toStore(record("A", "ten")));
+    assertThrows(IllegalArgumentException.class, () -> StoreImporter.toStore(record("A", "-1")));
+  }
+}
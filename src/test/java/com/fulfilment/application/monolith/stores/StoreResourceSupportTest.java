@@ -5,11 +5,14 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.fulfilment.application.monolith.shared.PinningGuard;
+import com.fulfilment.application.monolith.shared.StockAdjustment;
 import jakarta.transaction.Status;
 import jakarta.transaction.Synchronization;
 import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.ws.rs.WebApplicationException;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import org.junit.jupiter.api.Test;
 
 class StoreResourceSupportTest {
@@ -31,7 +34,7 @@ class StoreResourceSupportTest {
     var store = new Store("S");
     store.name = null;
 
-    var ex = assertThrows(WebApplicationException.class, () -> resource.update(1L, store));
+    var ex = assertThrows(WebApplicationException.class, () -> resource.update(1L, store, null));
 
     assertEquals(422, ex.getResponse().getStatus());
   }
@@ -42,7 +45,53 @@ class StoreResourceSupportTest {
     var store = new Store("S");
     store.name = null;
 
-    var ex = assertThrows(WebApplicationException.class, () -> resource.patch(1L, store));
+    var ex = assertThrows(WebApplicationException.class, () -> resource.patch(1L, store, null));
+
+    assertEquals(422, ex.getResponse().getStatus());
+  }
+
+  @Test
+  void getThrows422WhenLimitOutOfRange() {
+    var resource = new StoreResource();
+
+    var tooSmall =
+        assertThrows(
+            WebApplicationException.class, () -> resource.get(null, null, null, 0, null, null));
+    var tooLarge =
+        assertThrows(
+            WebApplicationException.class,
+            () -> resource.get(null, "KAL", null, StoreResource.MAX_PAGE_SIZE + 1, null, null));
+
+    assertEquals(422, tooSmall.getResponse().getStatus());
+    assertEquals(422, tooLarge.getResponse().getStatus());
+  }
+
+  @Test
+  void adjustStockThrows422WhenDeltaMissing() {
+    var resource = new StoreResource();
+
+    var ex =
+        assertThrows(
+            WebApplicationException.class, () -> resource.adjustStock(1L, new StockAdjustment()));
+
+    assertEquals(422, ex.getResponse().getStatus());
+  }
+
+  @Test
+  void adjustStocksThrows422WhenPayloadMissing() {
+    var resource = new StoreResource();
+
+    var ex = assertThrows(WebApplicationException.class, () -> resource.adjustStocks(null));
+
+    assertEquals(422, ex.getResponse().getStatus());
+  }
+
+  @Test
+  void adjustStocksThrows422WhenAnyAdjustmentIsIncomplete() {
+    var resource = new StoreResource();
+    var adjustments = Arrays.asList(new StockAdjustment(1L, 2), null);
+
+    var ex = assertThrows(WebApplicationException.class, () -> resource.adjustStocks(adjustments));
 
     assertEquals(422, ex.getResponse().getStatus());
   }
@@ -52,6 +101,7 @@ class StoreResourceSupportTest {
     var resource = new StoreResource();
     var txRegistry = new StubTransactionSynchronizationRegistry();
     resource.transactionSynchronizationRegistry = txRegistry;
+    resource.pinningGuard = new PinningGuard(Runnable::run);
 
     boolean[] ran = {false};
 
@@ -0,0 +1,232 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.mutiny.sqlclient.SqlClient;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowIterator;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReactiveWarehouseRepositoryTest {
+
+  private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+  private RecordingClient client;
+  private ReactiveWarehouseRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    client = new RecordingClient();
+    repository =
+        new ReactiveWarehouseRepository(
+            null,
+            new SqlClient(client.proxy()),
+            new ReactiveWarehouseRepository.IdBlock(ReactiveWarehouseRepository.ALLOCATION_SIZE));
+  }
+
+  @Test
+  void getAllMapsActiveWarehouses() {
+    client.respond(row("MWH.1", "ZWOLLE-001", 10, 3, CREATED_AT, null));
+
+    var warehouses = repository.getAll().await().indefinitely();
+
+    assertEquals(1, warehouses.size());
+    var warehouse = warehouses.get(0);
+    assertEquals("MWH.1", warehouse.businessUnitCode);
+    assertEquals("ZWOLLE-001", warehouse.location);
+    assertEquals(10, warehouse.capacity);
+    assertEquals(3, warehouse.stock);
+    assertEquals(CREATED_AT, warehouse.createdAt);
+    assertNull(warehouse.archivedAt);
+    assertTrue(client.sql.get(0).endsWith("where archivedAt is null order by id"));
+  }
+
+  @Test
+  void findByBusinessUnitCodeReturnsNullWhenNothingMatches() {
+    client.respond();
+
+    assertNull(repository.findByBusinessUnitCode("MWH.404").await().indefinitely());
+    assertEquals(List.of("MWH.404"), client.parameters.get(0));
+  }
+
+  @Test
+  void createInsertsWithSequenceIdAndCreationTime() {
+    client.respond(row(54L));
+    client.respond();
+    var warehouse = new Warehouse();
+    warehouse.businessUnitCode = "MWH.2";
+    warehouse.location = "AMSTERDAM-001";
+    warehouse.capacity = 20;
+    warehouse.stock = 5;
+
+    repository.create(warehouse).await().indefinitely();
+
+    assertEquals("select nextval('warehouse_seq')", client.sql.get(0));
+    var parameters = client.parameters.get(1);
+    assertEquals(List.of("MWH.2", "AMSTERDAM-001", 20, 5), parameters.subList(0, 4));
+    assertTrue(parameters.get(4) instanceof LocalDateTime);
+    assertNull(parameters.get(5));
+    assertEquals(54L, parameters.get(6));
+  }
+
+  @Test
+  void createTakesItsIdsFromTheFetchedBlockLikeThePooledLoOptimizer() {
+    client.respond(row(54L));
+    repository.create(new Warehouse()).await().indefinitely();
+    for (int i = 1; i < ReactiveWarehouseRepository.ALLOCATION_SIZE; i++) {
+      repository.create(new Warehouse()).await().indefinitely();
+    }
+    client.respond(row(204L));
+    repository.create(new Warehouse()).await().indefinitely();
+
+    // 54..103 from one nextval, then the next block starts at the value fetched
+    assertEquals(2, client.sql.stream().filter(sql -> sql.contains("nextval")).count());
+    assertEquals(103L, client.parameters.get(client.parameters.size() - 3).get(6));
+    assertEquals(204L, client.parameters.get(client.parameters.size() - 1).get(6));
+  }
+
+  @Test
+  void aBlockFetchedConcurrentlyDoesNotReplaceOneInUse() {
+    var ids = new ReactiveWarehouseRepository.IdBlock(50);
+
+    assertNull(ids.next());
+    assertEquals(4L, ids.refill(4));
+    assertEquals(54L, ids.refill(54));
+    assertEquals(5L, ids.next());
+  }
+
+  @Test
+  void findActiveByBusinessUnitCodesBindsCodesAsArray() {
+    client.respond(row("MWH.1", "ZWOLLE-001", 10, 3, CREATED_AT, null));
+
+    var warehouses =
+        repository.findActiveByBusinessUnitCodes(List.of("MWH.1", "MWH.2")).await().indefinitely();
+
+    assertEquals(1, warehouses.size());
+    assertTrue(client.sql.get(0).contains("businessUnitCode = any($1)"));
+    assertArrayEquals(new String[] {"MWH.1", "MWH.2"}, (String[]) client.parameters.get(0).get(0));
+  }
+
+  @Test
+  void findActiveByIdOrBusinessUnitCodeLooksUpANumberAsCodeOrIdInOneStatement() {
+    client.respond(row("MWH.1", "ZWOLLE-001", 10, 3, CREATED_AT, null));
+
+    var warehouse = repository.findActiveByIdOrBusinessUnitCode("42").await().indefinitely();
+
+    assertEquals("MWH.1", warehouse.businessUnitCode);
+    assertEquals(1, client.sql.size());
+    assertTrue(client.sql.get(0).contains("(businessUnitCode = $1 or id = $2)"));
+    assertEquals(List.of("42", 42L), client.parameters.get(0));
+  }
+
+  @Test
+  void findActiveByIdOrBusinessUnitCodeSkipsIdLookupForCodes() {
+    client.respond();
+
+    assertNull(repository.findActiveByIdOrBusinessUnitCode("MWH.404").await().indefinitely());
+    assertEquals(1, client.sql.size());
+  }
+
+  private static Row row(Object... values) {
+    return stub(
+        Row.class,
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getString":
+            case "getInteger":
+            case "getLong":
+            case "getLocalDateTime":
+              return values[(Integer) args[0]];
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
+  // a raw class stubs a parameterized type, e.g. RowSet.class for a RowSet<Row>
+  @SuppressWarnings("unchecked")
+  private static <T> T stub(Class<? super T> type, InvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+  }
+
+  /** Records every statement with its parameters and answers with the queued rows. */
+  private static final class RecordingClient {
+    private final List<String> sql = new ArrayList<>();
+    private final List<List<Object>> parameters = new ArrayList<>();
+    private final Deque<List<Row>> responses = new ArrayDeque<>();
+
+    void respond(Row... rows) {
+      responses.add(List.of(rows));
+    }
+
+    @SuppressWarnings("unchecked")
+    io.vertx.sqlclient.SqlClient proxy() {
+      return stub(
+          io.vertx.sqlclient.SqlClient.class,
+          (proxy, method, args) -> {
+            if (!method.getName().equals("preparedQuery")) {
+              throw new UnsupportedOperationException(method.getName());
+            }
+            String statement = (String) args[0];
+            return stub(
+                PreparedQuery.class,
+                (query, queryMethod, queryArgs) -> {
+                  if (!queryMethod.getName().equals("execute") || queryArgs.length != 2) {
+                    throw new UnsupportedOperationException(queryMethod.getName());
+                  }
+                  execute(statement, (Tuple) queryArgs[0], (Handler<Object>) queryArgs[1]);
+                  return null;
+                });
+          });
+    }
+
+    private void execute(String statement, Tuple tuple, Handler<Object> handler) {
+      sql.add(statement);
+      List<Object> values = new ArrayList<>();
+      for (int i = 0; i < tuple.size(); i++) {
+        values.add(tuple.getValue(i));
+      }
+      parameters.add(values);
+
+      List<Row> rows = responses.isEmpty() ? List.of() : responses.poll();
+      RowSet<Row> rowSet =
+          stub(
+              RowSet.class,
+              (proxy, method, args) -> {
+                switch (method.getName()) {
+                  case "size":
+                    return rows.size();
+                  case "iterator":
+                    Iterator<Row> iterator = rows.iterator();
+                    return stub(
+                        RowIterator.class,
+                        (it, itMethod, itArgs) ->
+                            itMethod.getName().equals("hasNext")
+                                ? iterator.hasNext()
+                                : iterator.next());
+                  default:
+                    throw new UnsupportedOperationException(method.getName());
+                }
+              });
+      handler.handle(Future.succeededFuture(rowSet));
+    }
+  }
+}
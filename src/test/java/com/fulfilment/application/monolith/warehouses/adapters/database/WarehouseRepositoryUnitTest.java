@@ -3,9 +3,12 @@ package com.fulfilment.application.monolith.warehouses.adapters.database;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 import java.lang.reflect.Proxy;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -157,10 +160,9 @@ class WarehouseRepositoryUnitTest {
   }
 
   @Test
-  void findActiveByIdOrBusinessUnitCodeReturnsByIdWhenCodeMissing() {
+  void findActiveByIdOrBusinessUnitCodeLooksUpANumberAsCodeOrIdInOneQuery() {
     var byId = dbWarehouse("MWH.7", "AMSTERDAM-001", 12, 4);
-    repository.register("businessUnitCode = ?1 and archivedAt is null", List.of(), null);
-    repository.register("id = ?1 and archivedAt is null", List.of(byId), byId);
+    repository.register(WarehouseRepository.BY_CODE_OR_ID, List.of(byId), byId);
 
     var result = repository.findActiveByIdOrBusinessUnitCode("99");
 
@@ -176,6 +178,38 @@ class WarehouseRepositoryUnitTest {
     assertNull(result);
   }
 
+  @Test
+  void projectedLookupsSelectTheRequestedView() {
+    var db = dbWarehouse("MWH.8", "ZWOLLE-001", 10, 2);
+    repository.resultList = List.of(db);
+    repository.register(WarehouseRepository.BY_CODE_OR_ID, List.of(db), db);
+
+    assertSame(db, repository.listActive(DbWarehouse.class).get(0));
+    assertEquals(
+        "select new "
+            + DbWarehouse.class.getName()
+            + "(w.businessUnitCode, w.location, w.capacity, w.stock) from DbWarehouse w"
+            + " where w.archivedAt is null",
+        repository.lastQuery);
+    assertSame(db, repository.findActiveByIdOrBusinessUnitCode("8", DbWarehouse.class));
+    assertNull(repository.findActiveByIdOrBusinessUnitCode("MWH.9", DbWarehouse.class));
+    assertEquals(2, repository.projections.size());
+  }
+
+  @Test
+  void findActiveByBusinessUnitCodesBindsTheCodes() {
+    var db = dbWarehouse("MWH.8", "ZWOLLE-001", 10, 2);
+    repository.resultList = List.of(db);
+
+    var result = repository.findActiveByBusinessUnitCodes(List.of("MWH.8"), DbWarehouse.class);
+
+    assertSame(db, result.get(0));
+    assertTrue(
+        repository.lastQuery.endsWith(
+            " where w.businessUnitCode in :codes and w.archivedAt is null"));
+    assertEquals(List.of("MWH.8"), repository.parameters.get("codes"));
+  }
+
   private static DbWarehouse dbWarehouse(String code, String location, int capacity, int stock) {
     var db = new DbWarehouse();
     db.businessUnitCode = code;
@@ -189,8 +223,12 @@ class WarehouseRepositoryUnitTest {
     private final Map<String, PanacheQuery<DbWarehouse>> queries = new HashMap<>();
     private final List<DbWarehouse> persisted = new ArrayList<>();
     private final List<DbWarehouse> updated = new ArrayList<>();
+    private final List<Class<?>> projections = new ArrayList<>();
     private String lastDeleteQuery;
     private Object lastDeleteParam;
+    private List<?> resultList = List.of();
+    private String lastQuery;
+    private final Map<String, Object> parameters = new HashMap<>();
 
     void register(String query, List<DbWarehouse> list, DbWarehouse first) {
       queries.put(query, panacheQuery(list, first));
@@ -201,6 +239,34 @@ class WarehouseRepositoryUnitTest {
       return queries.getOrDefault(query, panacheQuery(List.of(), null));
     }
 
+    @Override
+    public EntityManager getEntityManager() {
+      TypedQuery<?> typedQuery =
+          (TypedQuery<?>)
+              Proxy.newProxyInstance(
+                  TypedQuery.class.getClassLoader(),
+                  new Class<?>[] {TypedQuery.class},
+                  (proxy, method, args) -> {
+                    if ("setParameter".equals(method.getName())) {
+                      parameters.put((String) args[0], args[1]);
+                      return proxy;
+                    }
+                    return "getResultList".equals(method.getName()) ? resultList : null;
+                  });
+
+      return (EntityManager)
+          Proxy.newProxyInstance(
+              EntityManager.class.getClassLoader(),
+              new Class<?>[] {EntityManager.class},
+              (proxy, method, args) -> {
+                if ("createQuery".equals(method.getName())) {
+                  lastQuery = (String) args[0];
+                  return typedQuery;
+                }
+                return null;
+              });
+    }
+
     @Override
     public void persist(DbWarehouse entity) {
       persisted.add(entity);
@@ -222,6 +288,10 @@ class WarehouseRepositoryUnitTest {
                 return switch (method.getName()) {
                   case "list" -> list;
                   case "firstResult" -> first;
+                  case "project" -> {
+                    projections.add((Class<?>) args[0]);
+                    yield proxy;
+                  }
                   default -> null;
                 };
               });
@@ -0,0 +1,44 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import com.fulfilment.application.monolith.shared.SqlStatementBudget;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+/** The test profile returns the SQL counts of every request as headers, see SqlStatementBudget. */
+@QuarkusTest
+public class WarehouseEndpointSqlBudgetTest {
+
+  @Test
+  public void getWarehouseCostsAtMostOneStatement() {
+    given()
+        .when()
+        .get("warehouse/MWH.012")
+        .then()
+        .statusCode(200)
+        .header(SqlStatementBudget.STATEMENTS_HEADER, Integer::parseInt, lessThanOrEqualTo(1));
+  }
+
+  @Test
+  public void getWarehouseByIdCostsAtMostOneStatement() {
+    given()
+        .when()
+        .get("warehouse/1")
+        .then()
+        .statusCode(200)
+        .header(SqlStatementBudget.STATEMENTS_HEADER, Integer::parseInt, lessThanOrEqualTo(1));
+  }
+
+  @Test
+  public void listWarehousesCostsAtMostOneStatementWhateverTheirNumber() {
+    given()
+        .when()
+        .get("warehouse")
+        .then()
+        .statusCode(200)
+        .header(SqlStatementBudget.STATEMENTS_HEADER, Integer::parseInt, lessThanOrEqualTo(1))
+        .header(SqlStatementBudget.FLUSHES_HEADER, "0");
+  }
+}
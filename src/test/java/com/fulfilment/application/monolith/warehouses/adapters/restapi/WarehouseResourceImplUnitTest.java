@@ -4,14 +4,20 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.fulfilment.application.monolith.shared.ChangeFeed;
+import com.fulfilment.application.monolith.shared.ChangeTracker;
+import com.fulfilment.application.monolith.shared.HttpCaching;
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
+import com.warehouse.api.beans.WarehouseMultiGet;
+import io.smallrye.config.SmallRyeConfigBuilder;
 import jakarta.ws.rs.WebApplicationException;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,6 +42,8 @@ class WarehouseResourceImplUnitTest {
     inject(resource, "createWarehouseOperation", createOperation);
     inject(resource, "replaceWarehouseOperation", replaceOperation);
     inject(resource, "archiveWarehouseOperation", archiveOperation);
+    inject(resource, "changeTracker", new CommittingChangeTracker());
+    inject(resource, "httpCaching", new HttpCaching(new SmallRyeConfigBuilder().build()));
   }
 
   @Test
@@ -47,7 +55,10 @@ class WarehouseResourceImplUnitTest {
     warehouse.stock = 4;
     repository.all.add(warehouse);
 
-    var result = resource.listAllWarehousesUnits();
+    @SuppressWarnings("unchecked")
+    var result =
+        (List<com.warehouse.api.beans.Warehouse>)
+            resource.listAllWarehousesUnits(null, null).getEntity();
 
     assertEquals(1, result.size());
     assertEquals("MWH.100", result.get(0).getBusinessUnitCode());
@@ -56,6 +67,56 @@ class WarehouseResourceImplUnitTest {
     assertEquals(4, result.get(0).getStock());
   }
 
+  @Test
+  void listAllWarehousesUnitsResolvesBusinessUnitCodesAndReportsMissing() {
+    var warehouse = new Warehouse();
+    warehouse.businessUnitCode = "MWH.100";
+    repository.all.add(warehouse);
+
+    var result =
+        (WarehouseMultiGet)
+            resource
+                .listAllWarehousesUnits(List.of("MWH.999,MWH.100", "MWH.100"), null)
+                .getEntity();
+
+    assertEquals(List.of("MWH.999", "MWH.100"), repository.requestedCodes);
+    assertEquals(1, result.getItems().size());
+    assertEquals("MWH.100", result.getItems().get(0).getBusinessUnitCode());
+    assertEquals(List.of("MWH.999"), result.getMissing());
+  }
+
+  @Test
+  void listAllWarehousesUnitsAnswers304UntilAWarehouseChanges() {
+    var payload = new com.warehouse.api.beans.Warehouse();
+    payload.setBusinessUnitCode("MWH.100");
+    var etag =
+        "\"" + resource.listAllWarehousesUnits(null, null).getEntityTag().getValue() + "\"";
+
+    assertEquals(304, resource.listAllWarehousesUnits(null, etag).getStatus());
+
+    resource.createANewWarehouseUnit(payload);
+
+    assertEquals(200, resource.listAllWarehousesUnits(null, etag).getStatus());
+  }
+
+  @Test
+  void getAWarehouseUnitByIDAnswers304UntilThatUnitChanges() {
+    var found = new Warehouse();
+    found.businessUnitCode = "MWH.200";
+    repository.activeByIdOrCode = found;
+    var etag =
+        "\"" + resource.getAWarehouseUnitByID("MWH.200", null).getEntityTag().getValue() + "\"";
+    var other = new com.warehouse.api.beans.Warehouse();
+    other.setBusinessUnitCode("MWH.300");
+
+    resource.createANewWarehouseUnit(other);
+    assertEquals(304, resource.getAWarehouseUnitByID("MWH.200", etag).getStatus());
+
+    repository.byBusinessCode = found;
+    resource.replaceTheCurrentActiveWarehouse("MWH.200", new com.warehouse.api.beans.Warehouse());
+    assertEquals(200, resource.getAWarehouseUnitByID("MWH.200", etag).getStatus());
+  }
+
   @Test
   void createANewWarehouseUnitThrows400WhenPayloadIsNull() {
     var ex = assertThrows(WebApplicationException.class, () -> resource.createANewWarehouseUnit(null));
@@ -84,7 +145,9 @@ class WarehouseResourceImplUnitTest {
 
   @Test
   void getAWarehouseUnitByIDThrows404WhenMissing() {
-    var ex = assertThrows(WebApplicationException.class, () -> resource.getAWarehouseUnitByID("x"));
+    var ex =
+        assertThrows(
+            WebApplicationException.class, () -> resource.getAWarehouseUnitByID("x", null));
 
     assertEquals(404, ex.getResponse().getStatus());
   }
@@ -98,7 +161,9 @@ class WarehouseResourceImplUnitTest {
     found.stock = 8;
     repository.activeByIdOrCode = found;
 
-    var result = resource.getAWarehouseUnitByID("MWH.200");
+    var result =
+        (com.warehouse.api.beans.Warehouse)
+            resource.getAWarehouseUnitByID("MWH.200", null).getEntity();
 
     assertEquals("MWH.200", result.getBusinessUnitCode());
     assertEquals("AMSTERDAM-001", result.getLocation());
@@ -167,6 +232,7 @@ class WarehouseResourceImplUnitTest {
   private static class FakeWarehouseRepository extends WarehouseRepository {
     private final List<Warehouse> all = new ArrayList<>();
     private Warehouse activeByIdOrCode;
+    private List<String> requestedCodes;
     private Warehouse byBusinessCode;
 
     @Override
@@ -174,15 +240,39 @@ class WarehouseResourceImplUnitTest {
       return all;
     }
 
+    @Override
+    public <T> List<T> listActive(Class<T> view) {
+      return all.stream().map(w -> view.cast(project(w))).toList();
+    }
+
+    @Override
+    public <T> List<T> findActiveByBusinessUnitCodes(Collection<String> buCodes, Class<T> view) {
+      requestedCodes = new ArrayList<>(buCodes);
+      return all.stream()
+          .filter(w -> buCodes.contains(w.businessUnitCode))
+          .map(w -> view.cast(project(w)))
+          .toList();
+    }
+
     @Override
     public Warehouse findActiveByIdOrBusinessUnitCode(String idOrCode) {
       return activeByIdOrCode;
     }
 
+    @Override
+    public <T> T findActiveByIdOrBusinessUnitCode(String idOrCode, Class<T> view) {
+      return activeByIdOrCode == null ? null : view.cast(project(activeByIdOrCode));
+    }
+
     @Override
     public Warehouse findByBusinessUnitCode(String buCode) {
       return byBusinessCode;
     }
+
+    private static WarehouseResponse project(Warehouse warehouse) {
+      return new WarehouseResponse(
+          warehouse.businessUnitCode, warehouse.location, warehouse.capacity, warehouse.stock);
+    }
   }
 
   private static class CapturingCreate implements CreateWarehouseOperation {
@@ -211,4 +301,16 @@ class WarehouseResourceImplUnitTest {
       this.captured = warehouse;
     }
   }
+
+  // no transaction in these tests, so changes count as committed straight away
+  private static class CommittingChangeTracker extends ChangeTracker {
+    CommittingChangeTracker() {
+      super(null, new ChangeFeed(100, 10, ChangeFeed.SlowConsumerPolicy.DISCONNECT));
+    }
+
+    @Override
+    public void changedAfterCommit(String collection, Object key) {
+      changed(collection, key);
+    }
+  }
 }
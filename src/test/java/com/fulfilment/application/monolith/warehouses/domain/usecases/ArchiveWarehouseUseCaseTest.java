@@ -4,8 +4,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.fulfilment.application.monolith.shared.UseCaseMetrics;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.ws.rs.WebApplicationException;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,10 +16,15 @@ import org.junit.jupiter.api.Test;
 
 class ArchiveWarehouseUseCaseTest {
 
+  ArchiveWarehouseOperation archiveOperation(WarehouseStore warehouseStore) {
+    return new ArchiveWarehouseUseCase(
+        warehouseStore, new UseCaseMetrics(new SimpleMeterRegistry()));
+  }
+
   @Test
   void archiveThrowsWhenWarehouseIsNull() {
     var store = new InMemoryWarehouseStore();
-    var useCase = new ArchiveWarehouseUseCase(store);
+    var useCase = archiveOperation(store);
 
     var exception = assertThrows(WebApplicationException.class, () -> useCase.archive(null));
 
@@ -27,7 +35,7 @@ class ArchiveWarehouseUseCaseTest {
   @Test
   void archiveThrowsWhenBusinessUnitCodeIsBlank() {
     var store = new InMemoryWarehouseStore();
-    var useCase = new ArchiveWarehouseUseCase(store);
+    var useCase = archiveOperation(store);
     var warehouse = new Warehouse();
     warehouse.businessUnitCode = "  ";
 
@@ -40,7 +48,7 @@ class ArchiveWarehouseUseCaseTest {
   @Test
   void archiveSetsArchivedAtAndDelegatesUpdate() {
     var store = new InMemoryWarehouseStore();
-    var useCase = new ArchiveWarehouseUseCase(store);
+    var useCase = archiveOperation(store);
     var warehouse = new Warehouse();
     warehouse.businessUnitCode = "MWH.100";
 
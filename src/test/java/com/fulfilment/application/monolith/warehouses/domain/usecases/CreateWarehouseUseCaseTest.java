@@ -5,10 +5,13 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.fulfilment.application.monolith.shared.UseCaseMetrics;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.ws.rs.WebApplicationException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -21,13 +24,19 @@ class CreateWarehouseUseCaseTest {
 
   private InMemoryWarehouseStore warehouseStore;
   private InMemoryLocationResolver locationResolver;
-  private CreateWarehouseUseCase useCase;
+  private CreateWarehouseOperation useCase;
 
   @BeforeEach
   void setUp() {
     warehouseStore = new InMemoryWarehouseStore();
     locationResolver = new InMemoryLocationResolver();
-    useCase = new CreateWarehouseUseCase(warehouseStore, locationResolver);
+    useCase = createOperation(warehouseStore, locationResolver);
+  }
+
+  CreateWarehouseOperation createOperation(
+      WarehouseStore warehouseStore, LocationResolver locationResolver) {
+    return new CreateWarehouseUseCase(
+        warehouseStore, locationResolver, new UseCaseMetrics(new SimpleMeterRegistry()));
   }
 
   @Test
@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.shared.UseCaseMetrics;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/** Runs the archive use case tests against the reactive use case. */
+class ReactiveArchiveWarehouseUseCaseTest extends ArchiveWarehouseUseCaseTest {
+
+  @Override
+  ArchiveWarehouseOperation archiveOperation(WarehouseStore warehouseStore) {
+    var useCase =
+        new ReactiveArchiveWarehouseUseCase(
+            ReactiveWarehouseStores.of(warehouseStore),
+            new UseCaseMetrics(new SimpleMeterRegistry()));
+    return warehouse -> useCase.archive(warehouse).await().indefinitely();
+  }
+}
@@ -0,0 +1,22 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.shared.UseCaseMetrics;
+import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/** Runs the create use case tests against the reactive use case. */
+class ReactiveCreateWarehouseUseCaseTest extends CreateWarehouseUseCaseTest {
+
+  @Override
+  CreateWarehouseOperation createOperation(
+      WarehouseStore warehouseStore, LocationResolver locationResolver) {
+    var useCase =
+        new ReactiveCreateWarehouseUseCase(
+            ReactiveWarehouseStores.of(warehouseStore),
+            locationResolver,
+            new UseCaseMetrics(new SimpleMeterRegistry()));
+    return warehouse -> useCase.create(warehouse).await().indefinitely();
+  }
+}
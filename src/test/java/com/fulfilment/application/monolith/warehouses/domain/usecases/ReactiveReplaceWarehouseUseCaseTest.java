@@ -0,0 +1,22 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.shared.UseCaseMetrics;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/** Runs the replace use case tests against the reactive use case. */
+class ReactiveReplaceWarehouseUseCaseTest extends ReplaceWarehouseUseCaseTest {
+
+  @Override
+  ReplaceWarehouseOperation replaceOperation(
+      WarehouseStore warehouseStore, LocationResolver locationResolver) {
+    var useCase =
+        new ReactiveReplaceWarehouseUseCase(
+            ReactiveWarehouseStores.of(warehouseStore),
+            locationResolver,
+            new UseCaseMetrics(new SimpleMeterRegistry()));
+    return warehouse -> useCase.replace(warehouse).await().indefinitely();
+  }
+}
@@ -0,0 +1,53 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.smallrye.mutiny.Uni;
+import java.util.List;
+import java.util.function.Function;
+
+/** Exposes the in-memory stores of the blocking use case tests to the reactive use cases. */
+final class ReactiveWarehouseStores {
+
+  private ReactiveWarehouseStores() {}
+
+  static ReactiveWarehouseStore of(WarehouseStore store) {
+    return new ReactiveWarehouseStore() {
+      @Override
+      public Uni<List<Warehouse>> getAll() {
+        return Uni.createFrom().item(store::getAll);
+      }
+
+      @Override
+      public Uni<List<Warehouse>> getByLocation(String location) {
+        return Uni.createFrom().item(() -> store.getByLocation(location));
+      }
+
+      @Override
+      public Uni<Void> create(Warehouse warehouse) {
+        return Uni.createFrom().voidItem().invoke(() -> store.create(warehouse));
+      }
+
+      @Override
+      public Uni<Void> update(Warehouse warehouse) {
+        return Uni.createFrom().voidItem().invoke(() -> store.update(warehouse));
+      }
+
+      @Override
+      public Uni<Void> remove(Warehouse warehouse) {
+        return Uni.createFrom().voidItem().invoke(() -> store.remove(warehouse));
+      }
+
+      @Override
+      public Uni<Warehouse> findByBusinessUnitCode(String buCode) {
+        return Uni.createFrom().item(() -> store.findByBusinessUnitCode(buCode));
+      }
+
+      @Override
+      public <T> Uni<T> inTransaction(Function<ReactiveWarehouseStore, Uni<T>> work) {
+        return work.apply(this);
+      }
+    };
+  }
+}
@@ -4,10 +4,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.fulfilment.application.monolith.shared.UseCaseMetrics;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.ws.rs.WebApplicationException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -20,13 +23,19 @@ class ReplaceWarehouseUseCaseTest {
 
   private InMemoryWarehouseStore warehouseStore;
   private InMemoryLocationResolver locationResolver;
-  private ReplaceWarehouseUseCase useCase;
+  private ReplaceWarehouseOperation useCase;
 
   @BeforeEach
   void setUp() {
     warehouseStore = new InMemoryWarehouseStore();
     locationResolver = new InMemoryLocationResolver();
-    useCase = new ReplaceWarehouseUseCase(warehouseStore, locationResolver);
+    useCase = replaceOperation(warehouseStore, locationResolver);
+  }
+
+  ReplaceWarehouseOperation replaceOperation(
+      WarehouseStore warehouseStore, LocationResolver locationResolver) {
+    return new ReplaceWarehouseUseCase(
+        warehouseStore, locationResolver, new UseCaseMetrics(new SimpleMeterRegistry()));
   }
 
   @Test
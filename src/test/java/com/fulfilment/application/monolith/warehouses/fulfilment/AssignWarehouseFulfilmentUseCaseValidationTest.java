@@ -3,6 +3,8 @@ package com.fulfilment.application.monolith.warehouses.fulfilment;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.fulfilment.application.monolith.shared.UseCaseMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.ws.rs.WebApplicationException;
 import org.junit.jupiter.api.Test;
 
@@ -10,7 +12,9 @@ class AssignWarehouseFulfilmentUseCaseValidationTest {
 
   @Test
   void assignThrows400WhenStoreIdMissing() {
-    var useCase = new AssignWarehouseFulfilmentUseCase(null, null, null);
+    var useCase =
+        new AssignWarehouseFulfilmentUseCase(
+            null, null, null, null, new UseCaseMetrics(new SimpleMeterRegistry()));
 
     var ex = assertThrows(WebApplicationException.class, () -> useCase.assign(null, 1L, "MWH.1"));
 
@@ -19,7 +23,9 @@ class AssignWarehouseFulfilmentUseCaseValidationTest {
 
   @Test
   void assignThrows400WhenProductIdMissing() {
-    var useCase = new AssignWarehouseFulfilmentUseCase(null, null, null);
+    var useCase =
+        new AssignWarehouseFulfilmentUseCase(
+            null, null, null, null, new UseCaseMetrics(new SimpleMeterRegistry()));
 
     var ex = assertThrows(WebApplicationException.class, () -> useCase.assign(1L, null, "MWH.1"));
 
@@ -28,7 +34,9 @@ class AssignWarehouseFulfilmentUseCaseValidationTest {
 
   @Test
   void assignThrows400WhenWarehouseCodeBlank() {
-    var useCase = new AssignWarehouseFulfilmentUseCase(null, null, null);
+    var useCase =
+        new AssignWarehouseFulfilmentUseCase(
+            null, null, null, null, new UseCaseMetrics(new SimpleMeterRegistry()));
 
     var ex = assertThrows(WebApplicationException.class, () -> useCase.assign(1L, 2L, " "));
 
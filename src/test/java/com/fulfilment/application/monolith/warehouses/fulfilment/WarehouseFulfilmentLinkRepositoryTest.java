@@ -65,21 +65,23 @@ class WarehouseFulfilmentLinkRepositoryTest {
   }
 
   @Test
-  void listAllLinksDelegatesToListAll() {
-    var link = new WarehouseFulfilmentLink();
-    repository.all = List.of(link);
+  void listAllRequestsSelectsTheResponseShape() {
+    var request = new WarehouseFulfilmentResource.WarehouseFulfilmentRequest(1L, 2L, "MWH.1");
+    repository.resultList = List.of(request);
 
-    var result = repository.listAllLinks();
+    var result = repository.listAllRequests();
 
     assertEquals(1, result.size());
-    assertSame(link, result.get(0));
+    assertSame(request, result.get(0));
+    assertTrue(repository.lastQuery.startsWith("select new " + request.getClass().getName()));
+    assertTrue(repository.lastQuery.endsWith("order by l.id"));
   }
 
   private static class StubRepository extends WarehouseFulfilmentLinkRepository {
     private final Map<String, Long> countByQuery = new HashMap<>();
     private Long queryResult = 0L;
     private String lastQuery;
-    private List<WarehouseFulfilmentLink> all = List.of();
+    private List<?> resultList = List.of();
 
     @Override
     public EntityManager getEntityManager() {
@@ -95,6 +97,9 @@ class WarehouseFulfilmentLinkRepositoryTest {
                     if ("getSingleResult".equals(method.getName())) {
                       return queryResult;
                     }
+                    if ("getResultList".equals(method.getName())) {
+                      return resultList;
+                    }
                     return null;
                   });
 
@@ -115,10 +120,5 @@ class WarehouseFulfilmentLinkRepositoryTest {
     public long count(String query, Object... params) {
       return countByQuery.getOrDefault(query, 0L);
     }
-
-    @Override
-    public List<WarehouseFulfilmentLink> listAll() {
-      return all;
-    }
   }
 }
@@ -4,6 +4,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.fulfilment.application.monolith.shared.ChangeFeed;
+import com.fulfilment.application.monolith.shared.ChangeTracker;
+import com.fulfilment.application.monolith.shared.HttpCaching;
+import io.smallrye.config.SmallRyeConfigBuilder;
 import jakarta.ws.rs.WebApplicationException;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,6 +26,9 @@ class WarehouseFulfilmentResourceTest {
     repository = new StubLinkRepository();
     resource.assignWarehouseFulfilmentOperation = assignOperation;
     resource.warehouseFulfilmentLinkRepository = repository;
+    resource.changeTracker =
+        new ChangeTracker(null, new ChangeFeed(100, 10, ChangeFeed.SlowConsumerPolicy.DISCONNECT));
+    resource.httpCaching = new HttpCaching(new SmallRyeConfigBuilder().build());
   }
 
   @Test
@@ -46,20 +53,16 @@ class WarehouseFulfilmentResourceTest {
   }
 
   @Test
-  void listMapsLinksToResponseObjects() {
-    var first = new WarehouseFulfilmentLink();
-    first.storeId = 1L;
-    first.productId = 10L;
-    first.warehouseBusinessUnitCode = "MWH.1";
+  void listReturnsProjectedLinks() {
+    repository.links =
+        List.of(
+            new WarehouseFulfilmentResource.WarehouseFulfilmentRequest(1L, 10L, "MWH.1"),
+            new WarehouseFulfilmentResource.WarehouseFulfilmentRequest(2L, 20L, "MWH.2"));
 
-    var second = new WarehouseFulfilmentLink();
-    second.storeId = 2L;
-    second.productId = 20L;
-    second.warehouseBusinessUnitCode = "MWH.2";
-
-    repository.links = List.of(first, second);
-
-    var list = resource.list();
+    @SuppressWarnings("unchecked")
+    var list =
+        (List<WarehouseFulfilmentResource.WarehouseFulfilmentRequest>)
+            resource.list(null).getEntity();
 
     assertEquals(2, list.size());
     assertEquals(1L, list.get(0).storeId);
@@ -68,6 +71,17 @@ class WarehouseFulfilmentResourceTest {
     assertEquals(2L, list.get(1).storeId);
   }
 
+  @Test
+  void listAnswers304UntilTheLinksChange() {
+    var etag = resource.list(null).getEntityTag();
+
+    assertEquals(304, resource.list("\"" + etag.getValue() + "\"").getStatus());
+
+    resource.changeTracker.changed(ChangeTracker.FULFILMENT_LINKS, 1L);
+
+    assertEquals(200, resource.list("\"" + etag.getValue() + "\"").getStatus());
+  }
+
   private static class CapturingAssignOperation implements AssignWarehouseFulfilmentOperation {
     private Long storeId;
     private Long productId;
@@ -82,10 +96,10 @@ class WarehouseFulfilmentResourceTest {
   }
 
   private static class StubLinkRepository extends WarehouseFulfilmentLinkRepository {
-    private List<WarehouseFulfilmentLink> links = List.of();
+    private List<WarehouseFulfilmentResource.WarehouseFulfilmentRequest> links = List.of();
 
     @Override
-    public List<WarehouseFulfilmentLink> listAllLinks() {
+    public List<WarehouseFulfilmentResource.WarehouseFulfilmentRequest> listAllRequests() {
       return links;
     }
   }